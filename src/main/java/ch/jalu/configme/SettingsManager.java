@@ -2,11 +2,15 @@ package ch.jalu.configme;
 
 import ch.jalu.configme.configurationdata.ConfigurationData;
 import ch.jalu.configme.configurationdata.ConfigurationDataBuilder;
+import ch.jalu.configme.exception.ConfigMeException;
 import ch.jalu.configme.migration.MigrationService;
 import ch.jalu.configme.migration.PlainMigrationService;
 import ch.jalu.configme.properties.OptionalProperty;
 import ch.jalu.configme.properties.Property;
 import ch.jalu.configme.resource.PropertyResource;
+import ch.jalu.configme.resource.SharedResourceRegistry;
+import ch.jalu.configme.resource.TenantBase;
+import ch.jalu.configme.resource.TenantPropertyResource;
 import ch.jalu.configme.resource.YamlFileResource;
 import ch.jalu.configme.utils.Utils;
 
@@ -34,7 +38,7 @@ import java.util.Optional;
  * @see MigrationService
  * @see SettingsHolder
  */
-public class SettingsManager {
+public class SettingsManager implements AutoCloseable {
 
     protected final ConfigurationData configurationData;
     protected final PropertyResource resource;
@@ -102,6 +106,44 @@ public class SettingsManager {
         return new SettingsManager(new YamlFileResource(yamlFile), new PlainMigrationService(), settingsClasses);
     }
 
+    /**
+     * Convenience method for creating a settings manager for the provided YAML file, which is shared with all
+     * other settings managers of the same file that are created with this method. The file is only parsed and
+     * reloaded once for all of them, and it is saved with the properties of all of them.
+     * Creates the YAML file if it doesn't exist. Uses the default migration service.
+     * <p>
+     * The returned settings manager must be {@link #close() closed} once it is no longer used, so that the
+     * file is released.
+     *
+     * @param yamlFile the file to read from and write to
+     * @param settingsClasses classes whose Property fields make up all known properties
+     * @return the created settings manager
+     * @see SharedResourceRegistry
+     */
+    @SafeVarargs
+    public static SettingsManager createWithSharedYamlFile(File yamlFile,
+                                                           Class<? extends SettingsHolder>... settingsClasses) {
+        Utils.createFileIfNotExists(yamlFile);
+        ConfigurationData configurationData = ConfigurationDataBuilder.collectData(settingsClasses);
+        PropertyResource resource = SharedResourceRegistry.getDefault().acquire(yamlFile, configurationData);
+        return new SettingsManager(resource, new PlainMigrationService(), configurationData);
+    }
+
+    /**
+     * Convenience method for creating a settings manager for a tenant, whose values are the values of the given
+     * base with the overrides in the tenant's overlay file. All tenants share the base's configuration data and
+     * values; on save, only the properties which differ from the base are written to the overlay file. No
+     * migration service is used, since the base is shared.
+     *
+     * @param base the base shared by all tenants
+     * @param overlayFile the YAML file with the tenant's overrides (does not need to exist)
+     * @return the created settings manager
+     * @see TenantPropertyResource
+     */
+    public static SettingsManager createForTenant(TenantBase base, File overlayFile) {
+        return new SettingsManager(base.createTenantResource(overlayFile), null, base.getConfigurationData());
+    }
+
     /**
      * Gets the given property from the configuration.
      *
@@ -136,6 +178,30 @@ public class SettingsManager {
         validateAndLoadOptions();
     }
 
+    /**
+     * Reloads only the given section from the resource and checks the properties of the section with the
+     * migration service. Values outside of the section are not reloaded; properties are always read from
+     * the resource, so no further state needs to be refreshed.
+     *
+     * @param sectionPath the path of the section to reload (empty string to reload everything)
+     */
+    public void reload(String sectionPath) {
+        resource.reload(sectionPath);
+        if (migrationService != null) {
+            List<Property<?>> sectionProperties = new ArrayList<>();
+            String prefix = sectionPath + ".";
+            for (Property<?> property : configurationData.getProperties()) {
+                if (sectionPath.isEmpty() || property.getPath().equals(sectionPath)
+                    || property.getPath().startsWith(prefix)) {
+                    sectionProperties.add(property);
+                }
+            }
+            if (migrationService.checkAndMigrate(resource, sectionProperties)) {
+                save();
+            }
+        }
+    }
+
     /**
      * Saves the config file. Use after migrating one or more settings.
      */
@@ -143,6 +209,21 @@ public class SettingsManager {
         resource.exportProperties(configurationData);
     }
 
+    /**
+     * Closes the property resource if it holds on to anything, such as the shared file of a settings manager
+     * created with {@link #createWithSharedYamlFile}. Other resources are not affected.
+     */
+    @Override
+    public void close() {
+        if (resource instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) resource).close();
+            } catch (Exception e) {
+                throw new ConfigMeException("Could not close the property resource", e);
+            }
+        }
+    }
+
     /**
      * Checks with the migration service if the configuration is up to date.
      * If not, saves the config.
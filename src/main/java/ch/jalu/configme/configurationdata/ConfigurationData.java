@@ -33,4 +33,13 @@ public class ConfigurationData {
         String[] comments = sectionComments.get(path);
         return (comments == null) ? new String[0] : comments;
     }
+
+    /**
+     * Returns the comments of all sections, keyed by the section's path.
+     *
+     * @return unmodifiable map of the section comments
+     */
+    public Map<String, String[]> getSectionComments() {
+        return sectionComments;
+    }
 }
@@ -0,0 +1,53 @@
+package ch.jalu.configme.resource;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Output stream which writes to a byte buffer, replacing it with a larger buffer whenever it is full.
+ */
+final class ByteBufferOutputStream extends OutputStream {
+
+    private ByteBuffer buffer;
+
+    /**
+     * Constructor. Clears the given buffer.
+     *
+     * @param buffer the buffer to write to
+     */
+    ByteBufferOutputStream(ByteBuffer buffer) {
+        this.buffer = buffer;
+        buffer.clear();
+    }
+
+    @Override
+    public void write(int b) {
+        ensureRemaining(1);
+        buffer.put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        ensureRemaining(len);
+        buffer.put(b, off, len);
+    }
+
+    /**
+     * @return the buffer written to, in write mode (i.e. not flipped)
+     */
+    ByteBuffer getBuffer() {
+        return buffer;
+    }
+
+    private void ensureRemaining(int length) {
+        if (buffer.remaining() < length) {
+            int capacity = Math.max(buffer.capacity() * 2, buffer.position() + length);
+            ByteBuffer newBuffer = buffer.isDirect()
+                ? ByteBuffer.allocateDirect(capacity)
+                : ByteBuffer.allocate(capacity);
+            buffer.flip();
+            newBuffer.put(buffer);
+            buffer = newBuffer;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package ch.jalu.configme.resource;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Reads and writes configuration files which may be compressed with gzip. Compressed files are detected by
+ * their content when reading. When writing, a file is compressed if its name ends with {@code .gz} or if it
+ * is compressed already.
+ * <p>
+ * The buffers of the streams are taken from a small pool and returned to it when the streams are closed,
+ * so that loading and exporting files does not allocate new buffers each time.
+ */
+final class CompressedFiles {
+
+    /** Size of the buffers of the streams. */
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /** Maximum number of unused buffers which are kept. */
+    private static final int MAX_POOLED_BUFFERS = 4;
+
+    private static final Deque<byte[]> bufferPool = new ArrayDeque<>();
+
+    private CompressedFiles() {
+    }
+
+    /**
+     * Opens the given file for reading, decompressing its content if it is compressed with gzip.
+     *
+     * @param file the file to read
+     * @return stream of the file's (decompressed) content
+     * @throws IOException if the file cannot be read
+     */
+    static InputStream newInputStream(File file) throws IOException {
+        InputStream input = new PooledBufferedInputStream(new FileInputStream(file));
+        try {
+            if (startsWithGzipHeader(input)) {
+                return new PooledGzipInputStream(input);
+            }
+            return input;
+        } catch (IOException e) {
+            input.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Wraps the given output stream so that everything written to it is compressed with gzip.
+     *
+     * @param output the stream to write the compressed content to
+     * @param compressionLevel the compression level (0-9, or -1 for the default level)
+     * @return stream to write the uncompressed content to
+     * @throws IOException if the gzip header cannot be written
+     */
+    static OutputStream newGzipOutputStream(OutputStream output, int compressionLevel) throws IOException {
+        try {
+            return new PooledGzipOutputStream(output, compressionLevel);
+        } catch (IOException e) {
+            output.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns whether the content of the given file should be compressed when it is written. Must be called
+     * before the file is overwritten.
+     *
+     * @param file the file to check
+     * @return true if the file name ends with .gz or the file is compressed already
+     */
+    static boolean shouldCompress(File file) {
+        if (file.getName().endsWith(".gz")) {
+            return true;
+        }
+        if (!file.isFile()) {
+            return false;
+        }
+        try (InputStream input = new FileInputStream(file)) {
+            return startsWithGzipHeader(input);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static boolean startsWithGzipHeader(InputStream input) throws IOException {
+        if (input.markSupported()) {
+            input.mark(2);
+        }
+        int first = input.read();
+        int second = input.read();
+        if (input.markSupported()) {
+            input.reset();
+        }
+        return first == (GZIPInputStream.GZIP_MAGIC & 0xFF) && second == (GZIPInputStream.GZIP_MAGIC >> 8);
+    }
+
+    private static byte[] acquireBuffer() {
+        synchronized (bufferPool) {
+            byte[] buffer = bufferPool.pollFirst();
+            if (buffer != null) {
+                return buffer;
+            }
+        }
+        return new byte[BUFFER_SIZE];
+    }
+
+    private static void releaseBuffer(byte[] buffer) {
+        synchronized (bufferPool) {
+            if (bufferPool.size() < MAX_POOLED_BUFFERS) {
+                bufferPool.addFirst(buffer);
+            }
+        }
+    }
+
+    /**
+     * Buffered input stream whose buffer is taken from the pool. The stream is created with a buffer of one byte,
+     * which is replaced before anything is read.
+     */
+    private static final class PooledBufferedInputStream extends BufferedInputStream {
+
+        private final byte[] pooledBuffer = acquireBuffer();
+        private boolean isReleased;
+
+        PooledBufferedInputStream(InputStream input) {
+            super(input, 1);
+            buf = pooledBuffer;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                if (!isReleased) {
+                    isReleased = true;
+                    releaseBuffer(pooledBuffer);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gzip input stream whose buffer is taken from the pool. The gzip header is read from the underlying stream
+     * directly, so the buffer can be replaced after the header has been read.
+     */
+    private static final class PooledGzipInputStream extends GZIPInputStream {
+
+        private final byte[] pooledBuffer;
+        private boolean isReleased;
+
+        PooledGzipInputStream(InputStream input) throws IOException {
+            super(input, 1);
+            pooledBuffer = acquireBuffer();
+            buf = pooledBuffer;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                if (!isReleased) {
+                    isReleased = true;
+                    releaseBuffer(pooledBuffer);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gzip output stream whose buffer is taken from the pool. The gzip header is written to the underlying stream
+     * directly, so the buffer can be replaced after the header has been written.
+     */
+    private static final class PooledGzipOutputStream extends GZIPOutputStream {
+
+        private final byte[] pooledBuffer;
+        private boolean isReleased;
+
+        PooledGzipOutputStream(OutputStream output, int compressionLevel) throws IOException {
+            super(output, 1);
+            def.setLevel(compressionLevel);
+            pooledBuffer = acquireBuffer();
+            buf = pooledBuffer;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                if (!isReleased) {
+                    isReleased = true;
+                    releaseBuffer(pooledBuffer);
+                }
+            }
+        }
+    }
+}
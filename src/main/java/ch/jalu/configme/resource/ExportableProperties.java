@@ -0,0 +1,115 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.beanmapper.leafproperties.LeafPropertiesGenerator;
+import ch.jalu.configme.properties.BeanProperty;
+import ch.jalu.configme.properties.OptionalProperty;
+import ch.jalu.configme.properties.Property;
+import ch.jalu.configme.resource.binary.BinaryTreeCodec;
+
+import javax.annotation.Nullable;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts properties to the "leaf" properties which are written when a resource is exported.
+ */
+final class ExportableProperties {
+
+    private ExportableProperties() {
+    }
+
+    /**
+     * Converts the property entries to exportable "leaf" properties.
+     * <p>
+     * Properties of type {@link BeanProperty} are converted to multiple {@link Property} objects
+     * that reflect all concrete values that need to be stored to properly, losslessly export the bean.
+     * The property entries are essentially the "leaf nodes" of the bean if viewed as a tree.
+     * <p>
+     * {@link OptionalProperty} instances are skipped if they evaluate to an empty value; otherwise,
+     * the Optional interface is stripped and the underlying property is used in the export.
+     *
+     * @param properties the list of property entries to convert
+     * @param resource the resource to get the values of bean and optional properties from
+     * @param leafPropertiesGenerator the generator of the leaf properties of beans
+     * @return list of properties with converted property entries
+     */
+    static List<Property<?>> convert(List<Property<?>> properties, PropertyResource resource,
+                                     LeafPropertiesGenerator leafPropertiesGenerator) {
+        List<Property<?>> result = new LinkedList<>();
+        for (Property<?> property : properties) {
+            if (property instanceof BeanProperty<?>) {
+                result.addAll(generateLeafProperties((BeanProperty<?>) property, resource, leafPropertiesGenerator));
+            } else if (property instanceof OptionalProperty<?>) {
+                OptionalProperty<?> optionalProperty = (OptionalProperty<?>) property;
+                if (optionalProperty.getValue(resource).isPresent()) {
+                    result.add(optionalProperty.getBaseProperty());
+                }
+            } else {
+                result.add(property);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Generates the leaf properties of the given bean property's value in the resource.
+     *
+     * @param beanProperty the bean property
+     * @param resource the resource to get the bean from
+     * @param leafPropertiesGenerator the generator of the leaf properties
+     * @param <B> the bean type
+     * @return the bean's leaf properties
+     */
+    static <B> List<Property<?>> generateLeafProperties(BeanProperty<B> beanProperty, PropertyResource resource,
+                                                       LeafPropertiesGenerator leafPropertiesGenerator) {
+        return leafPropertiesGenerator.generate(beanProperty, beanProperty.getValue(resource));
+    }
+
+    /**
+     * Converts the given bean to a tree of its leaf values, as they would be exported. The leaf values are
+     * converted with {@link BinaryTreeCodec#toEncodableValue}, so that the tree can be encoded.
+     *
+     * @param beanProperty the bean property
+     * @param bean the bean to convert
+     * @param leafPropertiesGenerator the generator of the leaf properties
+     * @param <B> the bean type
+     * @return the bean's leaf values, by path relative to the bean property
+     */
+    static <B> Map<String, Object> toLeafValueTree(BeanProperty<B> beanProperty, B bean,
+                                                   LeafPropertiesGenerator leafPropertiesGenerator) {
+        String path = beanProperty.getPath();
+        Map<String, Object> tree = new LinkedHashMap<>();
+        for (Property<?> leafProperty : leafPropertiesGenerator.generate(beanProperty, bean)) {
+            String relativePath = path.isEmpty()
+                ? leafProperty.getPath()
+                : leafProperty.getPath().substring(path.length() + 1);
+            putNestedValue(tree, relativePath.split("\\."),
+                BinaryTreeCodec.toEncodableValue(leafProperty.getDefaultValue()));
+        }
+        return tree;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void putNestedValue(Map<String, Object> tree, String[] keys, @Nullable Object value) {
+        Map<String, Object> node = tree;
+        for (int i = 0; i < keys.length - 1; ++i) {
+            node = (Map<String, Object>) node.computeIfAbsent(keys[i], k -> new LinkedHashMap<>());
+        }
+        node.put(keys[keys.length - 1], value);
+    }
+
+    /**
+     * Generates the leaf properties of the given bean property's default value.
+     *
+     * @param beanProperty the bean property
+     * @param leafPropertiesGenerator the generator of the leaf properties
+     * @param <B> the bean type
+     * @return the default bean's leaf properties
+     */
+    static <B> List<Property<?>> generateDefaultLeafProperties(BeanProperty<B> beanProperty,
+                                                              LeafPropertiesGenerator leafPropertiesGenerator) {
+        return leafPropertiesGenerator.generate(beanProperty, beanProperty.getDefaultValue());
+    }
+}
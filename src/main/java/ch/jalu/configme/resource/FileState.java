@@ -0,0 +1,80 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.exception.ConfigMeException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.zip.CRC32;
+
+/**
+ * State of a file on disk, to detect whether the file has been modified since it was loaded.
+ * <p>
+ * The modification time of files has a coarse resolution on many file systems (e.g. one second on ext3 and HFS+,
+ * two seconds on FAT), so a file which is modified in the same interval as it was loaded may keep its modification
+ * time and its length. For such files, whose modification time is too recent to be trusted, the checksum of the
+ * content is recorded as well and compared whenever the file is checked; other files are only compared by their
+ * modification time and length.
+ */
+final class FileState {
+
+    /** Coarsest resolution of modification times which is accounted for. */
+    static final long MODIFICATION_TIME_RESOLUTION_MILLIS = 2000;
+
+    private final long lastModified;
+    private final long length;
+    private final long checksum;
+    private final boolean isRacy;
+
+    private FileState(long lastModified, long length, long checksum, boolean isRacy) {
+        this.lastModified = lastModified;
+        this.length = length;
+        this.checksum = checksum;
+        this.isRacy = isRacy;
+    }
+
+    /**
+     * Returns the current state of the given file. This should be called before the file is loaded, so that
+     * modifications during the load are detected afterwards.
+     *
+     * @param file the file
+     * @return the file's state
+     */
+    static FileState of(File file) {
+        long lastModified = file.lastModified();
+        long length = file.length();
+        boolean isRacy = System.currentTimeMillis() - lastModified < MODIFICATION_TIME_RESOLUTION_MILLIS;
+        return new FileState(lastModified, length, isRacy ? computeChecksum(file) : 0, isRacy);
+    }
+
+    /**
+     * Returns whether the given file differs from this state.
+     *
+     * @param file the file (the same file as the state was created for)
+     * @return true if the file has been modified, false otherwise
+     */
+    boolean isModified(File file) {
+        if (file.lastModified() != lastModified || file.length() != length) {
+            return true;
+        }
+        return isRacy && computeChecksum(file) != checksum;
+    }
+
+    private static long computeChecksum(File file) {
+        if (!file.isFile()) {
+            return -1;
+        }
+        CRC32 crc = new CRC32();
+        byte[] buffer = new byte[8192];
+        try (InputStream input = Files.newInputStream(file.toPath())) {
+            int bytesRead;
+            while ((bytesRead = input.read(buffer)) != -1) {
+                crc.update(buffer, 0, bytesRead);
+            }
+        } catch (IOException e) {
+            throw new ConfigMeException("Could not read file '" + file + "'", e);
+        }
+        return crc.getValue();
+    }
+}
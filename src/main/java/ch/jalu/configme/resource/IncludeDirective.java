@@ -0,0 +1,30 @@
+package ch.jalu.configme.resource;
+
+/**
+ * Placeholder for an {@code !include} tag in a parsed tree, which is replaced with the content of the included
+ * file by the {@link YamlFileReader}.
+ *
+ * @see ReaderOptions#setIncludes
+ */
+final class IncludeDirective {
+
+    static final String TAG = "!include";
+
+    private final String path;
+
+    IncludeDirective(String path) {
+        this.path = path;
+    }
+
+    /**
+     * @return the path of the included file, as written in the including file
+     */
+    String getPath() {
+        return path;
+    }
+
+    @Override
+    public String toString() {
+        return TAG + " " + path;
+    }
+}
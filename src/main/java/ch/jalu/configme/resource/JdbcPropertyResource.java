@@ -0,0 +1,308 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.beanmapper.leafproperties.LeafPropertiesGenerator;
+import ch.jalu.configme.configurationdata.ConfigurationData;
+import ch.jalu.configme.exception.ConfigMeException;
+import ch.jalu.configme.properties.Property;
+import ch.jalu.configme.resource.binary.BinaryTreeCodec;
+
+import javax.annotation.Nullable;
+import javax.sql.DataSource;
+import java.nio.ByteBuffer;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Property resource which stores its values in a database table, with one row per leaf path.
+ * <p>
+ * The table has the columns {@code setting_path} (primary key), {@code setting_value} (the value encoded
+ * with {@link BinaryTreeCodec}) and {@code row_version}. All rows are loaded with a single query. On export,
+ * the leaf values of the properties are compared to the loaded rows and only the rows which have changed are
+ * written, in one batch per statement type and in one transaction.
+ * <p>
+ * Rows are versioned optimistically: a row is only updated or deleted if its version still matches the version
+ * that was loaded, and a row is only inserted if it does not exist yet. If another writer has modified any of the
+ * rows in the meantime, no row is written and a {@link ConfigMeException} is thrown; the resource needs to be
+ * {@link #reload() reloaded} before its values can be exported.
+ */
+public class JdbcPropertyResource implements PropertyResource {
+
+    private static final Pattern TABLE_NAME_PATTERN = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    private final DataSource dataSource;
+    private final String table;
+    private final LeafPropertiesGenerator leafPropertiesGenerator = new LeafPropertiesGenerator();
+    private MemoryPropertyReader reader;
+    private Map<String, StoredRow> storedRows;
+
+    /**
+     * Constructor. Loads the values from the given table, which must exist already.
+     *
+     * @param dataSource the data source to get connections from
+     * @param table the name of the table to store the values in
+     * @see #createTable
+     */
+    public JdbcPropertyResource(DataSource dataSource, String table) {
+        if (!TABLE_NAME_PATTERN.matcher(table).matches()) {
+            throw new ConfigMeException("Invalid table name '" + table + "'");
+        }
+        this.dataSource = dataSource;
+        this.table = table;
+        reload();
+    }
+
+    /**
+     * Creates the table for the values if it does not exist yet. The statement uses standard SQL types;
+     * for databases which do not support them, the table can be created manually.
+     *
+     * @param dataSource the data source to get a connection from
+     * @param table the name of the table to create
+     */
+    public static void createTable(DataSource dataSource, String table) {
+        if (!TABLE_NAME_PATTERN.matcher(table).matches()) {
+            throw new ConfigMeException("Invalid table name '" + table + "'");
+        }
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeUpdate("CREATE TABLE IF NOT EXISTS " + table + " ("
+                + "setting_path VARCHAR(1024) NOT NULL PRIMARY KEY, "
+                + "setting_value BLOB NOT NULL, "
+                + "row_version BIGINT NOT NULL)");
+        } catch (SQLException e) {
+            throw new ConfigMeException("Could not create table '" + table + "'", e);
+        }
+    }
+
+    @Override
+    public Object getObject(String path) {
+        return reader.getObject(path);
+    }
+
+    @Override
+    public String getString(String path) {
+        return reader.getTypedObject(path, String.class);
+    }
+
+    @Override
+    public Integer getInt(String path) {
+        Number n = reader.getTypedObject(path, Number.class);
+        return (n == null)
+            ? null
+            : n.intValue();
+    }
+
+    @Override
+    public Double getDouble(String path) {
+        Number n = reader.getTypedObject(path, Number.class);
+        return (n == null)
+            ? null
+            : n.doubleValue();
+    }
+
+    @Override
+    public Boolean getBoolean(String path) {
+        return reader.getTypedObject(path, Boolean.class);
+    }
+
+    @Override
+    public List<?> getList(String path) {
+        return reader.getTypedObject(path, List.class);
+    }
+
+    @Override
+    public boolean contains(String path) {
+        return reader.getObject(path) != null;
+    }
+
+    @Override
+    public void setValue(String path, @Nullable Object value) {
+        reader.set(path, value);
+    }
+
+    /**
+     * Loads all rows of the table, discarding any values which have not been exported.
+     */
+    @Override
+    public void reload() {
+        MemoryPropertyReader newReader = new MemoryPropertyReader();
+        Map<String, StoredRow> newRows = new HashMap<>();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(
+                 "SELECT setting_path, setting_value, row_version FROM " + table)) {
+            while (resultSet.next()) {
+                String path = resultSet.getString(1);
+                byte[] value = resultSet.getBytes(2);
+                newRows.put(path, new StoredRow(value, resultSet.getLong(3)));
+                newReader.set(path, BinaryTreeCodec.decode(ByteBuffer.wrap(value), null));
+            }
+        } catch (SQLException e) {
+            throw new ConfigMeException("Could not load values from table '" + table + "'", e);
+        }
+        reader = newReader;
+        storedRows = newRows;
+    }
+
+    /**
+     * Writes the rows whose value has changed since they were loaded or last exported. Rows of leaf paths which
+     * no longer have a value are deleted.
+     *
+     * @param configurationData the configuration data
+     */
+    @Override
+    public void exportProperties(ConfigurationData configurationData) {
+        Map<String, byte[]> newValues = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> leaf : collectLeafValues(configurationData).entrySet()) {
+            newValues.put(leaf.getKey(), BinaryTreeCodec.encode(leaf.getValue()));
+        }
+
+        Map<String, byte[]> inserts = new LinkedHashMap<>();
+        Map<String, byte[]> updates = new LinkedHashMap<>();
+        List<String> deletes = new ArrayList<>();
+        for (Map.Entry<String, byte[]> entry : newValues.entrySet()) {
+            StoredRow storedRow = storedRows.get(entry.getKey());
+            if (storedRow == null) {
+                inserts.put(entry.getKey(), entry.getValue());
+            } else if (!Arrays.equals(storedRow.value, entry.getValue())) {
+                updates.put(entry.getKey(), entry.getValue());
+            }
+        }
+        for (String path : storedRows.keySet()) {
+            if (!newValues.containsKey(path)) {
+                deletes.add(path);
+            }
+        }
+        if (!inserts.isEmpty() || !updates.isEmpty() || !deletes.isEmpty()) {
+            writeChanges(inserts, updates, deletes);
+        }
+    }
+
+    private void writeChanges(Map<String, byte[]> inserts, Map<String, byte[]> updates, List<String> deletes) {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                executeUpdates(connection, updates);
+                executeDeletes(connection, deletes);
+                executeInserts(connection, inserts);
+                connection.commit();
+            } catch (SQLException | ConfigMeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new ConfigMeException("Could not save values to table '" + table + "'", e);
+        }
+
+        for (Map.Entry<String, byte[]> update : updates.entrySet()) {
+            StoredRow storedRow = storedRows.get(update.getKey());
+            storedRows.put(update.getKey(), new StoredRow(update.getValue(), storedRow.version + 1));
+        }
+        for (String path : deletes) {
+            storedRows.remove(path);
+        }
+        for (Map.Entry<String, byte[]> insert : inserts.entrySet()) {
+            storedRows.put(insert.getKey(), new StoredRow(insert.getValue(), 1));
+        }
+    }
+
+    private void executeUpdates(Connection connection, Map<String, byte[]> updates) throws SQLException {
+        if (updates.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement("UPDATE " + table
+            + " SET setting_value = ?, row_version = row_version + 1 WHERE setting_path = ? AND row_version = ?")) {
+            for (Map.Entry<String, byte[]> update : updates.entrySet()) {
+                statement.setBytes(1, update.getValue());
+                statement.setString(2, update.getKey());
+                statement.setLong(3, storedRows.get(update.getKey()).version);
+                statement.addBatch();
+            }
+            verifyAllRowsAffected(statement.executeBatch());
+        }
+    }
+
+    private void executeDeletes(Connection connection, List<String> deletes) throws SQLException {
+        if (deletes.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+            "DELETE FROM " + table + " WHERE setting_path = ? AND row_version = ?")) {
+            for (String path : deletes) {
+                statement.setString(1, path);
+                statement.setLong(2, storedRows.get(path).version);
+                statement.addBatch();
+            }
+            verifyAllRowsAffected(statement.executeBatch());
+        }
+    }
+
+    private void executeInserts(Connection connection, Map<String, byte[]> inserts) throws SQLException {
+        if (inserts.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement statement = connection.prepareStatement(
+            "INSERT INTO " + table + " (setting_path, setting_value, row_version) VALUES (?, ?, 1)")) {
+            for (Map.Entry<String, byte[]> insert : inserts.entrySet()) {
+                statement.setString(1, insert.getKey());
+                statement.setBytes(2, insert.getValue());
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        } catch (SQLException e) {
+            // Most likely the row has been inserted by another writer in the meantime
+            throw new ConfigMeException("Values in table '" + table + "' have been modified concurrently", e);
+        }
+    }
+
+    private void verifyAllRowsAffected(int[] updateCounts) {
+        for (int count : updateCounts) {
+            if (count == 0) {
+                throw new ConfigMeException("Values in table '" + table + "' have been modified concurrently");
+            }
+        }
+    }
+
+    /**
+     * Returns the leaf values of the given configuration data's properties by path, in the representation
+     * in which they are stored.
+     */
+    private Map<String, Object> collectLeafValues(ConfigurationData configurationData) {
+        Map<String, Object> leafValues = new LinkedHashMap<>();
+        for (Property<?> property : ExportableProperties.convert(
+            configurationData.getProperties(), this, leafPropertiesGenerator)) {
+            addLeafValues(property.getPath(), property.getValue(this), leafValues);
+        }
+        return leafValues;
+    }
+
+    private static void addLeafValues(String path, @Nullable Object value, Map<String, Object> leafValues) {
+        PropertyLayers.flatten(path, BinaryTreeCodec.toEncodableValue(value), leafValues);
+    }
+
+    /**
+     * Value and version of a row as it was loaded or last written.
+     */
+    private static final class StoredRow {
+
+        private final byte[] value;
+        private final long version;
+
+        StoredRow(byte[] value, long version) {
+            this.value = value;
+            this.version = version;
+        }
+    }
+}
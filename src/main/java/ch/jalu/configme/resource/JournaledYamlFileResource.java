@@ -0,0 +1,254 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.beanmapper.leafproperties.LeafPropertiesGenerator;
+import ch.jalu.configme.configurationdata.ConfigurationData;
+import ch.jalu.configme.exception.ConfigMeException;
+import ch.jalu.configme.properties.BeanProperty;
+import ch.jalu.configme.properties.Property;
+import ch.jalu.configme.resource.binary.BinaryTreeCodec;
+import ch.jalu.configme.resource.binary.PropertyJournal;
+import ch.jalu.configme.utils.Utils;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * YAML file resource which persists every value that is set by appending it to a journal file, instead of
+ * rewriting the YAML file. When the file is loaded, the journal's records are applied on top of the YAML file's
+ * values, so values which have been set are not lost even if the file is never exported.
+ * <p>
+ * Once the journal exceeds the {@link #setCompactionThreshold compaction threshold}, the YAML file is rewritten
+ * with the configuration data given in the constructor and the journal is cleared. This is done on the given
+ * executor. Exporting the properties also clears the journal. The YAML file is written to a temporary file first,
+ * which is synced to the storage device and then replaces the YAML file, so that the YAML file is never left
+ * incomplete. The journal is only cleared once the new YAML file is in place.
+ * <p>
+ * Values of bean properties are journaled by their leaf values; all other values must be maps, collections,
+ * enums or the scalar types that are read from YAML.
+ */
+public class JournaledYamlFileResource extends YamlFileResource implements AutoCloseable {
+
+    /** Default size of the journal in bytes from which on the YAML file is rewritten. */
+    public static final long DEFAULT_COMPACTION_THRESHOLD = 64 * 1024;
+
+    private final File file;
+    private final ConfigurationData configurationData;
+    private final Executor compactionExecutor;
+    private final PropertyJournal journal;
+    private final LeafPropertiesGenerator leafPropertiesGenerator = new LeafPropertiesGenerator();
+    private final Map<String, Property<?>> propertiesByPath = new HashMap<>();
+    private long compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+    private boolean syncOnWrite;
+    private boolean compactionPending;
+
+    /**
+     * Constructor.
+     *
+     * @param file the YAML file
+     * @param configurationData the configuration data to write the YAML file with when the journal is compacted
+     * @param compactionExecutor the executor to compact the journal on
+     */
+    public JournaledYamlFileResource(File file, ConfigurationData configurationData, Executor compactionExecutor) {
+        this(file, new ReaderOptions(), configurationData, compactionExecutor);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param file the YAML file
+     * @param readerOptions the options to read the YAML file with
+     * @param configurationData the configuration data to write the YAML file with when the journal is compacted
+     * @param compactionExecutor the executor to compact the journal on
+     */
+    public JournaledYamlFileResource(File file, ReaderOptions readerOptions, ConfigurationData configurationData,
+                                     Executor compactionExecutor) {
+        super(file, readerOptions);
+        this.file = file;
+        this.configurationData = configurationData;
+        this.compactionExecutor = compactionExecutor;
+        this.journal = PropertyJournal.forSource(file);
+        for (Property<?> property : configurationData.getProperties()) {
+            propertiesByPath.put(property.getPath(), property);
+        }
+        replayJournal("");
+    }
+
+    /**
+     * Sets the value in memory and appends it to the journal.
+     *
+     * @param path the path to set a new value for
+     * @param value the value to set
+     */
+    @Override
+    public synchronized void setValue(String path, @Nullable Object value) {
+        Object journalValue = toJournalValue(path, value);
+        // Set the value first so that invalid paths are rejected before anything is journaled
+        super.setValue(path, value);
+        journal.append(path, journalValue, syncOnWrite);
+        if (journal.size() > compactionThreshold && !compactionPending) {
+            compactionPending = true;
+            compactionExecutor.execute(this::compact);
+        }
+    }
+
+    /**
+     * Reloads the YAML file and applies the journal on top of it.
+     */
+    @Override
+    public synchronized void reload() {
+        super.reload();
+        replayJournal("");
+    }
+
+    @Override
+    public synchronized void reload(String sectionPath) {
+        super.reload(sectionPath);
+        replayJournal(sectionPath);
+    }
+
+    /**
+     * Writes the YAML file and clears the journal.
+     *
+     * @param configurationData the configuration data
+     */
+    @Override
+    public synchronized void exportProperties(ConfigurationData configurationData) {
+        File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+        boolean compress = CompressedFiles.shouldCompress(file);
+        try (Writer writer = new OutputStreamWriter(createOutputStream(tempFile, compress), StandardCharsets.UTF_8)) {
+            exportProperties(configurationData, writer);
+        } catch (IOException e) {
+            throw new ConfigMeException("Could not save config to '" + file.getPath() + "'", e);
+        }
+        try {
+            Utils.replaceFileDurably(tempFile.toPath(), file.toPath());
+        } catch (IOException e) {
+            throw new ConfigMeException("Could not replace '" + file.getPath() + "'", e);
+        }
+        // The journal only contains values which are now durably in the YAML file, so it can be cleared
+        journal.clear();
+    }
+
+    private OutputStream createOutputStream(File tempFile, boolean compress) throws IOException {
+        OutputStream output = Files.newOutputStream(tempFile.toPath());
+        return compress ? CompressedFiles.newGzipOutputStream(output, getCompressionLevel()) : output;
+    }
+
+    @Override
+    public synchronized void exportProperties(ConfigurationData configurationData, Writer writer)
+        throws IOException {
+        super.exportProperties(configurationData, writer);
+    }
+
+    /**
+     * Rewrites the YAML file with the configuration data of this resource and clears the journal.
+     */
+    public synchronized void compact() {
+        compactionPending = false;
+        exportProperties(configurationData);
+    }
+
+    /**
+     * Closes the journal file. The journal is opened again if another value is set.
+     */
+    @Override
+    public synchronized void close() {
+        journal.close();
+    }
+
+    /**
+     * Returns the journal to which set values are appended.
+     *
+     * @return the journal
+     */
+    public PropertyJournal getJournal() {
+        return journal;
+    }
+
+    public long getCompactionThreshold() {
+        return compactionThreshold;
+    }
+
+    /**
+     * Sets the size of the journal in bytes from which on it is compacted, i.e. the YAML file is rewritten and
+     * the journal is cleared. Default is {@link #DEFAULT_COMPACTION_THRESHOLD}.
+     *
+     * @param compactionThreshold the journal size in bytes which triggers a compaction
+     */
+    public void setCompactionThreshold(long compactionThreshold) {
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    public boolean isSyncOnWrite() {
+        return syncOnWrite;
+    }
+
+    /**
+     * Sets whether each journal record is forced to the storage device before {@link #setValue} returns.
+     * This guarantees that set values survive a system crash, but makes setting values considerably slower.
+     * Default is false.
+     *
+     * @param syncOnWrite true to sync the journal after each record
+     */
+    public void setSyncOnWrite(boolean syncOnWrite) {
+        this.syncOnWrite = syncOnWrite;
+    }
+
+    /**
+     * Applies the journal's records which affect the given section to the values in memory.
+     *
+     * @param sectionPath the section whose values should be applied (empty string for all)
+     */
+    private void replayJournal(String sectionPath) {
+        String sectionPrefix = sectionPath + ".";
+        for (PropertyJournal.Record record : journal.readRecords()) {
+            String path = record.getPath();
+            if (sectionPath.isEmpty() || path.equals(sectionPath) || path.startsWith(sectionPrefix)) {
+                super.setValue(path, record.getValue());
+            } else if (path.isEmpty() || sectionPath.startsWith(path + ".")) {
+                // The record's value contains the section
+                String relativePath = path.isEmpty() ? sectionPath : sectionPath.substring(path.length() + 1);
+                super.setValue(sectionPath, getNestedValue(record.getValue(), relativePath));
+            }
+        }
+    }
+
+    /**
+     * Converts the given value to a value which can be written to the journal.
+     *
+     * @param path the path of the value
+     * @param value the value to convert
+     * @return the value to journal
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private Object toJournalValue(String path, @Nullable Object value) {
+        Property<?> property = propertiesByPath.get(path);
+        if (property instanceof BeanProperty<?> && value != null && !(value instanceof Map<?, ?>)) {
+            return ExportableProperties.toLeafValueTree((BeanProperty<Object>) property, value,
+                leafPropertiesGenerator);
+        }
+        return BinaryTreeCodec.toEncodableValue(value);
+    }
+
+    @Nullable
+    private static Object getNestedValue(@Nullable Object value, String path) {
+        Object node = value;
+        for (String key : path.split("\\.")) {
+            if (!(node instanceof Map<?, ?>)) {
+                return null;
+            }
+            node = ((Map<?, ?>) node).get(key);
+        }
+        return node;
+    }
+}
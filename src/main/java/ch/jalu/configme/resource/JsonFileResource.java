@@ -0,0 +1,312 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.beanmapper.leafproperties.LeafPropertiesGenerator;
+import ch.jalu.configme.configurationdata.ConfigurationData;
+import ch.jalu.configme.exception.ConfigMeException;
+import ch.jalu.configme.properties.Property;
+import ch.jalu.configme.resource.PropertyPathTraverser.PathElement;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Property resource based on a JSON file.
+ * <p>
+ * Values are read with a {@link YamlFileReader} using a {@link JsonParser}, so paths behave exactly as with
+ * a {@link YamlFileResource}. On export, the properties are written in the order of the configuration data.
+ * Comments are not exported since JSON does not support them.
+ */
+public class JsonFileResource implements PropertyResource, PropertyExporter {
+
+    private static final String INDENTATION = "    ";
+
+    private final File file;
+    private final PropertyReader reader;
+    private final LeafPropertiesGenerator leafPropertiesGenerator;
+    private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+
+    /**
+     * Constructor.
+     *
+     * @param file the JSON file
+     */
+    public JsonFileResource(File file) {
+        this(file, new ReaderOptions());
+    }
+
+    /**
+     * Constructor. The parser of the given options is set to a {@link JsonParser}.
+     *
+     * @param file the JSON file
+     * @param readerOptions the options to read the file with
+     */
+    public JsonFileResource(File file, ReaderOptions readerOptions) {
+        this(file, createReader(file, readerOptions), new LeafPropertiesGenerator());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param file the JSON file to which properties get exported
+     * @param reader the reader from which the properties' values are read
+     * @param leafPropertiesGenerator generator of property entries to export bean properties. Can be null
+     *                                only if you do not use bean properties.
+     */
+    public JsonFileResource(File file, PropertyReader reader, LeafPropertiesGenerator leafPropertiesGenerator) {
+        this.file = file;
+        this.reader = reader;
+        this.leafPropertiesGenerator = leafPropertiesGenerator;
+    }
+
+    @Override
+    public Object getObject(String path) {
+        return reader.getObject(path);
+    }
+
+    @Override
+    public String getString(String path) {
+        return reader.getTypedObject(path, String.class);
+    }
+
+    @Override
+    public Integer getInt(String path) {
+        Number n = reader.getTypedObject(path, Number.class);
+        return (n == null)
+            ? null
+            : n.intValue();
+    }
+
+    @Override
+    public Double getDouble(String path) {
+        Number n = reader.getTypedObject(path, Number.class);
+        return (n == null)
+            ? null
+            : n.doubleValue();
+    }
+
+    @Override
+    public Boolean getBoolean(String path) {
+        return reader.getTypedObject(path, Boolean.class);
+    }
+
+    @Override
+    public List<?> getList(String path) {
+        return reader.getTypedObject(path, List.class);
+    }
+
+    @Override
+    public boolean contains(String path) {
+        return reader.getObject(path) != null;
+    }
+
+    @Override
+    public void setValue(String path, Object value) {
+        reader.set(path, value);
+    }
+
+    @Override
+    public void reload() {
+        reader.reload();
+    }
+
+    @Override
+    public void reload(String sectionPath) {
+        reader.reload(sectionPath);
+    }
+
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    /**
+     * Sets the level with which the file is compressed on export if it is a gzip file, i.e. if its name ends
+     * with {@code .gz} or if it is compressed already. Compressed files are always read transparently.
+     *
+     * @param compressionLevel the compression level (0-9, or -1 for the default level)
+     */
+    public void setCompressionLevel(int compressionLevel) {
+        if (compressionLevel < Deflater.DEFAULT_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION) {
+            throw new ConfigMeException("Invalid compression level: " + compressionLevel);
+        }
+        this.compressionLevel = compressionLevel;
+    }
+
+    @Override
+    public void exportProperties(ConfigurationData configurationData) {
+        try (Writer writer = createFileWriter()) {
+            exportProperties(configurationData, writer);
+        } catch (IOException e) {
+            throw new ConfigMeException("Could not save config to '" + file.getPath() + "'", e);
+        }
+    }
+
+    private Writer createFileWriter() throws IOException {
+        if (CompressedFiles.shouldCompress(file)) {
+            OutputStream output = CompressedFiles.newGzipOutputStream(
+                Files.newOutputStream(file.toPath()), compressionLevel);
+            return new OutputStreamWriter(output, StandardCharsets.UTF_8);
+        }
+        return Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void exportProperties(ConfigurationData configurationData, Writer writer) throws IOException {
+        PropertyPathTraverser pathTraverser = new PropertyPathTraverser(configurationData);
+        int openSections = 0;
+        boolean isFirstEntry = true;
+        writer.write("{");
+
+        for (Property<?> property : convertPropertiesToExportableTypes(configurationData.getProperties())) {
+            List<PathElement> pathElements = pathTraverser.getPathElements(property);
+            for (; openSections > pathElements.get(0).indentationLevel; --openSections) {
+                writer.append("\n").append(indent(openSections)).append("}");
+            }
+
+            for (PathElement pathElement : pathElements) {
+                writer.append(isFirstEntry ? "\n" : ",\n")
+                    .append(indent(pathElement.indentationLevel + 1))
+                    .append(toJsonString(pathElement.name))
+                    .append(": ");
+                isFirstEntry = false;
+                if (pathElement != pathElements.get(pathElements.size() - 1)) {
+                    writer.write("{");
+                    isFirstEntry = true;
+                    ++openSections;
+                }
+            }
+            writeValue(writer, property.getValue(this), openSections + 1);
+        }
+
+        for (; openSections > 0; --openSections) {
+            writer.append("\n").append(indent(openSections)).append("}");
+        }
+        writer.write("\n}\n");
+        writer.flush();
+    }
+
+    /**
+     * Converts the property entries to exportable "leaf" properties.
+     *
+     * @see ExportableProperties#convert
+     *
+     * @param originalList the list of property entries to convert
+     * @return list of properties with converted property entries
+     */
+    protected List<Property<?>> convertPropertiesToExportableTypes(List<Property<?>> originalList) {
+        return ExportableProperties.convert(originalList, this, leafPropertiesGenerator);
+    }
+
+    /**
+     * Writes the JSON representation of the given value. Nested values are indented by the given level
+     * plus one. For more custom types, you can override this method and call the super method for all types
+     * already handled here.
+     *
+     * @param writer the writer to write to
+     * @param value the value to write
+     * @param indentationLevel the indentation level of the value's entry
+     * @throws IOException if writing fails
+     */
+    protected void writeValue(Writer writer, @Nullable Object value, int indentationLevel) throws IOException {
+        if (value == null) {
+            writer.write("null");
+        } else if (value instanceof Boolean || value instanceof Integer || value instanceof Long
+            || value instanceof Short || value instanceof Byte || value instanceof BigInteger) {
+            writer.write(value.toString());
+        } else if (value instanceof Number) {
+            double number = ((Number) value).doubleValue();
+            writer.write(Double.isNaN(number) || Double.isInfinite(number)
+                ? toJsonString(value.toString())
+                : value.toString());
+        } else if (value instanceof Enum<?>) {
+            writer.write(toJsonString(((Enum<?>) value).name()));
+        } else if (value instanceof Collection<?>) {
+            writeEntries(writer, ((Collection<?>) value).iterator(), '[', ']', indentationLevel);
+        } else if (value instanceof Map<?, ?>) {
+            writeEntries(writer, ((Map<?, ?>) value).entrySet().iterator(), '{', '}', indentationLevel);
+        } else {
+            writer.write(toJsonString(value.toString()));
+        }
+    }
+
+    private void writeEntries(Writer writer, Iterator<?> entries, char open, char close,
+                              int indentationLevel) throws IOException {
+        writer.write(open);
+        if (!entries.hasNext()) {
+            writer.write(close);
+            return;
+        }
+        String entryIndentation = indent(indentationLevel + 1);
+        while (entries.hasNext()) {
+            writer.append("\n").append(entryIndentation);
+            Object entry = entries.next();
+            if (entry instanceof Map.Entry<?, ?>) {
+                Map.Entry<?, ?> mapEntry = (Map.Entry<?, ?>) entry;
+                writer.append(toJsonString(String.valueOf(mapEntry.getKey()))).append(": ");
+                writeValue(writer, mapEntry.getValue(), indentationLevel + 1);
+            } else {
+                writeValue(writer, entry, indentationLevel + 1);
+            }
+            if (entries.hasNext()) {
+                writer.write(",");
+            }
+        }
+        writer.append("\n").append(indent(indentationLevel)).append(close);
+    }
+
+    private static PropertyReader createReader(File file, ReaderOptions readerOptions) {
+        ReaderOptions jsonOptions = new ReaderOptions(readerOptions);
+        jsonOptions.setParser(new JsonParser());
+        return new YamlFileReader(file, jsonOptions);
+    }
+
+    private static String toJsonString(String text) {
+        StringBuilder sb = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); ++i) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    private static String indent(int level) {
+        StringBuilder sb = new StringBuilder(level * INDENTATION.length());
+        for (int i = 0; i < level; ++i) {
+            sb.append(INDENTATION);
+        }
+        return sb.toString();
+    }
+}
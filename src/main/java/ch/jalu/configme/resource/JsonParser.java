@@ -0,0 +1,315 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.exception.ConfigMeException;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming parser for JSON documents, building the tree in one pass over the input without any
+ * intermediate token objects. As JSON is a subset of YAML, it can be used wherever a {@link YamlParser} is
+ * expected, e.g. with a {@link YamlFileReader} (cf. {@link JsonFileResource}).
+ * <p>
+ * Objects become {@link LinkedHashMap} instances and arrays become {@link ArrayList} instances. Numbers are
+ * created as Integer, Long or BigInteger if they have no fraction or exponent, like SnakeYAML creates integers,
+ * and as Double otherwise. The string pool and the limits of the {@link ReaderOptions} are respected;
+ * the scalar schema is not used since JSON values are typed already.
+ */
+public class JsonParser implements YamlParser {
+
+    @Override
+    public Object parse(Reader reader, ReaderOptions options) throws IOException {
+        return new DocumentParser(reader, options).parseDocument();
+    }
+
+    /**
+     * Parses one document from a reader. Keeps track of the line and column for error messages.
+     */
+    private static final class DocumentParser {
+
+        private static final int EOF = -1;
+
+        private final Reader reader;
+        @Nullable
+        private final StringPool stringPool;
+        private final ParseLimitTracker limits;
+        private final char[] buffer = new char[8192];
+        private final StringBuilder sb = new StringBuilder();
+        private int position;
+        private int limit;
+        private int line = 1;
+        private int lineStart;
+        private int charsBeforeBuffer;
+
+        DocumentParser(Reader reader, ReaderOptions options) {
+            this.reader = reader;
+            this.stringPool = options.getStringPool();
+            this.limits = new ParseLimitTracker(options);
+        }
+
+        @Nullable
+        Object parseDocument() throws IOException {
+            int first = skipWhitespace();
+            if (first == EOF) {
+                return null;
+            }
+            Object root = parseValue(first);
+            if (skipWhitespace() != EOF) {
+                throw error("Unexpected content after the end of the document");
+            }
+            return root;
+        }
+
+        /**
+         * Parses the value starting with the given character, which has already been consumed.
+         */
+        @Nullable
+        private Object parseValue(int c) throws IOException {
+            switch (c) {
+                case '{':
+                    return parseObject();
+                case '[':
+                    return parseArray();
+                case '"':
+                    return internValue(parseString());
+                case 't':
+                    expectLiteral("rue");
+                    return Boolean.TRUE;
+                case 'f':
+                    expectLiteral("alse");
+                    return Boolean.FALSE;
+                case 'n':
+                    expectLiteral("ull");
+                    return null;
+                default:
+                    if (c == '-' || (c >= '0' && c <= '9')) {
+                        return parseNumber(c);
+                    }
+                    throw error(c == EOF ? "Unexpected end of document" : "Unexpected character '" + (char) c + "'");
+            }
+        }
+
+        private Map<String, Object> parseObject() throws IOException {
+            limits.enterCollection(this);
+            Map<String, Object> map = new LinkedHashMap<>();
+            int c = skipWhitespace();
+            if (c != '}') {
+                while (true) {
+                    if (c != '"') {
+                        throw error("Expected a string as object key");
+                    }
+                    String key = parseString();
+                    if (stringPool != null) {
+                        key = stringPool.internKey(key);
+                    }
+                    if (skipWhitespace() != ':') {
+                        throw error("Expected ':' after object key");
+                    }
+                    map.put(key, parseValue(skipWhitespace()));
+                    limits.checkCollectionSize(map.size(), this);
+
+                    c = skipWhitespace();
+                    if (c == '}') {
+                        break;
+                    } else if (c != ',') {
+                        throw error("Expected ',' or '}' in object");
+                    }
+                    c = skipWhitespace();
+                }
+            }
+            limits.exitCollection();
+            return map;
+        }
+
+        private List<Object> parseArray() throws IOException {
+            limits.enterCollection(this);
+            List<Object> list = new ArrayList<>();
+            int c = skipWhitespace();
+            if (c != ']') {
+                while (true) {
+                    list.add(parseValue(c));
+                    limits.checkCollectionSize(list.size(), this);
+
+                    c = skipWhitespace();
+                    if (c == ']') {
+                        break;
+                    } else if (c != ',') {
+                        throw error("Expected ',' or ']' in array");
+                    }
+                    c = skipWhitespace();
+                }
+            }
+            limits.exitCollection();
+            return list;
+        }
+
+        /**
+         * Parses a string whose opening quote has already been consumed.
+         */
+        private String parseString() throws IOException {
+            // Fast path: string without escapes within the current buffer
+            for (int i = position; i < limit; ++i) {
+                char c = buffer[i];
+                if (c == '"') {
+                    String result = new String(buffer, position, i - position);
+                    position = i + 1;
+                    return result;
+                } else if (c == '\\' || c < 0x20) {
+                    break;
+                }
+            }
+
+            sb.setLength(0);
+            while (true) {
+                int c = read();
+                if (c == '"') {
+                    return sb.toString();
+                } else if (c == '\\') {
+                    sb.append(parseEscape());
+                } else if (c == EOF) {
+                    throw error("Unterminated string");
+                } else if (c < 0x20) {
+                    throw error("Control character in string");
+                } else {
+                    sb.append((char) c);
+                }
+            }
+        }
+
+        private char parseEscape() throws IOException {
+            int c = read();
+            switch (c) {
+                case '"':
+                case '\\':
+                case '/':
+                    return (char) c;
+                case 'b':
+                    return '\b';
+                case 'f':
+                    return '\f';
+                case 'n':
+                    return '\n';
+                case 'r':
+                    return '\r';
+                case 't':
+                    return '\t';
+                case 'u':
+                    int value = 0;
+                    for (int i = 0; i < 4; ++i) {
+                        int digit = Character.digit(read(), 16);
+                        if (digit < 0) {
+                            throw error("Invalid unicode escape");
+                        }
+                        value = (value << 4) | digit;
+                    }
+                    return (char) value;
+                default:
+                    throw error("Invalid escape sequence");
+            }
+        }
+
+        /**
+         * Parses a number whose first character has already been consumed.
+         */
+        private Number parseNumber(int first) throws IOException {
+            sb.setLength(0);
+            sb.append((char) first);
+            boolean isInteger = true;
+            while (true) {
+                int c = peek();
+                if (c >= '0' && c <= '9' || c == '-' || c == '+') {
+                    sb.append((char) c);
+                } else if (c == '.' || c == 'e' || c == 'E') {
+                    isInteger = false;
+                    sb.append((char) c);
+                } else {
+                    break;
+                }
+                ++position;
+            }
+
+            String text = sb.toString();
+            try {
+                if (isInteger) {
+                    return text.length() < 10 ? (Number) Integer.parseInt(text) : createInteger(text);
+                }
+                return Double.parseDouble(text);
+            } catch (NumberFormatException e) {
+                throw error("Invalid number '" + text + "'");
+            }
+        }
+
+        private static Number createInteger(String text) {
+            BigInteger value = new BigInteger(text);
+            if (value.bitLength() < Integer.SIZE) {
+                return value.intValue();
+            } else if (value.bitLength() < Long.SIZE) {
+                return value.longValue();
+            }
+            return value;
+        }
+
+        private void expectLiteral(String rest) throws IOException {
+            for (int i = 0; i < rest.length(); ++i) {
+                if (read() != rest.charAt(i)) {
+                    throw error("Invalid literal");
+                }
+            }
+        }
+
+        private int skipWhitespace() throws IOException {
+            while (true) {
+                int c = read();
+                if (c == '\n') {
+                    ++line;
+                    lineStart = charsBeforeBuffer + position;
+                } else if (c != ' ' && c != '\t' && c != '\r') {
+                    return c;
+                }
+            }
+        }
+
+        private int read() throws IOException {
+            if (position >= limit && !fillBuffer()) {
+                return EOF;
+            }
+            return buffer[position++];
+        }
+
+        private int peek() throws IOException {
+            if (position >= limit && !fillBuffer()) {
+                return EOF;
+            }
+            return buffer[position];
+        }
+
+        private boolean fillBuffer() throws IOException {
+            charsBeforeBuffer += limit;
+            position = 0;
+            limit = Math.max(reader.read(buffer), 0);
+            return limit > 0;
+        }
+
+        private String internValue(String value) {
+            return stringPool == null ? value : stringPool.internValue(value);
+        }
+
+        private ConfigMeException error(String message) {
+            return new ConfigMeException("Invalid JSON: " + message + " at " + this);
+        }
+
+        /**
+         * Describes the current position for error messages.
+         */
+        @Override
+        public String toString() {
+            return "line " + line + ", column " + (charsBeforeBuffer + position - lineStart);
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.configurationdata.ConfigurationData;
+import ch.jalu.configme.exception.ConfigMeException;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Property resource which merges the values of multiple {@link PropertyLayer layers}, e.g. the default values,
+ * a YAML file, environment variables and system properties (see {@link PropertyLayers}).
+ * <p>
+ * Layers are given from the lowest to the highest priority: a value of a layer overrides the values of all layers
+ * before it at the same path. The effective tree is computed once when the resource is created, along with an
+ * index of all paths, so reading a value is a single map lookup regardless of the number of layers. When a layer
+ * is reloaded, only the paths whose values changed in the layer are recomputed.
+ * <p>
+ * New values are set to the resource of the highest layer which has one (cf. {@link PropertyLayer#getResource()}),
+ * and properties are exported to that resource. A value set this way is only effective if no layer with a higher
+ * priority has a value at the same path.
+ */
+public class LayeredPropertyResource implements PropertyResource {
+
+    private final List<PropertyLayer> layers;
+    private final List<TreeMap<String, Object>> snapshots;
+    private final int persistentLayerIndex;
+
+    private final Map<String, Object> root = new LinkedHashMap<>();
+    private final Map<String, Object> index = new HashMap<>();
+    private final Map<String, PropertyLayer> origins = new HashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param layers the layers to merge, from the lowest to the highest priority
+     */
+    public LayeredPropertyResource(PropertyLayer... layers) {
+        this(Arrays.asList(layers));
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param layers the layers to merge, from the lowest to the highest priority
+     */
+    public LayeredPropertyResource(List<PropertyLayer> layers) {
+        this.layers = Collections.unmodifiableList(new ArrayList<>(layers));
+        this.snapshots = new ArrayList<>(layers.size());
+        int persistentLayerIndex = -1;
+        for (int i = 0; i < this.layers.size(); ++i) {
+            snapshots.add(loadSnapshot(this.layers.get(i)));
+            if (this.layers.get(i).getResource() != null) {
+                persistentLayerIndex = i;
+            }
+        }
+        this.persistentLayerIndex = persistentLayerIndex;
+        rebuild();
+    }
+
+    @Override
+    public Object getObject(String path) {
+        return index.get(path);
+    }
+
+    @Override
+    public String getString(String path) {
+        return getTypedObject(path, String.class);
+    }
+
+    @Override
+    public Integer getInt(String path) {
+        Number n = getTypedObject(path, Number.class);
+        return (n == null)
+            ? null
+            : n.intValue();
+    }
+
+    @Override
+    public Double getDouble(String path) {
+        Number n = getTypedObject(path, Number.class);
+        return (n == null)
+            ? null
+            : n.doubleValue();
+    }
+
+    @Override
+    public Boolean getBoolean(String path) {
+        return getTypedObject(path, Boolean.class);
+    }
+
+    @Override
+    public List<?> getList(String path) {
+        return getTypedObject(path, List.class);
+    }
+
+    @Override
+    public boolean contains(String path) {
+        return index.get(path) != null;
+    }
+
+    /**
+     * Returns the layer the value at the given path comes from. Returns null for sections, since their
+     * entries may come from multiple layers, and for paths without value.
+     *
+     * @param path the path of the value
+     * @return the layer of the value, or null if not applicable
+     */
+    @Nullable
+    public PropertyLayer getOrigin(String path) {
+        return origins.get(path);
+    }
+
+    /**
+     * @return the layers of this resource, from the lowest to the highest priority
+     */
+    public List<PropertyLayer> getLayers() {
+        return layers;
+    }
+
+    @Override
+    public void setValue(String path, @Nullable Object value) {
+        if (persistentLayerIndex < 0) {
+            throw new ConfigMeException("Cannot set value for path '" + path + "': no layer has a resource");
+        }
+        layers.get(persistentLayerIndex).getResource().setValue(path, value);
+
+        TreeMap<String, Object> snapshot = snapshots.get(persistentLayerIndex);
+        Set<String> changedPaths = new HashSet<>();
+        changedPaths.add(path);
+        if (path.isEmpty()) {
+            snapshot.clear();
+        } else {
+            for (int dot = path.indexOf('.'); dot >= 0; dot = path.indexOf('.', dot + 1)) {
+                String ancestor = path.substring(0, dot);
+                if (snapshot.remove(ancestor) != null) {
+                    changedPaths.add(ancestor);
+                }
+            }
+            snapshot.remove(path);
+            snapshot.subMap(path + ".", path + "/").clear();
+        }
+        PropertyLayers.flatten(path, value, snapshot);
+        recompute(changedPaths);
+    }
+
+    /**
+     * Reloads all layers. Only the paths whose values have changed are recomputed.
+     */
+    @Override
+    public void reload() {
+        for (PropertyLayer layer : layers) {
+            reloadLayer(layer);
+        }
+    }
+
+    /**
+     * Reloads the given layer. Only the paths whose values have changed in the layer are recomputed.
+     *
+     * @param layer the layer to reload (must be part of this resource)
+     */
+    public void reloadLayer(PropertyLayer layer) {
+        int layerIndex = layers.indexOf(layer);
+        if (layerIndex < 0) {
+            throw new ConfigMeException("Layer '" + layer.getName() + "' is not part of this resource");
+        }
+        TreeMap<String, Object> oldSnapshot = snapshots.get(layerIndex);
+        TreeMap<String, Object> newSnapshot = loadSnapshot(layer);
+        snapshots.set(layerIndex, newSnapshot);
+        recompute(findChangedPaths(oldSnapshot, newSnapshot));
+    }
+
+    /**
+     * Exports the properties to the resource of the highest layer which has one. The exported values are the
+     * values of that resource, i.e. values from other layers are not persisted. Does nothing if no layer has
+     * a resource.
+     *
+     * @param configurationData the configuration data to export
+     */
+    @Override
+    public void exportProperties(ConfigurationData configurationData) {
+        if (persistentLayerIndex >= 0) {
+            layers.get(persistentLayerIndex).getResource().exportProperties(configurationData);
+        }
+    }
+
+    @Nullable
+    private <T> T getTypedObject(String path, Class<T> clazz) {
+        Object value = index.get(path);
+        if (clazz.isInstance(value)) {
+            return clazz.cast(value);
+        }
+        return null;
+    }
+
+    private static TreeMap<String, Object> loadSnapshot(PropertyLayer layer) {
+        TreeMap<String, Object> snapshot = new TreeMap<>();
+        for (Map.Entry<String, Object> entry : layer.loadValues().entrySet()) {
+            if (entry.getValue() != null) {
+                snapshot.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return snapshot;
+    }
+
+    private static Set<String> findChangedPaths(Map<String, Object> oldSnapshot, Map<String, Object> newSnapshot) {
+        Set<String> changedPaths = new HashSet<>();
+        for (Map.Entry<String, Object> entry : newSnapshot.entrySet()) {
+            if (!Objects.equals(entry.getValue(), oldSnapshot.get(entry.getKey()))) {
+                changedPaths.add(entry.getKey());
+            }
+        }
+        for (String path : oldSnapshot.keySet()) {
+            if (!newSnapshot.containsKey(path)) {
+                changedPaths.add(path);
+            }
+        }
+        return changedPaths;
+    }
+
+    /**
+     * Recomputes the effective values for the given paths. Each path is mapped to the region whose values
+     * depend on it, i.e. its shortest prefix which is a value in any layer. Regions within another region
+     * are skipped as they are recomputed with the outer region.
+     *
+     * @param changedPaths the paths whose values changed in a layer
+     */
+    private void recompute(Collection<String> changedPaths) {
+        Set<String> regions = new TreeSet<>();
+        for (String path : changedPaths) {
+            regions.add(findRegion(path));
+        }
+
+        Set<String> recomputedRegions = new HashSet<>();
+        for (String region : regions) {
+            if (!isInRecomputedRegion(region, recomputedRegions)) {
+                recomputeRegion(region);
+                recomputedRegions.add(region);
+            }
+        }
+    }
+
+    private String findRegion(String path) {
+        int dot = -1;
+        do {
+            dot = path.indexOf('.', dot + 1);
+            String prefix = dot < 0 ? path : path.substring(0, dot);
+            for (TreeMap<String, Object> snapshot : snapshots) {
+                if (snapshot.containsKey(prefix)) {
+                    return prefix;
+                }
+            }
+        } while (dot >= 0);
+        return path;
+    }
+
+    private static boolean isInRecomputedRegion(String region, Set<String> recomputedRegions) {
+        if (recomputedRegions.contains("")) {
+            return true;
+        }
+        for (int dot = region.indexOf('.'); dot >= 0; dot = region.indexOf('.', dot + 1)) {
+            if (recomputedRegions.contains(region.substring(0, dot))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void recomputeRegion(String region) {
+        if (region.isEmpty()) {
+            rebuild();
+            return;
+        }
+        removeSubtree(region);
+        for (int i = 0; i < layers.size(); ++i) {
+            TreeMap<String, Object> snapshot = snapshots.get(i);
+            Object value = snapshot.get(region);
+            if (value != null) {
+                put(region, value, layers.get(i));
+            }
+            for (Map.Entry<String, Object> entry : snapshot.subMap(region + ".", region + "/").entrySet()) {
+                put(entry.getKey(), entry.getValue(), layers.get(i));
+            }
+        }
+    }
+
+    private void rebuild() {
+        root.clear();
+        index.clear();
+        origins.clear();
+        index.put("", root);
+        for (int i = 0; i < layers.size(); ++i) {
+            for (Map.Entry<String, Object> entry : snapshots.get(i).entrySet()) {
+                put(entry.getKey(), entry.getValue(), layers.get(i));
+            }
+        }
+    }
+
+    /**
+     * Sets the value of the given layer at the given path, replacing any previous value or section at the path.
+     * Sections are created as needed; values in the way of the path are replaced with a section.
+     */
+    @SuppressWarnings("unchecked")
+    private void put(String path, Object value, PropertyLayer layer) {
+        Map<String, Object> parent = root;
+        int start = 0;
+        for (int dot = path.indexOf('.'); dot >= 0; dot = path.indexOf('.', start)) {
+            String key = path.substring(start, dot);
+            String sectionPath = path.substring(0, dot);
+            Object child = parent.get(key);
+            if (!(child instanceof Map<?, ?>) || origins.containsKey(sectionPath)) {
+                removeFromIndex(sectionPath, child);
+                child = new LinkedHashMap<String, Object>();
+                parent.put(key, child);
+                index.put(sectionPath, child);
+            }
+            parent = (Map<String, Object>) child;
+            start = dot + 1;
+        }
+
+        String key = path.substring(start);
+        removeFromIndex(path, parent.get(key));
+        parent.put(key, value);
+        index.put(path, value);
+        origins.put(path, layer);
+    }
+
+    /**
+     * Removes the value or section at the given path from the tree, as well as any sections which are
+     * empty afterwards.
+     */
+    private void removeSubtree(String path) {
+        Object node = index.get(path);
+        if (node == null) {
+            return;
+        }
+        removeFromIndex(path, node);
+
+        String current = path;
+        while (!current.isEmpty()) {
+            int dot = current.lastIndexOf('.');
+            String parentPath = dot < 0 ? "" : current.substring(0, dot);
+            Map<?, ?> parent = (Map<?, ?>) index.get(parentPath);
+            parent.remove(current.substring(dot + 1));
+            if (!parent.isEmpty() || parentPath.isEmpty()) {
+                break;
+            }
+            index.remove(parentPath);
+            current = parentPath;
+        }
+    }
+
+    private void removeFromIndex(String path, @Nullable Object node) {
+        if (node == null) {
+            return;
+        }
+        index.remove(path);
+        if (origins.remove(path) == null && node instanceof Map<?, ?>) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) node).entrySet()) {
+                removeFromIndex(path + "." + entry.getKey(), entry.getValue());
+            }
+        }
+    }
+}
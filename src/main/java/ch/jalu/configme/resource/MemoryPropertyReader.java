@@ -0,0 +1,176 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.exception.ConfigMeException;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Property reader which keeps its values in memory only, without any file.
+ * <p>
+ * The reader remembers the values it was created with; {@link #reload()} restores them, discarding all values
+ * which have been set in the meantime. {@link #commit()} makes the current values the ones to restore, which
+ * is what saving a file does for a file-based reader.
+ */
+public class MemoryPropertyReader implements PropertyReader {
+
+    private Map<String, Object> committedRoot;
+    private boolean committedHasObjectAsRoot;
+    private Map<String, Object> root;
+    private boolean hasObjectAsRoot;
+
+    /**
+     * Constructor. Creates a reader without any values.
+     */
+    public MemoryPropertyReader() {
+        this(new LinkedHashMap<>());
+    }
+
+    /**
+     * Constructor. The given map is copied, i.e. later changes to it do not affect the reader.
+     *
+     * @param values the values to start with, with nested maps for sections (like a parsed YAML document)
+     */
+    public MemoryPropertyReader(Map<String, ?> values) {
+        this.committedRoot = copyMap(values);
+        reload();
+    }
+
+    /**
+     * Constructor. Parses the given content with the parser of the options, e.g. a {@link JsonParser}
+     * for JSON content.
+     *
+     * @param content the content to parse (YAML or JSON, depending on the parser)
+     * @param options the options to parse the content with
+     */
+    @SuppressWarnings("unchecked")
+    public MemoryPropertyReader(String content, ReaderOptions options) {
+        if (content.length() > options.getMaxDocumentSize()) {
+            throw new ConfigMeException("Content exceeds the maximum size of " + options.getMaxDocumentSize()
+                + " characters");
+        }
+        Object tree;
+        try {
+            tree = options.getParser().parse(new StringReader(content), options);
+        } catch (IOException e) {
+            throw new ConfigMeException("Could not parse content", e);
+        }
+        if (tree != null && !(tree instanceof Map<?, ?>)) {
+            throw new ConfigMeException("Top-level is not a map in the given content");
+        }
+        // The parsed tree is not referenced anywhere else, so it does not need to be copied
+        this.committedRoot = tree == null ? new LinkedHashMap<>() : (Map<String, Object>) tree;
+        reload();
+    }
+
+    @Override
+    public Object getObject(String path) {
+        if (path.isEmpty()) {
+            return hasObjectAsRoot ? root.get("") : root;
+        }
+        Object node = root;
+        int start = 0;
+        int dot;
+        do {
+            if (!(node instanceof Map<?, ?>)) {
+                return null;
+            }
+            dot = path.indexOf('.', start);
+            node = ((Map<?, ?>) node).get(dot < 0 ? path.substring(start) : path.substring(start, dot));
+            start = dot + 1;
+        } while (dot >= 0 && node != null);
+        return node;
+    }
+
+    @Override
+    public <T> T getTypedObject(String path, Class<T> clazz) {
+        Object value = getObject(path);
+        if (clazz.isInstance(value)) {
+            return clazz.cast(value);
+        }
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void set(String path, @Nullable Object value) {
+        Objects.requireNonNull(path);
+        if (path.isEmpty()) {
+            root.clear();
+            root.put("", value);
+            hasObjectAsRoot = true;
+            return;
+        } else if (hasObjectAsRoot) {
+            throw new ConfigMeException("The root path is a bean property; you cannot set values to any subpath. "
+                + "Modify the bean at the root or set a new one instead.");
+        }
+
+        Map<String, Object> node = root;
+        String[] keys = path.split("\\.");
+        for (int i = 0; i < keys.length - 1; ++i) {
+            Object child = node.get(keys[i]);
+            if (!(child instanceof Map<?, ?>)) {
+                if (value == null) {
+                    return;
+                }
+                child = new LinkedHashMap<String, Object>();
+                node.put(keys[i], child);
+            }
+            node = (Map<String, Object>) child;
+        }
+        if (value == null) {
+            node.remove(keys[keys.length - 1]);
+        } else {
+            node.put(keys[keys.length - 1], value);
+        }
+    }
+
+    /**
+     * Restores the values the reader was created with, or the values of the last {@link #commit()}.
+     */
+    @Override
+    public void reload() {
+        root = copyMap(committedRoot);
+        hasObjectAsRoot = committedHasObjectAsRoot;
+    }
+
+    /**
+     * Makes the current values the ones which are restored on {@link #reload()}.
+     */
+    public void commit() {
+        committedRoot = copyMap(root);
+        committedHasObjectAsRoot = hasObjectAsRoot;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> copyMap(Map<?, ?> map) {
+        Map<Object, Object> copy = new LinkedHashMap<>(Math.max(16, map.size() * 4 / 3 + 1));
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            copy.put(entry.getKey(), copyValue(entry.getValue()));
+        }
+        return (Map<String, Object>) (Map<?, ?>) copy;
+    }
+
+    private static Object copyValue(@Nullable Object value) {
+        if (value instanceof Map<?, ?>) {
+            return copyMap((Map<?, ?>) value);
+        } else if (value instanceof Collection<?>) {
+            Collection<Object> copy = value instanceof Set<?>
+                ? new LinkedHashSet<>()
+                : new ArrayList<>(((Collection<?>) value).size());
+            for (Object entry : (Collection<?>) value) {
+                copy.add(copyValue(entry));
+            }
+            return copy;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,208 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.beanmapper.leafproperties.LeafPropertiesGenerator;
+import ch.jalu.configme.configurationdata.ConfigurationData;
+import ch.jalu.configme.properties.BeanProperty;
+import ch.jalu.configme.properties.OptionalProperty;
+import ch.jalu.configme.properties.Property;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Property resource which keeps its values in memory only, e.g. for configurations which are received over
+ * the network, for tests and as baseline in benchmarks.
+ * <p>
+ * Values are managed by a {@link MemoryPropertyReader}: reloading the resource restores the values of the last
+ * export, or the values it was created with if it has not been exported. Properties are exported in the same
+ * YAML format as with a {@link YamlFileResource}, either to a given writer or to the export listener.
+ */
+public class MemoryPropertyResource implements PropertyResource, PropertyExporter {
+
+    private final MemoryPropertyReader reader;
+    private final YamlPropertyWriter yamlWriter;
+    private ByteBuffer exportBuffer = ByteBuffer.allocate(8192);
+    @Nullable
+    private Consumer<ByteBuffer> exportListener;
+
+    /**
+     * Constructor. Creates a resource without any values.
+     */
+    public MemoryPropertyResource() {
+        this(new MemoryPropertyReader());
+    }
+
+    /**
+     * Constructor. The given map is copied, i.e. later changes to it do not affect the resource.
+     *
+     * @param values the values to start with, with nested maps for sections (like a parsed YAML document)
+     */
+    public MemoryPropertyResource(Map<String, ?> values) {
+        this(new MemoryPropertyReader(values));
+    }
+
+    /**
+     * Constructor. Parses the given content with the parser of the options (e.g. {@link JsonParser}).
+     *
+     * @param content the content to parse
+     * @param readerOptions the options to parse the content with
+     */
+    public MemoryPropertyResource(String content, ReaderOptions readerOptions) {
+        this(new MemoryPropertyReader(content, readerOptions));
+    }
+
+    /**
+     * Constructor. Creates a resource with the default values of the given configuration data's properties.
+     * Optional properties are skipped.
+     *
+     * @param configurationData the configuration data whose default values should be set
+     */
+    public MemoryPropertyResource(ConfigurationData configurationData) {
+        this(new MemoryPropertyReader());
+        setDefaultValues(configurationData);
+        reader.commit();
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param reader the reader which manages the values
+     */
+    public MemoryPropertyResource(MemoryPropertyReader reader) {
+        this.reader = reader;
+        this.yamlWriter = new YamlPropertyWriter(this, new LeafPropertiesGenerator());
+    }
+
+    /**
+     * Creates a resource with the values of the given YAML content.
+     *
+     * @param yaml the YAML content
+     * @return resource with the values of the YAML content
+     */
+    public static MemoryPropertyResource fromYaml(String yaml) {
+        return new MemoryPropertyResource(yaml, new ReaderOptions());
+    }
+
+    /**
+     * Creates a resource with the values of the given JSON content.
+     *
+     * @param json the JSON content
+     * @return resource with the values of the JSON content
+     */
+    public static MemoryPropertyResource fromJson(String json) {
+        ReaderOptions options = new ReaderOptions();
+        options.setParser(new JsonParser());
+        return new MemoryPropertyResource(json, options);
+    }
+
+    @Override
+    public Object getObject(String path) {
+        return reader.getObject(path);
+    }
+
+    @Override
+    public String getString(String path) {
+        return reader.getTypedObject(path, String.class);
+    }
+
+    @Override
+    public Integer getInt(String path) {
+        Number n = reader.getTypedObject(path, Number.class);
+        return (n == null)
+            ? null
+            : n.intValue();
+    }
+
+    @Override
+    public Double getDouble(String path) {
+        Number n = reader.getTypedObject(path, Number.class);
+        return (n == null)
+            ? null
+            : n.doubleValue();
+    }
+
+    @Override
+    public Boolean getBoolean(String path) {
+        return reader.getTypedObject(path, Boolean.class);
+    }
+
+    @Override
+    public List<?> getList(String path) {
+        return reader.getTypedObject(path, List.class);
+    }
+
+    @Override
+    public boolean contains(String path) {
+        return reader.getObject(path) != null;
+    }
+
+    @Override
+    public void setValue(String path, @Nullable Object value) {
+        reader.set(path, value);
+    }
+
+    @Override
+    public void reload() {
+        reader.reload();
+    }
+
+    /**
+     * Exports the properties as YAML and passes the UTF-8 encoded result to the export listener, if present.
+     * The current values become the values which are restored on {@link #reload()}.
+     *
+     * @param configurationData the configuration data to export
+     */
+    @Override
+    public void exportProperties(ConfigurationData configurationData) {
+        exportBuffer = exportProperties(configurationData, exportBuffer);
+        if (exportListener != null) {
+            exportListener.accept(exportBuffer.asReadOnlyBuffer());
+        }
+    }
+
+    /**
+     * Exports the properties as YAML to the given writer. The writer is flushed but not closed. The current
+     * values become the values which are restored on {@link #reload()}.
+     *
+     * @param configurationData the configuration data to export
+     * @param writer the writer to write to
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void exportProperties(ConfigurationData configurationData, Writer writer) throws IOException {
+        yamlWriter.writeProperties(configurationData, writer);
+        reader.commit();
+    }
+
+    /**
+     * Sets the listener which receives the UTF-8 encoded YAML export whenever
+     * {@link #exportProperties(ConfigurationData)} is called. The buffer passed to the listener is read-only
+     * and is reused by the next export, so its content must be consumed or copied right away.
+     *
+     * @param exportListener the listener to notify on export (null to remove the listener)
+     */
+    public void setExportListener(@Nullable Consumer<ByteBuffer> exportListener) {
+        this.exportListener = exportListener;
+    }
+
+    private void setDefaultValues(ConfigurationData configurationData) {
+        LeafPropertiesGenerator leafPropertiesGenerator = new LeafPropertiesGenerator();
+        for (Property<?> property : configurationData.getProperties()) {
+            if (property instanceof BeanProperty<?>) {
+                List<Property<?>> leafProperties = ExportableProperties.generateDefaultLeafProperties(
+                    (BeanProperty<?>) property, leafPropertiesGenerator);
+                for (Property<?> leafProperty : leafProperties) {
+                    Object value = leafProperty.getDefaultValue();
+                    reader.set(leafProperty.getPath(), value instanceof Enum<?> ? ((Enum<?>) value).name() : value);
+                }
+            } else if (!(property instanceof OptionalProperty<?>)) {
+                reader.set(property.getPath(), property.getDefaultValue());
+            }
+        }
+    }
+}
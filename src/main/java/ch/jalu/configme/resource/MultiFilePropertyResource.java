@@ -0,0 +1,449 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.SettingsHolder;
+import ch.jalu.configme.configurationdata.ConfigurationData;
+import ch.jalu.configme.configurationdata.ConfigurationDataBuilder;
+import ch.jalu.configme.exception.ConfigMeException;
+import ch.jalu.configme.properties.Property;
+import ch.jalu.configme.utils.Utils;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Property resource whose values are split across multiple YAML files: sections of the configuration are stored
+ * in their own file, and all other values are stored in the main file.
+ * <p>
+ * The files are loaded in parallel on the given executor. Each file can be reloaded and exported on its own;
+ * {@link #reload()} only reloads the files which have been modified since they were last loaded or saved, so the
+ * time to reload depends on the changed files and not on the total size of the configuration.
+ * <p>
+ * Every file is a regular YAML file with the full paths of its properties, i.e. the file of the section
+ * {@code database} has the {@code database} key at the top. The section of a path is its longest prefix which
+ * has been mapped to a file. Properties whose path is a parent of a section in another file cannot be exported,
+ * since their value would span multiple files.
+ */
+public class MultiFilePropertyResource implements PropertyResource {
+
+    private final Executor executor;
+    private final FilePart mainPart;
+    private final List<FilePart> parts = new ArrayList<>();
+    private final NavigableMap<String, FilePart> partsBySection = new TreeMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param mainFile the file for all values which do not belong to a section with its own file
+     * @param sectionFiles the files of the sections, by section path (e.g. {@code database} or {@code a.b})
+     * @param executor the executor to load and save the files on
+     */
+    public MultiFilePropertyResource(File mainFile, Map<String, File> sectionFiles, Executor executor) {
+        this(mainFile, sectionFiles, new ReaderOptions(), executor);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param mainFile the file for all values which do not belong to a section with its own file
+     * @param sectionFiles the files of the sections, by section path (e.g. {@code database} or {@code a.b})
+     * @param readerOptions the options to read the files with (shared by all files)
+     * @param executor the executor to load and save the files on
+     */
+    public MultiFilePropertyResource(File mainFile, Map<String, File> sectionFiles, ReaderOptions readerOptions,
+                                     Executor executor) {
+        this.executor = executor;
+        this.mainPart = new FilePart(mainFile, readerOptions);
+        parts.add(mainPart);
+        Map<File, FilePart> partsByFile = new HashMap<>();
+        partsByFile.put(mainFile.getAbsoluteFile(), mainPart);
+        for (Map.Entry<String, File> entry : sectionFiles.entrySet()) {
+            if (entry.getKey().isEmpty()) {
+                throw new ConfigMeException("The root path cannot be mapped to a section file");
+            }
+            FilePart part = partsByFile.computeIfAbsent(entry.getValue().getAbsoluteFile(), file -> {
+                FilePart newPart = new FilePart(file, readerOptions);
+                parts.add(newPart);
+                return newPart;
+            });
+            partsBySection.put(entry.getKey(), part);
+        }
+        runOnParts(parts, FilePart::load);
+    }
+
+    /**
+     * Creates a resource which stores the properties of each given settings holder class in its own file.
+     *
+     * @param mainFile the file for all values which do not belong to any of the settings holders
+     * @param holderFiles the files of the settings holder classes
+     * @param executor the executor to load and save the files on
+     * @return the resource
+     */
+    public static MultiFilePropertyResource forSettingsHolders(File mainFile,
+                                                               Map<Class<? extends SettingsHolder>, File> holderFiles,
+                                                               Executor executor) {
+        Map<String, File> sectionFiles = new HashMap<>();
+        for (Map.Entry<Class<? extends SettingsHolder>, File> entry : holderFiles.entrySet()) {
+            ConfigurationData configurationData = ConfigurationDataBuilder.collectData(entry.getKey());
+            for (Property<?> property : configurationData.getProperties()) {
+                sectionFiles.put(property.getPath(), entry.getValue());
+            }
+        }
+        return new MultiFilePropertyResource(mainFile, sectionFiles, executor);
+    }
+
+    @Override
+    public Object getObject(String path) {
+        FilePart part = findPart(path);
+        if (part != null) {
+            return part.resource.getObject(path);
+        }
+
+        // The path is a parent of sections in other files: merge the values of all files
+        Object mainValue = mainPart.resource.getObject(path);
+        Map<String, Object> merged = new LinkedHashMap<>();
+        if (mainValue instanceof Map<?, ?>) {
+            mergeInto(merged, (Map<?, ?>) mainValue);
+        }
+        for (String section : getSectionsBelow(path)) {
+            Object sectionValue = partsBySection.get(section).resource.getObject(section);
+            if (sectionValue != null) {
+                String relativePath = path.isEmpty() ? section : section.substring(path.length() + 1);
+                mergeInto(merged, createNestedMap(relativePath, sectionValue));
+            }
+        }
+        return merged.isEmpty() && mainValue == null ? null : merged;
+    }
+
+    @Override
+    public String getString(String path) {
+        return getTypedObject(path, String.class);
+    }
+
+    @Override
+    public Integer getInt(String path) {
+        Number n = getTypedObject(path, Number.class);
+        return (n == null)
+            ? null
+            : n.intValue();
+    }
+
+    @Override
+    public Double getDouble(String path) {
+        Number n = getTypedObject(path, Number.class);
+        return (n == null)
+            ? null
+            : n.doubleValue();
+    }
+
+    @Override
+    public Boolean getBoolean(String path) {
+        return getTypedObject(path, Boolean.class);
+    }
+
+    @Override
+    public List<?> getList(String path) {
+        return getTypedObject(path, List.class);
+    }
+
+    @Override
+    public boolean contains(String path) {
+        return getObject(path) != null;
+    }
+
+    @Override
+    public void setValue(String path, @Nullable Object value) {
+        FilePart part = findPart(path);
+        if (part != null) {
+            part.resource.setValue(path, value);
+            return;
+        }
+
+        // The path is a parent of sections in other files: split the value among the files
+        Map<?, ?> remainingValue = value instanceof Map<?, ?> ? new LinkedHashMap<>((Map<?, ?>) value) : null;
+        for (String section : getSectionsBelow(path)) {
+            String relativePath = path.isEmpty() ? section : section.substring(path.length() + 1);
+            partsBySection.get(section).resource.setValue(section, removeNestedValue(remainingValue, relativePath));
+        }
+        mainPart.resource.setValue(path, remainingValue == null ? value : remainingValue);
+    }
+
+    /**
+     * Reloads the files which have been modified since they were last loaded or saved, in parallel.
+     * Modifications are detected as described in {@link FileState}.
+     */
+    @Override
+    public void reload() {
+        List<FilePart> modifiedParts = new ArrayList<>();
+        for (FilePart part : parts) {
+            if (part.isModified()) {
+                modifiedParts.add(part);
+            }
+        }
+        runOnParts(modifiedParts, FilePart::load);
+    }
+
+    /**
+     * Reloads the values of the given path from the file(s) it is stored in. Values of other paths are
+     * kept as they are in memory, even if they are stored in the same file.
+     *
+     * @param sectionPath the path of the section to reload (empty string to reload all modified files)
+     */
+    @Override
+    public void reload(String sectionPath) {
+        if (sectionPath.isEmpty()) {
+            reload();
+            return;
+        }
+        FilePart part = findPart(sectionPath);
+        if (part != null) {
+            part.resource.reload(sectionPath);
+        } else {
+            for (String section : getSectionsBelow(sectionPath)) {
+                partsBySection.get(section).resource.reload(section);
+            }
+            mainPart.resource.reload(sectionPath);
+        }
+    }
+
+    /**
+     * Reloads the file of the given section, regardless of whether it has been modified.
+     *
+     * @param section the path of the section, as mapped to its file (empty string for the main file)
+     */
+    public void reloadSection(String section) {
+        getPartOfSection(section).load();
+    }
+
+    /**
+     * Exports the properties to their files, in parallel.
+     *
+     * @param configurationData the configuration data to export
+     */
+    @Override
+    public void exportProperties(ConfigurationData configurationData) {
+        verifyPropertiesBelongToOnePart(configurationData);
+        runOnParts(parts, part -> part.export(configurationData));
+    }
+
+    /**
+     * Exports the properties of the given section to its file. No other file is written to.
+     *
+     * @param section the path of the section, as mapped to its file (empty string for the main file)
+     * @param configurationData the configuration data to export (may contain properties of other files)
+     */
+    public void exportSection(String section, ConfigurationData configurationData) {
+        FilePart part = getPartOfSection(section);
+        verifyPropertiesBelongToOnePart(configurationData);
+        part.export(configurationData);
+    }
+
+    @Nullable
+    private <T> T getTypedObject(String path, Class<T> clazz) {
+        Object value = getObject(path);
+        if (clazz.isInstance(value)) {
+            return clazz.cast(value);
+        }
+        return null;
+    }
+
+    private FilePart getPartOfSection(String section) {
+        FilePart part = section.isEmpty() ? mainPart : partsBySection.get(section);
+        if (part == null) {
+            throw new ConfigMeException("No file has been mapped to the section '" + section + "'");
+        }
+        return part;
+    }
+
+    /**
+     * Returns the part which stores the value at the given path, or null if the path is a parent
+     * of sections in different files.
+     *
+     * @param path the path to look up
+     * @return the part of the path, or null if the value is spread across multiple files
+     */
+    @Nullable
+    private FilePart findPart(String path) {
+        for (String prefix = path; !prefix.isEmpty(); prefix = parentPath(prefix)) {
+            FilePart part = partsBySection.get(prefix);
+            if (part != null) {
+                return part;
+            }
+        }
+        return getSectionsBelow(path).isEmpty() ? mainPart : null;
+    }
+
+    /**
+     * Returns the sections below the given path. Since '/' follows '.' in the character table, the sections
+     * below {@code path} are the keys from {@code path + "."} (inclusive) to {@code path + "/"} (exclusive).
+     *
+     * @param path the path to look up
+     * @return the mapped sections below the path
+     */
+    private Set<String> getSectionsBelow(String path) {
+        if (path.isEmpty()) {
+            return partsBySection.keySet();
+        }
+        return partsBySection.subMap(path + ".", true, path + "/", false).keySet();
+    }
+
+    private void verifyPropertiesBelongToOnePart(ConfigurationData configurationData) {
+        for (Property<?> property : configurationData.getProperties()) {
+            if (findPart(property.getPath()) == null) {
+                throw new ConfigMeException("Property '" + property.getPath() + "' cannot be exported, since it "
+                    + "is a parent of the sections " + getSectionsBelow(property.getPath())
+                    + ", which are stored in other files");
+            }
+        }
+    }
+
+    /**
+     * Runs the given action for all parts on the executor and waits until all of them are done.
+     *
+     * @param parts the parts to process
+     * @param action the action to run for each part
+     */
+    private void runOnParts(List<FilePart> parts, Consumer<FilePart> action) {
+        if (parts.size() == 1) {
+            action.accept(parts.get(0));
+            return;
+        }
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[parts.size()];
+        for (int i = 0; i < parts.size(); ++i) {
+            FilePart part = parts.get(i);
+            futures[i] = CompletableFuture.runAsync(() -> action.accept(part), executor);
+        }
+        try {
+            CompletableFuture.allOf(futures).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof ConfigMeException) {
+                throw (ConfigMeException) e.getCause();
+            }
+            throw new ConfigMeException("Failed to process configuration files", e.getCause());
+        }
+    }
+
+    private static String parentPath(String path) {
+        int lastDot = path.lastIndexOf('.');
+        return lastDot < 0 ? "" : path.substring(0, lastDot);
+    }
+
+    private static Map<String, Object> createNestedMap(String path, Object value) {
+        Map<String, Object> root = new LinkedHashMap<>();
+        Map<String, Object> node = root;
+        String[] keys = path.split("\\.");
+        for (int i = 0; i < keys.length - 1; ++i) {
+            Map<String, Object> child = new LinkedHashMap<>();
+            node.put(keys[i], child);
+            node = child;
+        }
+        node.put(keys[keys.length - 1], value);
+        return root;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void mergeInto(Map<String, Object> target, Map<?, ?> source) {
+        for (Map.Entry<?, ?> entry : source.entrySet()) {
+            String key = String.valueOf(entry.getKey());
+            Object existing = target.get(key);
+            if (existing instanceof Map<?, ?> && entry.getValue() instanceof Map<?, ?>) {
+                mergeInto((Map<String, Object>) existing, (Map<?, ?>) entry.getValue());
+            } else if (entry.getValue() instanceof Map<?, ?>) {
+                Map<String, Object> copy = new LinkedHashMap<>();
+                mergeInto(copy, (Map<?, ?>) entry.getValue());
+                target.put(key, copy);
+            } else {
+                target.put(key, entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Removes the value at the given relative path from the map (copying the maps along the path so that
+     * the original value is not modified) and returns it.
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    private static Object removeNestedValue(@Nullable Map<?, ?> map, String relativePath) {
+        int dot = relativePath.indexOf('.');
+        if (map == null) {
+            return null;
+        } else if (dot < 0) {
+            return map.remove(relativePath);
+        }
+        String key = relativePath.substring(0, dot);
+        Object child = map.get(key);
+        if (!(child instanceof Map<?, ?>)) {
+            return null;
+        }
+        Map<Object, Object> childCopy = new LinkedHashMap<>((Map<?, ?>) child);
+        ((Map<Object, Object>) map).put(key, childCopy);
+        return removeNestedValue(childCopy, relativePath.substring(dot + 1));
+    }
+
+    /**
+     * A file of the configuration, storing the values of one or more sections (or of the main file).
+     */
+    private final class FilePart {
+
+        private final File file;
+        private final ReaderOptions readerOptions;
+        private YamlFileResource resource;
+        private FileState loadedState;
+
+        FilePart(File file, ReaderOptions readerOptions) {
+            this.file = file;
+            this.readerOptions = readerOptions;
+        }
+
+        void load() {
+            Utils.createFileIfNotExists(file); // e.g. a section file which has been added to the resource
+            FileState state = FileState.of(file);
+            resource = new YamlFileResource(file, readerOptions);
+            loadedState = state;
+        }
+
+        boolean isModified() {
+            return loadedState.isModified(file);
+        }
+
+        void export(ConfigurationData configurationData) {
+            resource.exportProperties(filterProperties(configurationData));
+            loadedState = FileState.of(file);
+        }
+
+        /**
+         * Returns configuration data with the properties of the given data which belong to this part.
+         */
+        private ConfigurationData filterProperties(ConfigurationData configurationData) {
+            List<Property<?>> properties = new ArrayList<>();
+            Map<String, String[]> sectionComments = new HashMap<>();
+            if (this == mainPart) {
+                sectionComments.put("", configurationData.getCommentsForSection(""));
+            }
+            for (Property<?> property : configurationData.getProperties()) {
+                if (findPart(property.getPath()) == this) {
+                    properties.add(property);
+                    for (String path = property.getPath(); !path.isEmpty(); path = parentPath(path)) {
+                        String[] comments = configurationData.getCommentsForSection(path);
+                        if (comments.length > 0) {
+                            sectionComments.put(path, comments);
+                        }
+                    }
+                }
+            }
+            return new ConfigurationData(properties, sectionComments);
+        }
+    }
+}
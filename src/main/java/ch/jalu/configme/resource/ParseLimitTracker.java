@@ -0,0 +1,77 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.exception.ConfigMeException;
+
+/**
+ * Keeps track of the structure of a document while it is being parsed and throws an exception as soon as
+ * one of the limits defined in the {@link ReaderOptions} is exceeded.
+ * <p>
+ * The locations passed to the methods of this class are only converted to a string if a limit is exceeded.
+ */
+final class ParseLimitTracker {
+
+    private final int maxNestingDepth;
+    private final int maxAliasCount;
+    private final int maxCollectionSize;
+
+    private int depth;
+    private long aliasCount;
+
+    /**
+     * Constructor.
+     *
+     * @param options the options defining the limits
+     */
+    ParseLimitTracker(ReaderOptions options) {
+        this.maxNestingDepth = options.getMaxNestingDepth();
+        this.maxAliasCount = options.getMaxAliasCount();
+        this.maxCollectionSize = options.getMaxCollectionSize();
+    }
+
+    /**
+     * Registers the start of a mapping or sequence.
+     *
+     * @param location the location of the collection
+     */
+    void enterCollection(Object location) {
+        if (++depth > maxNestingDepth) {
+            throw new ConfigMeException("Document exceeds the maximum nesting depth of " + maxNestingDepth
+                + " at " + location);
+        }
+    }
+
+    /**
+     * Registers the end of the mapping or sequence which was last entered.
+     */
+    void exitCollection() {
+        --depth;
+    }
+
+    /**
+     * Verifies that a mapping or sequence with the given number of entries is within the limits.
+     *
+     * @param size the number of entries of the collection
+     * @param location the location of the collection
+     */
+    void checkCollectionSize(int size, Object location) {
+        if (size > maxCollectionSize) {
+            throw new ConfigMeException("Collection exceeds the maximum size of " + maxCollectionSize
+                + " entries at " + location);
+        }
+    }
+
+    /**
+     * Registers the use of an alias. An alias counts with the number of nodes of the value it references
+     * (see {@link ReaderOptions#setMaxAliasCount}).
+     *
+     * @param referencedNodes the number of nodes of the referenced value
+     * @param location the location of the alias
+     */
+    void registerAlias(long referencedNodes, Object location) {
+        aliasCount += referencedNodes;
+        if (aliasCount > maxAliasCount) {
+            throw new ConfigMeException("Document exceeds the maximum number of " + maxAliasCount
+                + " aliases at " + location + " (each alias counts with the number of nodes it references)");
+        }
+    }
+}
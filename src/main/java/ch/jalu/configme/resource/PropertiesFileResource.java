@@ -0,0 +1,415 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.beanmapper.leafproperties.LeafPropertiesGenerator;
+import ch.jalu.configme.configurationdata.ConfigurationData;
+import ch.jalu.configme.exception.ConfigMeException;
+import ch.jalu.configme.properties.Property;
+import ch.jalu.configme.resource.PropertyPathTraverser.PathElement;
+import org.yaml.snakeyaml.nodes.Tag;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.TreeSet;
+
+/**
+ * Property resource based on a flat {@code .properties} file (read and written as UTF-8).
+ * <p>
+ * All values are stored in one hash map by their full path (e.g. {@code a.b.c}), so retrieving a value
+ * does not require navigating through nested maps. Sections, e.g. for bean properties, are assembled from
+ * a sorted index of the keys, which allows to find all keys of a section with one range scan.
+ * <p>
+ * Values are kept as text: {@link #getString} returns the text as is, while {@link #getInt},
+ * {@link #getDouble} and {@link #getBoolean} parse it. When a section is retrieved with {@link #getObject},
+ * the values in the returned maps are resolved like plain YAML scalars so that beans can be mapped from them.
+ * Lists are stored with indexed keys ({@code list.0}, {@code list.1}...); empty lists and maps are stored as
+ * {@code []} and {@code {}}.
+ */
+public class PropertiesFileResource implements PropertyResource, PropertyExporter {
+
+    private static final String EMPTY_LIST = "[]";
+    private static final String EMPTY_MAP = "{}";
+
+    private final File file;
+    private final LeafPropertiesGenerator leafPropertiesGenerator;
+    private final YamlScalars scalars = new YamlScalars();
+    private Map<String, Object> values;
+    private NavigableSet<String> sortedKeys;
+
+    /**
+     * Constructor.
+     *
+     * @param file the properties file
+     */
+    public PropertiesFileResource(File file) {
+        this(file, new LeafPropertiesGenerator());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param file the properties file
+     * @param leafPropertiesGenerator generator of property entries to export bean properties
+     */
+    public PropertiesFileResource(File file, LeafPropertiesGenerator leafPropertiesGenerator) {
+        this.file = file;
+        this.leafPropertiesGenerator = leafPropertiesGenerator;
+        reload();
+    }
+
+    @Override
+    public Object getObject(String path) {
+        Object value = values.get(path);
+        if (value != null) {
+            return toEmptyCollectionIfApplicable(value);
+        }
+        return createSection(path, true);
+    }
+
+    @Override
+    public String getString(String path) {
+        Object value = values.get(path);
+        return value instanceof String ? (String) value : null;
+    }
+
+    @Override
+    public Integer getInt(String path) {
+        Object value = values.get(path);
+        if (value instanceof Number) {
+            return ((Number) value).intValue();
+        } else if (value instanceof String) {
+            try {
+                return Integer.valueOf(((String) value).trim());
+            } catch (NumberFormatException e) {
+                Double number = getDouble(path);
+                return number == null ? null : number.intValue();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Double getDouble(String path) {
+        Object value = values.get(path);
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        } else if (value instanceof String) {
+            try {
+                return Double.valueOf(((String) value).trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public Boolean getBoolean(String path) {
+        Object value = values.get(path);
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        } else if (value instanceof String) {
+            String text = ((String) value).trim();
+            if ("true".equalsIgnoreCase(text)) {
+                return true;
+            } else if ("false".equalsIgnoreCase(text)) {
+                return false;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public List<?> getList(String path) {
+        Object value = values.get(path);
+        if (value == null) {
+            value = createSection(path, false);
+        }
+        value = toEmptyCollectionIfApplicable(value);
+        return value instanceof List<?> ? (List<?>) value : null;
+    }
+
+    @Override
+    public boolean contains(String path) {
+        return values.containsKey(path) || !getKeysInSection(path).isEmpty();
+    }
+
+    @Override
+    public void setValue(String path, @Nullable Object value) {
+        Objects.requireNonNull(path);
+        if (!path.isEmpty() && values.containsKey("")) {
+            throw new ConfigMeException("The root path is a bean property; you cannot set values to any subpath. "
+                + "Modify the bean at the root or set a new one instead.");
+        }
+
+        values.remove(path);
+        sortedKeys.remove(path);
+        for (String key : new ArrayList<>(getKeysInSection(path))) {
+            values.remove(key);
+            sortedKeys.remove(key);
+        }
+        if (value instanceof Map<?, ?> && !((Map<?, ?>) value).isEmpty()) {
+            String prefix = path.isEmpty() ? "" : path + ".";
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                setValue(prefix + entry.getKey(), entry.getValue());
+            }
+        } else if (value != null) {
+            values.put(path, value);
+            sortedKeys.add(path);
+        }
+    }
+
+    @Override
+    public void reload() {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (IOException e) {
+            throw new ConfigMeException("Could not read file '" + file + "'", e);
+        }
+
+        Map<String, Object> newValues = new HashMap<>(properties.size() * 4 / 3 + 1);
+        for (String key : properties.stringPropertyNames()) {
+            newValues.put(key, properties.getProperty(key));
+        }
+        values = newValues;
+        sortedKeys = new TreeSet<>(newValues.keySet());
+    }
+
+    @Override
+    public void exportProperties(ConfigurationData configurationData) {
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            exportProperties(configurationData, writer);
+        } catch (IOException e) {
+            throw new ConfigMeException("Could not save config to '" + file.getPath() + "'", e);
+        }
+    }
+
+    @Override
+    public void exportProperties(ConfigurationData configurationData, Writer writer) throws IOException {
+        PropertyPathTraverser pathTraverser = new PropertyPathTraverser(configurationData);
+        boolean isFirstProperty = true;
+        for (Property<?> property : convertPropertiesToExportableTypes(configurationData.getProperties())) {
+            for (PathElement pathElement : pathTraverser.getPathElements(property)) {
+                if (pathElement.indentationLevel == 0 && !isFirstProperty) {
+                    writer.write("\n");
+                }
+                for (String comment : pathElement.comments) {
+                    writer.append("# ").append(comment).append("\n");
+                }
+            }
+            isFirstProperty = false;
+            writeValue(writer, property.getPath(), property.getValue(this));
+        }
+        writer.flush();
+    }
+
+    /**
+     * Converts the property entries to exportable "leaf" properties.
+     *
+     * @see ExportableProperties#convert
+     *
+     * @param originalList the list of property entries to convert
+     * @return list of properties with converted property entries
+     */
+    protected List<Property<?>> convertPropertiesToExportableTypes(List<Property<?>> originalList) {
+        return ExportableProperties.convert(originalList, this, leafPropertiesGenerator);
+    }
+
+    /**
+     * Writes the entries for the given value. Collections and maps are written as one entry per element.
+     * For more custom types, you can override this method and call the super method for all types already
+     * handled here.
+     *
+     * @param writer the writer to write to
+     * @param key the key of the value
+     * @param value the value to write
+     * @throws IOException if writing fails
+     */
+    protected void writeValue(Writer writer, String key, @Nullable Object value) throws IOException {
+        if (value instanceof Collection<?>) {
+            Collection<?> collection = (Collection<?>) value;
+            if (collection.isEmpty()) {
+                writeEntry(writer, key, EMPTY_LIST);
+            }
+            int index = 0;
+            for (Object entry : collection) {
+                writeValue(writer, key + "." + index, entry);
+                ++index;
+            }
+        } else if (value instanceof Map<?, ?>) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            if (map.isEmpty()) {
+                writeEntry(writer, key, EMPTY_MAP);
+            }
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeValue(writer, key + "." + entry.getKey(), entry.getValue());
+            }
+        } else if (value instanceof Enum<?>) {
+            writeEntry(writer, key, ((Enum<?>) value).name());
+        } else if (value != null) {
+            writeEntry(writer, key, value.toString());
+        }
+    }
+
+    private static void writeEntry(Writer writer, String key, String value) throws IOException {
+        writer.append(escape(key, true)).append('=').append(escape(value, false)).append('\n');
+    }
+
+    /**
+     * Escapes the given text as required by {@link Properties#load(Reader)}.
+     */
+    private static String escape(String text, boolean isKey) {
+        StringBuilder sb = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); ++i) {
+            char c = text.charAt(i);
+            switch (c) {
+                case ' ':
+                    sb.append(i == 0 || isKey ? "\\ " : " ");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\f':
+                    sb.append("\\f");
+                    break;
+                case '\\': case '=': case ':': case '#': case '!':
+                    sb.append('\\').append(c);
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.toString();
+    }
+
+    private NavigableSet<String> getKeysInSection(String path) {
+        if (path.isEmpty()) {
+            return sortedKeys;
+        }
+        // All keys starting with "path." are between "path." and "path/" since '/' follows '.'
+        return sortedKeys.subSet(path + ".", true, path + "/", false);
+    }
+
+    /**
+     * Assembles the values of the keys within the given section to nested maps. Maps whose keys are
+     * consecutive indices are converted to lists.
+     *
+     * @param path the path of the section
+     * @param resolveScalars whether to resolve text values like plain YAML scalars
+     * @return the section's value, or null if there are no keys in the section
+     */
+    @Nullable
+    private Object createSection(String path, boolean resolveScalars) {
+        NavigableSet<String> keys = getKeysInSection(path);
+        if (keys.isEmpty()) {
+            return null;
+        }
+
+        int prefixLength = path.isEmpty() ? 0 : path.length() + 1;
+        Map<String, Object> section = new LinkedHashMap<>();
+        for (String key : keys) {
+            Object value = values.get(key);
+            if (resolveScalars && value instanceof String) {
+                value = resolvePlainScalar((String) value);
+            }
+            putInSection(section, key.substring(prefixLength).split("\\."), value);
+        }
+        return convertIndexedMapsToLists(section);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void putInSection(Map<String, Object> section, String[] keys, Object value) {
+        Map<String, Object> map = section;
+        for (int i = 0; i < keys.length - 1; ++i) {
+            Object child = map.get(keys[i]);
+            if (!(child instanceof Map<?, ?>)) {
+                child = new LinkedHashMap<>();
+                map.put(keys[i], child);
+            }
+            map = (Map<String, Object>) child;
+        }
+        map.putIfAbsent(keys[keys.length - 1], toEmptyCollectionIfApplicable(value));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object convertIndexedMapsToLists(Object value) {
+        if (!(value instanceof Map<?, ?>) || ((Map<?, ?>) value).isEmpty()) {
+            return value;
+        }
+        Map<?, ?> map = (Map<?, ?>) value;
+        Object[] indexedValues = new Object[map.size()];
+        boolean isList = true;
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            Object entryValue = convertIndexedMapsToLists(entry.getValue());
+            ((Map.Entry<Object, Object>) entry).setValue(entryValue);
+            int index = parseIndex((String) entry.getKey());
+            if (index < 0 || index >= indexedValues.length) {
+                isList = false;
+            } else {
+                indexedValues[index] = entryValue;
+            }
+        }
+        if (isList) {
+            List<Object> list = new ArrayList<>(indexedValues.length);
+            for (Object entry : indexedValues) {
+                list.add(entry);
+            }
+            return list;
+        }
+        return map;
+    }
+
+    private static int parseIndex(String key) {
+        if (key.isEmpty() || key.length() > 9 || (key.charAt(0) == '0' && key.length() > 1)) {
+            return -1;
+        }
+        int index = 0;
+        for (int i = 0; i < key.length(); ++i) {
+            char c = key.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            index = index * 10 + (c - '0');
+        }
+        return index;
+    }
+
+    @Nullable
+    private Object resolvePlainScalar(String text) {
+        Tag tag = scalars.resolveTag(text, true);
+        return scalars.isSupported(tag) && !Tag.MERGE.equals(tag) ? scalars.construct(tag, text, null) : text;
+    }
+
+    private static Object toEmptyCollectionIfApplicable(Object value) {
+        if (EMPTY_LIST.equals(value)) {
+            return new ArrayList<>();
+        } else if (EMPTY_MAP.equals(value)) {
+            return new LinkedHashMap<>();
+        }
+        return value;
+    }
+}
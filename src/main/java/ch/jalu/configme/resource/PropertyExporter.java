@@ -0,0 +1,65 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.configurationdata.ConfigurationData;
+import ch.jalu.configme.exception.ConfigMeException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Exports properties with their current values to any target instead of the resource's file, e.g. to serve
+ * the configuration over the network without a round-trip to the disk.
+ */
+public interface PropertyExporter {
+
+    /**
+     * Writes the properties with their current values to the given writer, in the same format as they are
+     * exported to the resource's file. The writer is flushed but not closed.
+     *
+     * @param configurationData the configuration data to export
+     * @param writer the writer to write to
+     * @throws IOException if writing fails
+     */
+    void exportProperties(ConfigurationData configurationData, Writer writer) throws IOException;
+
+    /**
+     * Writes the properties with their current values to the given output stream, encoded with UTF-8.
+     * The stream is flushed but not closed.
+     *
+     * @param configurationData the configuration data to export
+     * @param outputStream the stream to write to
+     * @throws IOException if writing fails
+     */
+    default void exportProperties(ConfigurationData configurationData,
+                                  OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        exportProperties(configurationData, writer);
+        writer.flush();
+    }
+
+    /**
+     * Writes the properties with their current values to the given buffer, encoded with UTF-8. The buffer is
+     * cleared first. If it is too small, a larger buffer (direct if the given buffer is direct) is allocated.
+     * The returned buffer is ready to be read from and can be passed to the next call so that it is reused.
+     *
+     * @param configurationData the configuration data to export
+     * @param buffer the buffer to write to
+     * @return the buffer with the export (the given buffer, or a larger one if it was too small)
+     */
+    default ByteBuffer exportProperties(ConfigurationData configurationData, ByteBuffer buffer) {
+        ByteBufferOutputStream outputStream = new ByteBufferOutputStream(buffer);
+        try {
+            exportProperties(configurationData, outputStream);
+        } catch (IOException e) {
+            throw new ConfigMeException("Could not export properties", e);
+        }
+        ByteBuffer result = outputStream.getBuffer();
+        result.flip();
+        return result;
+    }
+}
@@ -0,0 +1,39 @@
+package ch.jalu.configme.resource;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+
+/**
+ * Source of values for a {@link LayeredPropertyResource}, e.g. the defaults, a file or environment variables.
+ *
+ * @see PropertyLayers
+ */
+public interface PropertyLayer {
+
+    /**
+     * Returns the name of the layer, e.g. for reporting where a value comes from.
+     *
+     * @return the layer's name
+     */
+    String getName();
+
+    /**
+     * Loads the values of this layer as a flat map, where the keys are the full paths of the values
+     * (e.g. {@code features.cool.enabled}). Nested maps should be flattened, while other values (lists,
+     * beans, scalars) are leaf values.
+     *
+     * @return the values of the layer by path
+     */
+    Map<String, Object> loadValues();
+
+    /**
+     * Returns the resource backing this layer, if applicable. Values set to a layered resource are set to the
+     * resource of its highest layer which has one, and the properties are exported to it.
+     *
+     * @return the resource backing the layer, or null if not applicable
+     */
+    @Nullable
+    default PropertyResource getResource() {
+        return null;
+    }
+}
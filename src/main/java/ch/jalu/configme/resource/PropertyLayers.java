@@ -0,0 +1,186 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.configurationdata.ConfigurationData;
+import ch.jalu.configme.properties.BeanProperty;
+import ch.jalu.configme.properties.OptionalProperty;
+import ch.jalu.configme.properties.Property;
+import org.yaml.snakeyaml.nodes.Tag;
+
+import javax.annotation.Nullable;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Creates the typical layers of a {@link LayeredPropertyResource}.
+ */
+public final class PropertyLayers {
+
+    private PropertyLayers() {
+    }
+
+    /**
+     * Creates a layer with the default values of the given properties. Optional properties and bean properties
+     * are skipped, as their default values are not in the form they are read from a resource.
+     *
+     * @param configurationData the configuration data whose properties' default values should be provided
+     * @return layer with default values
+     */
+    public static PropertyLayer defaults(ConfigurationData configurationData) {
+        return new PropertyLayer() {
+            @Override
+            public String getName() {
+                return "defaults";
+            }
+
+            @Override
+            public Map<String, Object> loadValues() {
+                Map<String, Object> values = new HashMap<>();
+                for (Property<?> property : configurationData.getProperties()) {
+                    if (!(property instanceof OptionalProperty<?>) && !(property instanceof BeanProperty<?>)) {
+                        values.put(property.getPath(), property.getDefaultValue());
+                    }
+                }
+                return values;
+            }
+        };
+    }
+
+    /**
+     * Creates a layer backed by the given resource, e.g. a {@link YamlFileResource}. The resource is reloaded
+     * whenever the layer's values are loaded.
+     *
+     * @param name the name of the layer
+     * @param resource the resource to load the values from
+     * @return layer backed by the resource
+     */
+    public static PropertyLayer resource(String name, PropertyResource resource) {
+        return new PropertyLayer() {
+            private boolean isInitialLoad = true;
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public Map<String, Object> loadValues() {
+                if (isInitialLoad) {
+                    // The resource has loaded its values when it was created
+                    isInitialLoad = false;
+                } else {
+                    resource.reload();
+                }
+                Map<String, Object> values = new HashMap<>();
+                flatten("", resource.getObject(""), values);
+                return values;
+            }
+
+            @Override
+            public PropertyResource getResource() {
+                return resource;
+            }
+        };
+    }
+
+    /**
+     * Creates a layer with values from environment variables. The name of the environment variable for a
+     * property is the prefix followed by the property's path in upper case with dots replaced by underscores,
+     * e.g. {@code MYAPP_FEATURES_COOL_ENABLED} for the path {@code features.cool.enabled} and prefix {@code MYAPP_}.
+     *
+     * @param prefix the prefix of the environment variables
+     * @param configurationData the configuration data whose properties should be looked up
+     * @return layer with values from environment variables
+     */
+    public static PropertyLayer environmentVariables(String prefix, ConfigurationData configurationData) {
+        return textValues("environment variables", System::getenv,
+            path -> prefix + path.toUpperCase(Locale.ROOT).replace('.', '_'), configurationData);
+    }
+
+    /**
+     * Creates a layer with values from system properties (e.g. {@code -Dmyapp.features.cool.enabled=true}).
+     * The name of the system property for a property is the prefix followed by the property's path.
+     *
+     * @param prefix the prefix of the system properties
+     * @param configurationData the configuration data whose properties should be looked up
+     * @return layer with values from system properties
+     */
+    public static PropertyLayer systemProperties(String prefix, ConfigurationData configurationData) {
+        return textValues("system properties", () -> {
+            Map<String, String> properties = new HashMap<>();
+            System.getProperties().stringPropertyNames()
+                .forEach(name -> properties.put(name, System.getProperty(name)));
+            return properties;
+        }, path -> prefix + path, configurationData);
+    }
+
+    /**
+     * Creates a layer with values from a source of text values, e.g. environment variables. The text values
+     * are converted to the type of the property they belong to, as defined by {@link ScalarSchema}.
+     *
+     * @param name the name of the layer
+     * @param source supplies the text values by name whenever the layer's values are loaded
+     * @param nameForPath defines the name of the text value for a property's path
+     * @param configurationData the configuration data whose properties should be looked up
+     * @return layer with the converted text values
+     */
+    public static PropertyLayer textValues(String name, Supplier<Map<String, String>> source,
+                                           Function<String, String> nameForPath,
+                                           ConfigurationData configurationData) {
+        ScalarSchema schema = ScalarSchema.forConfigurationData(configurationData);
+        YamlScalars scalars = new YamlScalars();
+        return new PropertyLayer() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public Map<String, Object> loadValues() {
+                Map<String, String> texts = source.get();
+                Map<String, Object> values = new HashMap<>();
+                for (Property<?> property : configurationData.getProperties()) {
+                    String text = texts.get(nameForPath.apply(property.getPath()));
+                    Object value = text == null ? null : resolve(schema, scalars, property.getPath(), text);
+                    if (value != null) {
+                        values.put(property.getPath(), value);
+                    }
+                }
+                return values;
+            }
+        };
+    }
+
+    /**
+     * Adds the leaf values of the given value to the target map by their full path.
+     *
+     * @param path the path of the value
+     * @param value the value to flatten
+     * @param target the map to add the leaf values to
+     */
+    static void flatten(String path, @Nullable Object value, Map<String, Object> target) {
+        if (value instanceof Map<?, ?> && !((Map<?, ?>) value).isEmpty()) {
+            String prefix = path.isEmpty() ? "" : path + ".";
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                flatten(prefix + entry.getKey(), entry.getValue(), target);
+            }
+        } else if (value != null && !path.isEmpty()) {
+            target.put(path, value);
+        }
+    }
+
+    @Nullable
+    private static Object resolve(ScalarSchema schema, YamlScalars scalars, String path, String text) {
+        ScalarSchema node = schema;
+        for (String key : path.split("\\.")) {
+            node = node.child(key);
+        }
+        if (!node.isDefaultResolution()) {
+            return node.resolvePlain(text);
+        }
+        Tag tag = scalars.resolveTag(text, true);
+        return scalars.isSupported(tag) && !Tag.MERGE.equals(tag) ? scalars.construct(tag, text, null) : text;
+    }
+}
@@ -40,4 +40,14 @@ public interface PropertyReader {
      */
     void reload();
 
+    /**
+     * Reloads the value at the given path from the external source, keeping all other values as they are
+     * in memory. By default, this performs a full {@link #reload()}.
+     *
+     * @param path the path whose value should be reloaded (empty string for everything)
+     */
+    default void reload(String path) {
+        reload();
+    }
+
 }
@@ -1,9 +1,11 @@
 package ch.jalu.configme.resource;
 
 import ch.jalu.configme.configurationdata.ConfigurationData;
+import ch.jalu.configme.resource.tree.TreeHashes;
 
 import javax.annotation.Nullable;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Property resource; provides and exports properties.
@@ -68,6 +70,20 @@ public interface PropertyResource {
     @Nullable
     List<?> getList(String path);
 
+    /**
+     * Returns the entries of the list at the given path as a stream. Resources may override this method
+     * to provide the entries without having to hold the entire list in memory. The returned stream should
+     * be closed after use.
+     *
+     * @param path the path to retrieve a list for
+     * @return stream of the list's entries, or null if not applicable or unavailable
+     */
+    @Nullable
+    default Stream<?> getListStream(String path) {
+        List<?> list = getList(path);
+        return list == null ? null : list.stream();
+    }
+
     /**
      * Returns whether a value is present for the given path. When applicable,
      * {@link ch.jalu.configme.properties.Property#isPresent(PropertyResource)} should be favored over
@@ -79,6 +95,19 @@ public interface PropertyResource {
      */
     boolean contains(String path);
 
+    /**
+     * Returns the 64-bit content hash of the value at the given path (see {@link TreeHashes}). Two values with
+     * equal content have the same hash, so comparing hashes is a cheap way to detect whether a section has
+     * changed. The hash is computed from the value returned by {@link #getObject}; resources whose reader
+     * maintains content hashes (see {@link ReaderOptions#setContentHashes}) return it in constant time.
+     *
+     * @param path the path to get the hash for (empty string for the root)
+     * @return content hash of the value at the path (the hash of null if there is no value)
+     */
+    default long getContentHash(String path) {
+        return TreeHashes.hash(getObject(path));
+    }
+
 
     // -------
     // Reload / Modification
@@ -98,6 +127,16 @@ public interface PropertyResource {
      */
     void reload();
 
+    /**
+     * Reloads only the given section of the configuration; values outside of the section keep their
+     * in-memory value. By default, the entire configuration is reloaded.
+     *
+     * @param sectionPath the path of the section to reload (empty string for everything)
+     */
+    default void reload(String sectionPath) {
+        reload();
+    }
+
 
     // -------
     // Export
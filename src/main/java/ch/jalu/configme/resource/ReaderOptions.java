@@ -0,0 +1,281 @@
+package ch.jalu.configme.resource;
+
+import javax.annotation.Nullable;
+
+/**
+ * Options which define how a {@link PropertyReader} loads and holds its values.
+ * The default options reflect the plain behavior of the reader.
+ * <p>
+ * The limits (document size, nesting depth, etc.) are enforced while the file is being read. If a limit is
+ * exceeded, a {@link ch.jalu.configme.exception.ConfigMeException} is thrown and the reader keeps the values
+ * it had before.
+ */
+public class ReaderOptions {
+
+    private boolean compactTree;
+    private boolean contentHashes;
+    @Nullable
+    private StringPool stringPool;
+    private boolean snapshotSidecar;
+    private YamlParser parser = new SnakeYamlParser();
+    @Nullable
+    private ScalarSchema scalarSchema;
+    private long maxDocumentSize = Long.MAX_VALUE;
+    private int maxNestingDepth = Integer.MAX_VALUE;
+    private int maxAliasCount = Integer.MAX_VALUE;
+    private int maxCollectionSize = Integer.MAX_VALUE;
+    private boolean includes;
+
+    /**
+     * Constructor. Creates options with the default settings.
+     */
+    public ReaderOptions() {
+    }
+
+    /**
+     * Copy constructor. Creates options with the same settings as the given options.
+     *
+     * @param options the options to copy
+     */
+    public ReaderOptions(ReaderOptions options) {
+        this.compactTree = options.compactTree;
+        this.contentHashes = options.contentHashes;
+        this.stringPool = options.stringPool;
+        this.snapshotSidecar = options.snapshotSidecar;
+        this.parser = options.parser;
+        this.scalarSchema = options.scalarSchema;
+        this.maxDocumentSize = options.maxDocumentSize;
+        this.maxNestingDepth = options.maxNestingDepth;
+        this.maxAliasCount = options.maxAliasCount;
+        this.maxCollectionSize = options.maxCollectionSize;
+        this.includes = options.includes;
+    }
+
+    /**
+     * Returns whether the loaded values should be converted to a compact, immutable tree.
+     *
+     * @return true if a compact tree is used, false otherwise
+     * @see ch.jalu.configme.resource.tree.CompactTree
+     */
+    public boolean isCompactTree() {
+        return compactTree;
+    }
+
+    /**
+     * Sets whether the loaded values should be converted to a compact, immutable tree. This reduces the
+     * memory used per entry, but maps and lists returned by the reader can no longer be modified and
+     * map entries are no longer in the order of the file. Setting a value replaces the nodes along
+     * the path to the value and shares all other nodes with the previous tree.
+     *
+     * @param compactTree true to use a compact tree, false otherwise
+     * @see ch.jalu.configme.resource.tree.CompactTree
+     */
+    public void setCompactTree(boolean compactTree) {
+        this.compactTree = compactTree;
+    }
+
+    /**
+     * Returns whether the reader maintains a content hash for each node of its tree.
+     *
+     * @return true if content hashes are maintained, false otherwise
+     * @see ch.jalu.configme.resource.tree.TreeHashes
+     */
+    public boolean isContentHashes() {
+        return contentHashes;
+    }
+
+    /**
+     * Sets whether the reader maintains a content hash for each node of its tree. The hashes are computed in one
+     * pass when the file is loaded and are updated along the path of each value that is set, so that the hash
+     * of any section (see {@link PropertyResource#getContentHash}) is available in constant time. This implies
+     * a {@link #setCompactTree compact tree}, in which the hashes are cached.
+     *
+     * @param contentHashes true to maintain content hashes, false otherwise
+     * @see ch.jalu.configme.resource.tree.TreeHashes
+     */
+    public void setContentHashes(boolean contentHashes) {
+        this.contentHashes = contentHashes;
+    }
+
+    /**
+     * Returns the pool used to deduplicate keys and short scalar values while the tree is built.
+     *
+     * @return the string pool, or null if strings are not deduplicated
+     */
+    @Nullable
+    public StringPool getStringPool() {
+        return stringPool;
+    }
+
+    /**
+     * Sets the pool with which keys and short scalar values are deduplicated while the tree is built.
+     * The same pool can be set to the options of multiple readers.
+     *
+     * @param stringPool the string pool to use, or null to not deduplicate strings
+     */
+    public void setStringPool(@Nullable StringPool stringPool) {
+        this.stringPool = stringPool;
+    }
+
+    /**
+     * Returns whether the loaded tree is cached in a binary snapshot file next to the loaded file.
+     *
+     * @return true if a snapshot sidecar file is used, false otherwise
+     * @see ch.jalu.configme.resource.binary.TreeSnapshotFile
+     */
+    public boolean isSnapshotSidecar() {
+        return snapshotSidecar;
+    }
+
+    /**
+     * Sets whether the loaded tree should be cached in a binary snapshot file next to the loaded file.
+     * When enabled, the tree is read from the snapshot if it was created from the file's current content,
+     * which is much faster than parsing the file. Otherwise, the file is parsed and the snapshot is rewritten.
+     *
+     * @param snapshotSidecar true to use a snapshot sidecar file, false otherwise
+     * @see ch.jalu.configme.resource.binary.TreeSnapshotFile
+     */
+    public void setSnapshotSidecar(boolean snapshotSidecar) {
+        this.snapshotSidecar = snapshotSidecar;
+    }
+
+    /**
+     * Returns the parser with which YAML is parsed.
+     *
+     * @return the parser
+     */
+    public YamlParser getParser() {
+        return parser;
+    }
+
+    /**
+     * Sets the parser with which YAML is parsed. By default, a {@link SnakeYamlParser} is used.
+     * For files written by ConfigMe, a {@link SubsetYamlParser} is faster.
+     *
+     * @param parser the parser to use
+     */
+    public void setParser(YamlParser parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * Returns the schema with which plain scalars are resolved.
+     *
+     * @return the scalar schema, or null if all scalars are resolved with SnakeYAML's implicit resolvers
+     */
+    @Nullable
+    public ScalarSchema getScalarSchema() {
+        return scalarSchema;
+    }
+
+    /**
+     * Sets the schema with which plain scalars are resolved. With a schema, scalars are converted to the
+     * type of the property at their path directly, and scalars at unknown paths are kept as text.
+     *
+     * @param scalarSchema the scalar schema to use, or null to resolve scalars with SnakeYAML's implicit resolvers
+     * @see ScalarSchema#forConfigurationData
+     */
+    public void setScalarSchema(@Nullable ScalarSchema scalarSchema) {
+        this.scalarSchema = scalarSchema;
+    }
+
+    /**
+     * Returns the maximum size of a file in bytes.
+     *
+     * @return the maximum document size
+     */
+    public long getMaxDocumentSize() {
+        return maxDocumentSize;
+    }
+
+    /**
+     * Sets the maximum size of a file in bytes. Reading stops as soon as the limit is exceeded, so that
+     * an oversized file is never loaded into memory entirely. There is no limit by default.
+     *
+     * @param maxDocumentSize the maximum document size
+     */
+    public void setMaxDocumentSize(long maxDocumentSize) {
+        this.maxDocumentSize = maxDocumentSize;
+    }
+
+    /**
+     * Returns the maximum nesting depth of mappings and sequences.
+     *
+     * @return the maximum nesting depth
+     */
+    public int getMaxNestingDepth() {
+        return maxNestingDepth;
+    }
+
+    /**
+     * Sets the maximum nesting depth of mappings and sequences. The root mapping has a depth of 1.
+     * There is no limit by default.
+     *
+     * @param maxNestingDepth the maximum nesting depth
+     */
+    public void setMaxNestingDepth(int maxNestingDepth) {
+        this.maxNestingDepth = maxNestingDepth;
+    }
+
+    /**
+     * Returns the maximum number of aliases in a document.
+     *
+     * @return the maximum alias count
+     */
+    public int getMaxAliasCount() {
+        return maxAliasCount;
+    }
+
+    /**
+     * Sets the maximum number of aliases in a document. Aliases allow to reference the same node many times,
+     * which lets a small document expand to a huge tree when it is processed ("billion laughs"). To prevent
+     * this, each alias counts with the number of nodes of the value it references, including the nodes which
+     * are referenced by aliases within that value. An alias to a scalar therefore counts as one alias, while
+     * an alias to a list of three scalars counts as four. There is no limit by default.
+     *
+     * @param maxAliasCount the maximum alias count
+     */
+    public void setMaxAliasCount(int maxAliasCount) {
+        this.maxAliasCount = maxAliasCount;
+    }
+
+    /**
+     * Returns the maximum number of entries of a mapping or sequence.
+     *
+     * @return the maximum collection size
+     */
+    public int getMaxCollectionSize() {
+        return maxCollectionSize;
+    }
+
+    /**
+     * Sets the maximum number of entries of a mapping or sequence. There is no limit by default.
+     *
+     * @param maxCollectionSize the maximum collection size
+     */
+    public void setMaxCollectionSize(int maxCollectionSize) {
+        this.maxCollectionSize = maxCollectionSize;
+    }
+
+    /**
+     * Returns whether {@code !include} tags are resolved.
+     *
+     * @return true if includes are resolved, false otherwise
+     */
+    public boolean isIncludes() {
+        return includes;
+    }
+
+    /**
+     * Sets whether {@code !include} tags are resolved. When enabled, a scalar like {@code !include regions.yml}
+     * is replaced with the content of the given file, relative to the directory of the including file. On reload,
+     * only the files whose content has changed are parsed again. The snapshot sidecar is not used when includes
+     * are enabled. Including the same file more than once counts like an alias to the file's content for the
+     * {@link #setMaxAliasCount alias limit}. Disabled by default, in which case the tag is rejected as unsupported.
+     *
+     * @param includes true to resolve includes, false otherwise
+     */
+    public void setIncludes(boolean includes) {
+        this.includes = includes;
+    }
+}
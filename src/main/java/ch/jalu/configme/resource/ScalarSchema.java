@@ -0,0 +1,272 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.configurationdata.ConfigurationData;
+import ch.jalu.configme.properties.BooleanProperty;
+import ch.jalu.configme.properties.EnumProperty;
+import ch.jalu.configme.properties.IntegerProperty;
+import ch.jalu.configme.properties.OptionalProperty;
+import ch.jalu.configme.properties.Property;
+import ch.jalu.configme.properties.StringListProperty;
+import ch.jalu.configme.properties.StringProperty;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Defines how plain scalars are resolved based on the properties which are expected at their paths.
+ * Set to the {@link ReaderOptions} to use it while loading.
+ * <p>
+ * By default, every plain scalar is matched against SnakeYAML's implicit resolvers (int, float, bool,
+ * timestamp, null...) to determine its type. With a schema, the values of integer and boolean properties
+ * are parsed directly, the values of string, enum and string list properties are kept as text, and
+ * values at paths which do not belong to any property are kept as text as well. Only the values of bean
+ * properties and properties of unknown type are resolved as usual.
+ * <p>
+ * Quoted scalars and scalars with an explicit tag are not affected by the schema. Plain scalars which
+ * denote null ({@code ~}, {@code null} or an empty value) remain null. A value which cannot be parsed as
+ * the property's type (e.g. {@code 0x1F} for an integer property) is kept as text.
+ */
+public final class ScalarSchema {
+
+    /** Resolves scalars with SnakeYAML's implicit resolvers. Applies to the node's entire subtree. */
+    private static final ScalarSchema DEFAULT = new ScalarSchema(Resolution.DEFAULT, null);
+    private static final ScalarSchema STRING = new ScalarSchema(Resolution.STRING, null);
+    private static final ScalarSchema INTEGER = new ScalarSchema(Resolution.INTEGER, null);
+    private static final ScalarSchema BOOLEAN = new ScalarSchema(Resolution.BOOLEAN, null);
+    private static final ScalarSchema STRING_LIST = new ScalarSchema(Resolution.STRING, STRING);
+
+    private final Resolution resolution;
+    @Nullable
+    private final ScalarSchema entrySchema;
+    private final Map<String, ScalarSchema> children;
+
+    private ScalarSchema(Resolution resolution, @Nullable ScalarSchema entrySchema) {
+        this.resolution = resolution;
+        this.entrySchema = entrySchema;
+        this.children = Collections.emptyMap();
+    }
+
+    private ScalarSchema(Map<String, ScalarSchema> children) {
+        this.resolution = Resolution.STRING;
+        this.entrySchema = null;
+        this.children = children;
+    }
+
+    /**
+     * Creates a schema for the properties of the given configuration data.
+     *
+     * @param configurationData the configuration data to create the schema for
+     * @return the schema
+     */
+    public static ScalarSchema forConfigurationData(ConfigurationData configurationData) {
+        ScalarSchema root = new ScalarSchema(new HashMap<>());
+        for (Property<?> property : configurationData.getProperties()) {
+            ScalarSchema leaf = leafFor(property);
+            if (property.getPath().isEmpty()) {
+                if (leaf == DEFAULT) {
+                    return DEFAULT;
+                }
+            } else {
+                root.addLeaf(property.getPath().split("\\."), leaf);
+            }
+        }
+        return root;
+    }
+
+    /**
+     * Returns the schema which resolves all scalars with SnakeYAML's implicit resolvers.
+     *
+     * @return schema with default resolution
+     */
+    static ScalarSchema defaultResolution() {
+        return DEFAULT;
+    }
+
+    /**
+     * Returns the schema of the value for the given key if this node is a mapping.
+     *
+     * @param key the key of the mapping entry (nullable)
+     * @return the schema for the key's value
+     */
+    ScalarSchema child(@Nullable Object key) {
+        if (resolution == Resolution.DEFAULT) {
+            return this;
+        }
+        ScalarSchema child = children.get(String.valueOf(key));
+        return child == null ? STRING : child;
+    }
+
+    /**
+     * Returns the schema of the entries if this node is a sequence.
+     *
+     * @return the schema for the sequence's entries
+     */
+    ScalarSchema entries() {
+        if (resolution == Resolution.DEFAULT) {
+            return this;
+        }
+        return entrySchema == null ? STRING : entrySchema;
+    }
+
+    /**
+     * Returns the schema with which the keys of a mapping at this node are resolved.
+     *
+     * @return the schema for mapping keys
+     */
+    ScalarSchema keys() {
+        return resolution == Resolution.DEFAULT ? this : STRING;
+    }
+
+    /**
+     * Returns whether scalars at this node are resolved with SnakeYAML's implicit resolvers,
+     * in which case {@link #resolvePlain} must not be called.
+     *
+     * @return true if the default resolution applies, false otherwise
+     */
+    boolean isDefaultResolution() {
+        return resolution == Resolution.DEFAULT;
+    }
+
+    /**
+     * Resolves the text of a plain scalar at this node.
+     *
+     * @param value the scalar's text
+     * @return the resolved value
+     */
+    @Nullable
+    Object resolvePlain(String value) {
+        if (isNull(value)) {
+            return null;
+        }
+        switch (resolution) {
+            case INTEGER:
+                Number number = parseInteger(value);
+                return number == null ? value : number;
+            case BOOLEAN:
+                Boolean bool = parseBoolean(value);
+                return bool == null ? value : bool;
+            default:
+                return value;
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        appendTo(sb);
+        return sb.toString();
+    }
+
+    private void appendTo(StringBuilder sb) {
+        sb.append(resolution);
+        if (entrySchema != null) {
+            sb.append('[');
+            entrySchema.appendTo(sb);
+            sb.append(']');
+        }
+        if (!children.isEmpty()) {
+            sb.append('{');
+            for (Map.Entry<String, ScalarSchema> entry : new TreeMap<>(children).entrySet()) {
+                sb.append(entry.getKey()).append('=');
+                entry.getValue().appendTo(sb);
+                sb.append(',');
+            }
+            sb.append('}');
+        }
+    }
+
+    private void addLeaf(String[] keys, ScalarSchema leaf) {
+        ScalarSchema node = this;
+        for (int i = 0; i < keys.length - 1; ++i) {
+            ScalarSchema child = node.children.get(keys[i]);
+            if (child == DEFAULT) {
+                return;
+            } else if (child == null || !child.isSection()) {
+                child = new ScalarSchema(new HashMap<>());
+                node.children.put(keys[i], child);
+            }
+            node = child;
+        }
+
+        String lastKey = keys[keys.length - 1];
+        ScalarSchema existing = node.children.get(lastKey);
+        // Default resolution is the most lenient and therefore takes precedence over any other node
+        if (existing == null || leaf == DEFAULT || (existing != DEFAULT && !existing.isSection())) {
+            node.children.put(lastKey, leaf);
+        }
+    }
+
+    private boolean isSection() {
+        return children instanceof HashMap<?, ?>;
+    }
+
+    private static ScalarSchema leafFor(Property<?> property) {
+        if (property instanceof OptionalProperty<?>) {
+            return leafFor(((OptionalProperty<?>) property).getBaseProperty());
+        } else if (property instanceof IntegerProperty) {
+            return INTEGER;
+        } else if (property instanceof BooleanProperty) {
+            return BOOLEAN;
+        } else if (property instanceof StringProperty || property instanceof EnumProperty<?>) {
+            return STRING;
+        } else if (property instanceof StringListProperty) {
+            return STRING_LIST;
+        }
+        return DEFAULT;
+    }
+
+    private static boolean isNull(String value) {
+        return value.isEmpty() || "~".equals(value)
+            || "null".equals(value) || "Null".equals(value) || "NULL".equals(value);
+    }
+
+    /**
+     * Parses decimal integers like SnakeYAML does, i.e. as Integer if the value fits and as Long otherwise.
+     */
+    @Nullable
+    private static Number parseInteger(String value) {
+        int start = value.charAt(0) == '-' || value.charAt(0) == '+' ? 1 : 0;
+        int length = value.length() - start;
+        if (length < 1 || length > 18 || (value.charAt(start) == '0' && length > 1)) {
+            return null;
+        }
+        long result = 0;
+        for (int i = start; i < value.length(); ++i) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return null;
+            }
+            result = result * 10 + (c - '0');
+        }
+        if (value.charAt(0) == '-') {
+            result = -result;
+        }
+        return result >= Integer.MIN_VALUE && result <= Integer.MAX_VALUE ? (Number) (int) result : (Number) result;
+    }
+
+    /**
+     * Parses the boolean values recognized by YAML 1.1.
+     */
+    @Nullable
+    private static Boolean parseBoolean(String value) {
+        switch (value) {
+            case "true": case "True": case "TRUE":
+            case "yes": case "Yes": case "YES":
+            case "on": case "On": case "ON":
+                return Boolean.TRUE;
+            case "false": case "False": case "FALSE":
+            case "no": case "No": case "NO":
+            case "off": case "Off": case "OFF":
+                return Boolean.FALSE;
+            default:
+                return null;
+        }
+    }
+
+    private enum Resolution {
+        DEFAULT, STRING, INTEGER, BOOLEAN
+    }
+}
@@ -0,0 +1,130 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.configurationdata.ConfigurationData;
+import ch.jalu.configme.exception.ConfigMeException;
+import ch.jalu.configme.resource.SharedResourceRegistry.SharedFile;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Resource of a YAML file which is shared with other users of the same file. Created by
+ * {@link SharedResourceRegistry#acquire}; see the registry for details.
+ * <p>
+ * All values are read from and written to the shared file, i.e. values set with one resource are visible
+ * to all other resources of the same file. Exporting writes the properties of all users of the file.
+ * The resource must be closed once it is no longer used. The resources of a file may be used from different
+ * threads.
+ */
+public class SharedPropertyResource implements PropertyResource, PropertyExporter, AutoCloseable {
+
+    private final SharedResourceRegistry registry;
+    private final SharedFile sharedFile;
+    private boolean closed;
+
+    SharedPropertyResource(SharedResourceRegistry registry, SharedFile sharedFile) {
+        this.registry = registry;
+        this.sharedFile = sharedFile;
+    }
+
+    @Override
+    public Object getObject(String path) {
+        return read(resource -> resource.getObject(path));
+    }
+
+    @Override
+    public String getString(String path) {
+        return read(resource -> resource.getString(path));
+    }
+
+    @Override
+    public Integer getInt(String path) {
+        return read(resource -> resource.getInt(path));
+    }
+
+    @Override
+    public Double getDouble(String path) {
+        return read(resource -> resource.getDouble(path));
+    }
+
+    @Override
+    public Boolean getBoolean(String path) {
+        return read(resource -> resource.getBoolean(path));
+    }
+
+    @Override
+    public List<?> getList(String path) {
+        return read(resource -> resource.getList(path));
+    }
+
+    @Override
+    public boolean contains(String path) {
+        return read(resource -> resource.contains(path));
+    }
+
+    @Override
+    public void setValue(String path, @Nullable Object value) {
+        verifyNotClosed();
+        sharedFile.setValue(path, value);
+    }
+
+    /**
+     * Reloads the file if it has been modified on disk, or if values have been set in memory, since it was last
+     * loaded or saved. Otherwise, the values are up-to-date already (e.g. because another user of the file has
+     * just reloaded it) and nothing is done.
+     */
+    @Override
+    public void reload() {
+        verifyNotClosed();
+        sharedFile.reload();
+    }
+
+    @Override
+    public void reload(String sectionPath) {
+        verifyNotClosed();
+        sharedFile.reload(sectionPath);
+    }
+
+    /**
+     * Exports the properties of the given configuration data and of all other users of the file.
+     *
+     * @param configurationData the configuration data
+     */
+    @Override
+    public void exportProperties(ConfigurationData configurationData) {
+        verifyNotClosed();
+        sharedFile.export(configurationData);
+    }
+
+    @Override
+    public void exportProperties(ConfigurationData configurationData, Writer writer) throws IOException {
+        verifyNotClosed();
+        sharedFile.export(configurationData, writer);
+    }
+
+    /**
+     * Releases this resource. The file is no longer kept in memory once all of its resources have been closed.
+     * Closing a resource more than once has no effect.
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            registry.release(this, sharedFile);
+        }
+    }
+
+    private <T> T read(Function<YamlFileResource, T> reader) {
+        verifyNotClosed();
+        return sharedFile.read(reader);
+    }
+
+    private void verifyNotClosed() {
+        if (closed) {
+            throw new ConfigMeException("The resource has been closed");
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.configurationdata.ConfigurationData;
+import ch.jalu.configme.configurationdata.PropertyListBuilder;
+import ch.jalu.configme.exception.ConfigMeException;
+import ch.jalu.configme.properties.Property;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Registry of YAML file resources which are shared by multiple users of the same file, such as the
+ * settings managers of different modules.
+ * <p>
+ * Files are identified by their canonical path. A file is parsed once for all of its users, and it is only
+ * reloaded if it has been modified on disk or if values have been set in memory since it was last loaded or
+ * saved; hence, a reload triggered by each user results in at most one actual reload. Modifications on disk
+ * are detected as described in {@link FileState}. All accesses to the values of a file are synchronized on the
+ * file, so that its resources may be used from different threads. Each user registers the
+ * configuration data it uses, and the file is always exported with the union of the configuration data of all
+ * users, so that no user removes the properties of another one.
+ * <p>
+ * Every call to {@link #acquire} returns a new {@link SharedPropertyResource}, which is counted as a reference
+ * to the file. Once all resources of a file have been {@link SharedPropertyResource#close() closed}, the file's
+ * values are no longer kept in memory.
+ */
+public class SharedResourceRegistry {
+
+    private static final SharedResourceRegistry DEFAULT_REGISTRY = new SharedResourceRegistry();
+
+    private final Map<File, SharedFile> files = new HashMap<>();
+
+    /**
+     * Returns the registry which is shared by the entire application.
+     *
+     * @return the default registry
+     */
+    public static SharedResourceRegistry getDefault() {
+        return DEFAULT_REGISTRY;
+    }
+
+    /**
+     * Returns a resource for the given YAML file, loading the file if it is not yet in use.
+     *
+     * @param file the YAML file
+     * @param configurationData the configuration data which will be used with the returned resource
+     * @return resource for the file
+     */
+    public SharedPropertyResource acquire(File file, ConfigurationData configurationData) {
+        return acquire(file, configurationData, new ReaderOptions());
+    }
+
+    /**
+     * Returns a resource for the given YAML file, loading the file if it is not yet in use. The reader options
+     * are only used if the file is loaded, i.e. the options of the first user of the file apply.
+     *
+     * @param file the YAML file
+     * @param configurationData the configuration data which will be used with the returned resource
+     * @param readerOptions the options to read the file with if it is not yet loaded
+     * @return resource for the file
+     */
+    public synchronized SharedPropertyResource acquire(File file, ConfigurationData configurationData,
+                                                       ReaderOptions readerOptions) {
+        File canonicalFile = getCanonicalFile(file);
+        SharedFile sharedFile = files.get(canonicalFile);
+        if (sharedFile == null) {
+            sharedFile = new SharedFile(canonicalFile, readerOptions);
+            files.put(canonicalFile, sharedFile);
+        }
+        SharedPropertyResource resource = new SharedPropertyResource(this, sharedFile);
+        sharedFile.register(resource, configurationData);
+        return resource;
+    }
+
+    /**
+     * Returns the number of open resources of the given file.
+     *
+     * @param file the file to check
+     * @return number of open resources for the file (0 if the file is not loaded)
+     */
+    public synchronized int getReferenceCount(File file) {
+        SharedFile sharedFile = files.get(getCanonicalFile(file));
+        return sharedFile == null ? 0 : sharedFile.users.size();
+    }
+
+    synchronized void release(SharedPropertyResource resource, SharedFile sharedFile) {
+        sharedFile.unregister(resource);
+        if (sharedFile.users.isEmpty()) {
+            files.remove(sharedFile.file);
+        }
+    }
+
+    private static File getCanonicalFile(File file) {
+        try {
+            return file.getCanonicalFile();
+        } catch (IOException e) {
+            throw new ConfigMeException("Could not resolve canonical path of '" + file + "'", e);
+        }
+    }
+
+    /**
+     * A loaded file and its users.
+     */
+    static final class SharedFile {
+
+        private final File file;
+        private final YamlFileResource resource;
+        private final Map<SharedPropertyResource, ConfigurationData> users = new LinkedHashMap<>();
+        @Nullable
+        private ConfigurationData mergedConfigurationData;
+        private FileState loadedState;
+        private boolean modifiedInMemory;
+
+        SharedFile(File file, ReaderOptions readerOptions) {
+            this.file = file;
+            this.loadedState = FileState.of(file);
+            this.resource = new YamlFileResource(file, readerOptions);
+        }
+
+        /**
+         * Reads from the file's resource while holding the lock of the file, since the resource's values
+         * are modified in place when values are set or the file is reloaded.
+         *
+         * @param reader the function which reads from the resource
+         * @param <T> the type of the result
+         * @return the result of the function
+         */
+        synchronized <T> T read(Function<YamlFileResource, T> reader) {
+            return reader.apply(resource);
+        }
+
+        synchronized void register(SharedPropertyResource user, ConfigurationData configurationData) {
+            users.put(user, configurationData);
+            mergedConfigurationData = null;
+        }
+
+        synchronized void unregister(SharedPropertyResource user) {
+            users.remove(user);
+            mergedConfigurationData = null;
+        }
+
+        synchronized void setValue(String path, @Nullable Object value) {
+            resource.setValue(path, value);
+            modifiedInMemory = true;
+        }
+
+        /**
+         * Reloads the file if it has been modified on disk or in memory since it was last loaded or saved.
+         */
+        synchronized void reload() {
+            if (modifiedInMemory || loadedState.isModified(file)) {
+                FileState state = FileState.of(file);
+                resource.reload();
+                updateState(state);
+            }
+        }
+
+        synchronized void reload(String sectionPath) {
+            if (sectionPath.isEmpty()) {
+                reload();
+            } else {
+                resource.reload(sectionPath);
+            }
+        }
+
+        synchronized void export(ConfigurationData configurationData) {
+            resource.exportProperties(mergeWithUsers(configurationData));
+            updateState(FileState.of(file));
+        }
+
+        synchronized void export(ConfigurationData configurationData, Writer writer) throws IOException {
+            resource.exportProperties(mergeWithUsers(configurationData), writer);
+        }
+
+        /**
+         * Returns configuration data with the properties of all users and the given configuration data.
+         * Properties are identified by path; for properties with the same path, the first one is kept.
+         * The properties are grouped by section with a {@link PropertyListBuilder}, so that each section is
+         * exported only once.
+         *
+         * @param configurationData the configuration data to merge with the data of all users
+         * @return the merged configuration data
+         */
+        synchronized ConfigurationData mergeWithUsers(ConfigurationData configurationData) {
+            if (mergedConfigurationData == null) {
+                mergedConfigurationData = merge(users.values().toArray(new ConfigurationData[0]));
+            }
+            if (users.containsValue(configurationData)) {
+                return mergedConfigurationData;
+            }
+            return merge(mergedConfigurationData, configurationData);
+        }
+
+        private void updateState(FileState state) {
+            loadedState = state;
+            modifiedInMemory = false;
+        }
+
+        private static ConfigurationData merge(ConfigurationData... configurationDatas) {
+            PropertyListBuilder propertyListBuilder = new PropertyListBuilder();
+            Set<String> paths = new HashSet<>();
+            Map<String, String[]> sectionComments = new HashMap<>();
+            for (ConfigurationData configurationData : configurationDatas) {
+                for (Property<?> property : configurationData.getProperties()) {
+                    if (paths.add(property.getPath())) {
+                        propertyListBuilder.add(property);
+                    }
+                }
+                for (Map.Entry<String, String[]> comment : configurationData.getSectionComments().entrySet()) {
+                    sectionComments.putIfAbsent(comment.getKey(), comment.getValue());
+                }
+            }
+            return new ConfigurationData(propertyListBuilder.create(), sectionComments);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package ch.jalu.configme.resource;
+
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.Reader;
+
+/**
+ * Parser based on SnakeYAML. Supports the full YAML 1.1 specification.
+ * <p>
+ * With the default reader options, the document is loaded with SnakeYAML's composer and safe constructor.
+ * If the options define a string pool, a scalar schema, includes or parse limits, the tree is built directly
+ * from the events of SnakeYAML's parser (see {@link YamlEventTreeBuilder}) so that they can be applied while
+ * the tree is built; in this case, only the standard map and sequence tags are supported for collections.
+ */
+public class SnakeYamlParser implements YamlParser {
+
+    @Override
+    public Object parse(Reader reader, ReaderOptions options) {
+        if (requiresEventTreeBuilder(options)) {
+            return new YamlEventTreeBuilder(reader, options).readDocument();
+        }
+        return new Yaml().load(reader);
+    }
+
+    private static boolean requiresEventTreeBuilder(ReaderOptions options) {
+        return options.getStringPool() != null
+            || options.getScalarSchema() != null
+            || options.isIncludes()
+            || options.getMaxNestingDepth() != Integer.MAX_VALUE
+            || options.getMaxAliasCount() != Integer.MAX_VALUE
+            || options.getMaxCollectionSize() != Integer.MAX_VALUE;
+    }
+}
@@ -0,0 +1,79 @@
+package ch.jalu.configme.resource;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Pool of strings used to deduplicate keys and short scalar values while a configuration is loaded.
+ * <p>
+ * The pool only keeps weak references to its strings: a string is removed from the pool once it is no longer
+ * used by any loaded tree, so the pool does not retain the strings of previous reloads. The number of pooled
+ * strings is bounded; once the maximum size is reached, new strings are returned as is. A pool can be shared
+ * by multiple readers, in which case equal strings are also deduplicated across their trees.
+ */
+public class StringPool {
+
+    /** Default maximum number of strings in the pool. */
+    public static final int DEFAULT_MAX_SIZE = 50_000;
+    /** Default maximum length of scalar values to deduplicate. */
+    public static final int DEFAULT_MAX_VALUE_LENGTH = 64;
+
+    private final Map<String, WeakReference<String>> strings = new WeakHashMap<>();
+    private final int maxSize;
+    private final int maxValueLength;
+
+    /**
+     * Constructor with default limits.
+     */
+    public StringPool() {
+        this(DEFAULT_MAX_SIZE, DEFAULT_MAX_VALUE_LENGTH);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param maxSize the maximum number of strings to keep in the pool
+     * @param maxValueLength the maximum length of scalar values to deduplicate (keys are always deduplicated)
+     */
+    public StringPool(int maxSize, int maxValueLength) {
+        this.maxSize = maxSize;
+        this.maxValueLength = maxValueLength;
+    }
+
+    /**
+     * Returns the pooled instance equal to the given key, adding it to the pool if needed.
+     *
+     * @param key the key to deduplicate
+     * @return pooled instance equal to the key
+     */
+    public synchronized String internKey(String key) {
+        WeakReference<String> reference = strings.get(key);
+        String pooled = reference == null ? null : reference.get();
+        if (pooled != null) {
+            return pooled;
+        } else if (strings.size() < maxSize) {
+            strings.put(key, new WeakReference<>(key));
+        }
+        return key;
+    }
+
+    /**
+     * Returns the pooled instance equal to the given scalar value if it is short enough to be deduplicated.
+     *
+     * @param value the value to deduplicate
+     * @return pooled instance equal to the value, or the value itself
+     */
+    public String internValue(String value) {
+        return value.length() <= maxValueLength ? internKey(value) : value;
+    }
+
+    /**
+     * Returns the number of strings currently in the pool.
+     *
+     * @return the pool's size
+     */
+    public synchronized int size() {
+        return strings.size();
+    }
+}
@@ -0,0 +1,438 @@
+package ch.jalu.configme.resource;
+
+import org.yaml.snakeyaml.nodes.Tag;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single-pass parser for the subset of YAML which is written by {@link YamlFileResource}: block mappings,
+ * block sequences, plain and single-quoted scalars on one line, empty flow collections ({@code []} and
+ * {@code {}}) and comments.
+ * <p>
+ * Scalars are resolved to the same values as SnakeYAML would create. As soon as the parser encounters
+ * a construct outside of the supported subset (e.g. anchors, aliases, tags, flow collections, block scalars,
+ * double-quoted or multi-line scalars), the entire document is parsed with the fallback parser instead.
+ * This also applies to invalid YAML, so that errors are reported by the fallback parser.
+ */
+public class SubsetYamlParser implements YamlParser {
+
+    private final YamlParser fallbackParser;
+
+    /**
+     * Constructor. Falls back to a {@link SnakeYamlParser} for unsupported documents.
+     */
+    public SubsetYamlParser() {
+        this(new SnakeYamlParser());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param fallbackParser the parser to use for documents with unsupported constructs
+     */
+    public SubsetYamlParser(YamlParser fallbackParser) {
+        this.fallbackParser = fallbackParser;
+    }
+
+    @Override
+    public Object parse(Reader reader, ReaderOptions options) throws IOException {
+        String yaml = readFully(reader);
+        try {
+            return new DocumentParser(yaml, options).parseDocument();
+        } catch (UnsupportedConstructException e) {
+            return fallbackParser.parse(new StringReader(yaml), options);
+        }
+    }
+
+    private static String readFully(Reader reader) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        char[] buffer = new char[8192];
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            sb.append(buffer, 0, read);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Parses one document. Keeps track of the current line, which may be a "virtual" line starting
+     * in the middle of an actual line (for mappings and sequences nested in a sequence entry).
+     */
+    private static final class DocumentParser {
+
+        private final char[] chars;
+        private final YamlScalars scalars = new YamlScalars();
+        @Nullable
+        private final StringPool stringPool;
+        private final ScalarSchema rootSchema;
+        private final ParseLimitTracker limits;
+
+        /** Indentation of the current line, or -1 if the end of the document has been reached. */
+        private int lineIndent;
+        /** Index of the first character of the current line's content. */
+        private int lineStart;
+        /** Index after the last character of the current line (excluding line breaks). */
+        private int lineEnd;
+        /** Index where the next line starts. */
+        private int nextLineStart;
+
+        DocumentParser(String yaml, ReaderOptions options) {
+            this.chars = yaml.toCharArray();
+            this.stringPool = options.getStringPool();
+            this.rootSchema = options.getScalarSchema() == null
+                ? ScalarSchema.defaultResolution()
+                : options.getScalarSchema();
+            this.limits = new ParseLimitTracker(options);
+        }
+
+        @Nullable
+        Object parseDocument() {
+            for (char c : chars) {
+                if (!isPrintable(c)) {
+                    throw new UnsupportedConstructException();
+                }
+            }
+            advance();
+            if (isAtEnd()) {
+                return null;
+            } else if (lineIndent != 0) {
+                throw new UnsupportedConstructException();
+            }
+            Object root = parseBlock(0, rootSchema);
+            if (!isAtEnd()) {
+                throw new UnsupportedConstructException();
+            }
+            return root;
+        }
+
+        private Object parseBlock(int indent, ScalarSchema schema) {
+            return isSequenceEntry(lineStart) ? parseSequence(indent, schema) : parseMapping(indent, schema);
+        }
+
+        private Map<Object, Object> parseMapping(int indent, ScalarSchema schema) {
+            limits.enterCollection(this);
+            Map<Object, Object> map = new LinkedHashMap<>();
+            ScalarSchema keySchema = schema.keys();
+            while (!isAtEnd() && lineIndent == indent) {
+                int colon = findMappingColon(lineStart);
+                if (colon < 0 || isIndicator(lineStart) || chars[lineStart] == '\'') {
+                    throw new UnsupportedConstructException();
+                }
+                Object key = resolvePlain(lineStart, trimEnd(lineStart, colon), keySchema);
+                if (stringPool != null && key instanceof String) {
+                    key = stringPool.internKey((String) key);
+                }
+                map.put(key, parseValue(indent, skipSpaces(colon + 1), true, schema.child(key)));
+                limits.checkCollectionSize(map.size(), this);
+            }
+            if (!isAtEnd() && lineIndent > indent) {
+                throw new UnsupportedConstructException();
+            }
+            limits.exitCollection();
+            return map;
+        }
+
+        private List<Object> parseSequence(int indent, ScalarSchema schema) {
+            limits.enterCollection(this);
+            List<Object> list = new ArrayList<>();
+            ScalarSchema entrySchema = schema.entries();
+            while (!isAtEnd() && lineIndent == indent && isSequenceEntry(lineStart)) {
+                int contentStart = skipSpaces(lineStart + 1);
+                if (contentStart < lineEnd && (isSequenceEntry(contentStart) || isMappingStart(contentStart))) {
+                    // Nested block in the entry, e.g. "- key: value": continue on a virtual line starting at the key
+                    lineIndent += contentStart - lineStart;
+                    lineStart = contentStart;
+                    list.add(parseBlock(lineIndent, entrySchema));
+                } else {
+                    list.add(parseValue(indent, contentStart, false, entrySchema));
+                }
+                limits.checkCollectionSize(list.size(), this);
+            }
+            if (!isAtEnd() && lineIndent > indent) {
+                throw new UnsupportedConstructException();
+            }
+            limits.exitCollection();
+            return list;
+        }
+
+        /**
+         * Parses the value after a mapping key or a sequence indicator and advances to the next line.
+         *
+         * @param indent indentation of the mapping or sequence the value belongs to
+         * @param valueStart index of the value's start in the current line
+         * @param allowSequenceOnSameIndent whether a sequence on the same indentation is allowed as value
+         * @param schema the schema of the value
+         * @return the value
+         */
+        @Nullable
+        private Object parseValue(int indent, int valueStart, boolean allowSequenceOnSameIndent,
+                                  ScalarSchema schema) {
+            if (valueStart >= lineEnd || chars[valueStart] == '#') {
+                advance();
+                if (!isAtEnd() && lineIndent > indent) {
+                    return parseBlock(lineIndent, schema);
+                } else if (allowSequenceOnSameIndent && !isAtEnd() && lineIndent == indent
+                    && isSequenceEntry(lineStart)) {
+                    return parseSequence(indent, schema);
+                }
+                return null;
+            }
+
+            Object value = parseScalar(valueStart, schema);
+            advance();
+            if (!isAtEnd() && lineIndent > indent) {
+                // Multi-line scalar or invalid YAML
+                throw new UnsupportedConstructException();
+            }
+            return value;
+        }
+
+        @Nullable
+        private Object parseScalar(int start, ScalarSchema schema) {
+            char first = chars[start];
+            if (first == '\'') {
+                return parseSingleQuoted(start);
+            } else if (first == '[' || first == '{') {
+                char closing = first == '[' ? ']' : '}';
+                if (start + 1 < lineEnd && chars[start + 1] == closing && isAtValueEnd(start + 2)) {
+                    limits.enterCollection(this);
+                    limits.exitCollection();
+                    return first == '[' ? new ArrayList<>() : new LinkedHashMap<>();
+                }
+                throw new UnsupportedConstructException();
+            } else if (isIndicator(start)) {
+                throw new UnsupportedConstructException();
+            }
+
+            int end = start;
+            while (end < lineEnd && !(chars[end] == '#' && chars[end - 1] == ' ')) {
+                char c = chars[end];
+                if (c == ':' && (end + 1 == lineEnd || chars[end + 1] == ' ')) {
+                    throw new UnsupportedConstructException();
+                }
+                ++end;
+            }
+            Object value = resolvePlain(start, trimEnd(start, end), schema);
+            return value instanceof String ? internValue((String) value) : value;
+        }
+
+        private String parseSingleQuoted(int start) {
+            StringBuilder sb = new StringBuilder();
+            int i = start + 1;
+            while (true) {
+                if (i >= lineEnd) {
+                    // Multi-line scalar
+                    throw new UnsupportedConstructException();
+                }
+                char c = chars[i];
+                if (c == '\'') {
+                    if (i + 1 < lineEnd && chars[i + 1] == '\'') {
+                        sb.append('\'');
+                        i += 2;
+                        continue;
+                    }
+                    break;
+                }
+                sb.append(c);
+                ++i;
+            }
+            if (!isAtValueEnd(i + 1)) {
+                throw new UnsupportedConstructException();
+            }
+            return internValue(sb.toString());
+        }
+
+        /**
+         * Resolves a plain scalar. Handles the most frequent cases of small integers and text directly, and
+         * uses SnakeYAML's resolver otherwise. Uses the schema instead if it does not define default resolution.
+         */
+        @Nullable
+        private Object resolvePlain(int start, int end, ScalarSchema schema) {
+            if (start >= end) {
+                return null;
+            } else if (!schema.isDefaultResolution()) {
+                String text = new String(chars, start, end - start);
+                if ("<<".equals(text)) {
+                    // Merge key
+                    throw new UnsupportedConstructException();
+                }
+                return schema.resolvePlain(text);
+            }
+            Integer smallInt = parseSmallInteger(start, end);
+            if (smallInt != null) {
+                return smallInt;
+            }
+            String text = new String(chars, start, end - start);
+            if (isPlainText(chars[start])) {
+                return text;
+            }
+            Tag tag = scalars.resolveTag(text, true);
+            if (Tag.MERGE.equals(tag) || !scalars.isSupported(tag)) {
+                throw new UnsupportedConstructException();
+            }
+            return scalars.construct(tag, text, null);
+        }
+
+        @Nullable
+        private Integer parseSmallInteger(int start, int end) {
+            int i = chars[start] == '-' ? start + 1 : start;
+            int length = end - i;
+            if (length < 1 || length > 9 || (chars[i] == '0' && length > 1)) {
+                return null;
+            }
+            int value = 0;
+            for (; i < end; ++i) {
+                char c = chars[i];
+                if (c < '0' || c > '9') {
+                    return null;
+                }
+                value = value * 10 + (c - '0');
+            }
+            return chars[start] == '-' ? -value : value;
+        }
+
+        /**
+         * Returns whether a plain scalar starting with the given character is always resolved to a string.
+         * This is the case for letters which are not the start of a boolean or null value.
+         */
+        private static boolean isPlainText(char first) {
+            return Character.isLetter(first) && "yYnNtTfFoO".indexOf(first) < 0;
+        }
+
+        private void advance() {
+            int pos = nextLineStart;
+            while (pos < chars.length) {
+                int indent = 0;
+                while (pos + indent < chars.length && chars[pos + indent] == ' ') {
+                    ++indent;
+                }
+                int end = pos + indent;
+                while (end < chars.length && chars[end] != '\n') {
+                    ++end;
+                }
+                int next = end + 1;
+                if (end > pos && chars[end - 1] == '\r') {
+                    --end;
+                }
+                int contentStart = pos + indent;
+                int contentEnd = trimEnd(contentStart, end);
+                if (contentStart < contentEnd && chars[contentStart] != '#') {
+                    if (chars[contentStart] == '\t') {
+                        throw new UnsupportedConstructException();
+                    }
+                    lineIndent = indent;
+                    lineStart = contentStart;
+                    lineEnd = contentEnd;
+                    nextLineStart = next;
+                    return;
+                }
+                pos = next;
+            }
+            lineIndent = -1;
+            nextLineStart = chars.length;
+        }
+
+        /**
+         * Describes the current position for error messages.
+         */
+        @Override
+        public String toString() {
+            int line = 1;
+            int end = isAtEnd() ? chars.length : lineStart;
+            for (int i = 0; i < end; ++i) {
+                if (chars[i] == '\n') {
+                    ++line;
+                }
+            }
+            return "line " + line;
+        }
+
+        private boolean isAtEnd() {
+            return lineIndent < 0;
+        }
+
+        private boolean isSequenceEntry(int index) {
+            return chars[index] == '-' && (index + 1 == lineEnd || chars[index + 1] == ' ');
+        }
+
+        private boolean isMappingStart(int index) {
+            return !isIndicator(index) && chars[index] != '\'' && findMappingColon(index) >= 0;
+        }
+
+        private int findMappingColon(int start) {
+            for (int i = start; i < lineEnd; ++i) {
+                char c = chars[i];
+                if (c == ':' && (i + 1 == lineEnd || chars[i + 1] == ' ')) {
+                    return i;
+                } else if (c == '#' && i > start && chars[i - 1] == ' ') {
+                    return -1;
+                }
+            }
+            return -1;
+        }
+
+        private boolean isAtValueEnd(int index) {
+            int i = skipSpaces(index);
+            return i >= lineEnd || (chars[i] == '#' && i > index);
+        }
+
+        private int skipSpaces(int index) {
+            int i = index;
+            while (i < lineEnd && chars[i] == ' ') {
+                ++i;
+            }
+            return i;
+        }
+
+        private int trimEnd(int start, int end) {
+            int i = end;
+            while (i > start && (chars[i - 1] == ' ' || chars[i - 1] == '\t')) {
+                --i;
+            }
+            return i;
+        }
+
+        private String internValue(String value) {
+            return stringPool == null ? value : stringPool.internValue(value);
+        }
+
+        /**
+         * Returns whether the character at the given index is an indicator, i.e. a character which cannot be
+         * the start of a plain scalar. The characters '-', '?' and ':' are only indicators if followed by a space.
+         */
+        private boolean isIndicator(int index) {
+            char c = chars[index];
+            if (c == '-' || c == '?' || c == ':') {
+                return index + 1 == lineEnd || chars[index + 1] == ' ';
+            }
+            return ",[]{}#&*!|>\"%@`".indexOf(c) >= 0;
+        }
+
+        /**
+         * Returns whether the character is allowed in a YAML stream (cf. SnakeYAML's StreamReader).
+         */
+        private static boolean isPrintable(char c) {
+            return (c >= 0x20 && c <= 0x7E) || c == '\n' || c == '\r' || c == '\t' || c == 0x85
+                || (c >= 0xA0 && c <= 0xD7FF) || (c >= 0xE000 && c <= 0xFFFD);
+        }
+    }
+
+    /**
+     * Signals that the document contains a construct the subset parser does not support.
+     */
+    private static final class UnsupportedConstructException extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+
+        UnsupportedConstructException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.configurationdata.ConfigurationData;
+import ch.jalu.configme.resource.tree.CompactMap;
+import ch.jalu.configme.resource.tree.CompactTree;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.util.Map;
+
+/**
+ * Configuration shared by many tenants: the configuration data and an immutable base tree with the values which
+ * apply to all tenants. Each tenant only keeps the values in which it differs from the base, see
+ * {@link TenantPropertyResource}, so the memory used per tenant depends on the number of its overrides rather than
+ * on the size of the configuration.
+ */
+public class TenantBase {
+
+    private final ConfigurationData configurationData;
+    private final CompactMap tree;
+
+    /**
+     * Constructor. Loads the base values from the given YAML file.
+     *
+     * @param configurationData the configuration data of all tenants
+     * @param yamlFile the YAML file with the base values
+     */
+    public TenantBase(ConfigurationData configurationData, File yamlFile) {
+        this(configurationData, new YamlFileReader(yamlFile).getObject(""));
+    }
+
+    /**
+     * Constructor. The base values are copied from the given resource.
+     *
+     * @param configurationData the configuration data of all tenants
+     * @param resource the resource with the base values
+     */
+    public TenantBase(ConfigurationData configurationData, PropertyResource resource) {
+        this(configurationData, resource.getObject(""));
+    }
+
+    private TenantBase(ConfigurationData configurationData, @Nullable Object tree) {
+        this.configurationData = configurationData;
+        this.tree = tree instanceof Map<?, ?>
+            ? (CompactMap) CompactTree.compact(tree)
+            : CompactMap.empty();
+    }
+
+    /**
+     * Creates a resource for a tenant with the overrides in the given file.
+     *
+     * @param overlayFile the YAML file with the tenant's overrides (does not need to exist), or null to keep
+     *                    the overrides in memory only
+     * @return resource for the tenant
+     */
+    public TenantPropertyResource createTenantResource(@Nullable File overlayFile) {
+        return new TenantPropertyResource(this, overlayFile);
+    }
+
+    public ConfigurationData getConfigurationData() {
+        return configurationData;
+    }
+
+    /**
+     * Returns the base values as a compact tree, which is never modified.
+     *
+     * @return the base tree
+     */
+    public CompactMap getTree() {
+        return tree;
+    }
+}
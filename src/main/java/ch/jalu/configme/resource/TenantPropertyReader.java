@@ -0,0 +1,202 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.exception.ConfigMeException;
+import ch.jalu.configme.resource.tree.CompactMap;
+import ch.jalu.configme.resource.tree.CompactTree;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Property reader of a tenant: resolves values from the tenant's overrides on top of the shared values of
+ * a {@link TenantBase}.
+ * <p>
+ * The reader only keeps the overridden paths with their values; no path is both overridden and the parent of
+ * another overridden path. A value is read from the override of the path or of one of its parents if there is
+ * one, and from the base otherwise. Only values which are parents of overridden paths are built on read, by
+ * applying the overrides below them to the base value. Setting a value to the value of the base removes
+ * the override. The overrides are replaced by a modified copy whenever a value is set, so that values can be
+ * read without locking.
+ * <p>
+ * The overrides are loaded from a YAML file with the overridden values, if it exists.
+ */
+public class TenantPropertyReader implements PropertyReader {
+
+    private final TenantBase base;
+    @Nullable
+    private final File overlayFile;
+    /** Overridden values by path, sorted so that the overrides below a path form a sub-map. */
+    private volatile NavigableMap<String, Object> overrides = new TreeMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param base the shared base
+     * @param overlayFile the YAML file with the tenant's overrides (does not need to exist), or null to keep
+     *                    the overrides in memory only
+     */
+    public TenantPropertyReader(TenantBase base, @Nullable File overlayFile) {
+        this.base = base;
+        this.overlayFile = overlayFile;
+        reload();
+    }
+
+    @Override
+    public Object getObject(String path) {
+        NavigableMap<String, Object> currentOverrides = overrides;
+        if (!path.isEmpty()) {
+            for (int dot = path.indexOf('.'); ; dot = path.indexOf('.', dot + 1)) {
+                String prefix = dot < 0 ? path : path.substring(0, dot);
+                if (currentOverrides.containsKey(prefix)) {
+                    Object override = currentOverrides.get(prefix);
+                    return dot < 0 ? override : getValueInTree(override, path.substring(dot + 1));
+                } else if (dot < 0) {
+                    break;
+                }
+            }
+        }
+
+        Object baseValue = path.isEmpty() ? base.getTree() : getValueInTree(base.getTree(), path);
+        Map<String, Object> overridesBelow = getOverridesBelow(currentOverrides, path);
+        if (overridesBelow.isEmpty()) {
+            return baseValue;
+        }
+        CompactMap value = baseValue instanceof CompactMap ? (CompactMap) baseValue : CompactMap.empty();
+        for (Map.Entry<String, Object> override : overridesBelow.entrySet()) {
+            String relativePath = path.isEmpty()
+                ? override.getKey()
+                : override.getKey().substring(path.length() + 1);
+            value = CompactTree.set(value, relativePath.split("\\."), override.getValue());
+        }
+        return value;
+    }
+
+    @Override
+    public <T> T getTypedObject(String path, Class<T> clazz) {
+        Object value = getObject(path);
+        if (clazz.isInstance(value)) {
+            return clazz.cast(value);
+        }
+        return null;
+    }
+
+    /**
+     * Overrides the value at the given path for this tenant. Overrides of paths within the given path are
+     * replaced by the new value; if a parent of the path is overridden, the value is set in the parent's
+     * overridden value.
+     *
+     * @param path the path to set a new value for
+     * @param value the value to set (null to remove the value for this tenant)
+     */
+    @Override
+    public synchronized void set(String path, @Nullable Object value) {
+        Objects.requireNonNull(path);
+        if (path.isEmpty()) {
+            throw new ConfigMeException(
+                "The root of a tenant cannot be replaced; set the values of its paths instead");
+        }
+        NavigableMap<String, Object> newOverrides = new TreeMap<>(overrides);
+        getOverridesBelow(newOverrides, path).clear();
+
+        String overriddenPath = path;
+        Object overriddenValue = CompactTree.compact(value);
+        String parent = findOverriddenParent(newOverrides, path);
+        if (parent != null) {
+            Object parentValue = newOverrides.get(parent);
+            CompactMap parentMap = parentValue instanceof CompactMap ? (CompactMap) parentValue : CompactMap.empty();
+            overriddenPath = parent;
+            overriddenValue = CompactTree.set(parentMap, path.substring(parent.length() + 1).split("\\."),
+                overriddenValue);
+        }
+
+        if (Objects.equals(overriddenValue, getValueInTree(base.getTree(), overriddenPath))) {
+            newOverrides.remove(overriddenPath);
+        } else {
+            newOverrides.put(overriddenPath, overriddenValue);
+        }
+        overrides = newOverrides;
+    }
+
+    /**
+     * Discards the overrides in memory and loads them from the overlay file again, if it exists.
+     */
+    @Override
+    public synchronized void reload() {
+        NavigableMap<String, Object> newOverrides = new TreeMap<>();
+        if (overlayFile != null && overlayFile.exists()) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            PropertyLayers.flatten("", new YamlFileReader(overlayFile).getObject(""), values);
+            for (Map.Entry<String, Object> entry : values.entrySet()) {
+                Object value = CompactTree.compact(entry.getValue());
+                if (!Objects.equals(value, getValueInTree(base.getTree(), entry.getKey()))) {
+                    newOverrides.put(entry.getKey(), value);
+                }
+            }
+        }
+        overrides = newOverrides;
+    }
+
+    /**
+     * Returns the overridden paths with their values (null if the value has been removed for this tenant),
+     * sorted by path.
+     *
+     * @return the tenant's overrides
+     */
+    public Map<String, Object> getOverrides() {
+        return Collections.unmodifiableMap(overrides);
+    }
+
+    /**
+     * Returns the tenant's view, i.e. the base tree with the tenant's overrides. The view is built on each call;
+     * it shares all nodes which are not on the path to an override with the base tree.
+     *
+     * @return the tenant's values
+     */
+    public CompactMap getView() {
+        return (CompactMap) getObject("");
+    }
+
+    public TenantBase getBase() {
+        return base;
+    }
+
+    @Nullable
+    public File getOverlayFile() {
+        return overlayFile;
+    }
+
+    private static NavigableMap<String, Object> getOverridesBelow(NavigableMap<String, Object> overrides,
+                                                                  String path) {
+        // '/' follows '.' in the character table, so this contains all paths which start with path + "."
+        return path.isEmpty() ? overrides : overrides.subMap(path + ".", true, path + "/", false);
+    }
+
+    @Nullable
+    private static String findOverriddenParent(Map<String, Object> overrides, String path) {
+        for (int dot = path.indexOf('.'); dot > 0; dot = path.indexOf('.', dot + 1)) {
+            String parent = path.substring(0, dot);
+            if (overrides.containsKey(parent)) {
+                return parent;
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private static Object getValueInTree(@Nullable Object tree, String path) {
+        Object node = tree;
+        for (String key : path.split("\\.")) {
+            if (!(node instanceof Map<?, ?>)) {
+                return null;
+            }
+            node = ((Map<?, ?>) node).get(key);
+        }
+        return node;
+    }
+}
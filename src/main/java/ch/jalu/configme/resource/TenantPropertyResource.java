@@ -0,0 +1,78 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.beanmapper.leafproperties.LeafPropertiesGenerator;
+import ch.jalu.configme.configurationdata.ConfigurationData;
+import ch.jalu.configme.exception.ConfigMeException;
+import ch.jalu.configme.properties.Property;
+import ch.jalu.configme.resource.diff.TreeDiff;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Property resource of a tenant, whose values are the values of a shared {@link TenantBase} with the tenant's
+ * overrides (see {@link TenantPropertyReader}).
+ * <p>
+ * On export, only the properties whose values differ from the base are written to the tenant's overlay file,
+ * in the same format as with a {@link YamlFileResource}. If the tenant has no overrides, the overlay file is
+ * deleted. A value which has been removed for the tenant is exported with the property's default value.
+ */
+public class TenantPropertyResource extends YamlFileResource {
+
+    private final TenantPropertyReader tenantReader;
+
+    /**
+     * Constructor.
+     *
+     * @param base the shared base
+     * @param overlayFile the YAML file with the tenant's overrides (does not need to exist), or null to keep
+     *                    the overrides in memory only
+     */
+    public TenantPropertyResource(TenantBase base, @Nullable File overlayFile) {
+        this(new TenantPropertyReader(base, overlayFile));
+    }
+
+    private TenantPropertyResource(TenantPropertyReader tenantReader) {
+        super(tenantReader.getOverlayFile(), tenantReader, new LeafPropertiesGenerator());
+        this.tenantReader = tenantReader;
+    }
+
+    /**
+     * Writes the properties which differ from the base to the overlay file. Does nothing if the resource has
+     * no overlay file.
+     *
+     * @param configurationData the configuration data
+     */
+    @Override
+    public void exportProperties(ConfigurationData configurationData) {
+        File overlayFile = tenantReader.getOverlayFile();
+        if (overlayFile == null) {
+            return;
+        }
+
+        Set<Property<?>> overriddenProperties = TreeDiff.compute(tenantReader.getBase().getTree(),
+            tenantReader.getView()).getChangesByProperty(configurationData).keySet();
+        if (overriddenProperties.isEmpty()) {
+            try {
+                Files.deleteIfExists(overlayFile.toPath());
+            } catch (IOException e) {
+                throw new ConfigMeException("Could not delete '" + overlayFile.getPath() + "'", e);
+            }
+        } else {
+            List<Property<?>> propertiesToExport = configurationData.getProperties().stream()
+                .filter(overriddenProperties::contains)
+                .collect(Collectors.toList());
+            super.exportProperties(
+                new ConfigurationData(propertiesToExport, configurationData.getSectionComments()));
+        }
+    }
+
+    public TenantPropertyReader getTenantReader() {
+        return tenantReader;
+    }
+}
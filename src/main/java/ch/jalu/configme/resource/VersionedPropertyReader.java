@@ -0,0 +1,303 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.exception.ConfigMeException;
+import ch.jalu.configme.resource.delta.TreeHistoryFile;
+import ch.jalu.configme.resource.diff.TreeDiff;
+import ch.jalu.configme.resource.tree.CompactMap;
+import ch.jalu.configme.resource.tree.CompactTree;
+import ch.jalu.configme.resource.tree.TreeVersion;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Property reader which retains the last versions of its values, so that the values can be rolled back
+ * to a previous version, e.g. after a bad configuration has been loaded.
+ * <p>
+ * The values are read from a source reader (e.g. a {@link YamlFileReader}) and kept as a compact tree (see
+ * {@link CompactTree}). Every load from the source and every {@link #commit()} creates a new version if the tree
+ * has changed. Since compact trees are never modified and unchanged nodes are shared between the versions,
+ * a version only costs the memory of the nodes which differ from the previous version, and rolling back only
+ * replaces the reference to the current tree. Setting a value copies the nodes along its path.
+ * <p>
+ * If the source is a {@link YamlFileReader}, its tree is released once it has been compacted, so that the values
+ * are not kept twice in memory; the source should therefore not be read from directly.
+ * <p>
+ * The versions can additionally be persisted to a {@link TreeHistoryFile}, so that they survive a restart.
+ * New versions are appended to the history file; once it contains twice as many versions as are retained,
+ * it is rewritten with the retained versions only.
+ */
+public class VersionedPropertyReader implements PropertyReader {
+
+    /** Default number of versions which are retained. */
+    public static final int DEFAULT_MAX_VERSIONS = 10;
+
+    private final PropertyReader source;
+    private final int maxVersions;
+    private final Map<Long, TreeVersion> versions = new LinkedHashMap<>();
+    private volatile Object root;
+    private volatile TreeVersion latestVersion;
+    private long nextVersionNumber = 1;
+    @Nullable
+    private TreeHistoryFile historyFile;
+
+    /**
+     * Constructor. Creates the first version with the source's current values.
+     *
+     * @param source the reader to load the values from
+     */
+    public VersionedPropertyReader(PropertyReader source) {
+        this(source, DEFAULT_MAX_VERSIONS);
+    }
+
+    /**
+     * Constructor. Creates the first version with the source's current values.
+     *
+     * @param source the reader to load the values from
+     * @param maxVersions the number of versions to retain
+     */
+    public VersionedPropertyReader(PropertyReader source, int maxVersions) {
+        if (maxVersions < 1) {
+            throw new ConfigMeException("At least one version must be retained, but got " + maxVersions);
+        }
+        this.source = source;
+        this.maxVersions = maxVersions;
+        this.root = CompactTree.compact(source.getObject(""));
+        discardSourceTree();
+        addVersion(false);
+    }
+
+    @Override
+    public Object getObject(String path) {
+        Object node = root;
+        if (path.isEmpty()) {
+            return node;
+        }
+        for (String key : path.split("\\.")) {
+            if (!(node instanceof Map<?, ?>)) {
+                return null;
+            }
+            node = ((Map<?, ?>) node).get(key);
+        }
+        return node;
+    }
+
+    @Override
+    public <T> T getTypedObject(String path, Class<T> clazz) {
+        Object value = getObject(path);
+        if (clazz.isInstance(value)) {
+            return clazz.cast(value);
+        }
+        return null;
+    }
+
+    /**
+     * Sets the value in memory. The value is converted to its compact form so that it cannot be modified
+     * afterwards. The value is only added to the history on the next {@link #commit()}.
+     *
+     * @param path the path to set a new value for
+     * @param value the value to set
+     */
+    @Override
+    public synchronized void set(String path, @Nullable Object value) {
+        Objects.requireNonNull(path);
+        setCompactValue(path, CompactTree.compact(value));
+    }
+
+    private void setCompactValue(String path, @Nullable Object compactValue) {
+        if (path.isEmpty()) {
+            root = compactValue;
+        } else if (root instanceof CompactMap || root == null) {
+            CompactMap rootMap = root == null ? CompactMap.empty() : (CompactMap) root;
+            root = CompactTree.set(rootMap, path.split("\\."), compactValue);
+        } else {
+            throw new ConfigMeException("The root path is a bean property; you cannot set values to any subpath. "
+                + "Modify the bean at the root or set a new one instead.");
+        }
+    }
+
+    /**
+     * Reloads the source and adds its values as new version, unless they are equal to the latest version.
+     */
+    @Override
+    public synchronized void reload() {
+        source.reload();
+        root = CompactTree.compact(source.getObject(""), getLatestVersion().getTree());
+        discardSourceTree();
+        addVersion(false);
+    }
+
+    /**
+     * Reloads the given section from the source and adds the resulting tree as new version, unless it is equal
+     * to the latest version. Values outside of the section keep their value in memory.
+     *
+     * @param path the path whose value should be reloaded (empty string for everything)
+     */
+    @Override
+    public synchronized void reload(String path) {
+        if (path.isEmpty()) {
+            reload();
+            return;
+        }
+        source.reload(path);
+        setCompactValue(path, CompactTree.compact(source.getObject(path), getObject(path)));
+        discardSourceTree();
+        addVersion(false);
+    }
+
+    private void discardSourceTree() {
+        if (source instanceof YamlFileReader) {
+            ((YamlFileReader) source).discardTree();
+        }
+    }
+
+    /**
+     * Adds the current values as new version, unless they are equal to the latest version. This should be called
+     * when the values are saved, so that they can be rolled back to later on. If a history file is set, the
+     * version is only added once it has been written to the file.
+     *
+     * @return the version of the current values
+     */
+    public synchronized TreeVersion commit() {
+        return addVersion(true);
+    }
+
+    /**
+     * Replaces the values in memory with the tree of the given version. The version is not removed from
+     * the history, and no new version is created.
+     *
+     * @param versionNumber the number of the version to roll back to
+     */
+    public synchronized void rollback(long versionNumber) {
+        root = getVersion(versionNumber).getTree();
+    }
+
+    /**
+     * Returns the differences between the trees of the given versions. Since the versions share their unchanged
+     * nodes, this is proportional to the size of the changes.
+     *
+     * @param oldVersionNumber the number of the old version
+     * @param newVersionNumber the number of the new version
+     * @return the differences between the versions
+     */
+    public synchronized TreeDiff diff(long oldVersionNumber, long newVersionNumber) {
+        return TreeDiff.compute(getVersion(oldVersionNumber).getTree(), getVersion(newVersionNumber).getTree());
+    }
+
+    /**
+     * Returns the differences between the latest version and the values in memory.
+     *
+     * @return the changes which have not been committed
+     */
+    public TreeDiff diffUncommitted() {
+        return TreeDiff.compute(latestVersion.getTree(), root);
+    }
+
+    private TreeVersion getVersion(long versionNumber) {
+        TreeVersion version = versions.get(versionNumber);
+        if (version == null) {
+            throw new ConfigMeException("Version " + versionNumber + " is not available; available versions are "
+                + versions.keySet());
+        }
+        return version;
+    }
+
+    /**
+     * Returns the retained versions.
+     *
+     * @return the versions, oldest first
+     */
+    public synchronized List<TreeVersion> getVersions() {
+        return new ArrayList<>(versions.values());
+    }
+
+    /**
+     * Returns the latest version. Note that the values in memory may differ from it if values have been set
+     * or if a version has been rolled back to.
+     *
+     * @return the latest version
+     */
+    public TreeVersion getLatestVersion() {
+        return latestVersion;
+    }
+
+    @Nullable
+    public TreeHistoryFile getHistoryFile() {
+        return historyFile;
+    }
+
+    /**
+     * Sets the file in which the versions are persisted. The versions in the file, if it exists, are added to
+     * the history before the versions in memory, which are renumbered accordingly; then, all versions are saved
+     * to the file. Values which cannot be stored in a history file, such as beans, cause an exception whenever
+     * a version is added, in which case the version is not added.
+     *
+     * @param historyFile the history file to use, or null to keep the versions in memory only
+     */
+    public synchronized void setHistoryFile(@Nullable TreeHistoryFile historyFile) {
+        this.historyFile = historyFile;
+        if (historyFile == null) {
+            return;
+        }
+
+        List<TreeVersion> currentVersions = getVersions();
+        versions.clear();
+        nextVersionNumber = 1;
+        Object previousTree = null;
+        for (TreeVersion version : historyFile.load()) {
+            previousTree = CompactTree.compact(version.getTree(), previousTree);
+            putVersion(new TreeVersion(nextVersionNumber++, version.isCommitted(), version.getTimestamp(),
+                previousTree));
+        }
+        for (TreeVersion version : currentVersions) {
+            Object tree = CompactTree.compact(version.getTree(), previousTree);
+            if (version.getTree() == root) {
+                root = tree;
+            }
+            if (versions.isEmpty() || tree != previousTree) {
+                putVersion(new TreeVersion(nextVersionNumber++, version.isCommitted(), version.getTimestamp(),
+                    tree));
+                previousTree = tree;
+            }
+        }
+        historyFile.save(getVersions());
+    }
+
+    private TreeVersion addVersion(boolean committed) {
+        Object currentRoot = root;
+        if (latestVersion != null && Objects.equals(latestVersion.getTree(), currentRoot)) {
+            return latestVersion;
+        }
+        TreeVersion version = new TreeVersion(nextVersionNumber, committed, System.currentTimeMillis(),
+            currentRoot);
+        if (historyFile != null) {
+            if (historyFile.getVersionCount() >= 2 * maxVersions) {
+                // drop the versions which are no longer retained
+                List<TreeVersion> retainedVersions = getVersions();
+                retainedVersions.add(version);
+                historyFile.save(retainedVersions.subList(Math.max(0, retainedVersions.size() - maxVersions),
+                    retainedVersions.size()));
+            } else {
+                historyFile.append(latestVersion, version);
+            }
+        }
+        ++nextVersionNumber;
+        putVersion(version);
+        return version;
+    }
+
+    private void putVersion(TreeVersion version) {
+        versions.put(version.getNumber(), version);
+        latestVersion = version;
+        Iterator<Long> versionNumberIterator = versions.keySet().iterator();
+        while (versions.size() > maxVersions) {
+            versionNumberIterator.next();
+            versionNumberIterator.remove();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.beanmapper.leafproperties.LeafPropertiesGenerator;
+import ch.jalu.configme.configurationdata.ConfigurationData;
+import ch.jalu.configme.properties.BeanProperty;
+import ch.jalu.configme.properties.Property;
+import ch.jalu.configme.resource.delta.TreeHistoryFile;
+import ch.jalu.configme.resource.diff.TreeDiff;
+import ch.jalu.configme.resource.tree.TreeVersion;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * YAML file resource which retains the last versions of the configuration, so that a bad configuration can be
+ * rolled back without restoring the file by hand. A version is created whenever the file is loaded and whenever
+ * the properties are exported, unless the values have not changed. See {@link VersionedPropertyReader}.
+ * <p>
+ * Rolling back only replaces the values in memory; export the properties afterwards to write them to the file.
+ */
+public class VersionedYamlFileResource extends YamlFileResource {
+
+    private final File file;
+    private final VersionedPropertyReader versionedReader;
+    private final LeafPropertiesGenerator leafPropertiesGenerator;
+
+    /**
+     * Constructor.
+     *
+     * @param file the YAML file
+     */
+    public VersionedYamlFileResource(File file) {
+        this(file, new ReaderOptions(), VersionedPropertyReader.DEFAULT_MAX_VERSIONS);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param file the YAML file
+     * @param readerOptions the options to read the YAML file with
+     * @param maxVersions the number of versions to retain
+     */
+    public VersionedYamlFileResource(File file, ReaderOptions readerOptions, int maxVersions) {
+        this(file, new VersionedPropertyReader(new YamlFileReader(file, readerOptions), maxVersions),
+            new LeafPropertiesGenerator());
+    }
+
+    private VersionedYamlFileResource(File file, VersionedPropertyReader versionedReader,
+                                      LeafPropertiesGenerator leafPropertiesGenerator) {
+        super(file, versionedReader, leafPropertiesGenerator);
+        this.file = file;
+        this.versionedReader = versionedReader;
+        this.leafPropertiesGenerator = leafPropertiesGenerator;
+    }
+
+    /**
+     * Adds the values as new version and writes the properties to the file. Beans are replaced by their exported
+     * values beforehand, so that they can be stored in the history file. The version is added before the file
+     * is written, so that values which cannot be stored in the history file do not leave the file written
+     * without a version.
+     *
+     * @param configurationData the configuration data
+     */
+    @Override
+    public void exportProperties(ConfigurationData configurationData) {
+        convertBeansToLeafValues(configurationData);
+        versionedReader.commit();
+        super.exportProperties(configurationData);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void convertBeansToLeafValues(ConfigurationData configurationData) {
+        for (Property<?> property : configurationData.getProperties()) {
+            if (property instanceof BeanProperty<?>) {
+                Object value = versionedReader.getObject(property.getPath());
+                if (value != null && !(value instanceof Map<?, ?>)) {
+                    versionedReader.set(property.getPath(), ExportableProperties.toLeafValueTree(
+                        (BeanProperty<Object>) property, value, leafPropertiesGenerator));
+                }
+            }
+        }
+    }
+
+    /**
+     * Replaces the values in memory with the values of the given version.
+     *
+     * @param versionNumber the number of the version to roll back to
+     */
+    public void rollback(long versionNumber) {
+        versionedReader.rollback(versionNumber);
+    }
+
+    /**
+     * Returns the differences between the values of the given versions.
+     *
+     * @param oldVersionNumber the number of the old version
+     * @param newVersionNumber the number of the new version
+     * @return the differences between the versions
+     */
+    public TreeDiff diff(long oldVersionNumber, long newVersionNumber) {
+        return versionedReader.diff(oldVersionNumber, newVersionNumber);
+    }
+
+    /**
+     * Returns the retained versions.
+     *
+     * @return the versions, oldest first
+     */
+    public List<TreeVersion> getVersions() {
+        return versionedReader.getVersions();
+    }
+
+    /**
+     * Sets whether the versions are persisted in a history file next to the YAML file (e.g.
+     * {@code config.yml.history}), so that they survive a restart.
+     *
+     * @param enabled true to persist the versions, false to keep them in memory only
+     */
+    public void setHistoryFileEnabled(boolean enabled) {
+        versionedReader.setHistoryFile(enabled ? TreeHistoryFile.forSource(file) : null);
+    }
+
+    @Nullable
+    public TreeHistoryFile getHistoryFile() {
+        return versionedReader.getHistoryFile();
+    }
+
+    public VersionedPropertyReader getVersionedReader() {
+        return versionedReader;
+    }
+}
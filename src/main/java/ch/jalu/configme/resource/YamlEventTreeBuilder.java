@@ -0,0 +1,455 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.exception.ConfigMeException;
+import org.yaml.snakeyaml.events.AliasEvent;
+import org.yaml.snakeyaml.events.CollectionStartEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.NodeEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.parser.Parser;
+import org.yaml.snakeyaml.parser.ParserImpl;
+import org.yaml.snakeyaml.reader.StreamReader;
+
+import javax.annotation.Nullable;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds Java objects (maps, lists and scalars) from the event stream of SnakeYAML's parser,
+ * without composing an intermediate node graph first.
+ * <p>
+ * Values are created the same way as SnakeYAML's safe constructor would create them, i.e. mappings
+ * become {@link LinkedHashMap} instances, sequences become {@link ArrayList} instances and scalars are
+ * resolved to Integer, Double, Boolean etc. as usual. In contrast to loading the document at once,
+ * this class allows to skip over nodes and to read a sequence entry by entry.
+ */
+final class YamlEventTreeBuilder {
+
+    private final Parser parser;
+    @Nullable
+    private final StringPool stringPool;
+    private final ScalarSchema rootSchema;
+    private final ParseLimitTracker limits;
+    private final boolean includes;
+    private final YamlScalars scalars = new YamlScalars();
+    private final Map<String, Object> anchors = new HashMap<>();
+    /** Number of nodes of each anchored value, including the nodes added by aliases within it. */
+    private final Map<String, Long> anchorNodeCounts = new HashMap<>();
+    /** Number of nodes built so far, where each alias counts with the number of nodes of its value. */
+    private long nodeCount;
+    private ScalarSchema sequenceEntrySchema = ScalarSchema.defaultResolution();
+    private boolean hasSkippedMergeKey;
+
+    /**
+     * Constructor.
+     *
+     * @param reader the reader to parse the YAML from
+     */
+    YamlEventTreeBuilder(Reader reader) {
+        this(reader, new ReaderOptions());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param reader the reader to parse the YAML from
+     * @param options the reader options to consider while building values
+     */
+    YamlEventTreeBuilder(Reader reader, ReaderOptions options) {
+        this.parser = new ParserImpl(new StreamReader(reader));
+        this.stringPool = options.getStringPool();
+        this.rootSchema = options.getScalarSchema() == null
+            ? ScalarSchema.defaultResolution()
+            : options.getScalarSchema();
+        this.limits = new ParseLimitTracker(options);
+        this.includes = options.isIncludes();
+    }
+
+    /**
+     * Consumes the events preceding the root node of the first document.
+     *
+     * @return true if a document is present, false if the stream is empty
+     */
+    boolean startDocument() {
+        expect(Event.ID.StreamStart);
+        if (parser.checkEvent(Event.ID.StreamEnd)) {
+            return false;
+        }
+        expect(Event.ID.DocumentStart);
+        return true;
+    }
+
+    /**
+     * Reads the entire document and returns its root value. Like SnakeYAML's composer, this method
+     * throws an exception if the stream contains more than one document.
+     *
+     * @return the root value, or null if the stream is empty
+     */
+    @Nullable
+    Object readDocument() {
+        if (!startDocument()) {
+            return null;
+        }
+        Object root = readNode(rootSchema);
+        expect(Event.ID.DocumentEnd);
+        if (!parser.checkEvent(Event.ID.StreamEnd)) {
+            throw new ConfigMeException("Expected a single document in the stream, but found another document at "
+                + parser.peekEvent().getStartMark());
+        }
+        return root;
+    }
+
+    /**
+     * Descends into the mapping at the current position, following the given path, and stops before
+     * the node associated with the path. Nodes which are not on the path are skipped.
+     * <p>
+     * If a key of the path is not defined in a mapping with merge keys ({@code <<}), the key may come from one of
+     * the merged mappings, which is not resolved here. In this case, false is returned and
+     * {@link #hasSkippedMergeKey()} returns true; the path must then be looked up in the entire tree.
+     *
+     * @param path the path to navigate to (empty string for the current node)
+     * @return true if the path exists and the parser is positioned before its node, false otherwise
+     */
+    boolean navigateTo(String path) {
+        if (path.isEmpty()) {
+            return true;
+        }
+        for (String key : path.split("\\.")) {
+            if (!parser.checkEvent(Event.ID.MappingStart)) {
+                return false;
+            }
+            limits.enterCollection(parser.getEvent().getStartMark());
+            if (!skipToKey(key)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether {@link #navigateTo} did not find a key of the path in a mapping with merge keys, i.e.
+     * whether the key might be provided by a merged mapping.
+     *
+     * @return true if the path could not be resolved because of a merge key, false otherwise
+     */
+    boolean hasSkippedMergeKey() {
+        return hasSkippedMergeKey;
+    }
+
+    /**
+     * Reads the value at the given path of the first document. Nodes which are not on the path are
+     * skipped, and the document is not read past the path's node.
+     *
+     * @param path the path to read the value of (not empty)
+     * @return the value at the path, or null if the path does not exist
+     */
+    @Nullable
+    Object readSection(String path) {
+        if (!startDocument() || !navigateTo(path)) {
+            return null;
+        }
+        return readNode(getSchema(path));
+    }
+
+    /**
+     * Returns whether the next node is a sequence.
+     *
+     * @return true if a sequence starts at the current position
+     */
+    boolean isAtSequenceStart() {
+        return parser.checkEvent(Event.ID.SequenceStart);
+    }
+
+    /**
+     * Consumes the start event of the sequence at the current position. Entries read with {@link #readEntry}
+     * are resolved with the scalar schema of the given path.
+     *
+     * @param path the path of the sequence
+     */
+    void enterSequence(String path) {
+        expect(Event.ID.SequenceStart);
+        sequenceEntrySchema = getSchema(path).entries();
+    }
+
+    /**
+     * Returns whether the current sequence has another entry. Consumes the sequence's end event if the
+     * sequence has no more entries.
+     *
+     * @return true if another entry can be read with {@link #readEntry()}, false otherwise
+     */
+    boolean hasNextEntry() {
+        if (parser.checkEvent(Event.ID.SequenceEnd)) {
+            parser.getEvent();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Reads the node at the current position and returns its value.
+     *
+     * @return the value of the node
+     */
+    @Nullable
+    Object readNode() {
+        return readNode(ScalarSchema.defaultResolution());
+    }
+
+    /**
+     * Reads the entry at the current position of the sequence which was entered last.
+     *
+     * @return the value of the entry
+     */
+    @Nullable
+    Object readEntry() {
+        return readNode(sequenceEntrySchema);
+    }
+
+    private ScalarSchema getSchema(String path) {
+        ScalarSchema schema = rootSchema;
+        for (String key : path.split("\\.")) {
+            schema = schema.child(key);
+        }
+        return schema;
+    }
+
+    @Nullable
+    private Object readNode(ScalarSchema schema) {
+        Event event = parser.getEvent();
+        if (event.is(Event.ID.Alias)) {
+            return resolveAlias((AliasEvent) event);
+        }
+        long firstNode = nodeCount++;
+        if (event.is(Event.ID.Scalar)) {
+            Object value = registerAnchor(event, constructScalar((ScalarEvent) event, schema));
+            registerAnchorNodeCount(event, firstNode);
+            return value;
+        } else if (event.is(Event.ID.SequenceStart)) {
+            checkCollectionTag((CollectionStartEvent) event, Tag.SEQ);
+            limits.enterCollection(event.getStartMark());
+            List<Object> list = new ArrayList<>();
+            registerAnchor(event, list);
+            ScalarSchema entrySchema = schema.entries();
+            while (!parser.checkEvent(Event.ID.SequenceEnd)) {
+                list.add(readNode(entrySchema));
+                limits.checkCollectionSize(list.size(), event.getStartMark());
+            }
+            parser.getEvent();
+            limits.exitCollection();
+            registerAnchorNodeCount(event, firstNode);
+            return list;
+        } else if (event.is(Event.ID.MappingStart)) {
+            checkCollectionTag((CollectionStartEvent) event, Tag.MAP);
+            limits.enterCollection(event.getStartMark());
+            Map<Object, Object> map = new LinkedHashMap<>();
+            registerAnchor(event, map);
+            readMappingEntries(map, schema, event);
+            limits.exitCollection();
+            registerAnchorNodeCount(event, firstNode);
+            return map;
+        }
+        throw new ConfigMeException("Unexpected YAML event " + event + " at " + event.getStartMark());
+    }
+
+    /**
+     * Skips the node at the current position. Anchored nodes are still read so that aliases
+     * further down in the document can be resolved.
+     */
+    void skipNode() {
+        Event next = parser.peekEvent();
+        if (next instanceof NodeEvent && ((NodeEvent) next).getAnchor() != null) {
+            readNode();
+            return;
+        }
+        parser.getEvent();
+        if (next.is(Event.ID.SequenceStart)) {
+            limits.enterCollection(next.getStartMark());
+            while (!parser.checkEvent(Event.ID.SequenceEnd)) {
+                skipNode();
+            }
+            parser.getEvent();
+            limits.exitCollection();
+        } else if (next.is(Event.ID.MappingStart)) {
+            limits.enterCollection(next.getStartMark());
+            while (!parser.checkEvent(Event.ID.MappingEnd)) {
+                skipNode();
+                skipNode();
+            }
+            parser.getEvent();
+            limits.exitCollection();
+        }
+    }
+
+    private boolean skipToKey(String key) {
+        boolean hasMergeKey = false;
+        while (!parser.checkEvent(Event.ID.MappingEnd)) {
+            if (isMergeKey(parser.peekEvent())) {
+                hasMergeKey = true;
+                skipNode();
+            } else if (parser.checkEvent(Event.ID.Scalar)) {
+                // Explicitly defined keys take precedence over merged ones
+                if (key.equals(readNode())) {
+                    return true;
+                }
+            } else {
+                skipNode();
+            }
+            skipNode();
+        }
+        parser.getEvent();
+        hasSkippedMergeKey = hasMergeKey;
+        return false;
+    }
+
+    private void readMappingEntries(Map<Object, Object> map, ScalarSchema schema, Event startEvent) {
+        ScalarSchema keySchema = schema.keys();
+        List<Object> mergedValues = null;
+        while (!parser.checkEvent(Event.ID.MappingEnd)) {
+            if (isMergeKey(parser.peekEvent())) {
+                parser.getEvent();
+                if (mergedValues == null) {
+                    mergedValues = new ArrayList<>();
+                }
+                mergedValues.add(readNode(schema));
+            } else {
+                Object key = readNode(keySchema);
+                if (stringPool != null && key instanceof String) {
+                    key = stringPool.internKey((String) key);
+                }
+                map.put(key, readNode(schema.child(key)));
+                limits.checkCollectionSize(map.size(), startEvent.getStartMark());
+            }
+        }
+        parser.getEvent();
+
+        if (mergedValues != null) {
+            // Explicitly defined keys take precedence over merged ones
+            for (Object mergedValue : mergedValues) {
+                mergeInto(map, mergedValue);
+            }
+            limits.checkCollectionSize(map.size(), startEvent.getStartMark());
+        }
+    }
+
+    private static boolean isMergeKey(Event keyEvent) {
+        if (!(keyEvent instanceof ScalarEvent)) {
+            return false;
+        }
+        ScalarEvent event = (ScalarEvent) keyEvent;
+        if (event.getTag() == null || "!".equals(event.getTag())) {
+            // Only "<<" is resolved to the merge tag; avoids running all implicit resolvers for every key
+            return "<<".equals(event.getValue()) && event.getImplicit().canOmitTagInPlainScalar();
+        }
+        return Tag.MERGE.equals(new Tag(event.getTag()));
+    }
+
+    private static void mergeInto(Map<Object, Object> map, Object mergedValue) {
+        if (mergedValue instanceof Map<?, ?>) {
+            ((Map<?, ?>) mergedValue).forEach(map::putIfAbsent);
+        } else if (mergedValue instanceof Collection<?>) {
+            for (Object entry : (Collection<?>) mergedValue) {
+                mergeInto(map, entry);
+            }
+        } else {
+            throw new ConfigMeException("Expected a mapping or a list of mappings for merging, but got '"
+                + mergedValue + "'");
+        }
+    }
+
+    private Object constructScalar(ScalarEvent event, ScalarSchema schema) {
+        if (includes && IncludeDirective.TAG.equals(event.getTag())) {
+            return new IncludeDirective(event.getValue());
+        }
+        if (!schema.isDefaultResolution() && event.getTag() == null) {
+            Object value = event.getImplicit().canOmitTagInPlainScalar()
+                ? schema.resolvePlain(event.getValue())
+                : event.getValue();
+            return internIfString(value);
+        }
+        Tag tag = resolveScalarTag(event);
+        if (!scalars.isSupported(tag)) {
+            throw new ConfigMeException("Unsupported tag '" + tag + "' at " + event.getStartMark());
+        }
+        return internIfString(scalars.construct(tag, event.getValue(), event.getStyle()));
+    }
+
+    @Nullable
+    private Object internIfString(@Nullable Object value) {
+        if (stringPool != null && value instanceof String) {
+            return stringPool.internValue((String) value);
+        }
+        return value;
+    }
+
+    private Tag resolveScalarTag(ScalarEvent event) {
+        String tag = event.getTag();
+        if (tag == null || "!".equals(tag)) {
+            return scalars.resolveTag(event.getValue(), event.getImplicit().canOmitTagInPlainScalar());
+        }
+        return new Tag(tag);
+    }
+
+    /**
+     * Verifies that the collection has no tag other than the standard one of its kind, since other tags
+     * (such as {@code !!set} or {@code !!omap}) would require the collection to be constructed differently.
+     *
+     * @param event the start event of the collection
+     * @param standardTag the standard tag of the collection's kind
+     */
+    private static void checkCollectionTag(CollectionStartEvent event, Tag standardTag) {
+        String tag = event.getTag();
+        if (tag != null && !"!".equals(tag) && !standardTag.getValue().equals(tag)) {
+            throw new ConfigMeException("Unsupported tag '" + tag + "' at " + event.getStartMark());
+        }
+    }
+
+    /**
+     * Returns the value of the anchor the alias refers to. The alias is registered with the number of nodes of
+     * the anchored value, since any processing of the tree which does not keep track of shared nodes (copying,
+     * hashing, encoding, etc.) visits the value once per alias.
+     *
+     * @param event the alias event
+     * @return the anchored value
+     */
+    private Object resolveAlias(AliasEvent event) {
+        String anchor = event.getAnchor();
+        if (!anchors.containsKey(anchor)) {
+            throw new ConfigMeException("Found undefined alias '" + anchor + "' at " + event.getStartMark());
+        }
+        // An alias within the anchored node itself has no node count yet
+        long referencedNodes = anchorNodeCounts.getOrDefault(anchor, 1L);
+        nodeCount += referencedNodes;
+        limits.registerAlias(referencedNodes, event.getStartMark());
+        return anchors.get(anchor);
+    }
+
+    private Object registerAnchor(Event event, @Nullable Object value) {
+        String anchor = ((NodeEvent) event).getAnchor();
+        if (anchor != null) {
+            anchors.put(anchor, value);
+        }
+        return value;
+    }
+
+    private void registerAnchorNodeCount(Event event, long firstNode) {
+        String anchor = ((NodeEvent) event).getAnchor();
+        if (anchor != null) {
+            anchorNodeCounts.put(anchor, nodeCount - firstNode);
+        }
+    }
+
+    private Event expect(Event.ID id) {
+        Event event = parser.getEvent();
+        if (!event.is(id)) {
+            throw new ConfigMeException("Expected YAML event " + id + " but got " + event
+                + " at " + event.getStartMark());
+        }
+        return event;
+    }
+}
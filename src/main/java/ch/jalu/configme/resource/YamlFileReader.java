@@ -1,14 +1,32 @@
 package ch.jalu.configme.resource;
 
 import ch.jalu.configme.exception.ConfigMeException;
-import org.yaml.snakeyaml.Yaml;
+import ch.jalu.configme.resource.binary.TreeSnapshotFile;
+import ch.jalu.configme.resource.tree.CompactMap;
+import ch.jalu.configme.resource.tree.CompactTree;
+import ch.jalu.configme.resource.tree.TreeHashes;
+import org.yaml.snakeyaml.reader.UnicodeReader;
 
+import javax.annotation.Nullable;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.stream.Stream;
 
 /**
  * YAML file reader.
@@ -16,6 +34,7 @@ import java.util.Objects;
 public class YamlFileReader implements PropertyReader {
 
     private final File file;
+    private final ReaderOptions options;
     private Map<String, Object> root;
     /**
      * It is possible to map an entire configuration file to one bean property, in which
@@ -30,15 +49,29 @@ public class YamlFileReader implements PropertyReader {
      * @see <a href="https://github.com/AuthMe/ConfigMe/issues/22">Issue #22</a>
      */
     private boolean hasObjectAsRoot = false;
+    /** Whether a value has been set since the file was last loaded. */
+    private boolean modified;
+    /** Parsed files by canonical file, if includes are enabled. Trees contain unresolved includes. */
+    private Map<File, ParsedFile> parsedFiles = new HashMap<>();
 
     /**
      * Constructor.
      *
      * @param file the file to load
      */
-    @SuppressWarnings("unchecked")
     public YamlFileReader(File file) {
+        this(file, new ReaderOptions());
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param file the file to load
+     * @param options the options to load the file with
+     */
+    public YamlFileReader(File file, ReaderOptions options) {
         this.file = file;
+        this.options = options;
         reload();
     }
 
@@ -47,15 +80,7 @@ public class YamlFileReader implements PropertyReader {
         if (path.isEmpty()) {
             return hasObjectAsRoot ? root.get("") : root;
         }
-        Object node = root;
-        String[] keys = path.split("\\.");
-        for (String key : keys) {
-            node = getIfIsMap(key, node);
-            if (node == null) {
-                return null;
-            }
-        }
-        return node;
+        return getValueInTree(root, path);
     }
 
     @Override
@@ -69,15 +94,31 @@ public class YamlFileReader implements PropertyReader {
 
     @Override
     public void set(String path, Object value) {
+        setValue(path, value);
+        modified = true;
+    }
+
+    private void setValue(String path, Object value) {
         Objects.requireNonNull(path);
 
         if (path.isEmpty()) {
-            root.clear();
-            root.put("", value);
+            if (root instanceof CompactMap) {
+                root = CompactMap.empty().with("", value);
+            } else {
+                root.clear();
+                root.put("", value);
+            }
             hasObjectAsRoot = true;
         } else if (hasObjectAsRoot) {
             throw new ConfigMeException("The root path is a bean property; you cannot set values to any subpath. "
                 + "Modify the bean at the root or set a new one instead.");
+        } else if (root instanceof CompactMap) {
+            if (options.isContentHashes()) {
+                root = CompactTree.set((CompactMap) root, path.split("\\."), CompactTree.compact(value));
+                TreeHashes.hash(root); // hashes the new nodes along the path
+            } else {
+                root = CompactTree.set((CompactMap) root, path.split("\\."), value);
+            }
         } else {
             setValueInChildPath(path, value);
         }
@@ -111,10 +152,19 @@ public class YamlFileReader implements PropertyReader {
     }
 
     @Override
+    @SuppressWarnings("unchecked")
     public void reload() {
-        try (FileInputStream fis = new FileInputStream(file)) {
-            Object obj = new Yaml().load(fis);
-            root = obj == null ? new HashMap<>() : (Map<String, Object>) obj;
+        try {
+            Object obj = loadTree();
+            if (usesCompactTree()) {
+                root = obj == null ? CompactMap.empty() : (Map<String, Object>) CompactTree.compact(obj);
+                if (options.isContentHashes()) {
+                    TreeHashes.hash(root);
+                }
+            } else {
+                root = obj == null ? new HashMap<>() : (Map<String, Object>) obj;
+            }
+            modified = false;
         } catch (IOException e) {
             throw new ConfigMeException("Could not read file '" + file + "'", e);
         } catch (ClassCastException e) {
@@ -122,6 +172,215 @@ public class YamlFileReader implements PropertyReader {
         }
     }
 
+    /**
+     * Releases the loaded values, e.g. once a copy of them is kept elsewhere. Until the file is reloaded,
+     * all paths are read as absent.
+     */
+    void discardTree() {
+        root = usesCompactTree() ? CompactMap.empty() : new HashMap<>();
+        hasObjectAsRoot = false;
+    }
+
+    /**
+     * Reloads the value at the given path from the file. Other values are not modified. If the file is
+     * parsed with one of the YAML parsers (and without includes or snapshots), only the events up to the
+     * end of the section are processed and only the section's value is built.
+     *
+     * @param path the path whose value should be reloaded (empty string for everything)
+     */
+    @Override
+    public void reload(String path) {
+        if (path.isEmpty() || hasObjectAsRoot) {
+            reload();
+            return;
+        }
+
+        Object section = null;
+        boolean isSectionRead = false;
+        try {
+            if (isSectionReadable()) {
+                try (Reader reader = new UnicodeReader(openFile(file))) {
+                    YamlEventTreeBuilder treeBuilder = new YamlEventTreeBuilder(reader, options);
+                    section = treeBuilder.readSection(path);
+                    // a key of the path might be in a merged mapping, which only the entire tree resolves
+                    isSectionRead = !treeBuilder.hasSkippedMergeKey();
+                }
+            }
+            if (!isSectionRead) {
+                section = getValueInTree(loadTree(), path);
+            }
+        } catch (IOException e) {
+            throw new ConfigMeException("Could not read file '" + file + "'", e);
+        }
+        setValue(path, usesCompactTree() ? CompactTree.compact(section) : section);
+    }
+
+    /**
+     * Returns a stream over the entries of the list at the given path. If the file is parsed with one of
+     * the YAML parsers (and without includes or snapshots) and no value has been set since it was loaded,
+     * the entries are read one by one from the file with {@link YamlListStreamer}; otherwise, the stream
+     * is based on the loaded list.
+     *
+     * @param path the path of the list
+     * @return stream of the list's entries, or null if there is no list at the given path
+     */
+    @Nullable
+    Stream<?> streamList(String path) {
+        if (modified || hasObjectAsRoot || !isSectionReadable()) {
+            List<?> list = getTypedObject(path, List.class);
+            return list == null ? null : list.stream();
+        }
+        return YamlListStreamer.streamList(file, path, options);
+    }
+
+    private boolean usesCompactTree() {
+        return options.isCompactTree() || options.isContentHashes();
+    }
+
+    /**
+     * Returns whether a section of the file can be read without building the entire tree.
+     *
+     * @return true if the section can be read on its own, false if the file has to be loaded completely
+     */
+    private boolean isSectionReadable() {
+        Class<?> parserClass = options.getParser().getClass();
+        return !options.isIncludes() && !options.isSnapshotSidecar()
+            && (parserClass == SnakeYamlParser.class || parserClass == SubsetYamlParser.class);
+    }
+
+    /**
+     * Loads the entire tree of the file according to the options.
+     *
+     * @return the loaded tree, or null if the file is empty
+     * @throws IOException if the file cannot be read
+     */
+    private Object loadTree() throws IOException {
+        if (options.isIncludes()) {
+            return loadWithIncludes();
+        } else if (options.isSnapshotSidecar()) {
+            return loadWithSnapshot();
+        }
+        return parse(openFile(file));
+    }
+
+    /**
+     * Opens the given file for reading. Files compressed with gzip are decompressed transparently; the maximum
+     * document size applies to the decompressed content.
+     *
+     * @param fileToRead the file to open
+     * @return stream of the file's content
+     * @throws IOException if the file cannot be opened
+     */
+    private InputStream openFile(File fileToRead) throws IOException {
+        return openFile(fileToRead, options);
+    }
+
+    /**
+     * Opens the given file for reading, decompressing it if needed and enforcing the maximum document size
+     * of the given options.
+     *
+     * @param fileToRead the file to open
+     * @param options the reader options
+     * @return stream of the file's content
+     * @throws IOException if the file cannot be opened
+     */
+    static InputStream openFile(File fileToRead, ReaderOptions options) throws IOException {
+        return new SizeLimitedInputStream(CompressedFiles.newInputStream(fileToRead), options.getMaxDocumentSize(),
+            fileToRead);
+    }
+
+    private byte[] readContent(File fileToRead) throws IOException {
+        try (InputStream input = openFile(fileToRead)) {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int length;
+            while ((length = input.read(buffer)) > 0) {
+                content.write(buffer, 0, length);
+            }
+            return content.toByteArray();
+        }
+    }
+
+    /**
+     * Loads the tree from the file's snapshot if it is up-to-date; otherwise, parses the file and saves
+     * the result as new snapshot. Failing to save the snapshot does not prevent the tree from being loaded.
+     *
+     * @return the loaded tree
+     * @throws IOException if the file cannot be read
+     */
+    private Object loadWithSnapshot() throws IOException {
+        if (file.length() > options.getMaxDocumentSize()) {
+            throw new ConfigMeException("File '" + file + "' exceeds the maximum size of "
+                + options.getMaxDocumentSize() + " bytes");
+        }
+        byte[] content = readContent(file);
+        byte[] hash = createSnapshotHash(content);
+        TreeSnapshotFile snapshotFile = TreeSnapshotFile.forSource(file);
+        Object tree = snapshotFile.load(hash, options.getStringPool());
+        if (tree == null) {
+            tree = parse(new ByteArrayInputStream(content));
+            try {
+                snapshotFile.save(hash, tree);
+            } catch (RuntimeException | StackOverflowError ignore) {
+                // The snapshot is only an optimization for the next load, so it must never fail the load
+            }
+        }
+        return tree;
+    }
+
+    /**
+     * Loads the file and resolves its includes. Files whose content has not changed since the last load
+     * are not parsed again.
+     *
+     * @return the loaded tree, with all includes resolved
+     * @throws IOException if a file cannot be read
+     */
+    private Object loadWithIncludes() throws IOException {
+        IncludeResolver resolver = new IncludeResolver();
+        Object tree = resolver.loadIncludedFile(file);
+        parsedFiles = resolver.newParsedFiles;
+        return tree;
+    }
+
+    /**
+     * Creates the hash by which the snapshot is identified. The tree depends on the scalar schema and the
+     * parse limits, so a snapshot may only be used if they match as well. With the default settings,
+     * the hash is the hash of the content.
+     *
+     * @param content the file's content
+     * @return the hash to identify the snapshot with
+     */
+    private byte[] createSnapshotHash(byte[] content) {
+        byte[] hash = TreeSnapshotFile.hash(content);
+        if (options.getScalarSchema() == null && options.getMaxNestingDepth() == Integer.MAX_VALUE
+            && options.getMaxAliasCount() == Integer.MAX_VALUE && options.getMaxCollectionSize() == Integer.MAX_VALUE) {
+            return hash;
+        }
+        String settings = options.getScalarSchema() + ";" + options.getMaxNestingDepth() + ";"
+            + options.getMaxAliasCount() + ";" + options.getMaxCollectionSize();
+        byte[] settingsBytes = settings.getBytes(StandardCharsets.UTF_8);
+        byte[] hashAndSettings = Arrays.copyOf(hash, hash.length + settingsBytes.length);
+        System.arraycopy(settingsBytes, 0, hashAndSettings, hash.length, settingsBytes.length);
+        return TreeSnapshotFile.hash(hashAndSettings);
+    }
+
+    private Object parse(InputStream inputStream) throws IOException {
+        try (Reader reader = new UnicodeReader(inputStream)) {
+            return options.getParser().parse(reader, options);
+        }
+    }
+
+    private static Object getValueInTree(Object tree, String path) {
+        Object node = tree;
+        for (String key : path.split("\\.")) {
+            node = getIfIsMap(key, node);
+            if (node == null) {
+                return null;
+            }
+        }
+        return node;
+    }
+
     private static Object getIfIsMap(String key, Object value) {
         if (value instanceof Map<?, ?>) {
             return ((Map<?, ?>) value).get(key);
@@ -129,4 +388,151 @@ public class YamlFileReader implements PropertyReader {
         return null;
     }
 
+    /**
+     * Resolves the includes of the file for one load. Each include is replaced with a copy of the included
+     * file's tree. Since including the same file multiple times multiplies its nodes like an alias does,
+     * every further include of a file counts like an alias with the number of nodes of the file's tree
+     * against the {@link ReaderOptions#setMaxAliasCount alias limit}.
+     */
+    private final class IncludeResolver {
+
+        private final Map<File, ParsedFile> newParsedFiles = new HashMap<>();
+        private final Deque<File> includeStack = new ArrayDeque<>();
+        private final Map<File, Long> nodeCountsByFile = new HashMap<>();
+        private final ParseLimitTracker limits = new ParseLimitTracker(options);
+        private long nodeCount;
+
+        Object loadIncludedFile(File includedFile) throws IOException {
+            File canonicalFile = includedFile.getCanonicalFile();
+            if (includeStack.contains(canonicalFile)) {
+                throw new ConfigMeException("Include cycle detected: " + describeCycle(canonicalFile));
+            }
+            Long previousNodeCount = nodeCountsByFile.get(canonicalFile);
+            if (previousNodeCount != null) {
+                limits.registerAlias(previousNodeCount, "include of '" + includedFile + "'");
+            }
+
+            ParsedFile parsedFile = newParsedFiles.get(canonicalFile);
+            if (parsedFile == null) {
+                if (canonicalFile.length() > options.getMaxDocumentSize()) {
+                    throw new ConfigMeException("File '" + includedFile + "' exceeds the maximum size of "
+                        + options.getMaxDocumentSize() + " bytes");
+                }
+                byte[] content = readContent(canonicalFile);
+                byte[] hash = TreeSnapshotFile.hash(content);
+                parsedFile = parsedFiles.get(canonicalFile);
+                if (parsedFile == null || !Arrays.equals(parsedFile.hash, hash)) {
+                    parsedFile = new ParsedFile(hash, parse(new ByteArrayInputStream(content)));
+                }
+                newParsedFiles.put(canonicalFile, parsedFile);
+            }
+
+            long firstNode = nodeCount;
+            includeStack.push(canonicalFile);
+            Object tree = resolveIncludes(parsedFile.tree, canonicalFile);
+            includeStack.pop();
+            nodeCountsByFile.put(canonicalFile, nodeCount - firstNode);
+            return tree;
+        }
+
+        /**
+         * Returns a copy of the given tree with all includes replaced by the content of the included file.
+         * The parsed trees are not modified so that they can be reused on the next reload.
+         */
+        private Object resolveIncludes(Object node, File baseFile) throws IOException {
+            if (node instanceof IncludeDirective) {
+                File includedFile = new File(((IncludeDirective) node).getPath());
+                if (!includedFile.isAbsolute()) {
+                    includedFile = new File(baseFile.getParentFile(), includedFile.getPath());
+                }
+                return loadIncludedFile(includedFile);
+            }
+            ++nodeCount;
+            if (node instanceof Map<?, ?>) {
+                Map<Object, Object> copy = new LinkedHashMap<>();
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) node).entrySet()) {
+                    copy.put(entry.getKey(), resolveIncludes(entry.getValue(), baseFile));
+                }
+                return copy;
+            } else if (node instanceof List<?>) {
+                List<Object> copy = new ArrayList<>(((List<?>) node).size());
+                for (Object entry : (List<?>) node) {
+                    copy.add(resolveIncludes(entry, baseFile));
+                }
+                return copy;
+            }
+            return node;
+        }
+
+        /**
+         * Returns the chain of includes from the given file back to itself, e.g. "a.yml -> b.yml -> a.yml".
+         */
+        private String describeCycle(File canonicalFile) {
+            StringBuilder cycle = new StringBuilder();
+            boolean isInCycle = false;
+            for (Iterator<File> it = includeStack.descendingIterator(); it.hasNext(); ) {
+                File includingFile = it.next();
+                isInCycle |= includingFile.equals(canonicalFile);
+                if (isInCycle) {
+                    cycle.append('\'').append(includingFile).append("' -> ");
+                }
+            }
+            return cycle.append('\'').append(canonicalFile).append('\'').toString();
+        }
+    }
+
+    /**
+     * Parsed file with the hash of its content, by which it is determined whether it needs to be parsed again.
+     */
+    private static final class ParsedFile {
+
+        private final byte[] hash;
+        private final Object tree;
+
+        ParsedFile(byte[] hash, Object tree) {
+            this.hash = hash;
+            this.tree = tree;
+        }
+    }
+
+    /**
+     * Input stream which throws an exception as soon as more than the allowed number of bytes have been read.
+     */
+    private static final class SizeLimitedInputStream extends FilterInputStream {
+
+        private final long maxSize;
+        private final File file;
+        private long bytesRead;
+
+        SizeLimitedInputStream(InputStream in, long maxSize, File file) {
+            super(in);
+            this.maxSize = maxSize;
+            this.file = file;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int result = super.read();
+            if (result >= 0) {
+                registerBytesRead(1);
+            }
+            return result;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int result = super.read(b, off, len);
+            if (result > 0) {
+                registerBytesRead(result);
+            }
+            return result;
+        }
+
+        private void registerBytesRead(int count) {
+            bytesRead += count;
+            if (bytesRead > maxSize) {
+                throw new ConfigMeException("File '" + file + "' exceeds the maximum size of " + maxSize + " bytes");
+            }
+        }
+    }
 }
@@ -3,37 +3,28 @@ package ch.jalu.configme.resource;
 import ch.jalu.configme.beanmapper.leafproperties.LeafPropertiesGenerator;
 import ch.jalu.configme.configurationdata.ConfigurationData;
 import ch.jalu.configme.exception.ConfigMeException;
-import ch.jalu.configme.properties.BeanProperty;
-import ch.jalu.configme.properties.OptionalProperty;
-import ch.jalu.configme.properties.Property;
-import ch.jalu.configme.properties.StringListProperty;
-import ch.jalu.configme.resource.PropertyPathTraverser.PathElement;
-import org.yaml.snakeyaml.DumperOptions;
-import org.yaml.snakeyaml.Yaml;
 
-import javax.annotation.Nullable;
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Writer;
-import java.util.Collection;
-import java.util.LinkedList;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
 
 /**
  * Property resource based on a YAML file.
  */
-public class YamlFileResource implements PropertyResource {
-
-    private static final String INDENTATION = "    ";
+public class YamlFileResource implements PropertyResource, PropertyExporter {
 
     private final File file;
     private final PropertyReader reader;
     private final LeafPropertiesGenerator leafPropertiesGenerator;
-    private Yaml simpleYaml;
-    private Yaml singleQuoteYaml;
+    private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
 
     /**
      * Constructor.
@@ -44,6 +35,16 @@ public class YamlFileResource implements PropertyResource {
         this(file, new YamlFileReader(file), new LeafPropertiesGenerator());
     }
 
+    /**
+     * Constructor.
+     *
+     * @param file the config file
+     * @param readerOptions the options to read the file with
+     */
+    public YamlFileResource(File file, ReaderOptions readerOptions) {
+        this(file, new YamlFileReader(file, readerOptions), new LeafPropertiesGenerator());
+    }
+
     /**
      * Constructor.
      *
@@ -94,6 +95,22 @@ public class YamlFileResource implements PropertyResource {
         return reader.getTypedObject(path, List.class);
     }
 
+    /**
+     * Returns the entries of the list at the given path as a stream. If the resource's reader is a
+     * {@link YamlFileReader}, the entries are read one by one from the file with the reader's options
+     * as long as no values have been set since the file was loaded.
+     *
+     * @param path the path to retrieve a list for
+     * @return stream of the list's entries, or null if not applicable or unavailable
+     */
+    @Override
+    public Stream<?> getListStream(String path) {
+        if (reader instanceof YamlFileReader) {
+            return ((YamlFileReader) reader).streamList(path);
+        }
+        return PropertyResource.super.getListStream(path);
+    }
+
     @Override
     public boolean contains(String path) {
         return reader.getObject(path) != null;
@@ -110,159 +127,57 @@ public class YamlFileResource implements PropertyResource {
     }
 
     @Override
-    public void exportProperties(ConfigurationData configurationData) {
-        try (Writer writer = new FileWriter(file)) {
-            PropertyPathTraverser pathTraverser = new PropertyPathTraverser(configurationData);
-            for (Property<?> property : convertPropertiesToExportableTypes(configurationData.getProperties())) {
-
-                List<PathElement> pathElements = pathTraverser.getPathElements(property);
-                for (PathElement pathElement : pathElements) {
-                    writeComments(writer, pathElement.indentationLevel, pathElement.comments);
-                    writer.append("\n")
-                        .append(indent(pathElement.indentationLevel))
-                        .append(pathElement.name)
-                        .append(":");
-                }
-
-                writer.append(" ")
-                    .append(toYaml(property, pathElements.get(pathElements.size() - 1).indentationLevel));
-            }
-            writer.flush();
-            writer.close();
-        } catch (IOException e) {
-            throw new ConfigMeException("Could not save config to '" + file.getPath() + "'", e);
-        } finally {
-            simpleYaml = null;
-            singleQuoteYaml = null;
-        }
+    public void reload(String sectionPath) {
+        reader.reload(sectionPath);
     }
 
-    private void writeComments(Writer writer, int indentation, String[] comments) throws IOException {
-        if (comments.length == 0) {
-            return;
-        }
-        String commentStart = "\n" + indent(indentation) + "# ";
-        for (String comment : comments) {
-            writer.append(commentStart).append(comment);
-        }
+    public int getCompressionLevel() {
+        return compressionLevel;
     }
 
     /**
-     * Converts the property entries to exportable "leaf" properties.
-     * <p>
-     * Properties of type {@link BeanProperty} are converted to multiple {@link Property} objects
-     * that reflect all concrete values that need to be stored to properly, losslessly export the bean.
-     * The property entries are essentially the "leaf nodes" of the bean if viewed as a tree.
-     * <p>
-     * {@link OptionalProperty} instances are skipped if they evaluate to an empty value; otherwise,
-     * the Optional interface is stripped and the underlying property is used in the export.
+     * Sets the level with which the file is compressed on export if it is a gzip file, i.e. if its name ends
+     * with {@code .gz} or if it is compressed already. Compressed files are always read transparently.
      *
-     * @param originalList the list of property entries to convert
-     * @return list of properties with converted property entries
+     * @param compressionLevel the compression level (0-9, or -1 for the default level)
      */
-    @SuppressWarnings("unchecked")
-    protected List<Property<?>> convertPropertiesToExportableTypes(List<Property<?>> originalList) {
-        List<Property<?>> result = new LinkedList<>();
-        for (Property<?> entry : originalList) {
-            if (entry instanceof BeanProperty<?>) {
-                BeanProperty beanProperty = (BeanProperty<?>) entry;
-                result.addAll(leafPropertiesGenerator.generate(
-                    beanProperty, beanProperty.getValue(this)));
-            } else if (entry instanceof OptionalProperty) {
-                if (!entry.getValue(this).equals(Optional.empty())) {
-                    result.add(((OptionalProperty) entry).getBaseProperty());
-                }
-            } else {
-                result.add(entry);
-            }
+    public void setCompressionLevel(int compressionLevel) {
+        if (compressionLevel < Deflater.DEFAULT_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION) {
+            throw new ConfigMeException("Invalid compression level: " + compressionLevel);
         }
-        return result;
+        this.compressionLevel = compressionLevel;
     }
 
-    /**
-     * Returns the YAML representation for the given value (belonging to the given value).
-     * This method returns the YAML representation of the value only (does not include the key)
-     * with no indentation (will be applied afterwards with the appropriate level).
-     *
-     * @param property the associated property
-     * @param value the value to transform as YAML
-     * @return the YAML representation of the value
-     */
-    // For more custom types, you can override this method and implement your custom behavior
-    // and call super.transformValue() at the end to handle all types already handled here
-    protected String transformValue(@Nullable Property<?> property, Object value) {
-        if (value instanceof Collection) {
-            Collection<?> collection = (Collection) value;
-            // If the property is a non-empty collection we need to append a new line because it will be
-            // something like the following, which requires a new line:
-            // - 'item 1'
-            // - 'second item in list'
-            if (collection.isEmpty()) {
-                return "[]";
-            } else if (property instanceof StringListProperty) {
-                // If we have a StringProperty we can "fast track" by using the dumper because of its strict type
-                return "\n" + getSingleQuoteYaml().dump(value);
-            } else {
-                return "\n- " + collection.stream().map(v -> transformValue(null, v))
-                    .collect(Collectors.joining("- "));
-            }
-        }
-
-        if (value instanceof Enum<?>) {
-            return getSingleQuoteYaml().dump(((Enum<?>) value).name());
-        } else if (value instanceof String) {
-            return getSingleQuoteYaml().dump(value);
+    @Override
+    public void exportProperties(ConfigurationData configurationData) {
+        try (Writer writer = createFileWriter()) {
+            exportProperties(configurationData, writer);
+        } catch (IOException e) {
+            throw new ConfigMeException("Could not save config to '" + file.getPath() + "'", e);
         }
-        return getSimpleYaml().dump(value);
-    }
-
-    private <T> String toYaml(Property<T> property, int indent) {
-        Object value = property.getValue(this);
-        String representation = transformValue(property, value);
-        String[] lines = representation.split("\\n");
-        return String.join("\n" + indent(indent), lines);
     }
 
-    private static String indent(int level) {
-        String result = "";
-        for (int i = 0; i < level; i++) {
-            result += INDENTATION;
+    private Writer createFileWriter() throws IOException {
+        if (CompressedFiles.shouldCompress(file)) {
+            OutputStream output = CompressedFiles.newGzipOutputStream(new FileOutputStream(file), compressionLevel);
+            return new OutputStreamWriter(output, StandardCharsets.UTF_8);
         }
-        return result;
+        return new FileWriter(file);
     }
 
-    /**
-     * Returns a YAML instance set to export values with the default style.
-     *
-     * @return YAML instance
-     */
-    protected Yaml getSimpleYaml() {
-        if (simpleYaml == null) {
-            simpleYaml = newYaml(false);
-        }
-        return simpleYaml;
+    @Override
+    public void exportProperties(ConfigurationData configurationData, Writer writer) throws IOException {
+        createYamlWriter().writeProperties(configurationData, writer);
     }
 
     /**
-     * Returns a YAML instance set to export values with single quotes.
+     * Creates the writer with which the properties are exported. Override this method to customize the YAML
+     * output, e.g. by returning a {@link YamlPropertyWriter} which overrides
+     * {@link YamlPropertyWriter#transformValue transformValue}. A new writer is created for every export.
      *
-     * @return YAML instance
+     * @return the YAML writer to export with
      */
-    protected Yaml getSingleQuoteYaml() {
-        if (singleQuoteYaml == null) {
-            singleQuoteYaml = newYaml(true);
-        }
-        return singleQuoteYaml;
+    protected YamlPropertyWriter createYamlWriter() {
+        return new YamlPropertyWriter(this, leafPropertiesGenerator);
     }
-
-    private static Yaml newYaml(boolean useSingleQuotes) {
-        DumperOptions options = new DumperOptions();
-        options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
-        options.setAllowUnicode(true);
-        if (useSingleQuotes) {
-            options.setDefaultScalarStyle(DumperOptions.ScalarStyle.SINGLE_QUOTED);
-        }
-        return new Yaml(options);
-    }
-
 }
@@ -0,0 +1,148 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.exception.ConfigMeException;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.reader.UnicodeReader;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads the entries of a list in a YAML file one by one, directly from the parser's event stream.
+ * <p>
+ * Only the entry being returned is held in memory, which allows to process very large lists (e.g. lists
+ * of banned IP addresses) in bounded memory if they only need to be scanned once. Entries are created like
+ * {@link YamlFileReader} would create them with the same reader options. The file is kept open until the stream
+ * has been consumed or closed, so the returned stream should be used in a try-with-resources block.
+ */
+public final class YamlListStreamer {
+
+    private YamlListStreamer() {
+    }
+
+    /**
+     * Returns a stream over the entries of the list at the given path of the YAML file.
+     *
+     * @param file the YAML file to read
+     * @param path the path of the list
+     * @return stream of the list's entries, or null if there is no list at the given path
+     */
+    @Nullable
+    public static Stream<Object> streamList(File file, String path) {
+        return streamList(file, path, new ReaderOptions());
+    }
+
+    /**
+     * Returns a stream over the entries of the list at the given path of the YAML file. The entries are built
+     * according to the given options, and the file's size is limited by the options' maximum document size.
+     *
+     * @param file the YAML file to read
+     * @param path the path of the list
+     * @param options the reader options to build the entries with
+     * @return stream of the list's entries, or null if there is no list at the given path
+     */
+    @Nullable
+    public static Stream<Object> streamList(File file, String path, ReaderOptions options) {
+        Reader reader = openReader(file, options);
+        try {
+            YamlEventTreeBuilder treeBuilder = new YamlEventTreeBuilder(reader, options);
+            if (!treeBuilder.startDocument() || !treeBuilder.navigateTo(path)) {
+                closeQuietly(reader);
+                return treeBuilder.hasSkippedMergeKey() ? streamLoadedList(file, path, options) : null;
+            } else if (!treeBuilder.isAtSequenceStart()) {
+                closeQuietly(reader);
+                return null;
+            }
+            treeBuilder.enterSequence(path);
+            Iterator<Object> iterator = new ListEntryIterator(treeBuilder, reader, file);
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                .onClose(() -> closeQuietly(reader));
+        } catch (YAMLException | ConfigMeException e) {
+            closeQuietly(reader);
+            throw new ConfigMeException("Could not read list '" + path + "' from file '" + file + "'", e);
+        }
+    }
+
+    /**
+     * Loads the entire file and returns a stream over the list at the given path. Used if the path cannot be
+     * resolved while reading the file's events because it leads through a merged mapping.
+     */
+    @Nullable
+    private static Stream<Object> streamLoadedList(File file, String path, ReaderOptions options) {
+        List<?> list = new YamlFileReader(file, options).getTypedObject(path, List.class);
+        return list == null ? null : list.stream().map(Object.class::cast);
+    }
+
+    private static Reader openReader(File file, ReaderOptions options) {
+        try {
+            return new UnicodeReader(YamlFileReader.openFile(file, options));
+        } catch (IOException e) {
+            throw new ConfigMeException("Could not read file '" + file + "'", e);
+        }
+    }
+
+    private static void closeQuietly(Reader reader) {
+        try {
+            reader.close();
+        } catch (IOException ignore) {
+            // nothing we can do about it
+        }
+    }
+
+    /**
+     * Iterator returning the entries of the list the tree builder has entered. Closes the reader once the
+     * end of the list has been reached.
+     */
+    private static final class ListEntryIterator implements Iterator<Object> {
+
+        private final YamlEventTreeBuilder treeBuilder;
+        private final Reader reader;
+        private final File file;
+        private Boolean hasNext;
+
+        ListEntryIterator(YamlEventTreeBuilder treeBuilder, Reader reader, File file) {
+            this.treeBuilder = treeBuilder;
+            this.reader = reader;
+            this.file = file;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (hasNext == null) {
+                hasNext = wrapExceptions(treeBuilder::hasNextEntry);
+                if (!hasNext) {
+                    closeQuietly(reader);
+                }
+            }
+            return hasNext;
+        }
+
+        @Override
+        public Object next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            hasNext = null;
+            return wrapExceptions(treeBuilder::readEntry);
+        }
+
+        private <T> T wrapExceptions(Supplier<T> action) {
+            try {
+                return action.get();
+            } catch (YAMLException | ConfigMeException e) {
+                closeQuietly(reader);
+                throw new ConfigMeException("Could not read list entry from file '" + file + "'", e);
+            }
+        }
+    }
+}
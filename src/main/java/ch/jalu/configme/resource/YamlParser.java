@@ -0,0 +1,27 @@
+package ch.jalu.configme.resource;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Parses YAML into a tree of maps, lists and scalar values. The parser used by {@link YamlFileReader}
+ * can be defined with {@link ReaderOptions#setParser}.
+ *
+ * @see SnakeYamlParser
+ * @see SubsetYamlParser
+ */
+public interface YamlParser {
+
+    /**
+     * Parses the YAML document provided by the reader.
+     *
+     * @param reader the reader to read the YAML from
+     * @param options the reader options to consider while building the tree
+     * @return the root value of the document, or null if the document is empty
+     * @throws IOException if reading from the reader fails
+     */
+    @Nullable
+    Object parse(Reader reader, ReaderOptions options) throws IOException;
+
+}
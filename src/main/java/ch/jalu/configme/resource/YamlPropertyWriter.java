@@ -0,0 +1,182 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.beanmapper.leafproperties.LeafPropertiesGenerator;
+import ch.jalu.configme.configurationdata.ConfigurationData;
+import ch.jalu.configme.properties.Property;
+import ch.jalu.configme.properties.StringListProperty;
+import ch.jalu.configme.resource.PropertyPathTraverser.PathElement;
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.Yaml;
+
+import javax.annotation.Nullable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Writes properties with the values of a property resource as YAML, in the format of {@link YamlFileResource}.
+ * This allows to write the YAML representation of any resource without a file.
+ */
+public class YamlPropertyWriter {
+
+    private static final String INDENTATION = "    ";
+
+    private final PropertyResource resource;
+    private final LeafPropertiesGenerator leafPropertiesGenerator;
+    private Yaml simpleYaml;
+    private Yaml singleQuoteYaml;
+
+    /**
+     * Constructor.
+     *
+     * @param resource the resource to get the properties' values from
+     * @param leafPropertiesGenerator generator of property entries to export bean properties. Can be null
+     *                                only if you do not use bean properties.
+     */
+    public YamlPropertyWriter(PropertyResource resource, LeafPropertiesGenerator leafPropertiesGenerator) {
+        this.resource = resource;
+        this.leafPropertiesGenerator = leafPropertiesGenerator;
+    }
+
+    /**
+     * Writes the properties with their values in the resource to the given writer. The writer is flushed
+     * but not closed.
+     *
+     * @param configurationData the configuration data to write
+     * @param writer the writer to write to
+     * @throws IOException if writing fails
+     */
+    public void writeProperties(ConfigurationData configurationData, Writer writer) throws IOException {
+        try {
+            PropertyPathTraverser pathTraverser = new PropertyPathTraverser(configurationData);
+            for (Property<?> property : convertPropertiesToExportableTypes(configurationData.getProperties())) {
+
+                List<PathElement> pathElements = pathTraverser.getPathElements(property);
+                for (PathElement pathElement : pathElements) {
+                    writeComments(writer, pathElement.indentationLevel, pathElement.comments);
+                    writer.append("\n")
+                        .append(indent(pathElement.indentationLevel))
+                        .append(pathElement.name)
+                        .append(":");
+                }
+
+                writer.append(" ")
+                    .append(toYaml(property, pathElements.get(pathElements.size() - 1).indentationLevel));
+            }
+            writer.flush();
+        } finally {
+            simpleYaml = null;
+            singleQuoteYaml = null;
+        }
+    }
+
+    private void writeComments(Writer writer, int indentation, String[] comments) throws IOException {
+        if (comments.length == 0) {
+            return;
+        }
+        String commentStart = "\n" + indent(indentation) + "# ";
+        for (String comment : comments) {
+            writer.append(commentStart).append(comment);
+        }
+    }
+
+    /**
+     * Converts the property entries to exportable "leaf" properties.
+     *
+     * @see ExportableProperties#convert
+     *
+     * @param originalList the list of property entries to convert
+     * @return list of properties with converted property entries
+     */
+    protected List<Property<?>> convertPropertiesToExportableTypes(List<Property<?>> originalList) {
+        return ExportableProperties.convert(originalList, resource, leafPropertiesGenerator);
+    }
+
+    /**
+     * Returns the YAML representation for the given value (belonging to the given value).
+     * This method returns the YAML representation of the value only (does not include the key)
+     * with no indentation (will be applied afterwards with the appropriate level).
+     *
+     * @param property the associated property
+     * @param value the value to transform as YAML
+     * @return the YAML representation of the value
+     */
+    // For more custom types, you can override this method and implement your custom behavior
+    // and call super.transformValue() at the end to handle all types already handled here
+    protected String transformValue(@Nullable Property<?> property, Object value) {
+        if (value instanceof Collection<?>) {
+            Collection<?> collection = (Collection<?>) value;
+            // If the property is a non-empty collection we need to append a new line because it will be
+            // something like the following, which requires a new line:
+            // - 'item 1'
+            // - 'second item in list'
+            if (collection.isEmpty()) {
+                return "[]";
+            } else if (property instanceof StringListProperty) {
+                // If we have a StringProperty we can "fast track" by using the dumper because of its strict type
+                return "\n" + getSingleQuoteYaml().dump(value);
+            } else {
+                return "\n- " + collection.stream().map(v -> transformValue(null, v))
+                    .collect(Collectors.joining("- "));
+            }
+        }
+
+        if (value instanceof Enum<?>) {
+            return getSingleQuoteYaml().dump(((Enum<?>) value).name());
+        } else if (value instanceof String) {
+            return getSingleQuoteYaml().dump(value);
+        }
+        return getSimpleYaml().dump(value);
+    }
+
+    private <T> String toYaml(Property<T> property, int indent) {
+        Object value = property.getValue(resource);
+        String representation = transformValue(property, value);
+        String[] lines = representation.split("\\n");
+        return String.join("\n" + indent(indent), lines);
+    }
+
+    private static String indent(int level) {
+        String result = "";
+        for (int i = 0; i < level; i++) {
+            result += INDENTATION;
+        }
+        return result;
+    }
+
+    /**
+     * Returns a YAML instance set to export values with the default style.
+     *
+     * @return YAML instance
+     */
+    protected Yaml getSimpleYaml() {
+        if (simpleYaml == null) {
+            simpleYaml = newYaml(false);
+        }
+        return simpleYaml;
+    }
+
+    /**
+     * Returns a YAML instance set to export values with single quotes.
+     *
+     * @return YAML instance
+     */
+    protected Yaml getSingleQuoteYaml() {
+        if (singleQuoteYaml == null) {
+            singleQuoteYaml = newYaml(true);
+        }
+        return singleQuoteYaml;
+    }
+
+    private static Yaml newYaml(boolean useSingleQuotes) {
+        DumperOptions options = new DumperOptions();
+        options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+        options.setAllowUnicode(true);
+        if (useSingleQuotes) {
+            options.setDefaultScalarStyle(DumperOptions.ScalarStyle.SINGLE_QUOTED);
+        }
+        return new Yaml(options);
+    }
+}
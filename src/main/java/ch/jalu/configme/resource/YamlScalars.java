@@ -0,0 +1,66 @@
+package ch.jalu.configme.resource;
+
+import org.yaml.snakeyaml.constructor.Construct;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.resolver.Resolver;
+
+import javax.annotation.Nullable;
+
+/**
+ * Resolves and constructs scalar values exactly like SnakeYAML does when a document is loaded
+ * in its entirety with the safe constructor.
+ */
+final class YamlScalars {
+
+    private final Resolver resolver = new Resolver();
+    private final ScalarConstructor scalarConstructor = new ScalarConstructor();
+
+    /**
+     * Resolves the tag of a scalar without an explicit tag.
+     *
+     * @param value the scalar's text
+     * @param isPlain whether the scalar is plain (i.e. not quoted)
+     * @return the resolved tag
+     */
+    Tag resolveTag(String value, boolean isPlain) {
+        return resolver.resolve(NodeId.scalar, value, isPlain);
+    }
+
+    /**
+     * Constructs the value of the given scalar.
+     *
+     * @param tag the scalar's tag
+     * @param value the scalar's text
+     * @param style the scalar's style (nullable)
+     * @return the constructed value, or null if the tag is not supported
+     */
+    @Nullable
+    Object construct(Tag tag, String value, @Nullable Character style) {
+        Construct construct = scalarConstructor.getScalarConstruct(tag);
+        return construct == null ? null : construct.construct(new ScalarNode(tag, value, null, null, style));
+    }
+
+    /**
+     * Returns whether values of the given tag can be constructed.
+     *
+     * @param tag the tag to check
+     * @return true if supported, false otherwise
+     */
+    boolean isSupported(Tag tag) {
+        return scalarConstructor.getScalarConstruct(tag) != null;
+    }
+
+    /**
+     * Gives access to the scalar constructs of SnakeYAML's safe constructor.
+     */
+    private static final class ScalarConstructor extends SafeConstructor {
+
+        @Nullable
+        Construct getScalarConstruct(Tag tag) {
+            return yamlConstructors.get(tag);
+        }
+    }
+}
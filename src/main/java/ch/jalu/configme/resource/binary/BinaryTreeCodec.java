@@ -0,0 +1,331 @@
+package ch.jalu.configme.resource.binary;
+
+import ch.jalu.configme.exception.ConfigMeException;
+import ch.jalu.configme.resource.StringPool;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Encodes configuration trees (maps, lists and the scalar types created when loading YAML) into a compact
+ * binary form and decodes them again.
+ * <p>
+ * All strings of a tree are written once into a string table at the start; nodes refer to strings by
+ * their index. Decoding works directly on a {@link ByteBuffer} and creates {@link LinkedHashMap} and
+ * {@link ArrayList} nodes, like the regular YAML loading does. No reflection is involved.
+ * <p>
+ * Maps and lists which occur more than once in a tree (e.g. through YAML aliases) are written once; every further
+ * occurrence is written as a reference to the first one, and decoding restores the shared node. This keeps the
+ * encoded size proportional to the size of the document and allows trees with cycles to be encoded.
+ */
+public final class BinaryTreeCodec {
+
+    private static final byte NULL = 0;
+    private static final byte FALSE = 1;
+    private static final byte TRUE = 2;
+    private static final byte INTEGER = 3;
+    private static final byte LONG = 4;
+    private static final byte BIG_INTEGER = 5;
+    private static final byte DOUBLE = 6;
+    private static final byte STRING = 7;
+    private static final byte LIST = 8;
+    private static final byte MAP = 9;
+    private static final byte BINARY = 10;
+    private static final byte DATE = 11;
+    private static final byte REFERENCE = 12;
+
+    private BinaryTreeCodec() {
+    }
+
+    /**
+     * Encodes the given tree.
+     *
+     * @param tree the tree to encode
+     * @return the binary representation of the tree
+     */
+    public static byte[] encode(@Nullable Object tree) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            encode(tree, new DataOutputStream(bytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // cannot happen with a ByteArrayOutputStream
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Writes the binary representation of the given tree to the output.
+     *
+     * @param tree the tree to encode
+     * @param output the output to write to
+     * @throws IOException if writing to the output fails
+     */
+    public static void encode(@Nullable Object tree, DataOutputStream output) throws IOException {
+        Map<String, Integer> stringTable = new LinkedHashMap<>();
+        collectStrings(tree, stringTable, Collections.newSetFromMap(new IdentityHashMap<>()));
+
+        writeVarInt(output, stringTable.size());
+        for (String string : stringTable.keySet()) {
+            byte[] utf8 = string.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(output, utf8.length);
+            output.write(utf8);
+        }
+        writeValue(output, tree, stringTable, new IdentityHashMap<>());
+    }
+
+    /**
+     * Converts the given value to a value which can be encoded: enums are replaced by their name, floats, shorts
+     * and bytes are widened, characters and optionals are unwrapped, and collections become lists. Maps and
+     * collections are converted recursively. Values of other types are returned as is.
+     *
+     * @param value the value to convert
+     * @return the value to encode
+     */
+    @Nullable
+    public static Object toEncodableValue(@Nullable Object value) {
+        if (value instanceof Enum<?>) {
+            return ((Enum<?>) value).name();
+        } else if (value instanceof Float) {
+            return ((Float) value).doubleValue();
+        } else if (value instanceof Short || value instanceof Byte) {
+            return ((Number) value).intValue();
+        } else if (value instanceof Character) {
+            return value.toString();
+        } else if (value instanceof Optional<?>) {
+            return toEncodableValue(((Optional<?>) value).orElse(null));
+        } else if (value instanceof Map<?, ?>) {
+            Map<Object, Object> map = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                map.put(toEncodableValue(entry.getKey()), toEncodableValue(entry.getValue()));
+            }
+            return map;
+        } else if (value instanceof Collection<?>) {
+            List<Object> list = new ArrayList<>();
+            for (Object entry : (Collection<?>) value) {
+                list.add(toEncodableValue(entry));
+            }
+            return list;
+        }
+        return value;
+    }
+
+    /**
+     * Decodes a tree from the buffer, starting at its current position.
+     *
+     * @param buffer the buffer to read from
+     * @param stringPool string pool to deduplicate the strings with (nullable)
+     * @return the decoded tree
+     */
+    @Nullable
+    public static Object decode(ByteBuffer buffer, @Nullable StringPool stringPool) {
+        try {
+            String[] strings = new String[readCount(buffer, 1)];
+            for (int i = 0; i < strings.length; ++i) {
+                String string = new String(readBytes(buffer), StandardCharsets.UTF_8);
+                strings[i] = stringPool == null ? string : stringPool.internValue(string);
+            }
+            return readValue(buffer, strings, new ArrayList<>());
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new ConfigMeException("Binary tree data is corrupt", e);
+        }
+    }
+
+    private static void collectStrings(@Nullable Object value, Map<String, Integer> stringTable,
+                                       Set<Object> visitedNodes) {
+        if (value instanceof String) {
+            stringTable.putIfAbsent((String) value, stringTable.size());
+        } else if (value instanceof Map<?, ?>) {
+            if (visitedNodes.add(value)) {
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                    collectStrings(entry.getKey(), stringTable, visitedNodes);
+                    collectStrings(entry.getValue(), stringTable, visitedNodes);
+                }
+            }
+        } else if (value instanceof Collection<?>) {
+            if (visitedNodes.add(value)) {
+                for (Object entry : (Collection<?>) value) {
+                    collectStrings(entry, stringTable, visitedNodes);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the given value. Maps and lists are numbered in the order in which they are written; a map or list
+     * which has been written before is written as reference to its number.
+     */
+    private static void writeValue(DataOutputStream output, @Nullable Object value, Map<String, Integer> stringTable,
+                                   Map<Object, Integer> writtenNodes) throws IOException {
+        Integer nodeNumber = (value instanceof Map<?, ?> || value instanceof List<?>) ? writtenNodes.get(value) : null;
+        if (nodeNumber != null) {
+            output.writeByte(REFERENCE);
+            writeVarInt(output, nodeNumber);
+        } else if (value == null) {
+            output.writeByte(NULL);
+        } else if (value instanceof Boolean) {
+            output.writeByte((Boolean) value ? TRUE : FALSE);
+        } else if (value instanceof Integer) {
+            output.writeByte(INTEGER);
+            output.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            output.writeByte(LONG);
+            output.writeLong((Long) value);
+        } else if (value instanceof BigInteger) {
+            byte[] bytes = ((BigInteger) value).toByteArray();
+            output.writeByte(BIG_INTEGER);
+            writeVarInt(output, bytes.length);
+            output.write(bytes);
+        } else if (value instanceof Double) {
+            output.writeByte(DOUBLE);
+            output.writeDouble((Double) value);
+        } else if (value instanceof String) {
+            output.writeByte(STRING);
+            writeVarInt(output, stringTable.get(value));
+        } else if (value instanceof Map<?, ?>) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            writtenNodes.put(map, writtenNodes.size());
+            output.writeByte(MAP);
+            writeVarInt(output, map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeValue(output, entry.getKey(), stringTable, writtenNodes);
+                writeValue(output, entry.getValue(), stringTable, writtenNodes);
+            }
+        } else if (value instanceof List<?>) {
+            List<?> list = (List<?>) value;
+            writtenNodes.put(list, writtenNodes.size());
+            output.writeByte(LIST);
+            writeVarInt(output, list.size());
+            for (Object entry : list) {
+                writeValue(output, entry, stringTable, writtenNodes);
+            }
+        } else if (value instanceof byte[]) {
+            byte[] bytes = (byte[]) value;
+            output.writeByte(BINARY);
+            writeVarInt(output, bytes.length);
+            output.write(bytes);
+        } else if (value.getClass() == Date.class) {
+            output.writeByte(DATE);
+            output.writeLong(((Date) value).getTime());
+        } else {
+            throw new ConfigMeException("Unsupported value of type '" + value.getClass().getName()
+                + "' for binary encoding");
+        }
+    }
+
+    /**
+     * Reads the value at the buffer's position. Maps and lists are added to the given list of read nodes before
+     * their entries are read, so that references (also from within the node itself) can be resolved.
+     */
+    @Nullable
+    private static Object readValue(ByteBuffer buffer, String[] strings, List<Object> readNodes) {
+        byte type = buffer.get();
+        switch (type) {
+            case NULL:
+                return null;
+            case FALSE:
+                return false;
+            case TRUE:
+                return true;
+            case INTEGER:
+                return buffer.getInt();
+            case LONG:
+                return buffer.getLong();
+            case BIG_INTEGER:
+                return new BigInteger(readBytes(buffer));
+            case DOUBLE:
+                return buffer.getDouble();
+            case STRING:
+                return strings[readVarInt(buffer)];
+            case MAP:
+                int mapSize = readCount(buffer, 2);
+                Map<Object, Object> map = new LinkedHashMap<>(mapSize * 4 / 3 + 1);
+                readNodes.add(map);
+                for (int i = 0; i < mapSize; ++i) {
+                    Object key = readValue(buffer, strings, readNodes);
+                    map.put(key, readValue(buffer, strings, readNodes));
+                }
+                return map;
+            case LIST:
+                int listSize = readCount(buffer, 1);
+                List<Object> list = new ArrayList<>(listSize);
+                readNodes.add(list);
+                for (int i = 0; i < listSize; ++i) {
+                    list.add(readValue(buffer, strings, readNodes));
+                }
+                return list;
+            case REFERENCE:
+                int nodeNumber = readVarInt(buffer);
+                if (nodeNumber < 0 || nodeNumber >= readNodes.size()) {
+                    throw new IllegalArgumentException("Invalid reference to node " + nodeNumber);
+                }
+                return readNodes.get(nodeNumber);
+            case BINARY:
+                return readBytes(buffer);
+            case DATE:
+                return new Date(buffer.getLong());
+            default:
+                throw new IllegalArgumentException("Unknown value type " + type);
+        }
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[readCount(buffer, 1)];
+        buffer.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Reads the number of elements of a collection or byte array and verifies that the remaining data
+     * can hold them, so that corrupt data does not lead to huge allocations.
+     *
+     * @param buffer the buffer to read from
+     * @param minBytesPerElement the minimum number of bytes each element is encoded with
+     * @return the number of elements
+     */
+    private static int readCount(ByteBuffer buffer, int minBytesPerElement) {
+        int count = readVarInt(buffer);
+        if (count < 0 || count > buffer.remaining() / minBytesPerElement) {
+            throw new IllegalArgumentException("Invalid element count " + count + " with "
+                + buffer.remaining() + " remaining bytes");
+        }
+        return count;
+    }
+
+    private static void writeVarInt(DataOutputStream output, int value) throws IOException {
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            output.writeByte((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        output.writeByte(remaining);
+    }
+
+    private static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            byte b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed variable-length integer");
+    }
+}
@@ -0,0 +1,343 @@
+package ch.jalu.configme.resource.binary;
+
+import ch.jalu.configme.exception.ConfigMeException;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary layout of a tree in which values can be looked up by path without decoding the entire tree.
+ * <p>
+ * Nodes are written children first, so that every node can refer to its children by offset. A map node
+ * contains the offsets of its keys and values in their original order, followed by the entry indices sorted
+ * by the keys' UTF-8 bytes; a key is looked up with a binary search over the sorted indices. A list node
+ * contains the offsets of its entries. All offsets are relative to the start of the data.
+ * <p>
+ * Since the data may be rewritten while it is read, sizes and offsets are validated before they are used:
+ * every child must be located before its parent, and no size may exceed the remaining data. Invalid data results
+ * in an {@link IllegalArgumentException} or {@link IndexOutOfBoundsException}.
+ */
+final class MappedTreeFormat {
+
+    private static final byte NULL = 0;
+    private static final byte FALSE = 1;
+    private static final byte TRUE = 2;
+    private static final byte INTEGER = 3;
+    private static final byte LONG = 4;
+    private static final byte BIG_INTEGER = 5;
+    private static final byte DOUBLE = 6;
+    private static final byte STRING = 7;
+    private static final byte LIST = 8;
+    private static final byte MAP = 9;
+    private static final byte BINARY = 10;
+    private static final byte DATE = 11;
+
+    /** Maximum nesting depth of a tree, so that decoding a tree cannot overflow the stack. */
+    static final int MAX_DEPTH = 1000;
+
+    private MappedTreeFormat() {
+    }
+
+    /**
+     * Encodes the given tree. The offset of the root node is written as the first four bytes.
+     *
+     * @param tree the tree to encode
+     * @return the encoded tree
+     */
+    static byte[] encode(@Nullable Object tree) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        try {
+            output.writeInt(0); // placeholder for the root offset
+            int rootOffset = writeNode(output, tree, 0);
+            byte[] result = bytes.toByteArray();
+            ByteBuffer.wrap(result).putInt(0, rootOffset);
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // cannot happen with a ByteArrayOutputStream
+        }
+    }
+
+    /**
+     * Returns the offset of the node at the given path, or -1 if the path does not exist.
+     *
+     * @param data the encoded tree (positioned at its start)
+     * @param keys the keys of the path
+     * @return offset of the node, or -1
+     */
+    static int findNode(ByteBuffer data, String[] keys) {
+        int offset = checkOffset(data.getInt(data.position()), data.limit() - data.position());
+        for (String key : keys) {
+            if (data.get(data.position() + offset) != MAP) {
+                return -1;
+            }
+            offset = findMapValue(data, offset, key.getBytes(StandardCharsets.UTF_8));
+            if (offset < 0) {
+                return -1;
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * Decodes the node at the given offset.
+     *
+     * @param data the encoded tree (positioned at its start)
+     * @param offset the offset of the node
+     * @return the decoded node
+     */
+    @Nullable
+    static Object decodeNode(ByteBuffer data, int offset) {
+        return decodeNode(data, offset, 0);
+    }
+
+    @Nullable
+    private static Object decodeNode(ByteBuffer data, int offset, int depth) {
+        if (depth > MAX_DEPTH) {
+            throw new ConfigMeException("Mapped tree exceeds the maximum depth of " + MAX_DEPTH);
+        }
+        int index = data.position() + offset;
+        byte type = data.get(index);
+        switch (type) {
+            case NULL:
+                return null;
+            case FALSE:
+                return Boolean.FALSE;
+            case TRUE:
+                return Boolean.TRUE;
+            case INTEGER:
+                return data.getInt(index + 1);
+            case LONG:
+                return data.getLong(index + 1);
+            case DOUBLE:
+                return data.getDouble(index + 1);
+            case DATE:
+                return new Date(data.getLong(index + 1));
+            case BIG_INTEGER:
+                return new BigInteger(readBytes(data, index + 1));
+            case BINARY:
+                return readBytes(data, index + 1);
+            case STRING:
+                return new String(readBytes(data, index + 1), StandardCharsets.UTF_8);
+            case LIST: {
+                int size = readCount(data, index + 1, 4);
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; ++i) {
+                    int entryOffset = checkOffset(data.getInt(index + 5 + 4 * i), offset);
+                    list.add(decodeNode(data, entryOffset, depth + 1));
+                }
+                return list;
+            }
+            case MAP: {
+                int size = readCount(data, index + 1, 12);
+                Map<Object, Object> map = new LinkedHashMap<>();
+                for (int i = 0; i < size; ++i) {
+                    int entryIndex = index + 5 + 8 * i;
+                    int keyOffset = checkOffset(data.getInt(entryIndex), offset);
+                    int valueOffset = checkOffset(data.getInt(entryIndex + 4), offset);
+                    map.put(decodeNode(data, keyOffset, depth + 1), decodeNode(data, valueOffset, depth + 1));
+                }
+                return map;
+            }
+            default:
+                throw new ConfigMeException("Unknown node type " + type + " in mapped tree");
+        }
+    }
+
+    private static int findMapValue(ByteBuffer data, int mapOffset, byte[] key) {
+        int index = data.position() + mapOffset;
+        int size = readCount(data, index + 1, 12);
+        int sortedStart = index + 5 + 8 * size;
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int entry = data.getInt(sortedStart + 4 * middle);
+            if (entry < 0 || entry >= size) {
+                throw new IllegalArgumentException("Invalid entry index " + entry + " of map at " + mapOffset);
+            }
+            int entryIndex = index + 5 + 8 * entry;
+            int comparison = compareKey(data, checkOffset(data.getInt(entryIndex), mapOffset), key);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return checkOffset(data.getInt(entryIndex + 4), mapOffset);
+            }
+        }
+        return -1;
+    }
+
+    private static int compareKey(ByteBuffer data, int keyOffset, byte[] key) {
+        int index = data.position() + keyOffset;
+        if (data.get(index) != STRING) {
+            return -1; // non-string keys are sorted first and never match
+        }
+        int length = readCount(data, index + 1, 1);
+        int commonLength = Math.min(length, key.length);
+        for (int i = 0; i < commonLength; ++i) {
+            int comparison = (data.get(index + 5 + i) & 0xFF) - (key[i] & 0xFF);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return length - key.length;
+    }
+
+    private static byte[] readBytes(ByteBuffer data, int index) {
+        byte[] bytes = new byte[readCount(data, index, 1)];
+        ByteBuffer source = data.duplicate();
+        source.position(index + 4);
+        source.get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Returns the given offset of a child node if it is valid, i.e. if the child precedes its parent.
+     *
+     * @param offset the offset of the child node
+     * @param parentOffset the offset of the parent node (or the length of the data for the root node)
+     * @return the offset
+     */
+    private static int checkOffset(int offset, int parentOffset) {
+        if (offset < 4 || offset >= parentOffset) {
+            throw new IllegalArgumentException("Invalid node offset " + offset + " before " + parentOffset);
+        }
+        return offset;
+    }
+
+    /**
+     * Reads the number of elements at the given index and checks that the elements fit into the data.
+     *
+     * @param data the encoded tree
+     * @param index the absolute index of the count
+     * @param bytesPerElement the number of bytes each element takes
+     * @return the number of elements
+     */
+    private static int readCount(ByteBuffer data, int index, int bytesPerElement) {
+        int count = data.getInt(index);
+        if (count < 0 || (long) count * bytesPerElement > data.limit() - index - 4L) {
+            throw new IllegalArgumentException("Invalid element count " + count + " at " + index);
+        }
+        return count;
+    }
+
+    private static int writeNode(DataOutputStream output, @Nullable Object value, int depth) throws IOException {
+        if (depth > MAX_DEPTH) {
+            throw new ConfigMeException("Tree exceeds the maximum depth of " + MAX_DEPTH + " for mapped trees");
+        }
+        if (value instanceof Map<?, ?>) {
+            return writeMap(output, (Map<?, ?>) value, depth);
+        } else if (value instanceof Collection<?>) {
+            Collection<?> collection = (Collection<?>) value;
+            int[] entryOffsets = new int[collection.size()];
+            int i = 0;
+            for (Object entry : collection) {
+                entryOffsets[i++] = writeNode(output, entry, depth + 1);
+            }
+            int offset = output.size();
+            output.writeByte(LIST);
+            output.writeInt(entryOffsets.length);
+            for (int entryOffset : entryOffsets) {
+                output.writeInt(entryOffset);
+            }
+            return offset;
+        }
+
+        int offset = output.size();
+        if (value == null) {
+            output.writeByte(NULL);
+        } else if (value instanceof Boolean) {
+            output.writeByte((Boolean) value ? TRUE : FALSE);
+        } else if (value instanceof Integer) {
+            output.writeByte(INTEGER);
+            output.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            output.writeByte(LONG);
+            output.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            output.writeByte(DOUBLE);
+            output.writeDouble((Double) value);
+        } else if (value instanceof BigInteger) {
+            writeBytes(output, BIG_INTEGER, ((BigInteger) value).toByteArray());
+        } else if (value instanceof byte[]) {
+            writeBytes(output, BINARY, (byte[]) value);
+        } else if (value instanceof String) {
+            writeBytes(output, STRING, ((String) value).getBytes(StandardCharsets.UTF_8));
+        } else if (value.getClass() == Date.class) {
+            output.writeByte(DATE);
+            output.writeLong(((Date) value).getTime());
+        } else {
+            throw new ConfigMeException("Unsupported value of type '" + value.getClass().getName()
+                + "' for mapped tree");
+        }
+        return offset;
+    }
+
+    private static int writeMap(DataOutputStream output, Map<?, ?> map, int depth) throws IOException {
+        int size = map.size();
+        int[] keyOffsets = new int[size];
+        int[] valueOffsets = new int[size];
+        byte[][] sortKeys = new byte[size][];
+        int i = 0;
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            keyOffsets[i] = writeNode(output, entry.getKey(), depth + 1);
+            valueOffsets[i] = writeNode(output, entry.getValue(), depth + 1);
+            sortKeys[i] = entry.getKey() instanceof String
+                ? ((String) entry.getKey()).getBytes(StandardCharsets.UTF_8)
+                : null;
+            ++i;
+        }
+        Integer[] sortedIndices = new Integer[size];
+        for (int j = 0; j < size; ++j) {
+            sortedIndices[j] = j;
+        }
+        Arrays.sort(sortedIndices, (a, b) -> compareSortKeys(sortKeys[a], sortKeys[b]));
+
+        int offset = output.size();
+        output.writeByte(MAP);
+        output.writeInt(size);
+        for (int j = 0; j < size; ++j) {
+            output.writeInt(keyOffsets[j]);
+            output.writeInt(valueOffsets[j]);
+        }
+        for (Integer sortedIndex : sortedIndices) {
+            output.writeInt(sortedIndex);
+        }
+        return offset;
+    }
+
+    private static int compareSortKeys(@Nullable byte[] key1, @Nullable byte[] key2) {
+        if (key1 == null || key2 == null) {
+            return key1 == null ? (key2 == null ? 0 : -1) : 1;
+        }
+        int commonLength = Math.min(key1.length, key2.length);
+        for (int i = 0; i < commonLength; ++i) {
+            int comparison = (key1[i] & 0xFF) - (key2[i] & 0xFF);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return key1.length - key2.length;
+    }
+
+    private static void writeBytes(DataOutputStream output, byte type, byte[] bytes) throws IOException {
+        output.writeByte(type);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+}
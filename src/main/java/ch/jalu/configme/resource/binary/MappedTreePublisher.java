@@ -0,0 +1,151 @@
+package ch.jalu.configme.resource.binary;
+
+import ch.jalu.configme.exception.ConfigMeException;
+import ch.jalu.configme.resource.PropertyResource;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Publishes configuration trees to a memory-mapped file, from which {@link MappedTreeReader readers} in the
+ * same or in other processes on the host read the values without parsing or copying the configuration.
+ * <p>
+ * The file starts with a header consisting of a magic number, the format version, a sequence number and the
+ * length of the data, followed by the tree in the layout of {@link MappedTreeFormat}. The sequence number is
+ * odd while a tree is being written and is incremented to the next even number once the tree is complete;
+ * readers use it to detect new versions and to retry reads which overlapped with a publication. A data length
+ * of 0 means that no tree is available. Only one publisher may use a file at a time, which is enforced with
+ * a file lock.
+ */
+public class MappedTreePublisher implements AutoCloseable {
+
+    static final int MAGIC = 0x434D534D; // "CMSM"
+    static final int FORMAT_VERSION = 1;
+    static final int SEQUENCE_OFFSET = 8;
+    static final int DATA_LENGTH_OFFSET = 16;
+    static final int HEADER_LENGTH = 64;
+
+    private final File file;
+    private final FileChannel channel;
+    private final FileLock lock;
+    private MappedByteBuffer buffer;
+    private long sequence;
+
+    /**
+     * Constructor. Creates the file if it does not exist; otherwise, the sequence number of the file is continued.
+     * If a previous publisher stopped while writing a tree, the incomplete tree is discarded, i.e. no tree is
+     * available until the next publication.
+     *
+     * @param file the file to publish to
+     */
+    public MappedTreePublisher(File file) {
+        this.file = file;
+        try {
+            channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            lock = acquireLock(channel);
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), HEADER_LENGTH));
+        } catch (IOException e) {
+            throw new ConfigMeException("Could not open '" + file + "' for publishing", e);
+        }
+        if (buffer.getInt(0) == MAGIC && buffer.getInt(4) == FORMAT_VERSION) {
+            sequence = buffer.getLong(SEQUENCE_OFFSET);
+            if ((sequence & 1) != 0) {
+                // A previous publisher stopped while writing: the data may be incomplete
+                buffer.putInt(DATA_LENGTH_OFFSET, 0);
+                MemoryFences.storeFence(); // readers must see that there is no data before the even sequence
+                ++sequence;
+            }
+        } else {
+            buffer.putInt(DATA_LENGTH_OFFSET, 0);
+            buffer.putInt(4, FORMAT_VERSION);
+            buffer.putInt(0, MAGIC);
+        }
+        buffer.putLong(SEQUENCE_OFFSET, sequence);
+    }
+
+    /**
+     * Publishes the values of the given resource.
+     *
+     * @param resource the resource whose values should be published
+     * @return the sequence number of the published version
+     */
+    public long publish(PropertyResource resource) {
+        return publish(resource.getObject(""));
+    }
+
+    /**
+     * Publishes the given tree. The tree may consist of maps, collections and the scalar types that are read
+     * from YAML; enums are published by their name.
+     *
+     * @param tree the tree to publish
+     * @return the sequence number of the published version
+     */
+    public synchronized long publish(@Nullable Object tree) {
+        byte[] data = MappedTreeFormat.encode(BinaryTreeCodec.toEncodableValue(tree));
+        ensureCapacity(HEADER_LENGTH + data.length);
+
+        buffer.putLong(SEQUENCE_OFFSET, sequence + 1);
+        MemoryFences.storeFence(); // readers must see the odd sequence number before any of the new data
+        buffer.position(HEADER_LENGTH);
+        buffer.put(data);
+        buffer.putInt(DATA_LENGTH_OFFSET, data.length);
+        MemoryFences.storeFence(); // ... and all of the new data before the even sequence number
+        sequence += 2;
+        buffer.putLong(SEQUENCE_OFFSET, sequence);
+        return sequence;
+    }
+
+    /**
+     * Returns the sequence number of the last published version (0 if nothing has been published).
+     *
+     * @return the current sequence number
+     */
+    public synchronized long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Releases the file. Readers can continue to read the last published version.
+     */
+    @Override
+    public void close() {
+        try {
+            lock.release();
+            channel.close();
+        } catch (IOException e) {
+            throw new ConfigMeException("Could not close '" + file + "'", e);
+        }
+    }
+
+    private void ensureCapacity(int length) {
+        if (buffer.capacity() < length) {
+            try {
+                buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(length, buffer.capacity() * 2L));
+            } catch (IOException e) {
+                throw new ConfigMeException("Could not enlarge '" + file + "'", e);
+            }
+        }
+    }
+
+    private FileLock acquireLock(FileChannel fileChannel) throws IOException {
+        FileLock fileLock;
+        try {
+            // Lock a byte far beyond the data so that the lock does not prevent reading on any platform
+            fileLock = fileChannel.tryLock(Long.MAX_VALUE - 1, 1, false);
+        } catch (OverlappingFileLockException e) {
+            fileLock = null;
+        }
+        if (fileLock == null) {
+            fileChannel.close();
+            throw new ConfigMeException("File '" + file + "' is already used by another publisher");
+        }
+        return fileLock;
+    }
+}
@@ -0,0 +1,140 @@
+package ch.jalu.configme.resource.binary;
+
+import ch.jalu.configme.exception.ConfigMeException;
+import ch.jalu.configme.resource.PropertyReader;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+import static ch.jalu.configme.resource.binary.MappedTreePublisher.DATA_LENGTH_OFFSET;
+import static ch.jalu.configme.resource.binary.MappedTreePublisher.FORMAT_VERSION;
+import static ch.jalu.configme.resource.binary.MappedTreePublisher.HEADER_LENGTH;
+import static ch.jalu.configme.resource.binary.MappedTreePublisher.MAGIC;
+import static ch.jalu.configme.resource.binary.MappedTreePublisher.SEQUENCE_OFFSET;
+
+/**
+ * Reads the values published by a {@link MappedTreePublisher}. The file is mapped read-only and paths are
+ * resolved directly against the mapped data; only the value which is requested is decoded. Thus, the
+ * configuration is neither parsed nor held on the heap by the reader.
+ * <p>
+ * Values are always read from the latest published version. {@link #getSequence()} can be polled to detect
+ * that a new version has been published. Reads which overlap with a publication are retried. Since the data may
+ * be rewritten while it is being read, all sizes and offsets are validated before they are used.
+ * <p>
+ * The reader is read-only: values cannot be set.
+ */
+public class MappedTreeReader implements PropertyReader {
+
+    private static final int MAX_READ_ATTEMPTS = 1000;
+
+    private final File file;
+    private volatile MappedByteBuffer buffer;
+
+    /**
+     * Constructor.
+     *
+     * @param file the file a publisher publishes to
+     */
+    public MappedTreeReader(File file) {
+        this.file = file;
+        reload();
+        if (buffer.capacity() < HEADER_LENGTH || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+            throw new ConfigMeException("File '" + file + "' is not a published tree of version " + FORMAT_VERSION);
+        }
+    }
+
+    /**
+     * Returns the sequence number of the current version. It changes whenever a new version is published.
+     *
+     * @return the current sequence number (0 if nothing has been published yet)
+     */
+    public long getSequence() {
+        return buffer.getLong(SEQUENCE_OFFSET) & ~1L;
+    }
+
+    @Override
+    @Nullable
+    public Object getObject(String path) {
+        String[] keys = path.isEmpty() ? new String[0] : path.split("\\.");
+        for (int attempt = 0; attempt < MAX_READ_ATTEMPTS; ++attempt) {
+            long sequence = buffer.getLong(SEQUENCE_OFFSET);
+            if ((sequence & 1) != 0) {
+                Thread.yield(); // a new version is being written
+                continue;
+            }
+            MemoryFences.loadFence(); // the data must not be read before the sequence number
+            Object value;
+            try {
+                value = readValue(keys, sequence);
+            } catch (IndexOutOfBoundsException | BufferUnderflowException | IllegalArgumentException
+                | ConfigMeException e) {
+                if (isUnchanged(sequence)) {
+                    throw new ConfigMeException("Published tree in '" + file + "' is corrupt", e);
+                }
+                continue;
+            }
+            if (isUnchanged(sequence)) {
+                return value;
+            }
+        }
+        throw new ConfigMeException("Could not read '" + file + "': it is being published continuously");
+    }
+
+    @Override
+    public <T> T getTypedObject(String path, Class<T> clazz) {
+        Object value = getObject(path);
+        if (clazz.isInstance(value)) {
+            return clazz.cast(value);
+        }
+        return null;
+    }
+
+    @Override
+    public void set(String path, @Nullable Object value) {
+        throw new ConfigMeException("Values of a published tree cannot be modified");
+    }
+
+    /**
+     * Maps the file anew. Only necessary if the file has grown; this is detected automatically when values
+     * are read.
+     */
+    @Override
+    public void reload() {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new ConfigMeException("Could not map '" + file + "'", e);
+        }
+    }
+
+    private boolean isUnchanged(long sequence) {
+        MemoryFences.loadFence(); // the sequence number must not be read again before the data
+        return buffer.getLong(SEQUENCE_OFFSET) == sequence;
+    }
+
+    @Nullable
+    private Object readValue(String[] keys, long sequence) {
+        if (sequence == 0) {
+            return null;
+        }
+        int dataLength = buffer.getInt(DATA_LENGTH_OFFSET);
+        if (dataLength == 0) {
+            return null; // the publisher discarded an incomplete tree
+        }
+        if (HEADER_LENGTH + dataLength > buffer.capacity()) {
+            reload();
+        }
+        ByteBuffer data = buffer.duplicate();
+        data.position(HEADER_LENGTH);
+        data = data.slice();
+        data.limit(dataLength);
+        int offset = MappedTreeFormat.findNode(data, keys);
+        return offset < 0 ? null : MappedTreeFormat.decodeNode(data, offset);
+    }
+}
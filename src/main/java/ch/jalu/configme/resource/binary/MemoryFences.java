@@ -0,0 +1,73 @@
+package ch.jalu.configme.resource.binary;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+/**
+ * Memory fences for the sequence lock of mapped trees. Plain accesses to a {@link java.nio.MappedByteBuffer} may
+ * be reordered by the compiler and the processor, so the publisher and the readers place fences between the
+ * accesses to the sequence number and the accesses to the data.
+ * <p>
+ * Java 8 has no public API for fences, so the fences of {@code sun.misc.Unsafe} are used, which is available on
+ * all common JVMs. If it is not available, accesses to a volatile field are used, which order the accesses of
+ * the same JVM but are weaker than real fences.
+ */
+final class MemoryFences {
+
+    private static final MethodHandle LOAD_FENCE;
+    private static final MethodHandle STORE_FENCE;
+    private static volatile int fallbackFence;
+
+    static {
+        MethodHandle loadFence = null;
+        MethodHandle storeFence = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field unsafeField = unsafeClass.getDeclaredField("theUnsafe");
+            unsafeField.setAccessible(true);
+            Object unsafe = unsafeField.get(null);
+            MethodType voidType = MethodType.methodType(void.class);
+            loadFence = MethodHandles.lookup().findVirtual(unsafeClass, "loadFence", voidType).bindTo(unsafe);
+            storeFence = MethodHandles.lookup().findVirtual(unsafeClass, "storeFence", voidType).bindTo(unsafe);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Use the fallback
+        }
+        LOAD_FENCE = loadFence;
+        STORE_FENCE = storeFence;
+    }
+
+    private MemoryFences() {
+    }
+
+    /**
+     * Ensures that loads before the fence are not reordered with loads and stores after the fence.
+     */
+    static void loadFence() {
+        if (LOAD_FENCE == null) {
+            fallbackFence = fallbackFence;
+            return;
+        }
+        try {
+            LOAD_FENCE.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Could not place load fence", e);
+        }
+    }
+
+    /**
+     * Ensures that stores before the fence are not reordered with loads and stores after the fence.
+     */
+    static void storeFence() {
+        if (STORE_FENCE == null) {
+            fallbackFence = fallbackFence;
+            return;
+        }
+        try {
+            STORE_FENCE.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Could not place store fence", e);
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package ch.jalu.configme.resource.binary;
+
+import ch.jalu.configme.exception.ConfigMeException;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of values which have been set since a configuration file was last saved, stored as a sidecar
+ * file next to the configuration file.
+ * <p>
+ * Each record consists of its length, its CRC-32 checksum, the path and the value encoded with
+ * {@link BinaryTreeCodec}. When reading the journal, reading stops at the first incomplete or corrupt record,
+ * which is the case if the application stopped while the record was being written; such a record and anything
+ * after it is removed on the next append.
+ */
+public class PropertyJournal implements AutoCloseable {
+
+    private static final int RECORD_HEADER_LENGTH = 4 + 8;
+
+    private final File file;
+    @Nullable
+    private FileChannel channel;
+    private long validLength = -1;
+
+    /**
+     * Constructor.
+     *
+     * @param file the journal file
+     */
+    public PropertyJournal(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns the journal file to use for the given source file, e.g. {@code config.yml.journal}
+     * for {@code config.yml}.
+     *
+     * @param source the file whose changes are journaled
+     * @return the journal for the given source
+     */
+    public static PropertyJournal forSource(File source) {
+        return new PropertyJournal(new File(source.getParentFile(), source.getName() + ".journal"));
+    }
+
+    /**
+     * Appends a record to the journal.
+     *
+     * @param path the path of the value
+     * @param value the value to record (must be encodable with {@link BinaryTreeCodec})
+     * @param sync true to force the record to the storage device before returning
+     */
+    public void append(String path, @Nullable Object value, boolean sync) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream output = new DataOutputStream(bytes);
+            byte[] pathBytes = path.getBytes(StandardCharsets.UTF_8);
+            output.writeShort(pathBytes.length);
+            output.write(pathBytes);
+            BinaryTreeCodec.encode(value, output);
+            byte[] content = bytes.toByteArray();
+
+            CRC32 crc = new CRC32();
+            crc.update(content);
+            ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_LENGTH + content.length);
+            record.putInt(content.length).putLong(crc.getValue()).put(content).flip();
+
+            FileChannel journalChannel = getChannel();
+            journalChannel.position(validLength);
+            while (record.hasRemaining()) {
+                journalChannel.write(record);
+            }
+            validLength = journalChannel.position();
+            if (sync) {
+                journalChannel.force(false);
+            }
+        } catch (IOException e) {
+            throw new ConfigMeException("Could not write to journal '" + file + "'", e);
+        }
+    }
+
+    /**
+     * Reads all complete records of the journal in the order they were written.
+     *
+     * @return the records of the journal (empty list if the journal does not exist)
+     */
+    public List<Record> readRecords() {
+        List<Record> records = new ArrayList<>();
+        if (!file.isFile()) {
+            validLength = 0;
+            return records;
+        }
+        ByteBuffer buffer;
+        try {
+            buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+        } catch (IOException e) {
+            throw new ConfigMeException("Could not read journal '" + file + "'", e);
+        }
+
+        while (buffer.remaining() >= RECORD_HEADER_LENGTH) {
+            int start = buffer.position();
+            int length = buffer.getInt();
+            long checksum = buffer.getLong();
+            if (length < 0 || length > buffer.remaining()) {
+                buffer.position(start);
+                break;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(buffer.array(), buffer.position(), length);
+            if (crc.getValue() != checksum) {
+                buffer.position(start);
+                break;
+            }
+            ByteBuffer content = ByteBuffer.wrap(buffer.array(), buffer.position(), length);
+            buffer.position(buffer.position() + length);
+            records.add(new Record(readPath(content), BinaryTreeCodec.decode(content, null)));
+        }
+        validLength = buffer.position();
+        return records;
+    }
+
+    /**
+     * Removes all records from the journal.
+     */
+    public void clear() {
+        try {
+            if (channel != null) {
+                channel.truncate(0);
+                channel.force(false);
+            } else {
+                Files.deleteIfExists(file.toPath());
+            }
+            validLength = 0;
+        } catch (IOException e) {
+            throw new ConfigMeException("Could not clear journal '" + file + "'", e);
+        }
+    }
+
+    /**
+     * Returns the size of the journal's valid records in bytes.
+     *
+     * @return the journal's size
+     */
+    public long size() {
+        if (validLength < 0) {
+            readRecords();
+        }
+        return validLength;
+    }
+
+    /**
+     * Returns the journal file.
+     *
+     * @return the file
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Closes the journal file if it is open. The journal is opened again on the next append.
+     */
+    @Override
+    public void close() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                throw new ConfigMeException("Could not close journal '" + file + "'", e);
+            } finally {
+                channel = null;
+            }
+        }
+    }
+
+    private FileChannel getChannel() throws IOException {
+        if (channel == null) {
+            size(); // determine the end of the valid records
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            channel.truncate(validLength);
+        }
+        return channel;
+    }
+
+    private static String readPath(ByteBuffer content) {
+        int length = content.getShort() & 0xFFFF;
+        byte[] bytes = new byte[length];
+        content.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Record of the journal: a path and the value that was set for it.
+     */
+    public static final class Record {
+
+        private final String path;
+        @Nullable
+        private final Object value;
+
+        Record(String path, @Nullable Object value) {
+            this.path = path;
+            this.value = value;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        @Nullable
+        public Object getValue() {
+            return value;
+        }
+    }
+}
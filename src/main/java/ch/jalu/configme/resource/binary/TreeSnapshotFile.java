@@ -0,0 +1,136 @@
+package ch.jalu.configme.resource.binary;
+
+import ch.jalu.configme.exception.ConfigMeException;
+import ch.jalu.configme.resource.StringPool;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * Binary snapshot of a loaded configuration tree, stored as a sidecar file next to the source it was loaded from.
+ * <p>
+ * The snapshot starts with a header consisting of a magic number, the format version and the SHA-256 hash of the
+ * source's content. A snapshot is only used if its format version and hash match; otherwise, the source needs
+ * to be parsed again. The snapshot is read with one bulk read and decoded with {@link BinaryTreeCodec}.
+ */
+public class TreeSnapshotFile {
+
+    /** Version of the snapshot format; snapshots of other versions are ignored. */
+    public static final int FORMAT_VERSION = 2;
+
+    private static final int MAGIC = 0x434D534E; // "CMSN"
+    private static final int HASH_LENGTH = 32;
+
+    private final File file;
+
+    /**
+     * Constructor.
+     *
+     * @param file the snapshot file
+     */
+    public TreeSnapshotFile(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns the snapshot file to use for the given source file, e.g. {@code config.yml.snapshot}
+     * for {@code config.yml}.
+     *
+     * @param source the file the configuration is loaded from
+     * @return the snapshot file for the given source
+     */
+    public static TreeSnapshotFile forSource(File source) {
+        return new TreeSnapshotFile(new File(source.getParentFile(), source.getName() + ".snapshot"));
+    }
+
+    /**
+     * Computes the hash of the given content, by which snapshots are keyed.
+     *
+     * @param content the source's content
+     * @return the content's hash
+     */
+    public static byte[] hash(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Loads the tree from the snapshot if the snapshot exists, has the current format version and was
+     * created from content with the given hash.
+     *
+     * @param contentHash hash of the source's current content
+     * @param stringPool the string pool to deduplicate strings with (nullable)
+     * @return the loaded tree, or null if the snapshot is absent or not applicable
+     */
+    @Nullable
+    public Object load(byte[] contentHash, @Nullable StringPool stringPool) {
+        if (!file.isFile()) {
+            return null;
+        }
+        ByteBuffer buffer;
+        try {
+            buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+        } catch (IOException e) {
+            return null;
+        }
+
+        if (buffer.remaining() < 8 + HASH_LENGTH || buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+            return null;
+        }
+        byte[] snapshotHash = new byte[HASH_LENGTH];
+        buffer.get(snapshotHash);
+        if (!Arrays.equals(snapshotHash, contentHash)) {
+            return null;
+        }
+        try {
+            return BinaryTreeCodec.decode(buffer, stringPool);
+        } catch (ConfigMeException | StackOverflowError e) {
+            return null;
+        }
+    }
+
+    /**
+     * Saves the given tree as snapshot for content with the given hash. The snapshot is written to a temporary
+     * file first, which is then moved to the snapshot's location.
+     *
+     * @param contentHash hash of the content the tree was loaded from
+     * @param tree the tree to save
+     */
+    public void save(byte[] contentHash, @Nullable Object tree) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream output = new DataOutputStream(bytes);
+            output.writeInt(MAGIC);
+            output.writeInt(FORMAT_VERSION);
+            output.write(contentHash);
+            BinaryTreeCodec.encode(tree, output);
+
+            File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+            Files.write(tempFile.toPath(), bytes.toByteArray());
+            Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new ConfigMeException("Could not save snapshot to '" + file + "'", e);
+        }
+    }
+
+    /**
+     * Returns the snapshot file.
+     *
+     * @return the file
+     */
+    public File getFile() {
+        return file;
+    }
+}
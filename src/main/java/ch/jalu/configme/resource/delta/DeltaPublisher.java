@@ -0,0 +1,54 @@
+package ch.jalu.configme.resource.delta;
+
+import ch.jalu.configme.resource.PropertyResource;
+import ch.jalu.configme.resource.binary.BinaryTreeCodec;
+
+import javax.annotation.Nullable;
+
+/**
+ * Sends the changes of a resource as {@link PropertyDelta deltas} over a transport. The publisher remembers
+ * the state of the resource at the last publication and only sends what has changed since.
+ * <p>
+ * Receivers are expected to start with the same state as the resource when the publisher is created; see
+ * {@link DeltaTransport#applyReceivedDeltas}.
+ */
+public class DeltaPublisher {
+
+    private final PropertyResource resource;
+    private final DeltaTransport transport;
+    @Nullable
+    private Object publishedTree;
+
+    /**
+     * Constructor.
+     *
+     * @param resource the resource whose changes should be published
+     * @param transport the transport to send the deltas with
+     */
+    public DeltaPublisher(PropertyResource resource, DeltaTransport transport) {
+        this.resource = resource;
+        this.transport = transport;
+        this.publishedTree = copyTree();
+    }
+
+    /**
+     * Sends the changes of the resource since the last publication. Nothing is sent if nothing has changed.
+     *
+     * @return the delta which was sent (may be empty)
+     */
+    public PropertyDelta publishChanges() {
+        Object currentTree = copyTree();
+        PropertyDelta delta = PropertyDelta.compute(publishedTree, currentTree);
+        if (!delta.isEmpty()) {
+            transport.send(delta.encode());
+        }
+        publishedTree = currentTree;
+        return delta;
+    }
+
+    @Nullable
+    private Object copyTree() {
+        // Creates new maps and lists, so later changes to the resource do not affect the copy
+        return BinaryTreeCodec.toEncodableValue(resource.getObject(""));
+    }
+}
@@ -0,0 +1,38 @@
+package ch.jalu.configme.resource.delta;
+
+import ch.jalu.configme.resource.PropertyResource;
+
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * Transport of encoded {@link PropertyDelta deltas} from one node to others, e.g. over the network or a
+ * message broker. Implementations decide how and to whom deltas are delivered.
+ *
+ * @see LoopbackDeltaTransport
+ */
+public interface DeltaTransport {
+
+    /**
+     * Sends the given encoded delta to all receivers.
+     *
+     * @param encodedDelta the encoded delta (see {@link PropertyDelta#encode()})
+     */
+    void send(byte[] encodedDelta);
+
+    /**
+     * Registers a receiver which is called with every encoded delta which is received.
+     *
+     * @param receiver the receiver to call for received deltas
+     */
+    void addReceiver(Consumer<ByteBuffer> receiver);
+
+    /**
+     * Registers a receiver which applies every received delta to the given resource.
+     *
+     * @param resource the resource to apply received deltas to
+     */
+    default void applyReceivedDeltas(PropertyResource resource) {
+        addReceiver(buffer -> PropertyDelta.decode(buffer).applyTo(resource));
+    }
+}
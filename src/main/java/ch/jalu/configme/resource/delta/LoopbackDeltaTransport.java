@@ -0,0 +1,38 @@
+package ch.jalu.configme.resource.delta;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Delta transport which delivers sent deltas directly to the receivers in the same process, on the thread
+ * which sends the delta. Useful for tests and as stand-in for a real transport.
+ */
+public class LoopbackDeltaTransport implements DeltaTransport {
+
+    private final List<Consumer<ByteBuffer>> receivers = new CopyOnWriteArrayList<>();
+    private long bytesSent;
+
+    @Override
+    public void send(byte[] encodedDelta) {
+        bytesSent += encodedDelta.length;
+        for (Consumer<ByteBuffer> receiver : receivers) {
+            receiver.accept(ByteBuffer.wrap(encodedDelta).asReadOnlyBuffer());
+        }
+    }
+
+    @Override
+    public void addReceiver(Consumer<ByteBuffer> receiver) {
+        receivers.add(receiver);
+    }
+
+    /**
+     * Returns the total number of bytes which have been sent with this transport.
+     *
+     * @return number of bytes sent
+     */
+    public long getBytesSent() {
+        return bytesSent;
+    }
+}
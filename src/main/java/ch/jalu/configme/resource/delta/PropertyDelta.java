@@ -0,0 +1,203 @@
+package ch.jalu.configme.resource.delta;
+
+import ch.jalu.configme.exception.ConfigMeException;
+import ch.jalu.configme.resource.PropertyResource;
+import ch.jalu.configme.resource.binary.BinaryTreeCodec;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Changes between two states of a configuration tree, as a list of operations which set or remove the value
+ * of a path. Applying the delta to a resource with the old state results in the new state.
+ * <p>
+ * Values are only compared down to the level of maps: if a list or a scalar differs, the entire value is set
+ * anew. The delta can be encoded into a compact binary form, in which the values of set operations are encoded
+ * with {@link BinaryTreeCodec}, so its size is proportional to the changes and not to the size of the tree.
+ */
+public final class PropertyDelta {
+
+    /** Version of the binary format; deltas of other versions cannot be decoded. */
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int MAGIC = 0x434D444C; // "CMDL"
+    private static final byte SET = 1;
+    private static final byte REMOVE = 2;
+
+    private final List<Operation> operations;
+
+    private PropertyDelta(List<Operation> operations) {
+        this.operations = Collections.unmodifiableList(operations);
+    }
+
+    /**
+     * Computes the delta between the given trees.
+     *
+     * @param oldTree the old state (e.g. the root value of a resource, see {@link PropertyResource#getObject})
+     * @param newTree the new state
+     * @return delta which turns the old tree into the new tree
+     */
+    public static PropertyDelta compute(@Nullable Object oldTree, @Nullable Object newTree) {
+        List<Operation> operations = new ArrayList<>();
+        collectOperations("", oldTree, newTree, operations);
+        return new PropertyDelta(operations);
+    }
+
+    /**
+     * Decodes a delta from the buffer, starting at its current position.
+     *
+     * @param buffer the buffer to read from
+     * @return the decoded delta
+     */
+    public static PropertyDelta decode(ByteBuffer buffer) {
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                throw new ConfigMeException("Data is not a property delta of version " + FORMAT_VERSION);
+            }
+            int size = buffer.getInt();
+            List<Operation> operations = new ArrayList<>(Math.min(size, buffer.remaining()));
+            for (int i = 0; i < size; ++i) {
+                byte type = buffer.get();
+                byte[] pathBytes = new byte[buffer.getShort() & 0xFFFF];
+                buffer.get(pathBytes);
+                String path = new String(pathBytes, StandardCharsets.UTF_8);
+                if (type == SET) {
+                    operations.add(new Operation(path, BinaryTreeCodec.decode(buffer, null), false));
+                } else if (type == REMOVE) {
+                    operations.add(new Operation(path, null, true));
+                } else {
+                    throw new ConfigMeException("Unknown operation type " + type + " in property delta");
+                }
+            }
+            return new PropertyDelta(operations);
+        } catch (BufferUnderflowException e) {
+            throw new ConfigMeException("Property delta is incomplete", e);
+        }
+    }
+
+    /**
+     * Encodes the delta into its binary form.
+     *
+     * @return the encoded delta
+     */
+    public byte[] encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            DataOutputStream output = new DataOutputStream(bytes);
+            output.writeInt(MAGIC);
+            output.writeInt(FORMAT_VERSION);
+            output.writeInt(operations.size());
+            for (Operation operation : operations) {
+                output.writeByte(operation.isRemoval() ? REMOVE : SET);
+                byte[] pathBytes = operation.getPath().getBytes(StandardCharsets.UTF_8);
+                output.writeShort(pathBytes.length);
+                output.write(pathBytes);
+                if (!operation.isRemoval()) {
+                    BinaryTreeCodec.encode(operation.getValue(), output);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // cannot happen with a ByteArrayOutputStream
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Applies the delta to the given resource. Either all operations are applied or none: if an operation
+     * fails, the operations which have already been applied are reverted before the exception is rethrown.
+     *
+     * @param resource the resource to modify
+     */
+    public void applyTo(PropertyResource resource) {
+        List<Object> previousValues = new ArrayList<>(operations.size());
+        try {
+            for (Operation operation : operations) {
+                previousValues.add(BinaryTreeCodec.toEncodableValue(resource.getObject(operation.getPath())));
+                resource.setValue(operation.getPath(), operation.getValue());
+            }
+        } catch (RuntimeException e) {
+            // The value of the failed operation may or may not have been set, so it is reverted as well
+            for (int i = previousValues.size() - 1; i >= 0; --i) {
+                resource.setValue(operations.get(i).getPath(), previousValues.get(i));
+            }
+            throw e;
+        }
+    }
+
+    public List<Operation> getOperations() {
+        return operations;
+    }
+
+    public boolean isEmpty() {
+        return operations.isEmpty();
+    }
+
+    private static void collectOperations(String path, @Nullable Object oldValue, @Nullable Object newValue,
+                                          List<Operation> operations) {
+        if (oldValue instanceof Map<?, ?> && newValue instanceof Map<?, ?>) {
+            Map<?, ?> oldMap = (Map<?, ?>) oldValue;
+            Map<?, ?> newMap = (Map<?, ?>) newValue;
+            String prefix = path.isEmpty() ? "" : path + ".";
+            for (Map.Entry<?, ?> entry : oldMap.entrySet()) {
+                if (!newMap.containsKey(entry.getKey())) {
+                    operations.add(new Operation(prefix + entry.getKey(), null, true));
+                }
+            }
+            for (Map.Entry<?, ?> entry : newMap.entrySet()) {
+                collectOperations(prefix + entry.getKey(), oldMap.get(entry.getKey()), entry.getValue(), operations);
+            }
+        } else if (!Objects.equals(oldValue, newValue)) {
+            if (newValue == null) {
+                operations.add(new Operation(path, null, true));
+            } else {
+                operations.add(new Operation(path, BinaryTreeCodec.toEncodableValue(newValue), false));
+            }
+        }
+    }
+
+    /**
+     * Operation of a delta: sets the value of a path, or removes it.
+     */
+    public static final class Operation {
+
+        private final String path;
+        @Nullable
+        private final Object value;
+        private final boolean removal;
+
+        Operation(String path, @Nullable Object value, boolean removal) {
+            this.path = path;
+            this.value = value;
+            this.removal = removal;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * Returns the value to set. Null if the operation is a removal.
+         *
+         * @return the value to set
+         */
+        @Nullable
+        public Object getValue() {
+            return value;
+        }
+
+        public boolean isRemoval() {
+            return removal;
+        }
+    }
+}
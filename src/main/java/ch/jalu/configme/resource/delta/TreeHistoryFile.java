@@ -0,0 +1,256 @@
+package ch.jalu.configme.resource.delta;
+
+import ch.jalu.configme.exception.ConfigMeException;
+import ch.jalu.configme.resource.binary.BinaryTreeCodec;
+import ch.jalu.configme.resource.tree.CompactMap;
+import ch.jalu.configme.resource.tree.CompactTree;
+import ch.jalu.configme.resource.tree.TreeVersion;
+import ch.jalu.configme.utils.Utils;
+
+import javax.annotation.Nullable;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * File in which the versions of a configuration tree are persisted, so that they survive a restart.
+ * <p>
+ * The oldest version's tree is stored completely with {@link BinaryTreeCodec}; every other version is stored as
+ * the {@link PropertyDelta} to its predecessor, so the file's size depends on the changes between the versions
+ * rather than on the number of versions. New versions are {@link #append appended} to the file, so adding a
+ * version only costs the encoding of its delta. Each version is stored as a record with its length and CRC-32
+ * checksum; when loading, reading stops at the first incomplete or corrupt record, which is the case if the
+ * application stopped while the record was being appended.
+ * <p>
+ * The file is {@link #save saved} completely to drop old versions. It is written to a temporary file first, which
+ * is synced to the storage device and then replaces the history file, so that the history file is never left
+ * incomplete.
+ * <p>
+ * Values are stored in their encodable form (see {@link BinaryTreeCodec#toEncodableValue}), e.g. enums are
+ * restored as their name. Other objects, such as beans, cannot be stored.
+ */
+public class TreeHistoryFile {
+
+    /** Version of the history format; history files of other versions cannot be loaded. */
+    public static final int FORMAT_VERSION = 1;
+
+    private static final int MAGIC = 0x434D4846; // "CMHF"
+    private static final int HEADER_LENGTH = 4 + 4;
+    private static final int RECORD_HEADER_LENGTH = 4 + 8;
+
+    private final File file;
+    private int versionCount = -1;
+    private long validLength = -1;
+
+    /**
+     * Constructor.
+     *
+     * @param file the history file
+     */
+    public TreeHistoryFile(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns the history file to use for the given source file, e.g. {@code config.yml.history}
+     * for {@code config.yml}.
+     *
+     * @param source the file the configuration is loaded from
+     * @return the history file for the given source
+     */
+    public static TreeHistoryFile forSource(File source) {
+        return new TreeHistoryFile(new File(source.getParentFile(), source.getName() + ".history"));
+    }
+
+    /**
+     * Loads the versions from the file. The returned trees are compact trees, in which the parts which have not
+     * changed between two versions are shared.
+     *
+     * @return the versions, oldest first (empty list if the file does not exist)
+     */
+    public synchronized List<TreeVersion> load() {
+        if (!file.isFile()) {
+            versionCount = 0;
+            validLength = 0;
+            return Collections.emptyList();
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+            if (buffer.remaining() < HEADER_LENGTH || buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                throw new ConfigMeException("File '" + file + "' is not a history file of version " + FORMAT_VERSION);
+            }
+            List<TreeVersion> versions = new ArrayList<>();
+            Object tree = null;
+            ByteBuffer record;
+            while ((record = readRecord(buffer)) != null) {
+                long number = record.getLong();
+                boolean committed = record.get() != 0;
+                long timestamp = record.getLong();
+                tree = versions.isEmpty()
+                    ? CompactTree.compact(BinaryTreeCodec.decode(record, null))
+                    : applyDelta(tree, PropertyDelta.decode(record));
+                versions.add(new TreeVersion(number, committed, timestamp, tree));
+            }
+            versionCount = versions.size();
+            validLength = buffer.position();
+            return versions;
+        } catch (IOException e) {
+            throw new ConfigMeException("Could not read history file '" + file + "'", e);
+        } catch (BufferUnderflowException e) {
+            throw new ConfigMeException("History file '" + file + "' is corrupt", e);
+        }
+    }
+
+    /**
+     * Saves the given versions to the file, replacing its previous content.
+     *
+     * @param versions the versions to save, oldest first
+     */
+    public synchronized void save(List<TreeVersion> versions) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream output = new DataOutputStream(bytes);
+            output.writeInt(MAGIC);
+            output.writeInt(FORMAT_VERSION);
+            Object previousTree = null;
+            for (int i = 0; i < versions.size(); ++i) {
+                Object tree = BinaryTreeCodec.toEncodableValue(versions.get(i).getTree());
+                output.write(encodeRecord(versions.get(i), previousTree, tree, i == 0));
+                previousTree = tree;
+            }
+
+            File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+            Files.write(tempFile.toPath(), bytes.toByteArray());
+            Utils.replaceFileDurably(tempFile.toPath(), file.toPath());
+            versionCount = versions.size();
+            validLength = bytes.size();
+        } catch (IOException e) {
+            throw new ConfigMeException("Could not save history to '" + file + "'", e);
+        }
+    }
+
+    /**
+     * Appends the given version to the file as the delta to the previous version, which must be the last version
+     * in the file. If the file does not contain any versions, it is saved with the given version only. The file
+     * is loaded first if it has not been loaded or saved by this instance, in order to find the end of the last
+     * complete version.
+     *
+     * @param previousVersion the last version in the file (null if there is none)
+     * @param version the version to append
+     */
+    public synchronized void append(@Nullable TreeVersion previousVersion, TreeVersion version) {
+        if (validLength < 0) {
+            load();
+        }
+        if (previousVersion == null || versionCount == 0) {
+            save(Collections.singletonList(version));
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            ByteBuffer record = ByteBuffer.wrap(encodeRecord(version,
+                BinaryTreeCodec.toEncodableValue(previousVersion.getTree()),
+                BinaryTreeCodec.toEncodableValue(version.getTree()), false));
+            channel.position(validLength);
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            channel.truncate(channel.position()); // remove an incomplete record left by a crash
+            channel.force(false);
+            validLength = channel.position();
+            ++versionCount;
+        } catch (IOException e) {
+            throw new ConfigMeException("Could not append to history file '" + file + "'", e);
+        }
+    }
+
+    /**
+     * Returns the number of versions in the file as of the last load, save or append of this instance.
+     *
+     * @return the number of versions in the file, or -1 if the file has not been used yet
+     */
+    public synchronized int getVersionCount() {
+        return versionCount;
+    }
+
+    /**
+     * Returns the history file.
+     *
+     * @return the file
+     */
+    public File getFile() {
+        return file;
+    }
+
+    private static byte[] encodeRecord(TreeVersion version, @Nullable Object previousTree, @Nullable Object tree,
+                                       boolean isFirst) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeLong(version.getNumber());
+        output.writeBoolean(version.isCommitted());
+        output.writeLong(version.getTimestamp());
+        if (isFirst) {
+            BinaryTreeCodec.encode(tree, output);
+        } else {
+            output.write(PropertyDelta.compute(previousTree, tree).encode());
+        }
+        byte[] content = bytes.toByteArray();
+
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        return ByteBuffer.allocate(RECORD_HEADER_LENGTH + content.length)
+            .putInt(content.length).putLong(crc.getValue()).put(content).array();
+    }
+
+    /**
+     * Returns the content of the record at the buffer's position and moves the buffer past the record, or
+     * returns null if there is no complete and valid record at the position.
+     */
+    @Nullable
+    private static ByteBuffer readRecord(ByteBuffer buffer) {
+        if (buffer.remaining() < RECORD_HEADER_LENGTH) {
+            return null;
+        }
+        int start = buffer.position();
+        int length = buffer.getInt();
+        long checksum = buffer.getLong();
+        if (length < 0 || length > buffer.remaining()) {
+            buffer.position(start);
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), buffer.position(), length);
+        if (crc.getValue() != checksum) {
+            buffer.position(start);
+            return null;
+        }
+        ByteBuffer record = buffer.slice();
+        record.limit(length);
+        buffer.position(buffer.position() + length);
+        return record;
+    }
+
+    @Nullable
+    private static Object applyDelta(@Nullable Object tree, PropertyDelta delta) {
+        Object result = tree;
+        for (PropertyDelta.Operation operation : delta.getOperations()) {
+            Object value = CompactTree.compact(operation.getValue());
+            if (operation.getPath().isEmpty()) {
+                result = value;
+            } else {
+                CompactMap root = result instanceof CompactMap ? (CompactMap) result : CompactMap.empty();
+                result = CompactTree.set(root, operation.getPath().split("\\."), value);
+            }
+        }
+        return result;
+    }
+}
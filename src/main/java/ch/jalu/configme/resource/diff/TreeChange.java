@@ -0,0 +1,70 @@
+package ch.jalu.configme.resource.diff;
+
+import javax.annotation.Nullable;
+
+/**
+ * Change of the value at a path between two configuration trees.
+ */
+public final class TreeChange {
+
+    private final Type type;
+    private final String path;
+    @Nullable
+    private final Object oldValue;
+    @Nullable
+    private final Object newValue;
+
+    /**
+     * Constructor.
+     *
+     * @param type the type of change
+     * @param path the path whose value has changed (empty string for the root)
+     * @param oldValue the value in the old tree (null if added)
+     * @param newValue the value in the new tree (null if removed)
+     */
+    public TreeChange(Type type, String path, @Nullable Object oldValue, @Nullable Object newValue) {
+        this.type = type;
+        this.path = path;
+        this.oldValue = oldValue;
+        this.newValue = newValue;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    @Nullable
+    public Object getOldValue() {
+        return oldValue;
+    }
+
+    @Nullable
+    public Object getNewValue() {
+        return newValue;
+    }
+
+    @Override
+    public String toString() {
+        return type + " '" + path + "': " + oldValue + " -> " + newValue;
+    }
+
+    /**
+     * Type of a change.
+     */
+    public enum Type {
+
+        /** The path only exists in the new tree. */
+        ADDED,
+
+        /** The path only exists in the old tree. */
+        REMOVED,
+
+        /** The path exists in both trees with different values. */
+        CHANGED
+
+    }
+}
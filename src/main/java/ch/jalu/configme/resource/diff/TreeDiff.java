@@ -0,0 +1,154 @@
+package ch.jalu.configme.resource.diff;
+
+import ch.jalu.configme.configurationdata.ConfigurationData;
+import ch.jalu.configme.properties.Property;
+import ch.jalu.configme.resource.PropertyResource;
+import ch.jalu.configme.resource.tree.TreeHashes;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Structural differences between two configuration trees, e.g. between the values of a resource before and
+ * after a reload.
+ * <p>
+ * The trees are walked in lockstep: maps are compared key by key, and subtrees which are the same object in
+ * both trees are skipped without looking at their content. With trees that share their unchanged nodes (such as
+ * the versions of a {@link ch.jalu.configme.resource.VersionedPropertyReader VersionedPropertyReader}), the cost
+ * of a diff is therefore proportional to the size of the change. Subtrees whose content hashes have been
+ * computed (see {@link TreeHashes}) are skipped if their hashes are equal. All other values are compared with
+ * {@link Object#equals}; a changed list is reported as one change of the list's path.
+ * <p>
+ * A path which only exists in one tree is reported once, even if its value is a map with further entries.
+ */
+public final class TreeDiff {
+
+    private final List<TreeChange> changes;
+
+    private TreeDiff(List<TreeChange> changes) {
+        this.changes = Collections.unmodifiableList(changes);
+    }
+
+    /**
+     * Computes the differences between the given trees.
+     *
+     * @param oldTree the old state (e.g. the root value of a resource, see {@link PropertyResource#getObject})
+     * @param newTree the new state
+     * @return the differences
+     */
+    public static TreeDiff compute(@Nullable Object oldTree, @Nullable Object newTree) {
+        List<TreeChange> changes = new ArrayList<>();
+        walk(oldTree, newTree, changes::add);
+        return new TreeDiff(changes);
+    }
+
+    /**
+     * Computes the differences between the values of the given resources.
+     *
+     * @param oldResource the resource with the old state
+     * @param newResource the resource with the new state
+     * @return the differences
+     */
+    public static TreeDiff compute(PropertyResource oldResource, PropertyResource newResource) {
+        return compute(oldResource.getObject(""), newResource.getObject(""));
+    }
+
+    /**
+     * Walks the given trees and passes each change to the listener as soon as it has been found, without
+     * collecting the changes.
+     *
+     * @param oldTree the old state
+     * @param newTree the new state
+     * @param listener the listener to notify of each change
+     */
+    public static void walk(@Nullable Object oldTree, @Nullable Object newTree, Consumer<TreeChange> listener) {
+        walk("", oldTree, newTree, listener);
+    }
+
+    public List<TreeChange> getChanges() {
+        return changes;
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    /**
+     * Returns the changes which affect each property of the given configuration data. A change affects
+     * a property if it is at the property's path, at a path within it (e.g. a value of a bean property) or at
+     * a section which contains the property. Properties which are not affected by any change are not included.
+     *
+     * @param configurationData the configuration data whose properties should be checked
+     * @return the affected properties with their changes, in the order in which the properties were affected
+     */
+    public Map<Property<?>, List<TreeChange>> getChangesByProperty(ConfigurationData configurationData) {
+        NavigableMap<String, Property<?>> propertiesByPath = new TreeMap<>();
+        for (Property<?> property : configurationData.getProperties()) {
+            propertiesByPath.put(property.getPath(), property);
+        }
+
+        Map<Property<?>, List<TreeChange>> changesByProperty = new LinkedHashMap<>();
+        for (TreeChange change : changes) {
+            String path = change.getPath();
+            // Properties which contain the change's path
+            for (String parentPath = path; parentPath != null; parentPath = getParentPath(parentPath)) {
+                Property<?> property = propertiesByPath.get(parentPath);
+                if (property != null) {
+                    changesByProperty.computeIfAbsent(property, p -> new ArrayList<>()).add(change);
+                }
+            }
+            // Properties within the change's path ('/' is the character after '.')
+            Map<String, Property<?>> childProperties = path.isEmpty()
+                ? propertiesByPath.tailMap("", false)
+                : propertiesByPath.subMap(path + ".", true, path + "/", false);
+            for (Property<?> property : childProperties.values()) {
+                changesByProperty.computeIfAbsent(property, p -> new ArrayList<>()).add(change);
+            }
+        }
+        return changesByProperty;
+    }
+
+    private static void walk(String path, @Nullable Object oldValue, @Nullable Object newValue,
+                             Consumer<TreeChange> listener) {
+        long oldHash = TreeHashes.getCachedHash(oldValue);
+        if (oldValue == newValue || oldHash != 0 && oldHash == TreeHashes.getCachedHash(newValue)) {
+            return;
+        } else if (oldValue instanceof Map<?, ?> && newValue instanceof Map<?, ?>) {
+            Map<?, ?> oldMap = (Map<?, ?>) oldValue;
+            Map<?, ?> newMap = (Map<?, ?>) newValue;
+            String prefix = path.isEmpty() ? "" : path + ".";
+            for (Map.Entry<?, ?> entry : oldMap.entrySet()) {
+                if (entry.getValue() != null && !newMap.containsKey(entry.getKey())) {
+                    listener.accept(new TreeChange(TreeChange.Type.REMOVED, prefix + entry.getKey(),
+                        entry.getValue(), null));
+                }
+            }
+            for (Map.Entry<?, ?> entry : newMap.entrySet()) {
+                walk(prefix + entry.getKey(), oldMap.get(entry.getKey()), entry.getValue(), listener);
+            }
+        } else if (oldValue == null) {
+            listener.accept(new TreeChange(TreeChange.Type.ADDED, path, null, newValue));
+        } else if (newValue == null) {
+            listener.accept(new TreeChange(TreeChange.Type.REMOVED, path, oldValue, null));
+        } else if (!Objects.equals(oldValue, newValue)) {
+            listener.accept(new TreeChange(TreeChange.Type.CHANGED, path, oldValue, newValue));
+        }
+    }
+
+    @Nullable
+    private static String getParentPath(String path) {
+        if (path.isEmpty()) {
+            return null;
+        }
+        int lastDot = path.lastIndexOf('.');
+        return lastDot < 0 ? "" : path.substring(0, lastDot);
+    }
+}
@@ -0,0 +1,50 @@
+package ch.jalu.configme.resource.tree;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * Immutable list backed by an array of the exact size of the list.
+ */
+public final class CompactList extends AbstractList<Object> implements RandomAccess {
+
+    private final Object[] elements;
+    /** Content hash, computed on demand by {@link TreeHashes} (0 if not yet computed). */
+    private volatile long contentHash;
+
+    CompactList(Object[] elements) {
+        this.elements = elements;
+    }
+
+    /**
+     * Creates a compact list with the elements of the given collection.
+     *
+     * @param collection the collection to copy
+     * @return compact list with the same elements
+     */
+    public static CompactList copyOf(Collection<?> collection) {
+        if (collection instanceof CompactList) {
+            return (CompactList) collection;
+        }
+        return new CompactList(collection.toArray());
+    }
+
+    @Override
+    public Object get(int index) {
+        return elements[index];
+    }
+
+    @Override
+    public int size() {
+        return elements.length;
+    }
+
+    long getContentHash() {
+        return contentHash;
+    }
+
+    void setContentHash(long contentHash) {
+        this.contentHash = contentHash;
+    }
+}
@@ -0,0 +1,178 @@
+package ch.jalu.configme.resource.tree;
+
+import javax.annotation.Nullable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable map with String keys, backed by an array of sorted keys and a parallel array of values.
+ * <p>
+ * Lookups are done by binary search. Compared to a {@link java.util.LinkedHashMap}, this map does not
+ * need any entry objects or hash table, which significantly reduces the memory overhead per entry.
+ * Entries are iterated over in the natural order of the keys. Modifications are performed by creating
+ * a new map with {@link #with} and {@link #without}.
+ */
+public final class CompactMap extends AbstractMap<String, Object> {
+
+    private static final CompactMap EMPTY = new CompactMap(new String[0], new Object[0]);
+
+    private final String[] keys;
+    private final Object[] values;
+    /** Content hash, computed on demand by {@link TreeHashes} (0 if not yet computed). */
+    private volatile long contentHash;
+
+    private CompactMap(String[] keys, Object[] values) {
+        this.keys = keys;
+        this.values = values;
+    }
+
+    /**
+     * Returns an empty compact map.
+     *
+     * @return empty map
+     */
+    public static CompactMap empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates a compact map with the entries of the given map. The values are taken over as is.
+     *
+     * @param map the map to copy
+     * @return compact map with the same entries
+     */
+    public static CompactMap copyOf(Map<String, ?> map) {
+        if (map instanceof CompactMap) {
+            return (CompactMap) map;
+        }
+        String[] keys = map.keySet().toArray(new String[map.size()]);
+        Arrays.sort(keys);
+        Object[] values = new Object[keys.length];
+        for (int i = 0; i < keys.length; ++i) {
+            values[i] = map.get(keys[i]);
+        }
+        return new CompactMap(keys, values);
+    }
+
+    @Override
+    public int size() {
+        return keys.length;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public Object get(Object key) {
+        int index = indexOf(key);
+        return index >= 0 ? values[index] : null;
+    }
+
+    /**
+     * Returns a map with the same entries as this map, except that the given key is associated
+     * with the provided value. This map is not modified.
+     *
+     * @param key the key to set
+     * @param value the value to associate with the key (not null)
+     * @return the new map
+     */
+    public CompactMap with(String key, Object value) {
+        int index = indexOf(key);
+        if (index >= 0) {
+            if (values[index] == value) {
+                return this;
+            }
+            Object[] newValues = values.clone();
+            newValues[index] = value;
+            return new CompactMap(keys, newValues);
+        }
+
+        int insertionPoint = -(index + 1);
+        String[] newKeys = new String[keys.length + 1];
+        Object[] newValues = new Object[keys.length + 1];
+        System.arraycopy(keys, 0, newKeys, 0, insertionPoint);
+        System.arraycopy(values, 0, newValues, 0, insertionPoint);
+        newKeys[insertionPoint] = key;
+        newValues[insertionPoint] = value;
+        System.arraycopy(keys, insertionPoint, newKeys, insertionPoint + 1, keys.length - insertionPoint);
+        System.arraycopy(values, insertionPoint, newValues, insertionPoint + 1, keys.length - insertionPoint);
+        return new CompactMap(newKeys, newValues);
+    }
+
+    /**
+     * Returns a map with the same entries as this map but without the given key. This map is not modified.
+     *
+     * @param key the key to remove
+     * @return the new map (or this map if the key is not present)
+     */
+    public CompactMap without(String key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return this;
+        }
+        String[] newKeys = new String[keys.length - 1];
+        Object[] newValues = new Object[keys.length - 1];
+        System.arraycopy(keys, 0, newKeys, 0, index);
+        System.arraycopy(values, 0, newValues, 0, index);
+        System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+        System.arraycopy(values, index + 1, newValues, index, keys.length - index - 1);
+        return new CompactMap(newKeys, newValues);
+    }
+
+    long getContentHash() {
+        return contentHash;
+    }
+
+    void setContentHash(long contentHash) {
+        this.contentHash = contentHash;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<Entry<String, Object>>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return keys.length;
+            }
+        };
+    }
+
+    private int indexOf(@Nullable Object key) {
+        if (key instanceof String) {
+            return Arrays.binarySearch(keys, key);
+        }
+        // Any negative value that does not correspond to an insertion point
+        return Integer.MIN_VALUE;
+    }
+
+    private final class EntryIterator implements Iterator<Entry<String, Object>> {
+        private int index;
+
+        @Override
+        public boolean hasNext() {
+            return index < keys.length;
+        }
+
+        @Override
+        public Entry<String, Object> next() {
+            if (index >= keys.length) {
+                throw new NoSuchElementException();
+            }
+            Entry<String, Object> entry = new SimpleImmutableEntry<>(keys[index], values[index]);
+            ++index;
+            return entry;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package ch.jalu.configme.resource.tree;
+
+import javax.annotation.Nullable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Utilities for converting loaded configuration trees into their compact, immutable form
+ * ({@link CompactMap} and {@link CompactList}) and for replacing values in such trees.
+ * <p>
+ * Compact trees are never modified: setting a value creates new nodes along the path to the value, while all
+ * other nodes are shared with the previous tree (copy-on-write).
+ */
+public final class CompactTree {
+
+    private CompactTree() {
+    }
+
+    /**
+     * Converts the given value (typically the root of a tree loaded by SnakeYAML) to a compact representation.
+     * Maps with String keys are converted to {@link CompactMap}, lists to {@link CompactList}.
+     * Maps with other keys are wrapped in an unmodifiable map. Other values are returned as is.
+     * <p>
+     * Maps and lists which occur multiple times in the tree (e.g. through YAML aliases) are converted once
+     * and remain shared in the compact tree.
+     *
+     * @param value the value to convert
+     * @return the compact value
+     */
+    @Nullable
+    public static Object compact(@Nullable Object value) {
+        return compactShared(value, new IdentityHashMap<>());
+    }
+
+    @Nullable
+    private static Object compactShared(@Nullable Object value, Map<Object, Object> compactedNodes) {
+        if (!(value instanceof Map<?, ?>) && !(value instanceof Collection<?>)) {
+            return value;
+        }
+        Object compactedValue = compactedNodes.get(value);
+        if (compactedValue == null) {
+            compactedValue = compactNode(value, compactedNodes);
+            compactedNodes.put(value, compactedValue);
+        }
+        return compactedValue;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object compactNode(Object value, Map<Object, Object> compactedNodes) {
+        if (value instanceof Map<?, ?>) {
+            Map<Object, Object> compactedEntries = new LinkedHashMap<>();
+            boolean hasOnlyStringKeys = true;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                hasOnlyStringKeys &= entry.getKey() instanceof String;
+                compactedEntries.put(entry.getKey(), compactShared(entry.getValue(), compactedNodes));
+            }
+            return hasOnlyStringKeys
+                ? CompactMap.copyOf((Map<String, ?>) (Map<?, ?>) compactedEntries)
+                : Collections.unmodifiableMap(compactedEntries);
+        } else if (value instanceof Collection<?>) {
+            Collection<?> collection = (Collection<?>) value;
+            Object[] elements = new Object[collection.size()];
+            int i = 0;
+            for (Object element : collection) {
+                elements[i++] = compactShared(element, compactedNodes);
+            }
+            return new CompactList(elements);
+        }
+        throw new IllegalStateException("Unexpected value: " + value);
+    }
+
+    /**
+     * Converts the given value to a compact representation like {@link #compact(Object)}, but reuses all nodes
+     * of the previous compact tree which are equal to the converted nodes. If nothing has changed, the previous
+     * tree itself is returned. This allows to keep several versions of a tree without duplicating the parts
+     * which are the same in all of them.
+     *
+     * @param value the value to convert
+     * @param previous the previous compact tree to share nodes with (nullable)
+     * @return the compact value
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public static Object compact(@Nullable Object value, @Nullable Object previous) {
+        if (value instanceof Map<?, ?> && previous instanceof CompactMap) {
+            CompactMap previousMap = (CompactMap) previous;
+            Map<?, ?> map = (Map<?, ?>) value;
+            Map<Object, Object> compactedEntries = new LinkedHashMap<>();
+            boolean hasOnlyStringKeys = true;
+            boolean isUnchanged = map.size() == previousMap.size();
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                hasOnlyStringKeys &= entry.getKey() instanceof String;
+                Object previousValue = previousMap.get(entry.getKey());
+                Object compactedValue = compact(entry.getValue(), previousValue);
+                isUnchanged &= compactedValue == previousValue && previousMap.containsKey(entry.getKey());
+                compactedEntries.put(entry.getKey(), compactedValue);
+            }
+            if (!hasOnlyStringKeys) {
+                return Collections.unmodifiableMap(compactedEntries);
+            }
+            return isUnchanged
+                ? previousMap
+                : CompactMap.copyOf((Map<String, ?>) (Map<?, ?>) compactedEntries);
+        }
+        Object compactedValue = compact(value);
+        return compactedValue != null && compactedValue.equals(previous) ? previous : compactedValue;
+    }
+
+    /**
+     * Returns a new tree in which the value at the given path is replaced, sharing all unaffected nodes
+     * with the given root. Behaves like setting a value in a tree of mutable maps: any non-map
+     * value along the path is replaced with a map, and a null value removes the entry.
+     *
+     * @param root the root of the tree
+     * @param keys the path elements
+     * @param value the value to set, or null to remove the entry
+     * @return the root of the new tree
+     */
+    public static CompactMap set(CompactMap root, String[] keys, @Nullable Object value) {
+        return set(root, keys, 0, value);
+    }
+
+    private static CompactMap set(CompactMap node, String[] keys, int index, @Nullable Object value) {
+        String key = keys[index];
+        if (index == keys.length - 1) {
+            return value == null ? node.without(key) : node.with(key, value);
+        }
+
+        Object child = node.get(key);
+        if (child instanceof Map<?, ?>) {
+            return node.with(key, set(toCompactMap((Map<?, ?>) child), keys, index + 1, value));
+        } else if (value == null) {
+            // For consistency, replace whatever value/null here with an empty map
+            return node.with(key, CompactMap.empty());
+        }
+        return node.with(key, set(CompactMap.empty(), keys, index + 1, value));
+    }
+
+    /**
+     * Returns a compact map with the String-keyed entries of the given map. Other maps may be present
+     * in the tree if they were set from the outside or if they have non-String keys, which are not
+     * addressable by any path.
+     *
+     * @param map the map to convert
+     * @return compact map
+     */
+    private static CompactMap toCompactMap(Map<?, ?> map) {
+        if (map instanceof CompactMap) {
+            return (CompactMap) map;
+        }
+        Map<String, Object> entries = new LinkedHashMap<>();
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            if (entry.getKey() instanceof String) {
+                entries.put((String) entry.getKey(), entry.getValue());
+            }
+        }
+        return CompactMap.copyOf(entries);
+    }
+}
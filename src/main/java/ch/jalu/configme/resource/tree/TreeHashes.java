@@ -0,0 +1,151 @@
+package ch.jalu.configme.resource.tree;
+
+import javax.annotation.Nullable;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * Computes 64-bit content hashes of configuration trees (Merkle hashes): the hash of a map or list is derived from
+ * the hashes of its entries, so two trees with equal content have the same hash.
+ * <p>
+ * The hashes of {@link CompactMap} and {@link CompactList} nodes are cached in the nodes, which is possible
+ * because they are never modified. Once a compact tree has been hashed, the hash of any of its nodes is therefore
+ * available in constant time, and after a value has been set with {@link CompactTree#set}, only the new nodes
+ * along the path to the value need to be hashed. Other maps and collections are hashed anew on every call.
+ * <p>
+ * The hash of a map does not depend on the order of its entries, so that a compact map and, for example,
+ * a {@link java.util.LinkedHashMap} with the same entries have the same hash. Scalars are hashed by type and
+ * value, consistently with {@link Object#equals}: the integer 1 and the long 1 have different hashes. Objects of
+ * other types (e.g. beans) are hashed with their {@link Object#hashCode()}. Hashes of strings, numbers, booleans,
+ * dates, enums and byte arrays do not depend on the JVM, so they can be compared between processes.
+ * <p>
+ * Equal hashes mean that the trees are equal with a probability which is sufficient for change detection and
+ * replication; use {@link Object#equals} where a hash collision would be harmful.
+ */
+public final class TreeHashes {
+
+    private static final long NULL_HASH = 0x9E3779B97F4A7C15L;
+    private static final long MAP_SEED = 0x4D4150L;
+    private static final long LIST_SEED = 0x4C4953L;
+
+    private TreeHashes() {
+    }
+
+    /**
+     * Returns the content hash of the given value. The hashes of compact nodes are cached.
+     *
+     * @param value the value to hash (e.g. the root of a tree)
+     * @return the content hash
+     */
+    public static long hash(@Nullable Object value) {
+        if (value instanceof CompactMap) {
+            CompactMap map = (CompactMap) value;
+            long hash = map.getContentHash();
+            if (hash == 0) {
+                hash = hashMap(map);
+                map.setContentHash(hash);
+            }
+            return hash;
+        } else if (value instanceof CompactList) {
+            CompactList list = (CompactList) value;
+            long hash = list.getContentHash();
+            if (hash == 0) {
+                hash = hashCollection(list);
+                list.setContentHash(hash);
+            }
+            return hash;
+        } else if (value instanceof Map<?, ?>) {
+            return hashMap((Map<?, ?>) value);
+        } else if (value instanceof Collection<?>) {
+            return hashCollection((Collection<?>) value);
+        }
+        return hashScalar(value);
+    }
+
+    /**
+     * Returns the cached hash of the given value if it is a compact node whose hash has already been computed.
+     *
+     * @param value the value to check
+     * @return the cached hash, or 0 if no hash is cached for the value
+     */
+    public static long getCachedHash(@Nullable Object value) {
+        if (value instanceof CompactMap) {
+            return ((CompactMap) value).getContentHash();
+        } else if (value instanceof CompactList) {
+            return ((CompactList) value).getContentHash();
+        }
+        return 0;
+    }
+
+    private static long hashMap(Map<?, ?> map) {
+        long sum = 0;
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            // Entries are combined by addition so that the hash does not depend on their order
+            sum += mix(hash(entry.getKey()) * 31 + mix(hash(entry.getValue())));
+        }
+        return nonZero(mix(MAP_SEED ^ sum) + map.size());
+    }
+
+    private static long hashCollection(Collection<?> collection) {
+        long hash = LIST_SEED;
+        for (Object element : collection) {
+            hash = mix(hash ^ hash(element));
+        }
+        return nonZero(mix(hash + collection.size()));
+    }
+
+    private static long hashScalar(@Nullable Object value) {
+        if (value == null) {
+            return NULL_HASH;
+        } else if (value instanceof String) {
+            return hashBytes(1, ((String) value).getBytes(StandardCharsets.UTF_8));
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short
+            || value instanceof Byte) {
+            return nonZero(mix(((Number) value).longValue() * 31 + typeSeed(value)));
+        } else if (value instanceof Double || value instanceof Float) {
+            return nonZero(mix(Double.doubleToLongBits(((Number) value).doubleValue()) * 31 + typeSeed(value)));
+        } else if (value instanceof Boolean) {
+            return (Boolean) value ? 0x5452554553L : 0x46414C5345L;
+        } else if (value instanceof Enum<?>) {
+            return hashBytes(2, ((Enum<?>) value).name().getBytes(StandardCharsets.UTF_8));
+        } else if (value instanceof byte[]) {
+            return hashBytes(3, (byte[]) value);
+        } else if (value.getClass() == Date.class) {
+            return nonZero(mix(((Date) value).getTime() * 31 + 4));
+        }
+        return nonZero(mix(value.hashCode() * 31L + 5));
+    }
+
+    private static long typeSeed(Object value) {
+        return value.getClass().getSimpleName().hashCode();
+    }
+
+    private static long hashBytes(long seed, byte[] bytes) {
+        // 64-bit FNV-1a, followed by a final mix
+        long hash = 0xCBF29CE484222325L ^ seed;
+        for (byte b : bytes) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001B3L;
+        }
+        return nonZero(mix(hash));
+    }
+
+    /**
+     * Finalizer of SplitMix64, which spreads the bits of the input over the entire output.
+     */
+    private static long mix(long value) {
+        long z = value;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Maps 0 to another value, as 0 denotes a hash which has not been computed yet.
+     */
+    private static long nonZero(long hash) {
+        return hash == 0 ? 1 : hash;
+    }
+}
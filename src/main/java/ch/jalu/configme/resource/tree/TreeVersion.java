@@ -0,0 +1,55 @@
+package ch.jalu.configme.resource.tree;
+
+import javax.annotation.Nullable;
+
+/**
+ * Version of a configuration tree, as retained in the history of a
+ * {@link ch.jalu.configme.resource.VersionedPropertyReader VersionedPropertyReader}. The tree is a compact tree
+ * (see {@link CompactTree}), so it is never modified and shares its unchanged nodes with the other versions.
+ */
+public final class TreeVersion {
+
+    private final long number;
+    private final boolean committed;
+    private final long timestamp;
+    @Nullable
+    private final Object tree;
+
+    /**
+     * Constructor.
+     *
+     * @param number the version number
+     * @param committed true if the tree was committed (e.g. exported), false if it was loaded
+     * @param timestamp the time the version was created, in milliseconds since the epoch
+     * @param tree the tree (the value at the root path)
+     */
+    public TreeVersion(long number, boolean committed, long timestamp, @Nullable Object tree) {
+        this.number = number;
+        this.committed = committed;
+        this.timestamp = timestamp;
+        this.tree = tree;
+    }
+
+    public long getNumber() {
+        return number;
+    }
+
+    /**
+     * Returns whether the tree was committed, i.e. it contains the values which were in memory when the
+     * properties were exported. Otherwise, the tree was loaded from the resource's source.
+     *
+     * @return true if the version was committed, false if it was loaded
+     */
+    public boolean isCommitted() {
+        return committed;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    @Nullable
+    public Object getTree() {
+        return tree;
+    }
+}
@@ -4,6 +4,11 @@ import ch.jalu.configme.exception.ConfigMeException;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 
 /**
  * Utilities class.
@@ -39,4 +44,31 @@ public final class Utils {
             }
         }
     }
+
+    /**
+     * Replaces the target file with the given temporary file. The temporary file and its directory are forced
+     * to the storage device before the move, and the directory again after it, so that after a system crash
+     * the target is either the complete new file or the old file.
+     *
+     * @param tempFile the file with the new content
+     * @param target the file to replace
+     * @throws IOException if a file cannot be synced or moved
+     */
+    public static void replaceFileDurably(Path tempFile, Path target) throws IOException {
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Path directory = target.toAbsolutePath().getParent();
+        syncDirectory(directory);
+        Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+        syncDirectory(directory);
+    }
+
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Some platforms (e.g. Windows) cannot open directories; the move is then as durable as it gets
+        }
+    }
 }
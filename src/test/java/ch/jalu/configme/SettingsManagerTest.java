@@ -10,6 +10,7 @@ import ch.jalu.configme.properties.BeanProperty;
 import ch.jalu.configme.properties.OptionalProperty;
 import ch.jalu.configme.properties.Property;
 import ch.jalu.configme.resource.PropertyResource;
+import ch.jalu.configme.resource.SharedResourceRegistry;
 import ch.jalu.configme.resource.YamlFileResource;
 import ch.jalu.configme.samples.TestConfiguration;
 import org.junit.Rule;
@@ -141,6 +142,22 @@ public class SettingsManagerTest {
         verifyWasMigrationServiceChecked();
     }
 
+    @Test
+    public void shouldReloadSectionAndCheckItsProperties() {
+        // given
+        SettingsManager manager = createManager();
+        given(migrationService.checkAndMigrate(eq(resource), anyList())).willReturn(true);
+
+        // when
+        manager.reload("demo.prop2");
+
+        // then
+        verify(resource).reload("demo.prop2");
+        verify(migrationService, only()).checkAndMigrate(eq(resource), knownPropertiesCaptor.capture());
+        assertThat(knownPropertiesCaptor.getValue(), contains(configurationData.getProperties().get(1)));
+        verify(resource).exportProperties(configurationData);
+    }
+
     @Test
     public void shouldHandleNullMigrationService() {
         // given
@@ -229,6 +246,21 @@ public class SettingsManagerTest {
         assertThat(file.length(), greaterThan(fileLength));
     }
 
+    @Test
+    public void shouldReleaseSharedFileOnClose() {
+        // given
+        File file = copyFileFromResources("/config-sample.yml", temporaryFolder);
+        SettingsManager manager = SettingsManager.createWithSharedYamlFile(file, TestConfiguration.class);
+        int referenceCount = SharedResourceRegistry.getDefault().getReferenceCount(file);
+
+        // when
+        manager.close();
+
+        // then
+        assertThat(referenceCount, equalTo(1));
+        assertThat(SharedResourceRegistry.getDefault().getReferenceCount(file), equalTo(0));
+    }
+
     private void verifyWasMigrationServiceChecked() {
         verify(migrationService, only()).checkAndMigrate(eq(resource), knownPropertiesCaptor.capture());
         assertThat(knownPropertiesCaptor.getValue(), containsAll(configurationData.getProperties()));
@@ -0,0 +1,94 @@
+package ch.jalu.configme.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Generates large YAML configuration files in the style exported by ConfigMe, for use in benchmarks.
+ */
+public final class LargeConfigGenerator {
+
+    private LargeConfigGenerator() {
+    }
+
+    /**
+     * Writes a configuration with the given number of sections to the file. Each section has a few scalar
+     * values of all types, a short string list and a map of beans with repeated keys and values.
+     *
+     * @param file the file to write to
+     * @param sections the number of sections to generate
+     */
+    public static void writeConfig(File file, int sections) {
+        try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writeConfig(writer, sections);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Generates a configuration with the given number of sections and returns it as string.
+     *
+     * @param sections the number of sections to generate
+     * @return the generated YAML
+     * @see #writeConfig(File, int)
+     */
+    public static String generateConfig(int sections) {
+        StringWriter writer = new StringWriter();
+        try {
+            writeConfig(writer, sections);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
+
+    private static void writeConfig(Writer writer, int sections) throws IOException {
+        writer.write("# Generated configuration\n");
+        writer.write("settings:\n");
+        for (int i = 0; i < sections; ++i) {
+            writer.write("    section" + i + ":\n");
+            writer.write("        enabled: " + (i % 3 == 0) + "\n");
+            writer.write("        name: 'Section number " + i + "'\n");
+            writer.write("        ratio: " + (i / 7.0) + "\n");
+            writer.write("        size: " + (i * 31 % 1000) + "\n");
+            writer.write("        worlds:\n");
+            writer.write("            - 'world'\n");
+            writer.write("            - 'world_nether'\n");
+            writer.write("        groups:\n");
+            for (int g = 0; g < 3; ++g) {
+                writer.write("            group" + g + ":\n");
+                writer.write("                permission: 'group.perm." + g + "'\n");
+                writer.write("                world: 'world'\n");
+                writer.write("                enabled: true\n");
+            }
+        }
+    }
+
+    /**
+     * Counts the map entries and list elements in the given tree.
+     *
+     * @param node the root of the tree
+     * @return total number of entries
+     */
+    public static int countEntries(Object node) {
+        int total = 0;
+        if (node instanceof Map<?, ?>) {
+            for (Object value : ((Map<?, ?>) node).values()) {
+                total += 1 + countEntries(value);
+            }
+        } else if (node instanceof Collection<?>) {
+            for (Object value : (Collection<?>) node) {
+                total += 1 + countEntries(value);
+            }
+        }
+        return total;
+    }
+}
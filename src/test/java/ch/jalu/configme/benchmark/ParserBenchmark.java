@@ -0,0 +1,62 @@
+package ch.jalu.configme.benchmark;
+
+import ch.jalu.configme.resource.ReaderOptions;
+import ch.jalu.configme.resource.SnakeYamlParser;
+import ch.jalu.configme.resource.SubsetYamlParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the time to parse large generated configurations with the available YAML parsers.
+ * {@code snakeYamlLoad} is the way files were loaded before the parser was made pluggable.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+    @Param({"1000", "10000"})
+    private int sections;
+
+    private String yaml;
+    private final ReaderOptions options = new ReaderOptions();
+    private final SnakeYamlParser snakeYamlParser = new SnakeYamlParser();
+    private final SubsetYamlParser subsetParser = new SubsetYamlParser();
+
+    @Setup
+    public void generateConfig() {
+        yaml = LargeConfigGenerator.generateConfig(sections);
+    }
+
+    @Benchmark
+    public Object snakeYamlLoad() {
+        return new Yaml().load(new StringReader(yaml));
+    }
+
+    @Benchmark
+    public Object snakeYamlParser() {
+        return snakeYamlParser.parse(new StringReader(yaml), options);
+    }
+
+    @Benchmark
+    public Object subsetParser() throws IOException {
+        return subsetParser.parse(new StringReader(yaml), options);
+    }
+}
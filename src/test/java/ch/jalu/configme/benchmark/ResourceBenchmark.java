@@ -0,0 +1,92 @@
+package ch.jalu.configme.benchmark;
+
+import ch.jalu.configme.resource.MemoryPropertyResource;
+import ch.jalu.configme.resource.PropertyResource;
+import ch.jalu.configme.resource.YamlFileResource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares loading and reading values with a {@link YamlFileResource} to the {@link MemoryPropertyResource},
+ * which serves as baseline without any disk I/O.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResourceBenchmark {
+
+    @Param({"1000"})
+    private int sections;
+
+    private String yaml;
+    private File file;
+    private String[] paths;
+    private PropertyResource memoryResource;
+    private PropertyResource fileResource;
+
+    @Setup
+    public void createResources() throws IOException {
+        yaml = LargeConfigGenerator.generateConfig(sections);
+        file = File.createTempFile("configme-benchmark", ".yml");
+        LargeConfigGenerator.writeConfig(file, sections);
+        memoryResource = MemoryPropertyResource.fromYaml(yaml);
+        fileResource = new YamlFileResource(file);
+
+        paths = new String[sections * 3];
+        for (int i = 0; i < sections; ++i) {
+            paths[3 * i] = "settings.section" + i + ".name";
+            paths[3 * i + 1] = "settings.section" + i + ".size";
+            paths[3 * i + 2] = "settings.section" + i + ".groups.group1.enabled";
+        }
+    }
+
+    @TearDown
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file.toPath());
+    }
+
+    @Benchmark
+    public Object loadMemoryResource() {
+        return MemoryPropertyResource.fromYaml(yaml);
+    }
+
+    @Benchmark
+    public Object loadFileResource() {
+        return new YamlFileResource(file);
+    }
+
+    @Benchmark
+    public void readMemoryResource(Blackhole blackhole) {
+        readAll(memoryResource, blackhole);
+    }
+
+    @Benchmark
+    public void readFileResource(Blackhole blackhole) {
+        readAll(fileResource, blackhole);
+    }
+
+    private void readAll(PropertyResource resource, Blackhole blackhole) {
+        for (String path : paths) {
+            blackhole.consume(resource.getObject(path));
+        }
+    }
+}
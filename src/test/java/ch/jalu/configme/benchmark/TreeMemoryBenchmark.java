@@ -0,0 +1,73 @@
+package ch.jalu.configme.benchmark;
+
+import ch.jalu.configme.resource.ReaderOptions;
+import ch.jalu.configme.resource.StringPool;
+import ch.jalu.configme.resource.YamlFileReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.function.Function;
+
+/**
+ * Reports the heap used per tree entry when many readers hold the same configuration, comparing the
+ * default tree of {@link YamlFileReader} with its compact tree and string pool options.
+ * <p>
+ * Run the main method with a fixed heap size for stable results, e.g. {@code -Xms1g -Xmx1g}.
+ */
+public final class TreeMemoryBenchmark {
+
+    private static final int SECTIONS = 2_000;
+    private static final int READERS = 20;
+
+    private TreeMemoryBenchmark() {
+    }
+
+    public static void main(String... args) throws IOException {
+        File file = File.createTempFile("configme-benchmark", ".yml");
+        file.deleteOnExit();
+        LargeConfigGenerator.writeConfig(file, SECTIONS);
+        int entries = LargeConfigGenerator.countEntries(new YamlFileReader(file).getObject(""));
+        System.out.println("Entries per tree: " + entries);
+
+        ReaderOptions compactOptions = new ReaderOptions();
+        compactOptions.setCompactTree(true);
+
+        ReaderOptions pooledOptions = new ReaderOptions();
+        pooledOptions.setStringPool(new StringPool());
+        ReaderOptions compactPooledOptions = new ReaderOptions();
+        compactPooledOptions.setCompactTree(true);
+        compactPooledOptions.setStringPool(new StringPool());
+
+        report("Default tree", entries, f -> new YamlFileReader(f), file);
+        report("Compact tree", entries, f -> new YamlFileReader(f, compactOptions), file);
+        report("String pool", entries, f -> new YamlFileReader(f, pooledOptions), file);
+        report("Compact tree and string pool", entries, f -> new YamlFileReader(f, compactPooledOptions), file);
+    }
+
+    /**
+     * Loads the file with multiple readers and prints the retained heap per tree entry.
+     *
+     * @param name the name of the configuration being measured
+     * @param entries number of entries in one tree
+     * @param readerFactory creates a reader for the file
+     * @param file the file to load
+     */
+    static void report(String name, int entries, Function<File, YamlFileReader> readerFactory, File file) {
+        Object[] readers = new Object[READERS];
+        long before = usedMemory();
+        for (int i = 0; i < READERS; ++i) {
+            readers[i] = readerFactory.apply(file);
+        }
+        long after = usedMemory();
+        double bytesPerEntry = (after - before) / (double) (READERS * entries);
+        System.out.printf("%s: %.1f bytes per entry (%d readers)%n", name, bytesPerEntry, readers.length);
+    }
+
+    static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 4; ++i) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
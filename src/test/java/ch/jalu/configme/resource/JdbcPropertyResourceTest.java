@@ -0,0 +1,132 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.configurationdata.ConfigurationData;
+import ch.jalu.configme.configurationdata.ConfigurationDataBuilder;
+import ch.jalu.configme.exception.ConfigMeException;
+import ch.jalu.configme.samples.TestConfiguration;
+import ch.jalu.configme.samples.TestEnum;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static ch.jalu.configme.TestUtils.verifyException;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link JdbcPropertyResource}, using an in-memory H2 database.
+ */
+public class JdbcPropertyResourceTest {
+
+    private final ConfigurationData configurationData =
+        ConfigurationDataBuilder.collectData(TestConfiguration.class);
+    private JdbcDataSource dataSource;
+
+    @Before
+    public void createDatabase() {
+        dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcPropertyResource.createTable(dataSource, "settings");
+    }
+
+    @Test
+    public void shouldSaveAndLoadValues() throws SQLException {
+        // given
+        JdbcPropertyResource resource = new JdbcPropertyResource(dataSource, "settings");
+        resource.setValue("sample.ratio.order", TestEnum.THIRD);
+        resource.setValue("features.boring.colors", Arrays.asList("red", "blue"));
+
+        // when
+        resource.exportProperties(configurationData);
+        JdbcPropertyResource loadedResource = new JdbcPropertyResource(dataSource, "settings");
+
+        // then
+        assertThat(countRows(), equalTo(configurationData.getProperties().size()));
+        assertThat(TestConfiguration.DURATION_IN_SECONDS.getValue(loadedResource), equalTo(4));
+        assertThat(TestConfiguration.RATIO_ORDER.getValue(loadedResource), equalTo(TestEnum.THIRD));
+        assertThat(TestConfiguration.DUST_LEVEL.getValue(loadedResource), equalTo(-1));
+        assertThat(loadedResource.getList("features.boring.colors"), contains("red", "blue"));
+        assertThat(loadedResource.getObject("features.cool.enabled"), equalTo(false));
+    }
+
+    @Test
+    public void shouldOnlyWriteChangedRows() throws SQLException {
+        // given
+        JdbcPropertyResource resource = new JdbcPropertyResource(dataSource, "settings");
+        resource.exportProperties(configurationData);
+        resource.setValue("version", 5);
+        resource.setValue("test.systemName", "New name");
+
+        // when
+        resource.exportProperties(configurationData);
+        resource.setValue("version", 6);
+        resource.exportProperties(configurationData);
+
+        // then
+        assertThat(getRowVersion("version"), equalTo(3L));
+        assertThat(getRowVersion("test.systemName"), equalTo(2L));
+        assertThat(getRowVersion("test.duration"), equalTo(1L));
+        assertThat(new JdbcPropertyResource(dataSource, "settings").getInt("version"), equalTo(6));
+    }
+
+    @Test
+    public void shouldRejectConcurrentModification() {
+        // given
+        new JdbcPropertyResource(dataSource, "settings").exportProperties(configurationData);
+        JdbcPropertyResource resource1 = new JdbcPropertyResource(dataSource, "settings");
+        JdbcPropertyResource resource2 = new JdbcPropertyResource(dataSource, "settings");
+        resource1.setValue("version", 5);
+        resource1.exportProperties(configurationData);
+        resource2.setValue("test.duration", 10);
+        resource2.setValue("version", 6);
+
+        // when / then
+        verifyException(() -> resource2.exportProperties(configurationData),
+            ConfigMeException.class, "modified concurrently");
+        assertThat(new JdbcPropertyResource(dataSource, "settings").getInt("test.duration"), equalTo(4));
+
+        // when (2)
+        resource2.reload();
+        resource2.setValue("test.duration", 10);
+        resource2.exportProperties(configurationData);
+
+        // then (2)
+        JdbcPropertyResource loadedResource = new JdbcPropertyResource(dataSource, "settings");
+        assertThat(loadedResource.getInt("version"), equalTo(5));
+        assertThat(loadedResource.getInt("test.duration"), equalTo(10));
+    }
+
+    @Test
+    public void shouldRejectInvalidTableName() {
+        verifyException(() -> new JdbcPropertyResource(dataSource, "settings; DROP TABLE settings"),
+            ConfigMeException.class, "Invalid table name");
+    }
+
+    private int countRows() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             ResultSet resultSet = connection.createStatement().executeQuery("SELECT COUNT(*) FROM settings")) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    private long getRowVersion(String path) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement =
+                 connection.prepareStatement("SELECT row_version FROM settings WHERE setting_path = ?")) {
+            statement.setString(1, path);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getLong(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.TestUtils;
+import ch.jalu.configme.beanmapper.worldgroup.GameMode;
+import ch.jalu.configme.beanmapper.worldgroup.Group;
+import ch.jalu.configme.beanmapper.worldgroup.WorldGroupConfig;
+import ch.jalu.configme.configurationdata.ConfigurationData;
+import ch.jalu.configme.configurationdata.ConfigurationDataBuilder;
+import ch.jalu.configme.exception.ConfigMeException;
+import ch.jalu.configme.properties.BeanProperty;
+import ch.jalu.configme.samples.TestConfiguration;
+import ch.jalu.configme.samples.TestEnum;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static ch.jalu.configme.TestUtils.verifyException;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link JournaledYamlFileResource}.
+ */
+public class JournaledYamlFileResourceTest {
+
+    private final ConfigurationData configurationData =
+        ConfigurationDataBuilder.collectData(TestConfiguration.class);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldApplyJournalOnLoad() throws IOException {
+        // given
+        File file = TestUtils.copyFileFromResources("/config-sample.yml", temporaryFolder);
+        String originalContent = readFile(file);
+        JournaledYamlFileResource resource = new JournaledYamlFileResource(file, configurationData, Runnable::run);
+
+        // when
+        resource.setValue("version", 5);
+        resource.setValue("features.boring.colors", Arrays.asList("red", "blue"));
+        resource.setValue("sample.ratio.order", TestEnum.SECOND);
+        resource.setValue("test.systemName", null);
+        resource.close();
+        JournaledYamlFileResource reloadedResource =
+            new JournaledYamlFileResource(file, configurationData, Runnable::run);
+
+        // then
+        assertThat(readFile(file), equalTo(originalContent));
+        assertThat(TestConfiguration.VERSION_NUMBER.getValue(reloadedResource), equalTo(5));
+        assertThat(TestConfiguration.DUST_LEVEL.getValue(reloadedResource), equalTo(2));
+        assertThat(reloadedResource.getList("features.boring.colors"), contains("red", "blue"));
+        assertThat(TestConfiguration.RATIO_ORDER.getValue(reloadedResource), equalTo(TestEnum.SECOND));
+        assertThat(reloadedResource.contains("test.systemName"), equalTo(false));
+        reloadedResource.close();
+    }
+
+    @Test
+    public void shouldCompactJournalAboveThreshold() throws IOException {
+        // given
+        File file = TestUtils.copyFileFromResources("/config-sample.yml", temporaryFolder);
+        JournaledYamlFileResource resource = new JournaledYamlFileResource(file, configurationData, Runnable::run);
+        resource.setCompactionThreshold(30);
+        resource.setValue("version", 5);
+        long journalSize = resource.getJournal().size();
+
+        // when
+        resource.setValue("test.duration", 40);
+
+        // then
+        assertThat(journalSize > 0, equalTo(true));
+        assertThat(resource.getJournal().size(), equalTo(0L));
+        assertThat(readFile(file), containsString("version: 5"));
+        assertThat(readFile(file), containsString("duration: 40"));
+        resource.close();
+    }
+
+    @Test
+    public void shouldIgnoreIncompleteRecord() throws IOException {
+        // given
+        File file = TestUtils.copyFileFromResources("/config-sample.yml", temporaryFolder);
+        JournaledYamlFileResource resource = new JournaledYamlFileResource(file, configurationData, Runnable::run);
+        resource.setValue("version", 5);
+        resource.close();
+        Files.write(resource.getJournal().getFile().toPath(), new byte[]{0, 0, 0, 40, 1, 2, 3},
+            StandardOpenOption.APPEND);
+
+        // when
+        JournaledYamlFileResource reloadedResource =
+            new JournaledYamlFileResource(file, configurationData, Runnable::run);
+        reloadedResource.setValue("test.duration", 40);
+        reloadedResource.close();
+
+        // then
+        assertThat(reloadedResource.getJournal().readRecords(), hasSize(2));
+        reloadedResource.reload();
+        assertThat(reloadedResource.getInt("version"), equalTo(5));
+        assertThat(reloadedResource.getInt("test.duration"), equalTo(40));
+    }
+
+    @Test
+    public void shouldJournalBeanByLeafValues() {
+        // given
+        File file = TestUtils.copyFileFromResources("/beanmapper/worlds.yml", temporaryFolder);
+        BeanProperty<WorldGroupConfig> worldGroups =
+            new BeanProperty<>(WorldGroupConfig.class, "", new WorldGroupConfig());
+        ConfigurationData beanData = new ConfigurationData(Collections.singletonList(worldGroups));
+        JournaledYamlFileResource resource = new JournaledYamlFileResource(file, beanData, Runnable::run);
+        Group group = new Group();
+        group.setWorlds(Arrays.asList("easy1", "easy2"));
+        group.setDefaultGamemode(GameMode.CREATIVE);
+        WorldGroupConfig config = new WorldGroupConfig();
+        config.setGroups(Collections.singletonMap("easy", group));
+
+        // when
+        resource.setValue("", config);
+        resource.close();
+        JournaledYamlFileResource reloadedResource = new JournaledYamlFileResource(file, beanData, Runnable::run);
+
+        // then
+        WorldGroupConfig result = worldGroups.getValue(reloadedResource);
+        assertThat(result.getGroups().keySet(), contains("easy"));
+        assertThat(result.getGroups().get("easy").getWorlds(), contains("easy1", "easy2"));
+        assertThat(result.getGroups().get("easy").getDefaultGamemode(), equalTo(GameMode.CREATIVE));
+        reloadedResource.close();
+    }
+
+    @Test
+    public void shouldNotJournalValueForInvalidPath() {
+        // given
+        File file = TestUtils.copyFileFromResources("/beanmapper/worlds.yml", temporaryFolder);
+        BeanProperty<WorldGroupConfig> worldGroups =
+            new BeanProperty<>(WorldGroupConfig.class, "", new WorldGroupConfig());
+        ConfigurationData beanData = new ConfigurationData(Collections.singletonList(worldGroups));
+        JournaledYamlFileResource resource = new JournaledYamlFileResource(file, beanData, Runnable::run);
+        Group group = new Group();
+        group.setWorlds(Collections.singletonList("easy1"));
+        group.setDefaultGamemode(GameMode.CREATIVE);
+        WorldGroupConfig config = new WorldGroupConfig();
+        config.setGroups(Collections.singletonMap("easy", group));
+        resource.setValue("", config);
+
+        // when
+        verifyException(() -> resource.setValue("groups.easy", "test"),
+            ConfigMeException.class, "The root path is a bean property");
+
+        // then
+        assertThat(resource.getJournal().readRecords(), hasSize(1));
+        resource.close();
+    }
+
+    private static String readFile(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+}
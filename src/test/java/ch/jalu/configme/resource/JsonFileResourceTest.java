@@ -0,0 +1,160 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.TestUtils;
+import ch.jalu.configme.beanmapper.worldgroup.GameMode;
+import ch.jalu.configme.beanmapper.worldgroup.Group;
+import ch.jalu.configme.beanmapper.worldgroup.WorldGroupConfig;
+import ch.jalu.configme.configurationdata.ConfigurationData;
+import ch.jalu.configme.configurationdata.ConfigurationDataBuilder;
+import ch.jalu.configme.exception.ConfigMeException;
+import ch.jalu.configme.properties.BeanProperty;
+import ch.jalu.configme.properties.Property;
+import ch.jalu.configme.resource.tree.CompactMap;
+import ch.jalu.configme.samples.TestConfiguration;
+import ch.jalu.configme.samples.TestEnum;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+import static ch.jalu.configme.TestUtils.getJarPath;
+import static ch.jalu.configme.TestUtils.verifyException;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link JsonFileResource}.
+ */
+public class JsonFileResourceTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldReadAllProperties() {
+        // given
+        File config = TestUtils.copyFileFromResources("/config-sample.json", temporaryFolder);
+
+        // when
+        PropertyResource resource = new JsonFileResource(config);
+
+        // then
+        Map<Property<?>, Object> expected = new HashMap<>();
+        expected.put(TestConfiguration.DURATION_IN_SECONDS, 22);
+        expected.put(TestConfiguration.SYSTEM_NAME, "Custom sys name");
+        expected.put(TestConfiguration.RATIO_ORDER, TestEnum.FIRST);
+        expected.put(TestConfiguration.RATIO_FIELDS, Arrays.asList("Australia", "Burundi", "Colombia"));
+        expected.put(TestConfiguration.VERSION_NUMBER, 2492);
+        expected.put(TestConfiguration.SKIP_BORING_FEATURES, false);
+        expected.put(TestConfiguration.BORING_COLORS, Arrays.asList("beige", "gray"));
+        expected.put(TestConfiguration.DUST_LEVEL, 2);
+        expected.put(TestConfiguration.USE_COOL_FEATURES, true);
+        expected.put(TestConfiguration.COOL_OPTIONS, Arrays.asList("Dinosaurs", "Explosions", "Big trucks"));
+
+        for (Map.Entry<Property<?>, Object> entry : expected.entrySet()) {
+            assertThat("Property '" + entry.getKey().getPath() + "' has expected value",
+                entry.getKey().getValue(resource), equalTo(entry.getValue()));
+        }
+        assertThat(resource.getDouble("test.duration"), equalTo(22.0));
+        assertThat(resource.getString("version"), nullValue());
+    }
+
+    @Test
+    public void shouldExportInOrderOfConfigurationData() throws IOException {
+        // given
+        File config = TestUtils.copyFileFromResources("/config-sample.json", temporaryFolder);
+        PropertyResource resource = new JsonFileResource(config);
+        resource.setValue("test.systemName", "Name with \"quotes\"\n");
+        ConfigurationData configurationData = ConfigurationDataBuilder.collectData(TestConfiguration.class);
+
+        // when
+        resource.exportProperties(configurationData);
+
+        // then
+        assertThat(Files.readAllLines(config.toPath()),
+            equalTo(Files.readAllLines(getJarPath("/config-export-expected.json"))));
+        resource.reload();
+        assertThat(TestConfiguration.SYSTEM_NAME.getValue(resource), equalTo("Name with \"quotes\"\n"));
+    }
+
+    @Test
+    public void shouldExportBeanProperty() throws IOException {
+        // given
+        File config = temporaryFolder.newFile("worlds.json");
+        PropertyResource resource = new JsonFileResource(config);
+        Group group = new Group();
+        group.setWorlds(Arrays.asList("world", "world_nether"));
+        group.setDefaultGamemode(GameMode.CREATIVE);
+        WorldGroupConfig worldGroupConfig = new WorldGroupConfig();
+        worldGroupConfig.setGroups(Collections.singletonMap("default", group));
+        BeanProperty<WorldGroupConfig> property =
+            new BeanProperty<>(WorldGroupConfig.class, "worlds", new WorldGroupConfig());
+        resource.setValue("worlds", worldGroupConfig);
+
+        // when
+        resource.exportProperties(new ConfigurationData(Collections.singletonList(property)));
+
+        // then
+        Object exported = new Yaml().load(new String(Files.readAllBytes(config.toPath()), "UTF-8"));
+        assertThat(exported.toString(),
+            equalTo("{worlds={groups={default={default-gamemode=CREATIVE, worlds=[world, world_nether]}}}}"));
+        resource.reload();
+        WorldGroupConfig result = property.getValue(resource);
+        assertThat(result.getGroups().get("default").getDefaultGamemode(), equalTo(GameMode.CREATIVE));
+    }
+
+    @Test
+    public void shouldNotModifyGivenReaderOptions() {
+        // given
+        File config = TestUtils.copyFileFromResources("/config-sample.json", temporaryFolder);
+        ReaderOptions options = new ReaderOptions();
+        options.setCompactTree(true);
+        YamlParser parser = options.getParser();
+
+        // when
+        PropertyResource resource = new JsonFileResource(config, options);
+
+        // then
+        assertThat(options.getParser(), sameInstance(parser));
+        assertThat(resource.getObject("test"), instanceOf(CompactMap.class));
+    }
+
+    @Test
+    public void shouldExportGzipFileWithCompressionLevel() throws IOException {
+        // given
+        byte[] content = Files.readAllBytes(getJarPath("/config-sample.json"));
+        File uncompressedFile = temporaryFolder.newFile("uncompressed.json.gz");
+        Files.write(uncompressedFile.toPath(), content);
+        File compressedFile = temporaryFolder.newFile("compressed.json.gz");
+        Files.write(compressedFile.toPath(), content);
+        ConfigurationData configurationData = ConfigurationDataBuilder.collectData(TestConfiguration.class);
+        JsonFileResource uncompressedResource = new JsonFileResource(uncompressedFile);
+        uncompressedResource.setCompressionLevel(Deflater.NO_COMPRESSION);
+        JsonFileResource compressedResource = new JsonFileResource(compressedFile);
+        compressedResource.setCompressionLevel(Deflater.BEST_COMPRESSION);
+
+        // when
+        uncompressedResource.exportProperties(configurationData);
+        compressedResource.exportProperties(configurationData);
+
+        // then
+        assertThat(compressedFile.length() < uncompressedFile.length(), equalTo(true));
+        JsonFileResource reloadedResource = new JsonFileResource(compressedFile);
+        assertThat(TestConfiguration.COOL_OPTIONS.getValue(reloadedResource),
+            equalTo(Arrays.asList("Dinosaurs", "Explosions", "Big trucks")));
+        verifyException(() -> compressedResource.setCompressionLevel(10), ConfigMeException.class,
+            "Invalid compression level: 10");
+    }
+}
@@ -0,0 +1,131 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.exception.ConfigMeException;
+import org.junit.Test;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * Test for {@link JsonParser}.
+ */
+public class JsonParserTest {
+
+    private final JsonParser parser = new JsonParser();
+
+    @Test
+    public void shouldParseLikeSnakeYaml() throws IOException {
+        List<String> documents = Arrays.asList(
+            "{}",
+            "[]",
+            "{\"a\": {\"b\": [1, 2.5, -3, true, false, null]}, \"c\": \"text\"}",
+            "{\n  \"list\": [ [], {}, [ {\"x\": \"y\"} ] ],\r\n  \"num\": 1e3, \"neg\": -0.25\n}",
+            "{\"escapes\": \"quote \\\" backslash \\\\ \\b\\f\\n\\r\\t \\u00fc\\u2713\"}",
+            "{\"big\": 12345678901, \"huge\": 123456789012345678901, \"min\": -2147483648}",
+            "{\"unicode\": \"Übersicht ✓\", \"empty\": \"\", \"dup\": 1, \"dup\": 2}");
+
+        for (String document : documents) {
+            assertThat(document, parser.parse(new StringReader(document), new ReaderOptions()),
+                equalTo(new Yaml().load(document)));
+        }
+    }
+
+    @Test
+    public void shouldParseNumberTypes() throws IOException {
+        // given
+        String json = "[1, 2147483648, 9223372036854775808, 1.0, -7]";
+
+        // when
+        List<?> result = (List<?>) parser.parse(new StringReader(json), new ReaderOptions());
+
+        // then
+        assertThat(result.get(0), equalTo(1));
+        assertThat(result.get(1), equalTo(2147483648L));
+        assertThat(result.get(2), equalTo(new BigInteger("9223372036854775808")));
+        assertThat(result.get(3), equalTo(1.0));
+        assertThat(result.get(4), equalTo(-7));
+    }
+
+    @Test
+    public void shouldParseLongStrings() throws IOException {
+        // given
+        StringBuilder longText = new StringBuilder();
+        for (int i = 0; i < 5000; ++i) {
+            longText.append("text ").append(i);
+        }
+        String json = "{\"a\": \"" + longText + "\", \"b\": \"" + longText + "\"}";
+
+        // when
+        Map<?, ?> result = (Map<?, ?>) parser.parse(new StringReader(json), new ReaderOptions());
+
+        // then
+        assertThat(result.get("a"), equalTo(longText.toString()));
+        assertThat(result.get("b"), equalTo(longText.toString()));
+    }
+
+    @Test
+    public void shouldParseEscapedSlash() throws IOException {
+        // given / when
+        Object result = parser.parse(new StringReader("[\"a\\/b\"]"), new ReaderOptions());
+
+        // then
+        assertThat(result, equalTo(Arrays.asList("a/b")));
+    }
+
+    @Test
+    public void shouldReturnNullForEmptyDocument() throws IOException {
+        // given / when / then
+        assertThat(parser.parse(new StringReader(" \n\t"), new ReaderOptions()), nullValue());
+    }
+
+    @Test
+    public void shouldThrowForInvalidJson() throws IOException {
+        List<String> documents = Arrays.asList(
+            "{\"a\": 1,}",
+            "{a: 1}",
+            "{\"a\" 1}",
+            "[1 2]",
+            "[1, 2",
+            "{\"a\": tru}",
+            "{\"a\": \"unterminated}",
+            "{\"a\": \"bad \\x escape\"}",
+            "{\"a\": 1.2.3}",
+            "{} {}",
+            "{\"a\": \"line\nbreak\"}");
+
+        for (String document : documents) {
+            try {
+                parser.parse(new StringReader(document), new ReaderOptions());
+                fail("Expected exception for '" + document + "'");
+            } catch (ConfigMeException e) {
+                assertThat(e.getMessage(), containsString("Invalid JSON"));
+            }
+        }
+    }
+
+    @Test
+    public void shouldReportPosition() throws IOException {
+        // given
+        String json = "{\n    \"a\": 1,\n    \"b\": ?\n}";
+
+        // when
+        try {
+            parser.parse(new StringReader(json), new ReaderOptions());
+            fail("Expected exception");
+        } catch (ConfigMeException e) {
+            // then
+            assertThat(e.getMessage(), equalTo("Invalid JSON: Unexpected character '?' at line 3, column 10"));
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.TestUtils;
+import ch.jalu.configme.configurationdata.ConfigurationData;
+import ch.jalu.configme.configurationdata.ConfigurationDataBuilder;
+import ch.jalu.configme.exception.ConfigMeException;
+import ch.jalu.configme.samples.TestConfiguration;
+import ch.jalu.configme.samples.TestEnum;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static ch.jalu.configme.TestUtils.verifyException;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link LayeredPropertyResource} and {@link PropertyLayers}.
+ */
+public class LayeredPropertyResourceTest {
+
+    private final ConfigurationData configurationData =
+        ConfigurationDataBuilder.collectData(TestConfiguration.class);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldMergeLayersByPriority() {
+        // given
+        File file = TestUtils.copyFileFromResources("/config-incomplete-sample.yml", temporaryFolder);
+        PropertyLayer defaults = PropertyLayers.defaults(configurationData);
+        PropertyLayer fileLayer = PropertyLayers.resource("file", new YamlFileResource(file));
+        Map<String, String> env = new HashMap<>();
+        env.put("APP_TEST_DURATION", "77");
+        env.put("APP_FEATURES_COOL_ENABLED", "true");
+        env.put("APP_TEST_SYSTEMNAME", "123");
+        PropertyLayer envLayer = newTextLayer(env);
+
+        // when
+        LayeredPropertyResource resource = new LayeredPropertyResource(defaults, fileLayer, envLayer);
+
+        // then
+        assertThat(TestConfiguration.DURATION_IN_SECONDS.getValue(resource), equalTo(77));
+        assertThat(TestConfiguration.SYSTEM_NAME.getValue(resource), equalTo("123"));
+        assertThat(TestConfiguration.USE_COOL_FEATURES.getValue(resource), equalTo(true));
+        assertThat(TestConfiguration.RATIO_ORDER.getValue(resource), equalTo(TestEnum.SECOND));
+        assertThat(TestConfiguration.RATIO_FIELDS.getValue(resource), contains("Australia", "Burundi", "Colombia"));
+
+        assertThat(resource.getOrigin("test.duration"), sameInstance(envLayer));
+        assertThat(resource.getOrigin("sample.ratio.fields"), sameInstance(fileLayer));
+        assertThat(resource.getOrigin("sample.ratio.order"), sameInstance(defaults));
+        assertThat(resource.getOrigin("sample.ratio"), nullValue());
+        assertThat(resource.getObject("sample.ratio"), equalTo(
+            ((Map<?, ?>) resource.getObject("sample")).get("ratio")));
+    }
+
+    @Test
+    public void shouldRecomputeChangedPathsOnReload() {
+        // given
+        Map<String, Object> base = new HashMap<>();
+        base.put("a.b", 1);
+        base.put("a.c", 2);
+        base.put("x", "base");
+        Map<String, Object> overrides = new HashMap<>();
+        overrides.put("a.c", 3);
+        PropertyLayer baseLayer = newLayer("base", base);
+        PropertyLayer overrideLayer = newLayer("overrides", overrides);
+        LayeredPropertyResource resource = new LayeredPropertyResource(baseLayer, overrideLayer);
+
+        // when / then
+        overrides.clear();
+        overrides.put("a", "leaf");
+        overrides.put("x.y", true);
+        resource.reloadLayer(overrideLayer);
+        assertThat(resource.getObject(""), equalTo(newMap("a", "leaf", "x", newMap("y", true))));
+        assertThat(resource.getObject("a.b"), nullValue());
+        assertThat(resource.getBoolean("x.y"), equalTo(true));
+        assertThat(resource.getOrigin("a"), sameInstance(overrideLayer));
+
+        overrides.remove("a");
+        resource.reloadLayer(overrideLayer);
+        assertThat(resource.getObject("a"), equalTo(newMap("b", 1, "c", 2)));
+        assertThat(resource.getInt("a.c"), equalTo(2));
+        assertThat(resource.getOrigin("a.c"), sameInstance(baseLayer));
+
+        overrides.clear();
+        resource.reload();
+        assertThat(resource.getObject(""), equalTo(newMap("a", newMap("b", 1, "c", 2), "x", "base")));
+        assertThat(resource.contains("x.y"), equalTo(false));
+    }
+
+    @Test
+    public void shouldSetValueToPersistentLayerAndExport() throws IOException {
+        // given
+        File file = TestUtils.copyFileFromResources("/config-sample.yml", temporaryFolder);
+        PropertyLayer fileLayer = PropertyLayers.resource("file", new YamlFileResource(file));
+        PropertyLayer envLayer = newTextLayer(Collections.singletonMap("APP_VERSION", "7"));
+        LayeredPropertyResource resource = new LayeredPropertyResource(
+            PropertyLayers.defaults(configurationData), fileLayer, envLayer);
+
+        // when
+        resource.setValue("test.systemName", "New name");
+        resource.setValue("version", 99);
+        resource.setValue("features.cool", null);
+        resource.exportProperties(configurationData);
+
+        // then
+        assertThat(resource.getString("test.systemName"), equalTo("New name"));
+        assertThat(resource.getInt("version"), equalTo(7));
+        assertThat(resource.getBoolean("features.cool.enabled"), equalTo(false));
+        assertThat(resource.getOrigin("features.cool.enabled").getName(), equalTo("defaults"));
+
+        String exported = new String(Files.readAllBytes(file.toPath()));
+        assertThat(exported, containsString("systemName: 'New name'"));
+        assertThat(exported, containsString("version: 99"));
+    }
+
+    @Test
+    public void shouldThrowForUnknownLayerOrMissingResource() {
+        // given
+        PropertyLayer layer = newLayer("values", Collections.singletonMap("a", 1));
+        LayeredPropertyResource resource = new LayeredPropertyResource(layer);
+
+        // when / then
+        verifyException(() -> resource.reloadLayer(newLayer("other", Collections.emptyMap())),
+            ConfigMeException.class, "Layer 'other' is not part of this resource");
+        verifyException(() -> resource.setValue("a", 2),
+            ConfigMeException.class, "no layer has a resource");
+        resource.exportProperties(configurationData); // no exception
+        assertThat(resource.getLayers(), contains(layer));
+    }
+
+    private PropertyLayer newTextLayer(Map<String, String> values) {
+        return PropertyLayers.textValues("env", () -> values,
+            path -> "APP_" + path.toUpperCase().replace('.', '_'), configurationData);
+    }
+
+    private static PropertyLayer newLayer(String name, Map<String, ?> values) {
+        return new PropertyLayer() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public Map<String, Object> loadValues() {
+                return new HashMap<>(values);
+            }
+        };
+    }
+
+    private static Map<String, Object> newMap(Object... keysAndValues) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            map.put((String) keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return map;
+    }
+}
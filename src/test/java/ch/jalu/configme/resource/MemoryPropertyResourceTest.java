@@ -0,0 +1,143 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.TestUtils;
+import ch.jalu.configme.configurationdata.ConfigurationData;
+import ch.jalu.configme.configurationdata.ConfigurationDataBuilder;
+import ch.jalu.configme.exception.ConfigMeException;
+import ch.jalu.configme.properties.Property;
+import ch.jalu.configme.samples.TestConfiguration;
+import ch.jalu.configme.samples.TestEnum;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static ch.jalu.configme.TestUtils.getJarPath;
+import static ch.jalu.configme.TestUtils.verifyException;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link MemoryPropertyResource} and {@link MemoryPropertyReader}.
+ */
+public class MemoryPropertyResourceTest {
+
+    private final ConfigurationData configurationData =
+        ConfigurationDataBuilder.collectData(TestConfiguration.class);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldReadYamlAndJsonContent() throws IOException {
+        // given
+        String yaml = new String(Files.readAllBytes(getJarPath("/config-sample.yml")), StandardCharsets.UTF_8);
+        String json = new String(Files.readAllBytes(getJarPath("/config-sample.json")), StandardCharsets.UTF_8);
+
+        // when
+        MemoryPropertyResource yamlResource = MemoryPropertyResource.fromYaml(yaml);
+        MemoryPropertyResource jsonResource = MemoryPropertyResource.fromJson(json);
+
+        // then
+        Map<Property<?>, Object> expected = new HashMap<>();
+        expected.put(TestConfiguration.DURATION_IN_SECONDS, 22);
+        expected.put(TestConfiguration.SYSTEM_NAME, "Custom sys name");
+        expected.put(TestConfiguration.RATIO_ORDER, TestEnum.FIRST);
+        expected.put(TestConfiguration.RATIO_FIELDS, Arrays.asList("Australia", "Burundi", "Colombia"));
+        expected.put(TestConfiguration.VERSION_NUMBER, 2492);
+        expected.put(TestConfiguration.SKIP_BORING_FEATURES, false);
+        expected.put(TestConfiguration.BORING_COLORS, Arrays.asList("beige", "gray"));
+        expected.put(TestConfiguration.DUST_LEVEL, 2);
+        expected.put(TestConfiguration.USE_COOL_FEATURES, true);
+        expected.put(TestConfiguration.COOL_OPTIONS, Arrays.asList("Dinosaurs", "Explosions", "Big trucks"));
+        for (Map.Entry<Property<?>, Object> entry : expected.entrySet()) {
+            assertThat("Property '" + entry.getKey().getPath() + "' has expected value",
+                entry.getKey().getValue(yamlResource), equalTo(entry.getValue()));
+            assertThat("Property '" + entry.getKey().getPath() + "' has expected value (JSON)",
+                entry.getKey().getValue(jsonResource), equalTo(entry.getValue()));
+        }
+    }
+
+    @Test
+    public void shouldExportLikeYamlFileResource() throws IOException {
+        // given
+        File file = TestUtils.copyFileFromResources("/config-sample.yml", temporaryFolder);
+        String yaml = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        MemoryPropertyResource resource = MemoryPropertyResource.fromYaml(yaml);
+        String[] exported = new String[1];
+        resource.setExportListener(buffer -> exported[0] = StandardCharsets.UTF_8.decode(buffer).toString());
+        StringWriter writer = new StringWriter();
+
+        // when
+        resource.exportProperties(configurationData);
+        resource.exportProperties(configurationData, writer);
+        new YamlFileResource(file).exportProperties(configurationData);
+
+        // then
+        String expected = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        assertThat(exported[0], equalTo(expected));
+        assertThat(writer.toString(), equalTo(expected));
+    }
+
+    @Test
+    public void shouldCreateResourceWithDefaultValues() {
+        // given / when
+        MemoryPropertyResource resource = new MemoryPropertyResource(configurationData);
+
+        // then
+        for (Property<?> property : configurationData.getProperties()) {
+            assertThat(property.isPresent(resource), equalTo(true));
+            assertThat(property.getValue(resource), equalTo(property.getDefaultValue()));
+        }
+    }
+
+    @Test
+    public void shouldRestoreExportedValuesOnReload() {
+        // given
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("version", 3);
+        MemoryPropertyResource resource = new MemoryPropertyResource(values);
+        values.put("version", 4);
+        ByteBuffer[] exported = new ByteBuffer[1];
+        resource.setExportListener(buffer -> exported[0] = buffer);
+
+        // when / then
+        resource.setValue("test.duration", 10);
+        assertThat(resource.getInt("test.duration"), equalTo(10));
+        resource.reload();
+        assertThat(resource.getObject("test"), nullValue());
+        assertThat(resource.getInt("version"), equalTo(3));
+
+        resource.setValue("features.cool.options", Arrays.asList("a", "b"));
+        resource.exportProperties(configurationData);
+        resource.setValue("features.cool.options", null);
+        resource.reload();
+        assertThat(TestConfiguration.COOL_OPTIONS.getValue(resource), contains("a", "b"));
+        assertThat(exported[0].isReadOnly(), equalTo(true));
+    }
+
+    @Test
+    public void shouldRejectInvalidContent() {
+        // given
+        ReaderOptions options = new ReaderOptions();
+        options.setMaxDocumentSize(10);
+
+        // when / then
+        verifyException(() -> MemoryPropertyResource.fromYaml("- 1\n- 2\n"),
+            ConfigMeException.class, "Top-level is not a map");
+        verifyException(() -> new MemoryPropertyResource("key: 'some longer value'", options),
+            ConfigMeException.class, "exceeds the maximum size of 10");
+    }
+}
@@ -0,0 +1,233 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.SettingsHolder;
+import ch.jalu.configme.configurationdata.ConfigurationData;
+import ch.jalu.configme.configurationdata.ConfigurationDataBuilder;
+import ch.jalu.configme.exception.ConfigMeException;
+import ch.jalu.configme.samples.TestConfiguration;
+import ch.jalu.configme.samples.TestEnum;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static ch.jalu.configme.TestUtils.verifyException;
+import static ch.jalu.configme.properties.PropertyInitializer.newProperty;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link MultiFilePropertyResource}.
+ */
+public class MultiFilePropertyResourceTest {
+
+    private static final String MAIN_YAML = String.join("\n",
+        "test:",
+        "    duration: 22",
+        "sample:",
+        "    ratio:",
+        "        order: 'first'",
+        "version: 2492",
+        "");
+
+    private static final String FEATURES_YAML = String.join("\n",
+        "features:",
+        "    boring:",
+        "        skip: true",
+        "    cool:",
+        "        options:",
+        "            - 'Dinosaurs'",
+        "");
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final ConfigurationData configurationData =
+        ConfigurationDataBuilder.collectData(TestConfiguration.class);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @After
+    public void shutDownExecutor() {
+        executor.shutdown();
+    }
+
+    @Test
+    public void shouldReadValuesFromAllFiles() throws IOException {
+        // given
+        File mainFile = createFile("main.yml", MAIN_YAML);
+        File featuresFile = createFile("features.yml", FEATURES_YAML);
+
+        // when
+        MultiFilePropertyResource resource = new MultiFilePropertyResource(mainFile,
+            Collections.singletonMap("features", featuresFile), executor);
+
+        // then
+        assertThat(TestConfiguration.DURATION_IN_SECONDS.getValue(resource), equalTo(22));
+        assertThat(TestConfiguration.RATIO_ORDER.getValue(resource), equalTo(TestEnum.FIRST));
+        assertThat(TestConfiguration.SKIP_BORING_FEATURES.getValue(resource), equalTo(true));
+        assertThat(TestConfiguration.COOL_OPTIONS.getValue(resource), contains("Dinosaurs"));
+        Map<?, ?> root = (Map<?, ?>) resource.getObject("");
+        assertThat(root.keySet(), contains("test", "sample", "version", "features"));
+        assertThat(resource.getObject("features.boring.skip"), equalTo(true));
+    }
+
+    @Test
+    public void shouldCreateMissingSectionFile() throws IOException {
+        // given
+        File mainFile = createFile("main.yml", MAIN_YAML);
+        File featuresFile = new File(temporaryFolder.getRoot(), "sections/features.yml");
+
+        // when
+        MultiFilePropertyResource resource = new MultiFilePropertyResource(mainFile,
+            Collections.singletonMap("features", featuresFile), executor);
+        resource.setValue("features.boring.skip", true);
+        resource.exportProperties(configurationData);
+
+        // then
+        assertThat(TestConfiguration.DURATION_IN_SECONDS.getValue(resource), equalTo(22));
+        assertThat(featuresFile.exists(), equalTo(true));
+        assertThat(new String(Files.readAllBytes(featuresFile.toPath()), StandardCharsets.UTF_8),
+            containsString("skip: true"));
+    }
+
+    @Test
+    public void shouldExportPropertiesToTheirFiles() throws IOException {
+        // given
+        File mainFile = createFile("main.yml", MAIN_YAML);
+        File featuresFile = createFile("features.yml", FEATURES_YAML);
+        MultiFilePropertyResource resource = new MultiFilePropertyResource(mainFile,
+            Collections.singletonMap("features", featuresFile), executor);
+
+        // when
+        resource.exportProperties(configurationData);
+
+        // then
+        String mainContent = readFile(mainFile);
+        String featuresContent = readFile(featuresFile);
+        assertThat(mainContent, containsString("duration: 22"));
+        assertThat(mainContent, not(containsString("features")));
+        assertThat(featuresContent, containsString("skip: true"));
+        assertThat(featuresContent, containsString("dustLevel: -1"));
+        assertThat(featuresContent, not(containsString("version")));
+
+        // when (2)
+        resource.setValue("version", 1);
+        resource.setValue("features.boring.dustLevel", 5);
+        resource.exportSection("features", configurationData);
+
+        // then (2)
+        assertThat(readFile(mainFile), equalTo(mainContent));
+        assertThat(readFile(featuresFile), containsString("dustLevel: 5"));
+    }
+
+    @Test
+    public void shouldOnlyReloadModifiedFiles() throws IOException {
+        // given
+        File mainFile = createFile("main.yml", MAIN_YAML);
+        File featuresFile = createFile("features.yml", FEATURES_YAML);
+        MultiFilePropertyResource resource = new MultiFilePropertyResource(mainFile,
+            Collections.singletonMap("features", featuresFile), executor);
+        resource.setValue("version", 1);
+        Files.write(featuresFile.toPath(), "features:\n    boring:\n        dustLevel: 7\n".getBytes());
+
+        // when
+        resource.reload();
+
+        // then
+        assertThat(resource.getInt("version"), equalTo(1));
+        assertThat(resource.getInt("features.boring.dustLevel"), equalTo(7));
+        assertThat(resource.contains("features.cool"), equalTo(false));
+
+        // when (2)
+        resource.reloadSection("");
+
+        // then (2)
+        assertThat(resource.getInt("version"), equalTo(2492));
+    }
+
+    @Test
+    public void shouldSplitValueOfParentPath() throws IOException {
+        // given
+        File mainFile = createFile("main.yml", MAIN_YAML);
+        File featuresFile = createFile("features.yml", FEATURES_YAML);
+        MultiFilePropertyResource resource = new MultiFilePropertyResource(mainFile,
+            Collections.singletonMap("features.cool", featuresFile), executor);
+        Map<String, Object> cool = new HashMap<>();
+        cool.put("enabled", true);
+        Map<String, Object> features = new HashMap<>();
+        features.put("cool", cool);
+        features.put("other", "value");
+
+        // when
+        resource.setValue("features", features);
+        resource.exportProperties(configurationData);
+
+        // then
+        assertThat(resource.getObject("features"), equalTo(features));
+        assertThat(readFile(featuresFile), containsString("enabled: true"));
+        assertThat(readFile(mainFile), not(containsString("cool")));
+    }
+
+    @Test
+    public void shouldRejectPropertyWhichIsParentOfSection() throws IOException {
+        // given
+        File mainFile = createFile("main.yml", MAIN_YAML);
+        File featuresFile = createFile("features.yml", FEATURES_YAML);
+        MultiFilePropertyResource resource = new MultiFilePropertyResource(mainFile,
+            Collections.singletonMap("features.cool", featuresFile), executor);
+        ConfigurationData parentData = new ConfigurationData(Arrays.asList(
+            newProperty("version", 3), newProperty("features", "value")));
+
+        // when
+        verifyException(() -> resource.exportProperties(parentData), ConfigMeException.class,
+            "Property 'features' cannot be exported, since it is a parent of the sections [features.cool]");
+
+        // then
+        assertThat(readFile(mainFile), equalTo(MAIN_YAML));
+        assertThat(readFile(featuresFile), equalTo(FEATURES_YAML));
+    }
+
+    @Test
+    public void shouldCreateResourceForSettingsHolders() throws IOException {
+        // given
+        File mainFile = createFile("main.yml", "");
+        File holderFile = createFile("holder.yml", MAIN_YAML + FEATURES_YAML);
+        Map<Class<? extends SettingsHolder>, File> holderFiles =
+            Collections.singletonMap(TestConfiguration.class, holderFile);
+
+        // when
+        MultiFilePropertyResource resource =
+            MultiFilePropertyResource.forSettingsHolders(mainFile, holderFiles, executor);
+        resource.exportProperties(configurationData);
+
+        // then
+        assertThat(TestConfiguration.VERSION_NUMBER.getValue(resource), equalTo(2492));
+        assertThat(TestConfiguration.SKIP_BORING_FEATURES.getValue(resource), equalTo(true));
+        assertThat(readFile(holderFile), containsString("version: 2492"));
+        assertThat(readFile(mainFile), equalTo(""));
+    }
+
+    private File createFile(String name, String content) throws IOException {
+        File file = temporaryFolder.newFile(name);
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static String readFile(File file) throws IOException {
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    }
+}
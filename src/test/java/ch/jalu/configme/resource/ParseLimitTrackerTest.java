@@ -0,0 +1,155 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.exception.ConfigMeException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * Test for {@link ParseLimitTracker} and the enforcement of the limits defined in {@link ReaderOptions}.
+ */
+public class ParseLimitTrackerTest {
+
+    private static final String NESTED_YAML = String.join("\n",
+        "a:",
+        "    b:",
+        "        c:",
+        "            - 1",
+        "            - - 2",
+        "");
+
+    private static final String ALIAS_YAML = String.join("\n",
+        "a: &x [1, 2, 3]",
+        "b: [*x, *x, *x]",
+        "c: [*x, *x]",
+        "");
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldEnforceNestingDepth() throws IOException {
+        // given
+        ReaderOptions options = new ReaderOptions();
+        options.setMaxNestingDepth(4);
+
+        // when / then
+        verifyLimitExceeded(NESTED_YAML, options, "maximum nesting depth of 4");
+        options.setMaxNestingDepth(5);
+        new SnakeYamlParser().parse(new StringReader(NESTED_YAML), options);
+        new SubsetYamlParser().parse(new StringReader(NESTED_YAML), options);
+    }
+
+    @Test
+    public void shouldEnforceCollectionSize() throws IOException {
+        // given
+        String yaml = "list:\n    - 1\n    - 2\n    - 3\n";
+        ReaderOptions options = new ReaderOptions();
+        options.setMaxCollectionSize(2);
+
+        // when / then
+        verifyLimitExceeded(yaml, options, "maximum size of 2 entries");
+        verifyLimitExceeded("a: 1\nb: 2\nc: 3\n", options, "maximum size of 2 entries");
+        options.setMaxCollectionSize(3);
+        new SnakeYamlParser().parse(new StringReader(yaml), options);
+        new SubsetYamlParser().parse(new StringReader(yaml), options);
+    }
+
+    @Test
+    public void shouldEnforceAliasCount() {
+        // given
+        ReaderOptions options = new ReaderOptions();
+        options.setMaxAliasCount(4);
+
+        // when / then
+        verifyException("maximum number of 4 aliases",
+            () -> new SnakeYamlParser().parse(new StringReader(ALIAS_YAML), options));
+    }
+
+    @Test
+    public void shouldCountNodesReferencedByAliases() throws IOException {
+        // given
+        // 7 levels with 9 aliases each: only 63 aliases, but expands to more than 9^7 nodes
+        StringBuilder yaml = new StringBuilder("l0: &l0 [lol, lol, lol, lol, lol, lol, lol, lol, lol]\n");
+        for (int level = 1; level <= 7; ++level) {
+            String alias = "*l" + (level - 1);
+            yaml.append("l").append(level).append(": &l").append(level).append(" [")
+                .append(String.join(", ", Collections.nCopies(9, alias))).append("]\n");
+        }
+        File file = temporaryFolder.newFile("laughs.yml");
+        Files.write(file.toPath(), yaml.toString().getBytes());
+        ReaderOptions options = new ReaderOptions();
+        options.setMaxAliasCount(100);
+        options.setCompactTree(true);
+
+        // when / then
+        verifyException("maximum number of 100 aliases", () -> new YamlFileReader(file, options));
+        options.setMaxAliasCount(Integer.MAX_VALUE);
+        options.setMaxNestingDepth(10);
+        YamlFileReader reader = new YamlFileReader(file, options); // aliased nodes stay shared in the compact tree
+        assertThat(((List<?>) reader.getObject("l7")).get(0), sameInstance(((List<?>) reader.getObject("l7")).get(8)));
+    }
+
+    @Test
+    public void shouldKeepPreviousValuesIfFileExceedsLimits() throws IOException {
+        // given
+        File file = temporaryFolder.newFile("config.yml");
+        Files.write(file.toPath(), "name: 'old'\n".getBytes());
+        ReaderOptions options = new ReaderOptions();
+        options.setMaxDocumentSize(200);
+        options.setMaxNestingDepth(4);
+        YamlFileReader reader = new YamlFileReader(file, options);
+
+        // when / then
+        verifyReloadFails(reader, file, NESTED_YAML, "maximum nesting depth");
+        StringBuilder largeYaml = new StringBuilder("name: 'new'\n");
+        for (int i = 0; i < 20; ++i) {
+            largeYaml.append("key").append(i).append(": 'value'\n");
+        }
+        verifyReloadFails(reader, file, largeYaml.toString(), "exceeds the maximum size of 200 bytes");
+
+        options.setSnapshotSidecar(true);
+        verifyReloadFails(reader, file, largeYaml.toString(), "exceeds the maximum size of 200 bytes");
+    }
+
+    private static void verifyLimitExceeded(String yaml, ReaderOptions options, String expectedMessage) {
+        verifyException(expectedMessage, () -> new SnakeYamlParser().parse(new StringReader(yaml), options));
+        verifyException(expectedMessage, () -> new SubsetYamlParser().parse(new StringReader(yaml), options));
+    }
+
+    private static void verifyReloadFails(YamlFileReader reader, File file, String yaml,
+                                          String expectedMessage) throws IOException {
+        Files.write(file.toPath(), yaml.getBytes());
+        verifyException(expectedMessage, reader::reload);
+        assertThat(reader.getObject("name"), equalTo("old"));
+    }
+
+    private static void verifyException(String expectedMessage, ThrowingRunnable action) {
+        try {
+            action.run();
+            fail("Expected exception to be thrown");
+        } catch (ConfigMeException e) {
+            assertThat(e.getMessage(), containsString(expectedMessage));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThrowingRunnable {
+        void run() throws IOException;
+    }
+}
@@ -0,0 +1,175 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.TestUtils;
+import ch.jalu.configme.beanmapper.worldgroup.GameMode;
+import ch.jalu.configme.beanmapper.worldgroup.Group;
+import ch.jalu.configme.beanmapper.worldgroup.WorldGroupConfig;
+import ch.jalu.configme.configurationdata.ConfigurationData;
+import ch.jalu.configme.configurationdata.ConfigurationDataBuilder;
+import ch.jalu.configme.exception.ConfigMeException;
+import ch.jalu.configme.properties.BeanProperty;
+import ch.jalu.configme.properties.Property;
+import ch.jalu.configme.samples.TestConfiguration;
+import ch.jalu.configme.samples.TestEnum;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static ch.jalu.configme.TestUtils.getJarPath;
+import static ch.jalu.configme.TestUtils.verifyException;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link PropertiesFileResource}.
+ */
+public class PropertiesFileResourceTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldReadAllProperties() {
+        // given
+        File config = TestUtils.copyFileFromResources("/config-sample.properties", temporaryFolder);
+
+        // when
+        PropertyResource resource = new PropertiesFileResource(config);
+
+        // then
+        Map<Property<?>, Object> expected = new HashMap<>();
+        expected.put(TestConfiguration.DURATION_IN_SECONDS, 22);
+        expected.put(TestConfiguration.SYSTEM_NAME, "Custom sys name");
+        expected.put(TestConfiguration.RATIO_ORDER, TestEnum.FIRST);
+        expected.put(TestConfiguration.RATIO_FIELDS, Arrays.asList("Australia", "Burundi", "Colombia"));
+        expected.put(TestConfiguration.VERSION_NUMBER, 2492);
+        expected.put(TestConfiguration.SKIP_BORING_FEATURES, false);
+        expected.put(TestConfiguration.BORING_COLORS, Arrays.asList("beige", "gray"));
+        expected.put(TestConfiguration.DUST_LEVEL, 2);
+        expected.put(TestConfiguration.USE_COOL_FEATURES, true);
+        expected.put(TestConfiguration.COOL_OPTIONS, Arrays.asList("Dinosaurs", "Explosions", "Big trucks"));
+
+        for (Map.Entry<Property<?>, Object> entry : expected.entrySet()) {
+            assertThat("Property '" + entry.getKey().getPath() + "' has expected value",
+                entry.getKey().getValue(resource), equalTo(entry.getValue()));
+        }
+        assertThat(resource.getString("version"), equalTo("2492"));
+        assertThat(resource.getDouble("test.duration"), equalTo(22.0));
+        assertThat(resource.getBoolean("test.duration"), nullValue());
+        assertThat(resource.contains("features.boring"), equalTo(true));
+        assertThat(resource.contains("features.bor"), equalTo(false));
+    }
+
+    @Test
+    public void shouldReturnSections() {
+        // given
+        File config = TestUtils.copyFileFromResources("/config-sample.properties", temporaryFolder);
+        PropertyResource resource = new PropertiesFileResource(config);
+
+        // when
+        Object boring = resource.getObject("features.boring");
+        Object unknown = resource.getObject("features.bor");
+
+        // then
+        Map<String, Object> expected = new LinkedHashMap<>();
+        expected.put("colors", Arrays.asList("beige", "gray"));
+        expected.put("dustLevel", 2);
+        expected.put("skip", false);
+        assertThat(boring, equalTo(expected));
+        assertThat(unknown, nullValue());
+    }
+
+    @Test
+    public void shouldSetValues() {
+        // given
+        File config = TestUtils.copyFileFromResources("/config-sample.properties", temporaryFolder);
+        PropertyResource resource = new PropertiesFileResource(config);
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("enabled", false);
+        map.put("options", Collections.emptyList());
+
+        // when
+        resource.setValue("features.cool", map);
+        resource.setValue("test.duration", null);
+        resource.setValue("sample.ratio.fields", Arrays.asList("a", "b"));
+
+        // then
+        assertThat(resource.getBoolean("features.cool.enabled"), equalTo(false));
+        assertThat(resource.getList("features.cool.options"), empty());
+        assertThat(resource.contains("features.cool.options.0"), equalTo(false));
+        assertThat(resource.getObject("test.duration"), nullValue());
+        assertThat(resource.getString("test.systemName"), equalTo("Custom sys name"));
+        assertThat((List<?>) resource.getList("sample.ratio.fields"), contains("a", "b"));
+        assertThat(resource.contains("sample.ratio.fields.2"), equalTo(false));
+    }
+
+    @Test
+    public void shouldExportInOrderOfConfigurationData() throws IOException {
+        // given
+        File config = TestUtils.copyFileFromResources("/config-sample.properties", temporaryFolder);
+        PropertyResource resource = new PropertiesFileResource(config);
+        resource.setValue("test.systemName", " Name = with: special #chars\n");
+        ConfigurationData configurationData = ConfigurationDataBuilder.collectData(TestConfiguration.class);
+
+        // when
+        resource.exportProperties(configurationData);
+
+        // then
+        assertThat(Files.readAllLines(config.toPath()),
+            equalTo(Files.readAllLines(getJarPath("/config-export-expected.properties"))));
+        resource.reload();
+        assertThat(TestConfiguration.SYSTEM_NAME.getValue(resource), equalTo(" Name = with: special #chars\n"));
+    }
+
+    @Test
+    public void shouldExportAndReadBeanProperty() throws IOException {
+        // given
+        File config = temporaryFolder.newFile("worlds.properties");
+        PropertyResource resource = new PropertiesFileResource(config);
+        Group group = new Group();
+        group.setWorlds(Arrays.asList("world", "world_nether"));
+        group.setDefaultGamemode(GameMode.CREATIVE);
+        WorldGroupConfig worldGroupConfig = new WorldGroupConfig();
+        worldGroupConfig.setGroups(Collections.singletonMap("default", group));
+        BeanProperty<WorldGroupConfig> property =
+            new BeanProperty<>(WorldGroupConfig.class, "worlds", new WorldGroupConfig());
+        resource.setValue("worlds", worldGroupConfig);
+
+        // when
+        resource.exportProperties(new ConfigurationData(Collections.singletonList(property)));
+        resource.reload();
+
+        // then
+        assertThat(Files.readAllLines(config.toPath()), contains(
+            "worlds.groups.default.default-gamemode=CREATIVE",
+            "worlds.groups.default.worlds.0=world",
+            "worlds.groups.default.worlds.1=world_nether"));
+        WorldGroupConfig result = property.getValue(resource);
+        assertThat(result.getGroups().get("default").getDefaultGamemode(), equalTo(GameMode.CREATIVE));
+        assertThat(result.getGroups().get("default").getWorlds(), contains("world", "world_nether"));
+    }
+
+    @Test
+    public void shouldThrowForSubpathOfRootBean() throws IOException {
+        // given
+        PropertyResource resource = new PropertiesFileResource(temporaryFolder.newFile("config.properties"));
+        resource.setValue("", new WorldGroupConfig());
+
+        // when / then
+        verifyException(() -> resource.setValue("groups", Collections.emptyMap()),
+            ConfigMeException.class, "The root path is a bean property");
+    }
+}
@@ -0,0 +1,93 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.TestUtils;
+import ch.jalu.configme.configurationdata.ConfigurationData;
+import ch.jalu.configme.configurationdata.ConfigurationDataBuilder;
+import ch.jalu.configme.samples.TestConfiguration;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link PropertyExporter} and its implementations.
+ */
+public class PropertyExporterTest {
+
+    private final ConfigurationData configurationData =
+        ConfigurationDataBuilder.collectData(TestConfiguration.class);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldExportYamlLikeFileExport() throws IOException {
+        File file = TestUtils.copyFileFromResources("/config-sample.yml", temporaryFolder);
+        verifyExportsMatchFileExport(new YamlFileResource(file), file);
+    }
+
+    @Test
+    public void shouldExportJsonLikeFileExport() throws IOException {
+        File file = TestUtils.copyFileFromResources("/config-sample.json", temporaryFolder);
+        verifyExportsMatchFileExport(new JsonFileResource(file), file);
+    }
+
+    @Test
+    public void shouldExportPropertiesLikeFileExport() throws IOException {
+        File file = TestUtils.copyFileFromResources("/config-sample.properties", temporaryFolder);
+        verifyExportsMatchFileExport(new PropertiesFileResource(file), file);
+    }
+
+    @Test
+    public void shouldReuseBufferIfLargeEnough() {
+        // given
+        File file = TestUtils.copyFileFromResources("/config-sample.yml", temporaryFolder);
+        YamlFileResource resource = new YamlFileResource(file);
+        ByteBuffer largeBuffer = ByteBuffer.allocateDirect(64 * 1024);
+        largeBuffer.put((byte) 1);
+
+        // when
+        ByteBuffer result1 = resource.exportProperties(configurationData, largeBuffer);
+        int length = result1.remaining();
+        ByteBuffer result2 = resource.exportProperties(configurationData, result1);
+
+        // then
+        assertThat(result1, sameInstance(largeBuffer));
+        assertThat(result2, sameInstance(largeBuffer));
+        assertThat(result2.position(), equalTo(0));
+        assertThat(result2.remaining(), equalTo(length));
+    }
+
+    private <T extends PropertyResource & PropertyExporter> void verifyExportsMatchFileExport(
+        T resource, File file) throws IOException {
+        // given
+        ByteBuffer smallBuffer = ByteBuffer.allocate(16);
+        ByteBuffer smallDirectBuffer = ByteBuffer.allocateDirect(16);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        // when
+        ByteBuffer heapResult = resource.exportProperties(configurationData, smallBuffer);
+        ByteBuffer directResult = resource.exportProperties(configurationData, smallDirectBuffer);
+        resource.exportProperties(configurationData, outputStream);
+        resource.exportProperties(configurationData);
+
+        // then
+        String fileContent = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        assertThat(heapResult, not(sameInstance(smallBuffer)));
+        assertThat(directResult.isDirect(), equalTo(true));
+        assertThat(StandardCharsets.UTF_8.decode(heapResult).toString(), equalTo(fileContent));
+        assertThat(StandardCharsets.UTF_8.decode(directResult).toString(), equalTo(fileContent));
+        assertThat(new String(outputStream.toByteArray(), StandardCharsets.UTF_8), equalTo(fileContent));
+    }
+}
@@ -0,0 +1,141 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.beanmapper.worldgroup.Group;
+import ch.jalu.configme.configurationdata.ConfigurationData;
+import ch.jalu.configme.properties.BeanProperty;
+import ch.jalu.configme.properties.BooleanProperty;
+import ch.jalu.configme.properties.IntegerProperty;
+import ch.jalu.configme.properties.OptionalProperty;
+import ch.jalu.configme.properties.Property;
+import ch.jalu.configme.properties.StringListProperty;
+import ch.jalu.configme.properties.StringProperty;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link ScalarSchema}.
+ */
+public class ScalarSchemaTest {
+
+    private static final String YAML = String.join("\n",
+        "server:",
+        "    port: 8080",
+        "    debug: yes",
+        "    name: 2017",
+        "    motd: ~",
+        "    timeout: 0x1F",
+        "    quoted: '12'",
+        "aliases:",
+        "    - 1.5",
+        "    - true",
+        "group:",
+        "    worlds:",
+        "        - 42",
+        "    limit: 3",
+        "unknown:",
+        "    number: 12",
+        "    flag: off",
+        "    date: 2017-05-07",
+        "    list:",
+        "        - 1",
+        "        - null",
+        "");
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldResolveScalarsWithSchema() throws IOException {
+        // given
+        ReaderOptions options = createOptionsWithSchema();
+
+        // when
+        Object snakeYamlResult = new SnakeYamlParser().parse(new StringReader(YAML), options);
+        Object subsetResult = new SubsetYamlParser().parse(new StringReader(YAML), options);
+
+        // then
+        Map<?, ?> root = (Map<?, ?>) snakeYamlResult;
+        Map<?, ?> server = (Map<?, ?>) root.get("server");
+        assertThat(server.get("port"), equalTo(8080));
+        assertThat(server.get("debug"), equalTo(true));
+        assertThat(server.get("name"), equalTo("2017"));
+        assertThat(server.get("motd"), nullValue());
+        assertThat(server.get("timeout"), equalTo("0x1F"));
+        assertThat(server.get("quoted"), equalTo("12"));
+        assertThat((List<?>) root.get("aliases"), contains("1.5", "true"));
+        Map<?, ?> unknown = (Map<?, ?>) root.get("unknown");
+        assertThat(unknown.get("number"), equalTo("12"));
+        assertThat(unknown.get("flag"), equalTo("off"));
+        assertThat(unknown.get("date"), equalTo("2017-05-07"));
+        assertThat((List<?>) unknown.get("list"), contains("1", null));
+        // Bean property values are resolved as usual
+        Map<?, ?> group = (Map<?, ?>) root.get("group");
+        assertThat((List<?>) group.get("worlds"), contains(42));
+        assertThat(group.get("limit"), equalTo(3));
+
+        assertThat(subsetResult, equalTo(snakeYamlResult));
+    }
+
+    @Test
+    public void shouldResolveAllScalarsForRootBeanProperty() throws IOException {
+        // given
+        ReaderOptions options = new ReaderOptions();
+        options.setScalarSchema(ScalarSchema.forConfigurationData(new ConfigurationData(
+            Collections.singletonList(new BeanProperty<>(Group.class, "", new Group())))));
+
+        // when
+        Object result = new SnakeYamlParser().parse(new StringReader(YAML), options);
+
+        // then
+        assertThat(result, equalTo(new SnakeYamlParser().parse(new StringReader(YAML), new ReaderOptions())));
+    }
+
+    @Test
+    public void shouldNotUseSnapshotOfOtherSchema() throws IOException {
+        // given
+        File file = temporaryFolder.newFile("config.yml");
+        Files.write(file.toPath(), YAML.getBytes());
+        ReaderOptions optionsWithoutSchema = new ReaderOptions();
+        optionsWithoutSchema.setSnapshotSidecar(true);
+        new YamlFileReader(file, optionsWithoutSchema);
+        ReaderOptions optionsWithSchema = createOptionsWithSchema();
+        optionsWithSchema.setSnapshotSidecar(true);
+
+        // when
+        YamlFileReader reader = new YamlFileReader(file, optionsWithSchema);
+
+        // then
+        assertThat(reader.getObject("unknown.number"), equalTo("12"));
+        assertThat(reader.getObject("server.port"), equalTo(8080));
+    }
+
+    private static ReaderOptions createOptionsWithSchema() {
+        List<Property<?>> properties = Arrays.asList(
+            new IntegerProperty("server.port", 80),
+            new OptionalProperty<>(new BooleanProperty("server.debug", false)),
+            new StringProperty("server.name", "default"),
+            new StringProperty("server.motd", "Welcome"),
+            new IntegerProperty("server.timeout", 30),
+            new IntegerProperty("server.quoted", 0),
+            new StringListProperty("aliases"),
+            new BeanProperty<>(Group.class, "group", new Group()));
+        ReaderOptions options = new ReaderOptions();
+        options.setScalarSchema(ScalarSchema.forConfigurationData(new ConfigurationData(properties)));
+        return options;
+    }
+}
@@ -0,0 +1,159 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.TestUtils;
+import ch.jalu.configme.configurationdata.ConfigurationData;
+import ch.jalu.configme.exception.ConfigMeException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static ch.jalu.configme.TestUtils.verifyException;
+import static ch.jalu.configme.properties.PropertyInitializer.newProperty;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link SharedResourceRegistry} and {@link SharedPropertyResource}.
+ */
+public class SharedResourceRegistryTest {
+
+    private final ConfigurationData testData = new ConfigurationData(Arrays.asList(
+        newProperty("test.duration", 4), newProperty("version", 1)));
+    private final ConfigurationData featuresData = new ConfigurationData(Collections.singletonList(
+        newProperty("features.boring.dustLevel", -1)));
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldShareFileAndExportPropertiesOfAllUsers() throws IOException {
+        // given
+        File file = TestUtils.copyFileFromResources("/config-sample.yml", temporaryFolder);
+        SharedResourceRegistry registry = new SharedResourceRegistry();
+        SharedPropertyResource resource1 = registry.acquire(file, testData);
+        SharedPropertyResource resource2 = registry.acquire(
+            new File(file.getParentFile(), "./" + file.getName()), featuresData);
+
+        // when
+        resource1.setValue("version", 5);
+        resource2.exportProperties(featuresData);
+
+        // then
+        assertThat(registry.getReferenceCount(file), equalTo(2));
+        assertThat(resource2.getInt("version"), equalTo(5));
+        String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        assertThat(content, containsString("duration: 22"));
+        assertThat(content, containsString("version: 5"));
+        assertThat(content, containsString("dustLevel: 2"));
+        assertThat(content, not(containsString("skip")));
+    }
+
+    @Test
+    public void shouldOnlyReloadModifiedFile() throws IOException {
+        // given
+        File file = TestUtils.copyFileFromResources("/config-sample.yml", temporaryFolder);
+        SharedResourceRegistry registry = new SharedResourceRegistry();
+        SharedPropertyResource resource1 = registry.acquire(file, testData);
+        SharedPropertyResource resource2 = registry.acquire(file, featuresData);
+        Files.write(file.toPath(), "version: 7\nfeatures:\n    boring:\n        dustLevel: 3\n".getBytes());
+
+        // when
+        resource1.reload();
+        Object features = resource1.getObject("features");
+        resource2.reload();
+
+        // then
+        assertThat(resource2.getInt("version"), equalTo(7));
+        assertThat(resource2.getObject("features"), sameInstance(features));
+
+        // when (2)
+        resource2.setValue("version", 8);
+        resource1.reload();
+
+        // then (2)
+        assertThat(resource2.getInt("version"), equalTo(7));
+    }
+
+    @Test
+    public void shouldReloadFileModifiedWithSameTimeAndLength() throws IOException {
+        // given
+        File file = temporaryFolder.newFile("config.yml");
+        Files.write(file.toPath(), "version: 7\n".getBytes());
+        long lastModified = file.lastModified();
+        SharedResourceRegistry registry = new SharedResourceRegistry();
+        SharedPropertyResource resource = registry.acquire(file, testData);
+        Files.write(file.toPath(), "version: 8\n".getBytes());
+        file.setLastModified(lastModified);
+
+        // when
+        resource.reload();
+
+        // then
+        assertThat(resource.getInt("version"), equalTo(8));
+    }
+
+    @Test
+    public void shouldReleaseFileOnceAllResourcesAreClosed() {
+        // given
+        File file = TestUtils.copyFileFromResources("/config-sample.yml", temporaryFolder);
+        SharedResourceRegistry registry = new SharedResourceRegistry();
+        SharedPropertyResource resource1 = registry.acquire(file, testData);
+        SharedPropertyResource resource2 = registry.acquire(file, featuresData);
+        resource1.setValue("version", 5);
+
+        // when
+        resource1.close();
+        resource1.close();
+
+        // then
+        assertThat(registry.getReferenceCount(file), equalTo(1));
+        verifyException(() -> resource1.getInt("version"), ConfigMeException.class, "closed");
+
+        // when (2)
+        resource2.close();
+        SharedPropertyResource resource3 = registry.acquire(file, testData);
+
+        // then (2)
+        assertThat(resource3.getInt("version"), equalTo(2492));
+        assertThat(registry.getReferenceCount(file), equalTo(1));
+    }
+
+    @Test
+    public void shouldGroupPropertiesOfSharedSectionsOnExport() throws IOException {
+        // given
+        File file = temporaryFolder.newFile("shared.yml");
+        SharedResourceRegistry registry = new SharedResourceRegistry();
+        ConfigurationData dataA = new ConfigurationData(Arrays.asList(
+            newProperty("db.host", "localhost"), newProperty("other.x", 1)));
+        ConfigurationData dataB = new ConfigurationData(Collections.singletonList(
+            newProperty("db.port", 3306)));
+        SharedPropertyResource resourceA = registry.acquire(file, dataA);
+        SharedPropertyResource resourceB = registry.acquire(file, dataB);
+        resourceA.setValue("db.host", "example.org");
+        resourceA.setValue("other.x", 4);
+        resourceB.setValue("db.port", 5432);
+
+        // when
+        resourceB.exportProperties(dataB);
+        resourceA.close();
+        resourceB.close();
+        SharedPropertyResource reloadedResource = registry.acquire(file, dataA);
+
+        // then
+        String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        assertThat(content.split("db:", -1).length, equalTo(2));
+        assertThat(reloadedResource.getString("db.host"), equalTo("example.org"));
+        assertThat(reloadedResource.getInt("db.port"), equalTo(5432));
+        assertThat(reloadedResource.getInt("other.x"), equalTo(4));
+    }
+}
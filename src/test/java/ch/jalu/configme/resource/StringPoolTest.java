@@ -0,0 +1,96 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.TestUtils;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link StringPool}.
+ */
+public class StringPoolTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldReturnPooledInstances() {
+        // given
+        StringPool pool = new StringPool();
+        String key = "permission";
+
+        // when
+        String result1 = pool.internKey(key);
+        String result2 = pool.internKey(new String("permission"));
+        String result3 = pool.internValue(new String("permission"));
+
+        // then
+        assertThat(result1, sameInstance(key));
+        assertThat(result2, sameInstance(key));
+        assertThat(result3, sameInstance(key));
+        assertThat(pool.size(), equalTo(1));
+    }
+
+    @Test
+    public void shouldNotPoolLongValues() {
+        // given
+        StringPool pool = new StringPool(10, 5);
+        String value = "longer than five";
+
+        // when
+        pool.internValue(value);
+        String result = pool.internValue(new String(value));
+
+        // then
+        assertThat(result, not(sameInstance(value)));
+        assertThat(pool.size(), equalTo(0));
+    }
+
+    @Test
+    public void shouldRespectMaximumSize() {
+        // given
+        StringPool pool = new StringPool(2, 10);
+        String a = "a";
+        String b = "b";
+        String c = "c";
+
+        // when
+        pool.internKey(a);
+        pool.internKey(b);
+        pool.internKey(c);
+
+        // then
+        assertThat(pool.size(), equalTo(2));
+        assertThat(pool.internKey(new String("c")), not(sameInstance(c)));
+    }
+
+    @Test
+    public void shouldDeduplicateStringsAcrossReaders() {
+        // given
+        File file = TestUtils.copyFileFromResources("/beanmapper/worlds.yml", temporaryFolder);
+        ReaderOptions options = new ReaderOptions();
+        options.setStringPool(new StringPool());
+
+        // when
+        YamlFileReader reader1 = new YamlFileReader(file, options);
+        YamlFileReader reader2 = new YamlFileReader(file, options);
+
+        // then
+        Map<?, ?> groups1 = (Map<?, ?>) reader1.getObject("groups");
+        Map<?, ?> groups2 = (Map<?, ?>) reader2.getObject("groups");
+        assertThat(groups1, equalTo(groups2));
+        assertThat(groups1.keySet().iterator().next(), sameInstance(groups2.keySet().iterator().next()));
+        List<?> worlds1 = (List<?>) reader1.getObject("groups.default.worlds");
+        List<?> worlds2 = (List<?>) reader2.getObject("groups.default.worlds");
+        assertThat(worlds1.get(0), sameInstance(worlds2.get(0)));
+    }
+}
@@ -0,0 +1,123 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.TestUtils;
+import org.junit.Test;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link SubsetYamlParser}.
+ */
+public class SubsetYamlParserTest {
+
+    private final CountingParser fallbackParser = new CountingParser();
+    private final SubsetYamlParser parser = new SubsetYamlParser(fallbackParser);
+
+    @Test
+    public void shouldParseSupportedDocuments() throws IOException {
+        List<String> documents = Arrays.asList(
+            "",
+            "# only a comment\n\n",
+            "key: value",
+            "a:\n    b: 1\n    c: -23\n    d: 'text with ''quotes'' and # hash'\nroot: true",
+            "list:\n    - 'a'\n    - b\n    - 3\n    -\n    - # comment\nempty: []\nmap: {}  # comment",
+            "list:\n- a\n- b\nnext: 2",
+            "beans:\n    - name: 'x'\n      world: nether\n    - name: y\n      sub:\n          - 1\n          - 2",
+            "nested:\n    - - a\n      - b\n    - - c",
+            "types:\n    bool: yes\n    bool2: Off\n    null1: ~\n    null2: null\n    null3:\n    float: 1.5e3\n"
+                + "    inf: .inf\n    octal: 012\n    hex: 0x1F\n    big: 12345678901\n    huge: 123456789012345678901\n"
+                + "    sexagesimal: 1:30\n    plus: +5\n    neg: -0\n    date: 2017-01-20\n    under: 1_000",
+            "text:\n    url: http://example.org/path#anchor\n    dash: -abc\n    spaces: some   words   \n"
+                + "    unicode: 'Übersicht ✓'\n    tab: '\ttabbed'\n    emptyQuoted: ''",
+            "1: one\ntrue: yes\n~: null key\n3.5: float key",
+            "windows:\r\n    line: endings\r\n    list:\r\n        - 'a'\r\n",
+            "# header\n\ntest:\n    # comment in section\n    duration: 22\n\n    systemName: 'Custom'\n");
+
+        for (String document : documents) {
+            assertParsesLikeSnakeYaml(document);
+        }
+        assertThat(fallbackParser.invocations, equalTo(0));
+    }
+
+    @Test
+    public void shouldParseConfigMeFiles() throws IOException {
+        for (String file : Arrays.asList("/config-sample.yml", "/config-export-expected.yml",
+            "/beanmapper/worlds.yml", "/beanmapper/commands.yml", "/demo/bean_demo_config.yml")) {
+            String yaml = new String(Files.readAllBytes(TestUtils.getJarPath(file)), "UTF-8");
+            assertParsesLikeSnakeYaml(yaml);
+        }
+        assertThat(fallbackParser.invocations, equalTo(0));
+    }
+
+    @Test
+    public void shouldFallBackForUnsupportedConstructs() throws IOException {
+        List<String> documents = Arrays.asList(
+            "anchor: &a 3\nalias: *a",
+            "tagged: !!str 3",
+            "flow: [1, 2]",
+            "flowMap: {a: 1}",
+            "block: |\n    line1\n    line2",
+            "folded: >\n    line1",
+            "double: \"quoted\\n\"",
+            "multi: 'line\n    continued'",
+            "plain: multi\n    line",
+            "---\nkey: value",
+            "'quoted key': 1",
+            "defaults: &d\n    a: 1\nmerged:\n    <<: *d\n    b: 2",
+            "? complex\n: value",
+            "   indented: root");
+
+        for (String document : documents) {
+            fallbackParser.invocations = 0;
+            assertParsesLikeSnakeYaml(document);
+            assertThat("Fallback for: " + document, fallbackParser.invocations, equalTo(1));
+        }
+    }
+
+    @Test
+    public void shouldFallBackForInvalidYaml() throws IOException {
+        List<String> documents = Arrays.asList(
+            "key: value: other",
+            "a: 1\n- b",
+            "a: 1\n  b: 2",
+            "list:\n    - a\n  - b",
+            "123",
+            "key: 'unclosed",
+            "key: 'closed' trailing",
+            "\tkey: tab");
+
+        for (String document : documents) {
+            fallbackParser.invocations = 0;
+            try {
+                parser.parse(new StringReader(document), new ReaderOptions());
+            } catch (RuntimeException e) {
+                // expected for some documents: error comes from the fallback parser
+            }
+            assertThat("Fallback for: " + document, fallbackParser.invocations, equalTo(1));
+        }
+    }
+
+    private void assertParsesLikeSnakeYaml(String yaml) throws IOException {
+        Object result = parser.parse(new StringReader(yaml), new ReaderOptions());
+        assertThat("Result for: " + yaml, result, equalTo(new Yaml().load(yaml)));
+    }
+
+    private static final class CountingParser extends SnakeYamlParser {
+        private int invocations;
+
+        @Override
+        public Object parse(Reader reader, ReaderOptions options) {
+            ++invocations;
+            return super.parse(reader, options);
+        }
+    }
+}
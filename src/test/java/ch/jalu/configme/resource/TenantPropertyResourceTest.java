@@ -0,0 +1,218 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.SettingsManager;
+import ch.jalu.configme.TestUtils;
+import ch.jalu.configme.configurationdata.ConfigurationData;
+import ch.jalu.configme.configurationdata.ConfigurationDataBuilder;
+import ch.jalu.configme.samples.TestConfiguration;
+import ch.jalu.configme.samples.TestEnum;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.anEmptyMap;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link TenantPropertyResource}, {@link TenantPropertyReader} and {@link TenantBase}.
+ */
+public class TenantPropertyResourceTest {
+
+    private final ConfigurationData configurationData =
+        ConfigurationDataBuilder.collectData(TestConfiguration.class);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private TenantBase base;
+
+    @Before
+    public void createBase() {
+        File baseFile = TestUtils.copyFileFromResources("/config-sample.yml", temporaryFolder);
+        base = new TenantBase(configurationData, baseFile);
+    }
+
+    @Test
+    public void shouldShareBaseTreeAndKeepOnlyOverrides() {
+        // given
+        TenantPropertyResource tenant1 = base.createTenantResource(null);
+        TenantPropertyResource tenant2 = base.createTenantResource(null);
+
+        // when
+        tenant1.setValue("test.duration", 50);
+        tenant1.setValue("features.boring.dustLevel", 2); // same as base
+
+        // then
+        TenantPropertyReader reader = tenant1.getTenantReader();
+        assertThat(reader.getOverrides().keySet(), contains("test.duration"));
+        assertThat(reader.getView().get("features"), sameInstance(base.getTree().get("features")));
+        assertThat(((Map<?, ?>) reader.getView().get("test")).get("systemName"),
+            sameInstance(((Map<?, ?>) base.getTree().get("test")).get("systemName")));
+        assertThat(tenant1.getInt("test.duration"), equalTo(50));
+        assertThat(tenant2.getInt("test.duration"), equalTo(22));
+        assertThat(tenant2.getTenantReader().getView(), sameInstance(base.getTree()));
+    }
+
+    @Test
+    public void shouldRemoveOverrideWhenSetToBaseValue() {
+        // given
+        File overlayFile = new File(temporaryFolder.getRoot(), "tenant.yml");
+        TenantPropertyResource tenant = base.createTenantResource(overlayFile);
+        tenant.setValue("features.boring.colors.extra", "x");
+        tenant.setValue("version", 5);
+        tenant.exportProperties(configurationData);
+        boolean overlayFileExisted = overlayFile.exists();
+
+        // when
+        tenant.setValue("features.boring", ((Map<?, ?>) base.getTree().get("features")).get("boring"));
+        tenant.setValue("version", 2492);
+        tenant.exportProperties(configurationData);
+
+        // then
+        assertThat(tenant.getTenantReader().getOverrides(), anEmptyMap());
+        assertThat(tenant.getList("features.boring.colors"), contains("beige", "gray"));
+        assertThat(overlayFileExisted, equalTo(true));
+        assertThat(overlayFile.exists(), equalTo(false));
+    }
+
+    @Test
+    public void shouldSaveOnlyOverriddenProperties() throws IOException {
+        // given
+        File overlayFile = new File(temporaryFolder.getRoot(), "tenant.yml");
+        SettingsManager settingsManager = SettingsManager.createForTenant(base, overlayFile);
+        settingsManager.setProperty(TestConfiguration.RATIO_ORDER, TestEnum.THIRD);
+        settingsManager.setProperty(TestConfiguration.VERSION_NUMBER, 5);
+
+        // when
+        settingsManager.save();
+        SettingsManager loadedSettingsManager = SettingsManager.createForTenant(base, overlayFile);
+
+        // then
+        PropertyResource overlay = new YamlFileResource(overlayFile);
+        assertThat(((Map<?, ?>) overlay.getObject("")).keySet(), contains("sample", "version"));
+        assertThat(overlay.getString("sample.ratio.order"), equalTo("THIRD"));
+        assertThat(loadedSettingsManager.getProperty(TestConfiguration.RATIO_ORDER), equalTo(TestEnum.THIRD));
+        assertThat(loadedSettingsManager.getProperty(TestConfiguration.VERSION_NUMBER), equalTo(5));
+        assertThat(loadedSettingsManager.getProperty(TestConfiguration.DURATION_IN_SECONDS), equalTo(22));
+
+        // when (2)
+        loadedSettingsManager.setProperty(TestConfiguration.VERSION_NUMBER, 2492);
+        loadedSettingsManager.save();
+
+        // then (2)
+        overlay.reload();
+        assertThat(((Map<?, ?>) overlay.getObject("")).keySet(), contains("sample"));
+    }
+
+    @Test
+    public void shouldResolveValuesBelowAndAboveOverrides() {
+        // given
+        TenantPropertyResource tenant = base.createTenantResource(null);
+        tenant.setValue("features.boring", null);
+        tenant.setValue("features.boring.dustLevel", 9);
+        tenant.setValue("sample.ratio.order", "THIRD");
+
+        // when
+        Map<?, ?> features = (Map<?, ?>) tenant.getObject("features");
+
+        // then
+        assertThat(tenant.getTenantReader().getOverrides().keySet(),
+            contains("features.boring", "sample.ratio.order"));
+        assertThat(tenant.getInt("features.boring.dustLevel"), equalTo(9));
+        assertThat(tenant.contains("features.boring.skip"), equalTo(false));
+        assertThat(features.get("cool"), sameInstance(((Map<?, ?>) base.getTree().get("features")).get("cool")));
+        assertThat(((Map<?, ?>) features.get("boring")).keySet(), contains("dustLevel"));
+        assertThat(tenant.getString("sample.ratio.order"), equalTo("THIRD"));
+        assertThat(tenant.getString("test.systemName"), equalTo("Custom sys name"));
+    }
+
+    @Test
+    public void shouldOnlyRetainMemoryForOverrides() {
+        // given
+        Map<String, Object> entries = new LinkedHashMap<>();
+        for (int i = 0; i < 1000; ++i) {
+            entries.put("key" + i, Collections.singletonMap("value", i));
+        }
+        TenantBase largeBase = new TenantBase(configurationData,
+            new MemoryPropertyResource(Collections.singletonMap("entries", entries)));
+        TenantPropertyResource tenant = largeBase.createTenantResource(null);
+        long objectsWithoutOverrides = countObjectsRetainedBesides(tenant.getTenantReader(), largeBase);
+
+        // when
+        tenant.setValue("entries.key500.value", -1);
+        long objectsWithOneOverride = countObjectsRetainedBesides(tenant.getTenantReader(), largeBase);
+        tenant.setValue("entries.key600.value", -1);
+        long objectsWithTwoOverrides = countObjectsRetainedBesides(tenant.getTenantReader(), largeBase);
+
+        // then
+        assertThat(tenant.getInt("entries.key500.value"), equalTo(-1));
+        assertThat(tenant.getInt("entries.key501.value"), equalTo(501));
+        long objectsPerOverride = objectsWithOneOverride - objectsWithoutOverrides;
+        assertThat(objectsPerOverride < 50, equalTo(true));
+        assertThat(objectsWithTwoOverrides - objectsWithOneOverride, equalTo(objectsPerOverride));
+    }
+
+    /**
+     * Estimates the memory which is reachable from the given object but not from the excluded object, as the
+     * number of objects plus the number of array elements (so that copied arrays are accounted for).
+     */
+    private static long countObjectsRetainedBesides(Object object, Object excluded) {
+        Set<Object> excludedObjects = Collections.newSetFromMap(new IdentityHashMap<>());
+        collectReachableObjects(excluded, excludedObjects);
+        Set<Object> objects = Collections.newSetFromMap(new IdentityHashMap<>());
+        collectReachableObjects(object, objects);
+        return objects.stream()
+            .filter(obj -> !excludedObjects.contains(obj))
+            .mapToLong(obj -> obj.getClass().isArray() ? 1 + Array.getLength(obj) : 1)
+            .sum();
+    }
+
+    private static void collectReachableObjects(Object root, Set<Object> objects) {
+        Deque<Object> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Object object = stack.pop();
+            if (object instanceof Class<?> || !objects.add(object)) {
+                continue;
+            }
+            if (object instanceof Object[]) {
+                Arrays.stream((Object[]) object).filter(Objects::nonNull).forEach(stack::push);
+                continue;
+            }
+            for (Class<?> clazz = object.getClass(); clazz != null; clazz = clazz.getSuperclass()) {
+                for (Field field : clazz.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers()) && !field.getType().isPrimitive()) {
+                        field.setAccessible(true);
+                        try {
+                            Object value = field.get(object);
+                            if (value != null) {
+                                stack.push(value);
+                            }
+                        } catch (IllegalAccessException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
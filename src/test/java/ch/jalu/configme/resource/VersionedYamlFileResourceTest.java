@@ -0,0 +1,239 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.TestUtils;
+import ch.jalu.configme.beanmapper.worldgroup.GameMode;
+import ch.jalu.configme.beanmapper.worldgroup.Group;
+import ch.jalu.configme.beanmapper.worldgroup.WorldGroupConfig;
+import ch.jalu.configme.configurationdata.ConfigurationData;
+import ch.jalu.configme.configurationdata.ConfigurationDataBuilder;
+import ch.jalu.configme.exception.ConfigMeException;
+import ch.jalu.configme.properties.BeanProperty;
+import ch.jalu.configme.resource.diff.TreeDiff;
+import ch.jalu.configme.resource.tree.TreeVersion;
+import ch.jalu.configme.samples.TestConfiguration;
+import ch.jalu.configme.samples.TestEnum;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static ch.jalu.configme.TestUtils.verifyException;
+import static org.hamcrest.Matchers.anEmptyMap;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link VersionedYamlFileResource} and {@link VersionedPropertyReader}.
+ */
+public class VersionedYamlFileResourceTest {
+
+    private final ConfigurationData configurationData =
+        ConfigurationDataBuilder.collectData(TestConfiguration.class);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldRollBackToLoadedVersion() throws IOException {
+        // given
+        File file = TestUtils.copyFileFromResources("/config-sample.yml", temporaryFolder);
+        VersionedYamlFileResource resource = new VersionedYamlFileResource(file);
+        Files.write(file.toPath(), "test:\n    duration: -1\n".getBytes());
+        resource.reload();
+
+        // when
+        resource.rollback(1);
+        resource.exportProperties(configurationData);
+
+        // then
+        List<TreeVersion> versions = resource.getVersions();
+        assertThat(versions, hasSize(3));
+        assertThat(versions.get(2).isCommitted(), equalTo(true));
+        assertThat(versions.get(2).getTree(), sameInstance(versions.get(0).getTree()));
+        assertThat(new YamlFileResource(file).getInt("test.duration"), equalTo(22));
+        assertThat(resource.getInt("test.duration"), equalTo(22));
+    }
+
+    @Test
+    public void shouldShareUnchangedNodesBetweenVersions() throws IOException {
+        // given
+        File file = TestUtils.copyFileFromResources("/config-sample.yml", temporaryFolder);
+        VersionedYamlFileResource resource = new VersionedYamlFileResource(file);
+        String content = new String(Files.readAllBytes(file.toPath()));
+
+        // when
+        resource.reload();
+        Files.write(file.toPath(), content.replace("duration: 22", "duration: 30").getBytes());
+        resource.reload();
+
+        // then
+        List<TreeVersion> versions = resource.getVersions();
+        assertThat(versions, hasSize(2));
+        Map<?, ?> oldTree = (Map<?, ?>) versions.get(0).getTree();
+        Map<?, ?> newTree = (Map<?, ?>) versions.get(1).getTree();
+        assertThat(newTree.get("features"), sameInstance(oldTree.get("features")));
+        assertThat(((Map<?, ?>) newTree.get("test")).get("systemName"),
+            sameInstance(((Map<?, ?>) oldTree.get("test")).get("systemName")));
+        assertThat(resource.getInt("test.duration"), equalTo(30));
+        TreeDiff diff = resource.diff(1, 2);
+        assertThat(diff.getChanges(), hasSize(1));
+        assertThat(diff.getChanges().get(0).getPath(), equalTo("test.duration"));
+    }
+
+    @Test
+    public void shouldRetainMaximumNumberOfVersions() {
+        // given
+        File file = TestUtils.copyFileFromResources("/config-sample.yml", temporaryFolder);
+        VersionedYamlFileResource resource = new VersionedYamlFileResource(file, new ReaderOptions(), 2);
+
+        // when
+        for (int i = 0; i < 3; ++i) {
+            resource.setValue("version", i);
+            resource.exportProperties(configurationData);
+        }
+
+        // then
+        List<TreeVersion> versions = resource.getVersions();
+        assertThat(versions, hasSize(2));
+        assertThat(versions.get(0).getNumber(), equalTo(3L));
+        verifyException(() -> resource.rollback(1), ConfigMeException.class, "Version 1 is not available");
+    }
+
+    @Test
+    public void shouldPersistVersionsInHistoryFile() {
+        // given
+        File file = TestUtils.copyFileFromResources("/config-sample.yml", temporaryFolder);
+        VersionedYamlFileResource resource = new VersionedYamlFileResource(file);
+        resource.setHistoryFileEnabled(true);
+        resource.setValue("sample.ratio.order", TestEnum.THIRD);
+        resource.setValue("features.boring.dustLevel", 7);
+        resource.exportProperties(configurationData);
+
+        // when
+        VersionedYamlFileResource restartedResource = new VersionedYamlFileResource(file);
+        restartedResource.setHistoryFileEnabled(true);
+        restartedResource.rollback(1);
+
+        // then
+        assertThat(restartedResource.getVersions(), hasSize(2));
+        assertThat(restartedResource.getHistoryFile().getFile().getName(), equalTo(file.getName() + ".history"));
+        assertThat(restartedResource.getString("sample.ratio.order"), equalTo("first"));
+        assertThat(restartedResource.getInt("features.boring.dustLevel"), equalTo(2));
+        restartedResource.rollback(2);
+        assertThat(TestConfiguration.RATIO_ORDER.getValue(restartedResource), equalTo(TestEnum.THIRD));
+        assertThat(restartedResource.getInt("features.boring.dustLevel"), equalTo(7));
+    }
+
+    @Test
+    public void shouldAppendVersionsToHistoryFileAndDropOldVersions() throws IOException {
+        // given
+        File file = TestUtils.copyFileFromResources("/config-sample.yml", temporaryFolder);
+        VersionedYamlFileResource resource = new VersionedYamlFileResource(file, new ReaderOptions(), 3);
+        resource.setHistoryFileEnabled(true);
+        File historyFile = resource.getHistoryFile().getFile();
+        resource.setValue("features.boring.dustLevel", 10);
+        resource.exportProperties(configurationData);
+        long lengthAfterFirstExport = historyFile.length();
+
+        // when
+        resource.setValue("features.boring.dustLevel", 11);
+        resource.exportProperties(configurationData);
+
+        // then
+        byte[] history = Files.readAllBytes(historyFile.toPath());
+        assertThat(history.length > lengthAfterFirstExport, equalTo(true));
+        assertThat(resource.getHistoryFile().getVersionCount(), equalTo(3));
+
+        // when (2)
+        Files.write(historyFile.toPath(), new byte[]{0, 0, 0, 50, 1, 2}, StandardOpenOption.APPEND);
+        for (int i = 12; i < 20; ++i) {
+            resource.setValue("features.boring.dustLevel", i);
+            resource.exportProperties(configurationData);
+        }
+        VersionedYamlFileResource restartedResource = new VersionedYamlFileResource(file, new ReaderOptions(), 3);
+        restartedResource.setHistoryFileEnabled(true);
+
+        // then (2)
+        assertThat(resource.getHistoryFile().getVersionCount() <= 6, equalTo(true));
+        List<TreeVersion> versions = restartedResource.getVersions();
+        assertThat(versions, hasSize(3));
+        restartedResource.rollback(versions.get(0).getNumber());
+        assertThat(restartedResource.getInt("features.boring.dustLevel"), equalTo(18));
+    }
+
+    @Test
+    public void shouldStoreBeanInHistoryFileByLeafValues() {
+        // given
+        File file = TestUtils.copyFileFromResources("/beanmapper/worlds.yml", temporaryFolder);
+        BeanProperty<WorldGroupConfig> worldGroups =
+            new BeanProperty<>(WorldGroupConfig.class, "", new WorldGroupConfig());
+        ConfigurationData beanData = new ConfigurationData(Collections.singletonList(worldGroups));
+        VersionedYamlFileResource resource = new VersionedYamlFileResource(file);
+        resource.setHistoryFileEnabled(true);
+        Group group = new Group();
+        group.setWorlds(Arrays.asList("easy1", "easy2"));
+        group.setDefaultGamemode(GameMode.CREATIVE);
+        WorldGroupConfig config = new WorldGroupConfig();
+        config.setGroups(Collections.singletonMap("easy", group));
+
+        // when
+        resource.setValue("", config);
+        resource.exportProperties(beanData);
+
+        // then
+        assertThat(resource.getVersions(), hasSize(2));
+        assertThat(resource.getHistoryFile().getVersionCount(), equalTo(2));
+        VersionedYamlFileResource restartedResource = new VersionedYamlFileResource(file);
+        restartedResource.setHistoryFileEnabled(true);
+        restartedResource.rollback(2);
+        WorldGroupConfig result = worldGroups.getValue(restartedResource);
+        assertThat(result.getGroups().keySet(), contains("easy"));
+        assertThat(result.getGroups().get("easy").getWorlds(), contains("easy1", "easy2"));
+        assertThat(result.getGroups().get("easy").getDefaultGamemode(), equalTo(GameMode.CREATIVE));
+    }
+
+    @Test
+    public void shouldNotAddVersionWhichCannotBeStoredInHistoryFile() throws IOException {
+        // given
+        File file = TestUtils.copyFileFromResources("/config-sample.yml", temporaryFolder);
+        String content = new String(Files.readAllBytes(file.toPath()));
+        VersionedYamlFileResource resource = new VersionedYamlFileResource(file);
+        resource.setHistoryFileEnabled(true);
+        resource.setValue("features.boring.dustLevel", new Object());
+
+        // when
+        verifyException(() -> resource.exportProperties(configurationData), ConfigMeException.class, "Unsupported value");
+
+        // then
+        assertThat(resource.getVersions(), hasSize(1));
+        assertThat(resource.getHistoryFile().getVersionCount(), equalTo(1));
+        assertThat(new String(Files.readAllBytes(file.toPath())), equalTo(content));
+    }
+
+    @Test
+    public void shouldReleaseTreeOfSourceReader() {
+        // given
+        File file = TestUtils.copyFileFromResources("/config-sample.yml", temporaryFolder);
+        YamlFileReader source = new YamlFileReader(file);
+
+        // when
+        VersionedPropertyReader reader = new VersionedPropertyReader(source);
+        reader.reload("test");
+
+        // then
+        assertThat((Map<?, ?>) source.getObject(""), anEmptyMap());
+        assertThat(reader.getObject("test.duration"), equalTo(22));
+        assertThat(reader.getObject("test.systemName"), equalTo("Custom sys name"));
+    }
+}
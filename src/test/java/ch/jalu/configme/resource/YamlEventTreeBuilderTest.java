@@ -0,0 +1,110 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.TestUtils;
+import ch.jalu.configme.exception.ConfigMeException;
+import org.junit.Test;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.YAMLException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+
+import static ch.jalu.configme.TestUtils.verifyException;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link YamlEventTreeBuilder}.
+ */
+public class YamlEventTreeBuilderTest {
+
+    @Test
+    public void shouldBuildSameTreeAsSnakeYaml() throws IOException {
+        for (String file : Arrays.asList("/config-sample.yml", "/config-difficult-values.yml",
+            "/beanmapper/worlds.yml", "/beanmapper/commands.yml", "/demo/bean_demo_config.yml")) {
+            // given
+            Path path = TestUtils.getJarPath(file);
+            String yaml = new String(Files.readAllBytes(path), "UTF-8");
+
+            // when
+            Object result = new YamlEventTreeBuilder(new StringReader(yaml)).readDocument();
+
+            // then
+            assertThat("Tree of " + file, result, equalTo(new Yaml().load(yaml)));
+        }
+    }
+
+    @Test
+    public void shouldReturnNullForEmptyDocument() {
+        // given
+        Reader reader = new StringReader("# only a comment\n");
+
+        // when
+        Object result = new YamlEventTreeBuilder(reader).readDocument();
+
+        // then
+        assertThat(result, nullValue());
+    }
+
+    @Test
+    public void shouldThrowForUnknownAlias() {
+        // given
+        YamlEventTreeBuilder treeBuilder = new YamlEventTreeBuilder(new StringReader("a: *unknown"));
+
+        // when / then
+        verifyException(treeBuilder::readDocument, ConfigMeException.class, "undefined alias 'unknown'");
+    }
+
+    @Test
+    public void shouldThrowForUnsupportedTag() {
+        // given
+        YamlEventTreeBuilder treeBuilder = new YamlEventTreeBuilder(new StringReader("a: !foo 3"));
+
+        // when / then
+        verifyException(treeBuilder::readDocument, ConfigMeException.class, "Unsupported tag");
+    }
+
+    @Test
+    public void shouldThrowForUnsupportedCollectionTag() {
+        // given
+        YamlEventTreeBuilder treeBuilder = new YamlEventTreeBuilder(new StringReader("a: !!set {x, y}"));
+
+        // when / then
+        verifyException(treeBuilder::readDocument, ConfigMeException.class, "Unsupported tag 'tag:yaml.org,2002:set'");
+    }
+
+    @Test
+    public void shouldThrowForMultipleDocuments() {
+        // given
+        YamlEventTreeBuilder treeBuilder = new YamlEventTreeBuilder(new StringReader("a: 1\n---\na: 2"));
+
+        // when / then
+        verifyException(treeBuilder::readDocument, ConfigMeException.class, "Expected a single document");
+    }
+
+    @Test
+    public void shouldLoadWithSnakeYamlComposerForDefaultOptions() {
+        // given
+        SnakeYamlParser parser = new SnakeYamlParser();
+        ReaderOptions optionsWithPool = new ReaderOptions();
+        optionsWithPool.setStringPool(new StringPool());
+
+        // when
+        Object result = parser.parse(new StringReader("a: !!set {x, y}"), new ReaderOptions());
+
+        // then
+        assertThat(((Map<?, ?>) result).get("a"), instanceOf(Set.class));
+        verifyException(() -> parser.parse(new StringReader("a: 1\n---\na: 2"), new ReaderOptions()),
+            YAMLException.class, "expected a single document");
+        verifyException(() -> parser.parse(new StringReader("a: 1\n---\na: 2"), optionsWithPool),
+            ConfigMeException.class, "Expected a single document");
+    }
+}
@@ -0,0 +1,193 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.exception.ConfigMeException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.yaml.snakeyaml.error.YAMLException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static ch.jalu.configme.TestUtils.verifyException;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for the resolution of {@code !include} tags by {@link YamlFileReader}.
+ */
+public class YamlFileReaderIncludeTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldResolveIncludes() throws IOException {
+        // given
+        File mainFile = createFile("main.yml",
+            "name: 'main'\nregions: !include 'sub/regions.yml'\nlist:\n    - 1\n    - !include item.yml\n");
+        temporaryFolder.newFolder("sub");
+        createFile("sub/regions.yml", "eu:\n    count: 3\nus: !include ../item.yml\n");
+        createFile("item.yml", "value: 'included'\n");
+
+        // when
+        YamlFileReader reader = new YamlFileReader(mainFile, newOptions(new CountingParser()));
+
+        // then
+        assertThat(reader.getObject("name"), equalTo("main"));
+        assertThat(reader.getObject("regions.eu.count"), equalTo(3));
+        assertThat(reader.getObject("regions.us.value"), equalTo("included"));
+        List<?> list = reader.getTypedObject("list", List.class);
+        assertThat(list.get(0), equalTo(1));
+        assertThat(((Map<?, ?>) list.get(1)).get("value"), equalTo("included"));
+    }
+
+    @Test
+    public void shouldOnlyParseChangedFilesOnReload() throws IOException {
+        // given
+        File mainFile = createFile("main.yml", "name: 'main'\nregions: !include regions.yml\n");
+        File regionsFile = createFile("regions.yml", "eu: 1\n");
+        CountingParser parser = new CountingParser();
+        YamlFileReader reader = new YamlFileReader(mainFile, newOptions(parser));
+        reader.set("regions.us", 2);
+        reader.set("name", "changed");
+
+        // when
+        reader.reload();
+
+        // then
+        assertThat(parser.parsedFiles, equalTo(2));
+        assertThat(reader.getObject("regions.us"), equalTo(null));
+        assertThat(reader.getObject("name"), equalTo("main"));
+
+        // when (2)
+        Files.write(regionsFile.toPath(), "eu: 3\nus: 4\n".getBytes());
+        reader.reload();
+
+        // then (2)
+        assertThat(parser.parsedFiles, equalTo(3));
+        assertThat(parser.parsedContents.get(2), equalTo("eu: 3\nus: 4\n"));
+        assertThat(reader.getObject("regions.eu"), equalTo(3));
+        assertThat(reader.getObject("regions.us"), equalTo(4));
+    }
+
+    @Test
+    public void shouldRejectIncludeCycle() throws IOException {
+        // given
+        File mainFile = createFile("main.yml", "a: !include other.yml\n");
+        createFile("other.yml", "b: !include main.yml\n");
+
+        // when / then
+        verifyException(() -> new YamlFileReader(mainFile, newOptions(new SnakeYamlParser())),
+            ConfigMeException.class, "Include cycle detected");
+    }
+
+    @Test
+    public void shouldReportChainOfIndirectIncludeCycle() throws IOException {
+        // given
+        File mainFile = createFile("main.yml", "a: !include other.yml\n");
+        File otherFile = createFile("other.yml", "b: !include third.yml\n");
+        File thirdFile = createFile("third.yml", "c: !include other.yml\n");
+
+        // when / then
+        verifyException(() -> new YamlFileReader(mainFile, newOptions(new SnakeYamlParser())),
+            ConfigMeException.class, "Include cycle detected: '" + otherFile.getCanonicalFile() + "' -> '"
+                + thirdFile.getCanonicalFile() + "' -> '" + otherFile.getCanonicalFile() + "'");
+    }
+
+    @Test
+    public void shouldCountRepeatedIncludesAgainstAliasLimit() throws IOException {
+        // given
+        // every level includes the level below twice, so the resolved tree doubles with each level
+        File mainFile = createFile("main.yml", "a: !include level1.yml\nb: !include level1.yml\n");
+        for (int i = 1; i < 20; ++i) {
+            createFile("level" + i + ".yml",
+                "a: !include level" + (i + 1) + ".yml\nb: !include level" + (i + 1) + ".yml\n");
+        }
+        createFile("level20.yml", "value: 'leaf'\n");
+        ReaderOptions options = newOptions(new SnakeYamlParser());
+        options.setMaxAliasCount(1000);
+
+        // when / then
+        verifyException(() -> new YamlFileReader(mainFile, options),
+            ConfigMeException.class, "Document exceeds the maximum number of 1000 aliases at include of");
+    }
+
+    @Test
+    public void shouldAllowRepeatedIncludesWithinAliasLimit() throws IOException {
+        // given
+        File mainFile = createFile("main.yml", "a: !include item.yml\nb: !include item.yml\n");
+        createFile("item.yml", "value: 'included'\n");
+        ReaderOptions options = newOptions(new SnakeYamlParser());
+        options.setMaxAliasCount(2);
+
+        // when
+        YamlFileReader reader = new YamlFileReader(mainFile, options);
+
+        // then
+        assertThat(reader.getObject("a.value"), equalTo("included"));
+        assertThat(reader.getObject("b.value"), equalTo("included"));
+    }
+
+    @Test
+    public void shouldNotResolveIncludesByDefault() throws IOException {
+        // given
+        File mainFile = createFile("main.yml", "a: !include other.yml\n");
+
+        // when / then
+        verifyException(() -> new YamlFileReader(mainFile), YAMLException.class, "Invalid tag: !include");
+    }
+
+    @Test
+    public void shouldFallBackFromSubsetParserForIncludes() throws IOException {
+        // given
+        File mainFile = createFile("main.yml", "list: !include list.yml\n");
+        createFile("list.yml", "- 'a'\n- 'b'\n");
+
+        // when
+        YamlFileReader reader = new YamlFileReader(mainFile, newOptions(new SubsetYamlParser()));
+
+        // then
+        assertThat(reader.getObject("list"), equalTo(Arrays.asList("a", "b")));
+    }
+
+    private File createFile(String name, String content) throws IOException {
+        File file = new File(temporaryFolder.getRoot(), name);
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static ReaderOptions newOptions(YamlParser parser) {
+        ReaderOptions options = new ReaderOptions();
+        options.setParser(parser);
+        options.setIncludes(true);
+        return options;
+    }
+
+    private static final class CountingParser implements YamlParser {
+
+        private final YamlParser parser = new SnakeYamlParser();
+        private final List<String> parsedContents = new ArrayList<>();
+        private int parsedFiles;
+
+        @Override
+        public Object parse(Reader reader, ReaderOptions options) throws IOException {
+            StringBuilder sb = new StringBuilder();
+            char[] buffer = new char[1024];
+            for (int read = reader.read(buffer); read >= 0; read = reader.read(buffer)) {
+                sb.append(buffer, 0, read);
+            }
+            ++parsedFiles;
+            parsedContents.add(sb.toString());
+            return parser.parse(new StringReader(sb.toString()), options);
+        }
+    }
+}
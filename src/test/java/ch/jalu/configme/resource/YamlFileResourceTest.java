@@ -3,6 +3,7 @@ package ch.jalu.configme.resource;
 import ch.jalu.configme.SettingsManager;
 import ch.jalu.configme.TestUtils;
 import ch.jalu.configme.beanmapper.command.CommandConfig;
+import ch.jalu.configme.beanmapper.leafproperties.LeafPropertiesGenerator;
 import ch.jalu.configme.beanmapper.worldgroup.GameMode;
 import ch.jalu.configme.beanmapper.worldgroup.Group;
 import ch.jalu.configme.beanmapper.worldgroup.WorldGroupConfig;
@@ -13,6 +14,8 @@ import ch.jalu.configme.migration.PlainMigrationService;
 import ch.jalu.configme.properties.BeanProperty;
 import ch.jalu.configme.properties.OptionalProperty;
 import ch.jalu.configme.properties.Property;
+import ch.jalu.configme.resource.tree.CompactList;
+import ch.jalu.configme.resource.tree.CompactMap;
 import ch.jalu.configme.samples.TestConfiguration;
 import ch.jalu.configme.samples.TestEnum;
 import org.junit.Rule;
@@ -20,7 +23,10 @@ import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
@@ -29,6 +35,8 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
 
 import static ch.jalu.configme.TestUtils.getJarPath;
 import static ch.jalu.configme.TestUtils.verifyException;
@@ -41,6 +49,7 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 
@@ -476,7 +485,294 @@ public class YamlFileResourceTest {
         assertThat((Map<?, ?>) resource.getObject("abc.def"), anEmptyMap());
     }
 
+    @Test
+    public void shouldReadAndSetValuesWithCompactTree() {
+        // given
+        File file = copyFileFromResources(COMPLETE_FILE);
+        ReaderOptions options = new ReaderOptions();
+        options.setCompactTree(true);
+        PropertyResource resource = new YamlFileResource(file, options);
+        Object boringSection = resource.getObject("features.boring");
+
+        // when
+        resource.setValue("features.cool.enabled", false);
+        resource.setValue("features.cool.options", null);
+        resource.setValue("new.entry", "test");
+
+        // then
+        assertThat(resource.getObject("features.boring.colors"), instanceOf(CompactList.class));
+        assertThat(resource.getObject("features.cool"), instanceOf(CompactMap.class));
+        assertThat(resource.getBoolean("features.cool.enabled"), equalTo(false));
+        assertThat(resource.getObject("features.cool.options"), nullValue());
+        assertThat(resource.getString("new.entry"), equalTo("test"));
+        assertThat(TestConfiguration.RATIO_FIELDS.getValue(resource), contains("Australia", "Burundi", "Colombia"));
+        // Unchanged sections are the same objects
+        assertThat(resource.getObject("features.boring"), sameInstance(boringSection));
+    }
+
+    @Test
+    public void shouldSetBeanAtRootWithCompactTree() {
+        // given
+        File file = copyFileFromResources("/beanmapper/commands_root_path.yml");
+        ReaderOptions options = new ReaderOptions();
+        options.setCompactTree(true);
+        PropertyResource resource = new YamlFileResource(file, options);
+        CommandConfig newConfig = new CommandConfig();
+
+        // when
+        resource.setValue("", newConfig);
+
+        // then
+        assertThat(resource.getObject(""), equalTo(newConfig));
+        assertThat(resource.getObject("commands.save"), nullValue());
+    }
+
+    @Test
+    public void shouldReloadSingleSection() throws IOException {
+        // given
+        File file = copyFileFromResources(COMPLETE_FILE);
+        PropertyResource resource = new YamlFileResource(file);
+        resource.setValue("test.duration", 99);
+        resource.setValue("features.boring.dustLevel", 10);
+        resource.setValue("features.cool.enabled", false);
+        String content = new String(Files.readAllBytes(file.toPath()));
+        content = content.replace("dustLevel: 2", "dustLevel: 7").replace("duration: 22", "duration: 33")
+            .replace("skip: false", "skip: true");
+        Files.write(file.toPath(), content.getBytes());
+
+        // when
+        resource.reload("features.boring");
+
+        // then
+        assertThat(resource.getInt("features.boring.dustLevel"), equalTo(7));
+        assertThat(resource.getBoolean("features.boring.skip"), equalTo(true));
+        assertThat(resource.getList("features.boring.colors"), contains("beige", "gray"));
+        assertThat(resource.getInt("test.duration"), equalTo(99));
+        assertThat(resource.getBoolean("features.cool.enabled"), equalTo(false));
+    }
+
+    @Test
+    public void shouldReloadSectionFromMergedMapping() throws IOException {
+        // given
+        File file = temporaryFolder.newFile("config.yml");
+        Files.write(file.toPath(), "base: &b {db: {host: x}}\nprod: {name: p}\n".getBytes());
+        PropertyResource resource = new YamlFileResource(file);
+        Files.write(file.toPath(), "base: &b {db: {host: x}}\nprod: {<<: *b, name: p}\n".getBytes());
+
+        // when
+        resource.reload("prod.db");
+
+        // then
+        assertThat(resource.getString("prod.db.host"), equalTo("x"));
+        assertThat(resource.getObject("prod.name"), equalTo("p"));
+    }
+
+    @Test
+    public void shouldApplyNestingLimitToSkippedNodes() throws IOException {
+        // given
+        File file = temporaryFolder.newFile("config.yml");
+        Files.write(file.toPath(), "a: 1\nb: 2\n".getBytes());
+        ReaderOptions options = new ReaderOptions();
+        options.setMaxNestingDepth(50);
+        PropertyResource resource = new YamlFileResource(file, options);
+        StringBuilder content = new StringBuilder("a: ");
+        for (int i = 0; i < 20_000; ++i) {
+            content.append('[');
+        }
+        for (int i = 0; i < 20_000; ++i) {
+            content.append(']');
+        }
+        Files.write(file.toPath(), content.append("\nb: 3\n").toString().getBytes());
+
+        // when / then
+        verifyException(() -> resource.reload("b"),
+            ConfigMeException.class, "Document exceeds the maximum nesting depth of 50");
+    }
+
+    @Test
+    public void shouldRemoveReloadedSectionMissingInFileWithCompactTree() throws IOException {
+        // given
+        File file = copyFileFromResources(COMPLETE_FILE);
+        ReaderOptions options = new ReaderOptions();
+        options.setCompactTree(true);
+        PropertyResource resource = new YamlFileResource(file, options);
+        resource.setValue("features.cool.enabled", false);
+        resource.setValue("new.entry", "test");
+        Files.write(file.toPath(), "features:\n    cool:\n        options: ['Lasers']\n".getBytes());
+
+        // when
+        resource.reload("features.cool");
+        resource.reload("features.boring");
+
+        // then
+        assertThat(resource.getObject("features.cool"), instanceOf(CompactMap.class));
+        assertThat(resource.getList("features.cool.options"), contains("Lasers"));
+        assertThat(resource.getObject("features.cool.enabled"), nullValue());
+        assertThat(resource.getObject("features.boring"), nullValue());
+        assertThat(resource.getString("new.entry"), equalTo("test"));
+        assertThat(resource.getInt("version"), equalTo(2492));
+    }
+
+    @Test
+    public void shouldReadAndWriteGzipFile() throws IOException {
+        // given
+        File file = temporaryFolder.newFile("config.yml.gz");
+        try (OutputStream output = new GZIPOutputStream(new FileOutputStream(file))) {
+            output.write(Files.readAllBytes(copyFileFromResources(COMPLETE_FILE).toPath()));
+        }
+        YamlFileResource resource = new YamlFileResource(file);
+        resource.setCompressionLevel(Deflater.BEST_COMPRESSION);
+        resource.setValue("test.duration", 50);
+        ConfigurationData configurationData = ConfigurationDataBuilder.collectData(TestConfiguration.class);
+
+        // when
+        resource.exportProperties(configurationData);
+        resource.reload();
+        resource.reload("features.boring");
+
+        // then
+        assertThat(isGzipFile(file), equalTo(true));
+        assertThat(resource.getInt("test.duration"), equalTo(50));
+        assertThat(resource.getInt("version"), equalTo(2492));
+        assertThat(resource.getList("features.boring.colors"), contains("beige", "gray"));
+    }
+
+    @Test
+    public void shouldKeepCompressedFileWithoutGzipExtensionCompressed() throws IOException {
+        // given
+        File file = temporaryFolder.newFile("config.yml");
+        try (OutputStream output = new GZIPOutputStream(new FileOutputStream(file))) {
+            output.write("test:\n    duration: 7\n".getBytes(StandardCharsets.UTF_8));
+        }
+        ReaderOptions options = new ReaderOptions();
+        options.setSnapshotSidecar(true);
+        YamlFileResource resource = new YamlFileResource(file, options);
+        ConfigurationData configurationData = ConfigurationDataBuilder.collectData(TestConfiguration.class);
+
+        // when
+        resource.exportProperties(configurationData);
+        resource.reload();
+
+        // then
+        assertThat(isGzipFile(file), equalTo(true));
+        assertThat(resource.getInt("test.duration"), equalTo(7));
+        assertThat(resource.getString("test.systemName"), equalTo("[TestDefaultValue]"));
+    }
+
+    @Test
+    public void shouldWriteSnapshotOfAliasesWithoutExpandingThem() throws IOException {
+        // given
+        File file = temporaryFolder.newFile("laughs.yml");
+        StringBuilder content = new StringBuilder("a: &a [lol, lol, lol, lol, lol, lol, lol, lol, lol]\n");
+        for (char level = 'b'; level <= 'g'; ++level) {
+            String alias = "*" + (char) (level - 1);
+            content.append(level).append(": &").append(level).append(" [")
+                .append(String.join(", ", Collections.nCopies(9, alias))).append("]\n");
+        }
+        Files.write(file.toPath(), content.toString().getBytes(StandardCharsets.UTF_8));
+        ReaderOptions options = new ReaderOptions();
+        options.setSnapshotSidecar(true);
+
+        // when
+        new YamlFileReader(file, options);
+        YamlFileReader readerFromSnapshot = new YamlFileReader(file, options);
+
+        // then
+        File snapshotFile = new File(file.getParentFile(), "laughs.yml.snapshot");
+        assertThat(snapshotFile.length() < 1000, equalTo(true));
+        List<?> levelG = readerFromSnapshot.getTypedObject("g", List.class);
+        assertThat(levelG.get(8), sameInstance(readerFromSnapshot.getObject("f")));
+    }
+
+    @Test
+    public void shouldLoadSelfReferencingAnchorWithSnapshot() throws IOException {
+        // given
+        File file = temporaryFolder.newFile("recursive.yml");
+        Files.write(file.toPath(), "a: &x [1, *x]\n".getBytes(StandardCharsets.UTF_8));
+        ReaderOptions options = new ReaderOptions();
+        options.setSnapshotSidecar(true);
+
+        // when
+        new YamlFileReader(file, options);
+        YamlFileReader readerFromSnapshot = new YamlFileReader(file, options);
+
+        // then
+        assertThat(new File(file.getParentFile(), "recursive.yml.snapshot").isFile(), equalTo(true));
+        List<?> list = readerFromSnapshot.getTypedObject("a", List.class);
+        assertThat(list.get(0), equalTo(1));
+        assertThat(list.get(1), sameInstance(list));
+    }
+
+    @Test
+    public void shouldApplyMaximumSizeToDecompressedContent() throws IOException {
+        // given
+        File file = temporaryFolder.newFile("config.yml.gz");
+        try (OutputStream output = new GZIPOutputStream(new FileOutputStream(file))) {
+            output.write(("text: '" + String.join("", Collections.nCopies(5000, "a")) + "'\n")
+                .getBytes(StandardCharsets.UTF_8));
+        }
+        ReaderOptions options = new ReaderOptions();
+        options.setMaxDocumentSize(1000);
+
+        // when / then
+        verifyException(() -> new YamlFileReader(file, options), ConfigMeException.class, "exceeds the maximum size");
+    }
+
+    @Test
+    public void shouldMaintainContentHashes() {
+        // given
+        File file = copyFileFromResources(COMPLETE_FILE);
+        ReaderOptions options = new ReaderOptions();
+        options.setContentHashes(true);
+        PropertyResource resource = new YamlFileResource(file, options);
+        long rootHash = resource.getContentHash("");
+        long featuresHash = resource.getContentHash("features");
+
+        // when
+        resource.setValue("test.duration", 50);
+        long changedRootHash = resource.getContentHash("");
+        resource.setValue("test.duration", 22);
+
+        // then
+        assertThat(changedRootHash, not(equalTo(rootHash)));
+        assertThat(resource.getContentHash("features"), equalTo(featuresHash));
+        assertThat(resource.getContentHash(""), equalTo(rootHash));
+        assertThat(rootHash, equalTo(new YamlFileResource(file).getContentHash("")));
+    }
+
+    private static boolean isGzipFile(File file) throws IOException {
+        byte[] content = Files.readAllBytes(file.toPath());
+        return content.length > 2 && (content[0] & 0xFF) == 0x1f && (content[1] & 0xFF) == 0x8b;
+    }
+
     private File copyFileFromResources(String path) {
         return TestUtils.copyFileFromResources(path, temporaryFolder);
     }
+
+    @Test
+    public void shouldUseOverriddenYamlWriterOnExport() throws IOException {
+        // given
+        File file = TestUtils.copyFileFromResources("/config-sample.yml", temporaryFolder);
+        ConfigurationData configurationData = ConfigurationDataBuilder.collectData(TestConfiguration.class);
+        YamlFileResource resource = new YamlFileResource(file) {
+            @Override
+            protected YamlPropertyWriter createYamlWriter() {
+                return new YamlPropertyWriter(this, new LeafPropertiesGenerator()) {
+                    @Override
+                    protected String transformValue(Property<?> property, Object value) {
+                        return value instanceof Integer ? "0x" + Integer.toHexString((Integer) value)
+                            : super.transformValue(property, value);
+                    }
+                };
+            }
+        };
+
+        // when
+        resource.exportProperties(configurationData);
+
+        // then
+        String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        assertThat(content.contains("version: 0x9bc"), equalTo(true));
+        assertThat(content.contains("- 'beige'"), equalTo(true));
+    }
 }
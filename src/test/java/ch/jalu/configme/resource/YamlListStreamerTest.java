@@ -0,0 +1,194 @@
+package ch.jalu.configme.resource;
+
+import ch.jalu.configme.TestUtils;
+import ch.jalu.configme.exception.ConfigMeException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import static ch.jalu.configme.TestUtils.verifyException;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link YamlListStreamer}.
+ */
+public class YamlListStreamerTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldStreamListEntries() {
+        // given
+        File file = TestUtils.copyFileFromResources("/config-sample.yml", temporaryFolder);
+
+        // when
+        List<Object> result;
+        try (Stream<Object> stream = YamlListStreamer.streamList(file, "features.cool.options")) {
+            result = stream.collect(Collectors.toList());
+        }
+
+        // then
+        assertThat(result, contains("Dinosaurs", "Explosions", "Big trucks"));
+    }
+
+    @Test
+    public void shouldReturnSameEntriesAsReader() {
+        // given
+        File file = TestUtils.copyFileFromResources("/config-difficult-values.yml", temporaryFolder);
+        YamlFileReader reader = new YamlFileReader(file);
+
+        // when
+        List<Object> fields = YamlListStreamer.streamList(file, "sample.ratio.fields").collect(Collectors.toList());
+        List<Object> colors = YamlListStreamer.streamList(file, "features.boring.colors").collect(Collectors.toList());
+        List<Object> options = YamlListStreamer.streamList(file, "features.cool.options").collect(Collectors.toList());
+
+        // then
+        assertThat(fields, equalTo(reader.getObject("sample.ratio.fields")));
+        assertThat(colors, equalTo(reader.getObject("features.boring.colors")));
+        assertThat(options, empty());
+    }
+
+    @Test
+    public void shouldReturnNullForMissingOrNonListPath() {
+        // given
+        File file = TestUtils.copyFileFromResources("/config-sample.yml", temporaryFolder);
+
+        // when / then
+        assertThat(YamlListStreamer.streamList(file, "features.cool.bogus"), nullValue());
+        assertThat(YamlListStreamer.streamList(file, "features.cool.enabled.sub"), nullValue());
+        assertThat(YamlListStreamer.streamList(file, "features.cool"), nullValue());
+        assertThat(YamlListStreamer.streamList(file, "version"), nullValue());
+        assertThat(YamlListStreamer.streamList(file, ""), nullValue());
+    }
+
+    @Test
+    public void shouldStreamNestedEntriesAndResolveAliases() throws IOException {
+        // given
+        File file = temporaryFolder.newFile();
+        Files.write(file.toPath(), Arrays.asList(
+            "defaults: &def",
+            "    world: 'overworld'",
+            "other: [1, 2]",
+            "groups:",
+            "    entries:",
+            "        - name: 'a'",
+            "          <<: *def",
+            "        - 42",
+            "        - [true, ~]"));
+
+        // when
+        List<Object> result = YamlListStreamer.streamList(file, "groups.entries").collect(Collectors.toList());
+
+        // then
+        Map<String, Object> expectedMap = new HashMap<>();
+        expectedMap.put("name", "a");
+        expectedMap.put("world", "overworld");
+        assertThat(result, hasSize(3));
+        assertThat(result.get(0), equalTo(expectedMap));
+        assertThat(result.get(1), equalTo(42));
+        assertThat(result.get(2), equalTo(Arrays.asList(true, null)));
+    }
+
+    @Test
+    public void shouldStreamListFromMergedMapping() throws IOException {
+        // given
+        File file = temporaryFolder.newFile();
+        Files.write(file.toPath(), Arrays.asList(
+            "defaults: &def",
+            "    names: ['a', 'b']",
+            "groups:",
+            "    <<: *def",
+            "    other: 3"));
+
+        // when
+        List<Object> result = YamlListStreamer.streamList(file, "groups.names").collect(Collectors.toList());
+
+        // then
+        assertThat(result, contains("a", "b"));
+        assertThat(YamlListStreamer.streamList(file, "groups.missing"), nullValue());
+    }
+
+    @Test
+    public void shouldWrapParseErrors() throws IOException {
+        // given
+        File file = temporaryFolder.newFile();
+        Files.write(file.toPath(), Arrays.asList(
+            "list:",
+            "    - 'a'",
+            "    - 'b",
+            "other: 3"));
+        Stream<Object> stream = YamlListStreamer.streamList(file, "list");
+
+        // when / then
+        verifyException(() -> stream.collect(Collectors.toList()),
+            ConfigMeException.class, "Could not read list entry");
+    }
+
+    @Test
+    public void shouldProvideListStreamFromResource() {
+        // given
+        File file = TestUtils.copyFileFromResources("/config-sample.yml", temporaryFolder);
+        PropertyResource resource = new YamlFileResource(file);
+
+        // when
+        List<Object> result = resource.getListStream("sample.ratio.fields").collect(Collectors.toList());
+
+        // then
+        assertThat(result, contains("Australia", "Burundi", "Colombia"));
+        assertThat(resource.getListStream("sample.ratio.order"), nullValue());
+    }
+
+    @Test
+    public void shouldStreamFromCompressedFileWithReaderOptions() throws IOException {
+        // given
+        File file = temporaryFolder.newFile("list.yml.gz");
+        try (OutputStream output = new GZIPOutputStream(new FileOutputStream(file))) {
+            output.write("bans:\n    - 'a'\n    - 'b'\n    - 'c'\n".getBytes(StandardCharsets.UTF_8));
+        }
+        ReaderOptions options = new ReaderOptions();
+        options.setMaxDocumentSize(1000);
+        PropertyResource resource = new YamlFileResource(file, options);
+
+        // when
+        List<Object> result = resource.getListStream("bans").collect(Collectors.toList());
+        resource.setValue("bans", Arrays.asList("x", "y"));
+        List<Object> resultAfterSet = resource.getListStream("bans").collect(Collectors.toList());
+
+        // then
+        assertThat(result, contains("a", "b", "c"));
+        assertThat(resultAfterSet, contains("x", "y"));
+    }
+
+    @Test
+    public void shouldApplyMaximumDocumentSize() throws IOException {
+        // given
+        File file = temporaryFolder.newFile();
+        Files.write(file.toPath(), Arrays.asList("list:", "    - 'a'", "    - 'b'", "other: 3"));
+        ReaderOptions options = new ReaderOptions();
+        options.setMaxDocumentSize(15);
+
+        // when / then
+        verifyException(() -> YamlListStreamer.streamList(file, "list", options).collect(Collectors.toList()),
+            ConfigMeException.class, "Could not read list 'list'");
+    }
+}
@@ -0,0 +1,172 @@
+package ch.jalu.configme.resource.binary;
+
+import ch.jalu.configme.exception.ConfigMeException;
+import ch.jalu.configme.resource.StringPool;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static ch.jalu.configme.TestUtils.verifyException;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link BinaryTreeCodec}.
+ */
+public class BinaryTreeCodecTest {
+
+    @Test
+    public void shouldEncodeAndDecodeTree() {
+        // given
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("int", 42);
+        root.put("long", 12_345_678_901L);
+        root.put("bigInt", new BigInteger("123456789012345678901234567890"));
+        root.put("double", -3.25);
+        root.put("true", true);
+        root.put("false", false);
+        root.put("null", null);
+        root.put("string", "Übersicht ✓");
+        root.put("date", new Date(1_500_000_000_000L));
+        Map<Object, Object> section = new LinkedHashMap<>();
+        section.put("list", new ArrayList<>(Arrays.asList("a", 1, null, "a")));
+        section.put(7, "non-string key");
+        root.put("section", section);
+
+        // when
+        Object result = BinaryTreeCodec.decode(ByteBuffer.wrap(BinaryTreeCodec.encode(root)), null);
+
+        // then
+        assertThat(result, equalTo(root));
+        assertThat(((Map<?, ?>) result).keySet(), contains(root.keySet().toArray()));
+        assertThat(((Map<?, ?>) result).get("long"), instanceOf(Long.class));
+        assertThat(((Map<?, ?>) result).get("section"), instanceOf(LinkedHashMap.class));
+    }
+
+    @Test
+    public void shouldEncodeBinaryValue() {
+        // given
+        Map<String, Object> root = new HashMap<>();
+        root.put("binary", new byte[]{1, 2, 3});
+
+        // when
+        Map<?, ?> result = (Map<?, ?>) BinaryTreeCodec.decode(ByteBuffer.wrap(BinaryTreeCodec.encode(root)), null);
+
+        // then
+        assertThat(result.get("binary"), equalTo(new byte[]{1, 2, 3}));
+    }
+
+    @Test
+    public void shouldDeduplicateDecodedStringsWithPool() {
+        // given
+        StringPool pool = new StringPool();
+        List<String> list = Arrays.asList("world", "world");
+        byte[] encoded = BinaryTreeCodec.encode(list);
+
+        // when
+        List<?> result1 = (List<?>) BinaryTreeCodec.decode(ByteBuffer.wrap(encoded), pool);
+        List<?> result2 = (List<?>) BinaryTreeCodec.decode(ByteBuffer.wrap(encoded), pool);
+
+        // then
+        assertThat(result1.get(0), sameInstance(result1.get(1)));
+        assertThat(result1.get(0), sameInstance(result2.get(0)));
+    }
+
+    @Test
+    public void shouldEncodeSharedNodesAsReferences() {
+        // given
+        List<Object> node = Arrays.asList("lol", "lol");
+        for (int i = 0; i < 30; ++i) {
+            node = Arrays.asList(node, node); // 2^30 leaves if expanded
+        }
+
+        // when
+        byte[] encoded = BinaryTreeCodec.encode(node);
+        List<?> decoded = (List<?>) BinaryTreeCodec.decode(ByteBuffer.wrap(encoded), null);
+
+        // then
+        assertThat(encoded.length < 200, equalTo(true));
+        assertThat(decoded.get(1), sameInstance(decoded.get(0)));
+        Object leaf = decoded;
+        for (int i = 0; i < 30; ++i) {
+            leaf = ((List<?>) leaf).get(1);
+        }
+        assertThat((List<?>) leaf, contains("lol", "lol"));
+    }
+
+    @Test
+    public void shouldEncodeCyclicNodes() {
+        // given
+        List<Object> list = new ArrayList<>();
+        list.add(1);
+        list.add(list);
+        Map<String, Object> root = new LinkedHashMap<>();
+        root.put("a", list);
+        root.put("self", root);
+
+        // when
+        Map<?, ?> decoded = (Map<?, ?>) BinaryTreeCodec.decode(ByteBuffer.wrap(BinaryTreeCodec.encode(root)), null);
+
+        // then
+        assertThat(decoded.get("self"), sameInstance(decoded));
+        List<?> decodedList = (List<?>) decoded.get("a");
+        assertThat(decodedList.get(0), equalTo(1));
+        assertThat(decodedList.get(1), sameInstance(decodedList));
+    }
+
+    @Test
+    public void shouldThrowForInvalidReference() {
+        // given
+        byte[] invalidReference = {0, 8, 1, 12, 3}; // no strings, list with one reference to node 3
+
+        // when / then
+        verifyException(() -> BinaryTreeCodec.decode(ByteBuffer.wrap(invalidReference), null),
+            ConfigMeException.class, "corrupt");
+    }
+
+    @Test
+    public void shouldThrowForUnsupportedType() {
+        // given
+        Map<String, Object> root = new HashMap<>();
+        root.put("object", new Object());
+
+        // when / then
+        verifyException(() -> BinaryTreeCodec.encode(root), ConfigMeException.class, "Unsupported value");
+    }
+
+    @Test
+    public void shouldThrowForCorruptData() {
+        // given
+        byte[] encoded = BinaryTreeCodec.encode(Arrays.asList("abc", 3));
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length - 2);
+
+        // when / then
+        verifyException(() -> BinaryTreeCodec.decode(ByteBuffer.wrap(truncated), null),
+            ConfigMeException.class, "corrupt");
+    }
+
+    @Test
+    public void shouldThrowForInvalidCounts() {
+        // given
+        byte[] negativeStringCount = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F};
+        byte[] hugeListSize = {0, 8, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07};
+        byte[] hugeBinaryLength = {0, 10, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x7F};
+
+        // when / then
+        for (byte[] data : Arrays.asList(negativeStringCount, hugeListSize, hugeBinaryLength)) {
+            verifyException(() -> BinaryTreeCodec.decode(ByteBuffer.wrap(data), null),
+                ConfigMeException.class, "corrupt");
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package ch.jalu.configme.resource.binary;
+
+import ch.jalu.configme.TestUtils;
+import ch.jalu.configme.exception.ConfigMeException;
+import ch.jalu.configme.resource.PropertyResource;
+import ch.jalu.configme.resource.YamlFileResource;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static ch.jalu.configme.TestUtils.verifyException;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link MappedTreeReader} and {@link MappedTreePublisher}.
+ */
+public class MappedTreeReaderTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldReadPublishedValues() throws IOException {
+        // given
+        File file = temporaryFolder.newFile("config.mapped");
+        PropertyResource resource =
+            new YamlFileResource(TestUtils.copyFileFromResources("/config-sample.yml", temporaryFolder));
+
+        // when
+        try (MappedTreePublisher publisher = new MappedTreePublisher(file)) {
+            publisher.publish(resource);
+        }
+        MappedTreeReader reader = new MappedTreeReader(file);
+
+        // then
+        assertThat(reader.getSequence(), equalTo(2L));
+        assertThat(reader.getObject("test.duration"), equalTo(22));
+        assertThat(reader.getObject("test.systemName"), equalTo("Custom sys name"));
+        assertThat(reader.getTypedObject("features.boring.skip", Boolean.class), equalTo(false));
+        assertThat((Iterable<?>) reader.getObject("features.boring.colors"), contains("beige", "gray"));
+        assertThat(reader.getObject("features.unknown"), nullValue());
+        assertThat(reader.getObject("test.duration.sub"), nullValue());
+        assertThat(reader.getObject(""), equalTo(resource.getObject("")));
+    }
+
+    @Test
+    public void shouldReadNewVersionsOfGrowingFile() throws IOException {
+        // given
+        File file = temporaryFolder.newFile("config.mapped");
+        MappedTreePublisher publisher = new MappedTreePublisher(file);
+        publisher.publish(createTree(1));
+        MappedTreeReader reader = new MappedTreeReader(file);
+        long initialSequence = reader.getSequence();
+
+        // when
+        publisher.publish(createTree(2000));
+
+        // then
+        assertThat(reader.getSequence(), equalTo(initialSequence + 2));
+        assertThat(reader.getObject("entries.key1999.value"), equalTo(1999));
+        assertThat(reader.getObject("entries.key2000"), nullValue());
+        publisher.close();
+    }
+
+    @Test
+    public void shouldContinueSequenceOfExistingFile() throws IOException {
+        // given
+        File file = temporaryFolder.newFile("config.mapped");
+        try (MappedTreePublisher publisher = new MappedTreePublisher(file)) {
+            publisher.publish(createTree(3));
+        }
+
+        // when
+        long sequence;
+        try (MappedTreePublisher publisher = new MappedTreePublisher(file)) {
+            sequence = publisher.publish(createTree(4));
+        }
+
+        // then
+        assertThat(sequence, equalTo(4L));
+        assertThat(new MappedTreeReader(file).getObject("entries.key3.value"), equalTo(3));
+    }
+
+    @Test
+    public void shouldDiscardTreeOfPublisherWhichStoppedWhileWriting() throws IOException {
+        // given
+        File file = temporaryFolder.newFile("config.mapped");
+        try (MappedTreePublisher publisher = new MappedTreePublisher(file)) {
+            publisher.publish(createTree(3));
+        }
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            randomAccessFile.seek(MappedTreePublisher.SEQUENCE_OFFSET);
+            randomAccessFile.writeLong(3); // odd sequence: a new tree was being written
+            randomAccessFile.seek(MappedTreePublisher.HEADER_LENGTH);
+            randomAccessFile.write(new byte[]{-1, -1, -1, -1, -1, -1, -1, -1});
+        }
+
+        // when
+        MappedTreePublisher publisher = new MappedTreePublisher(file);
+        MappedTreeReader reader = new MappedTreeReader(file);
+
+        // then
+        assertThat(publisher.getSequence(), equalTo(4L));
+        assertThat(reader.getSequence(), equalTo(4L));
+        assertThat(reader.getObject(""), nullValue());
+        assertThat(reader.getObject("entries.key1.value"), nullValue());
+
+        // when (2)
+        publisher.publish(createTree(2));
+
+        // then (2)
+        assertThat(reader.getSequence(), equalTo(6L));
+        assertThat(reader.getObject("entries.key1.value"), equalTo(1));
+        publisher.close();
+    }
+
+    @Test
+    public void shouldAllowOnlyOnePublisherAndNoModifications() throws IOException {
+        // given
+        File file = temporaryFolder.newFile("config.mapped");
+        MappedTreePublisher publisher = new MappedTreePublisher(file);
+        publisher.publish(createTree(1));
+        MappedTreeReader reader = new MappedTreeReader(file);
+
+        // when / then
+        verifyException(() -> new MappedTreePublisher(file), ConfigMeException.class, "another publisher");
+        verifyException(() -> reader.set("entries", null), ConfigMeException.class, "cannot be modified");
+        publisher.close();
+    }
+
+    @Test
+    public void shouldRejectFileWhichIsNotPublishedTree() throws IOException {
+        // given
+        File file = TestUtils.copyFileFromResources("/config-sample.yml", temporaryFolder);
+
+        // when / then
+        verifyException(() -> new MappedTreeReader(file), ConfigMeException.class, "not a published tree");
+    }
+
+    @Test
+    public void shouldReadConsistentVersionsWhilePublishing() throws Exception {
+        // given
+        File file = temporaryFolder.newFile("config.mapped");
+        MappedTreePublisher publisher = new MappedTreePublisher(file);
+        publisher.publish(createTreeWithCount(1));
+        MappedTreeReader reader = new MappedTreeReader(file);
+        AtomicBoolean isDone = new AtomicBoolean();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> publishing = executor.submit(() -> {
+            for (int i = 0; !isDone.get(); ++i) {
+                publisher.publish(createTreeWithCount(1 + i % 40));
+            }
+        });
+
+        // when
+        List<String> inconsistentReads = new ArrayList<>();
+        try {
+            for (int i = 0; i < 2000; ++i) {
+                Map<?, ?> tree = (Map<?, ?>) reader.getObject("");
+                Map<?, ?> entries = (Map<?, ?>) tree.get("entries");
+                if (!tree.get("count").equals(entries.size())) {
+                    inconsistentReads.add(tree.get("count") + " != " + entries.size());
+                }
+            }
+        } finally {
+            isDone.set(true);
+            publishing.get();
+            executor.shutdown();
+            publisher.close();
+        }
+
+        // then
+        assertThat(inconsistentReads, empty());
+    }
+
+    @Test
+    public void shouldRejectInvalidSizesAndOffsets() throws IOException {
+        // given
+        File file = temporaryFolder.newFile("config.mapped");
+        try (MappedTreePublisher publisher = new MappedTreePublisher(file)) {
+            publisher.publish(createTree(2));
+        }
+        MappedTreeReader reader = new MappedTreeReader(file);
+        int rootIndex;
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            randomAccessFile.seek(MappedTreePublisher.HEADER_LENGTH);
+            rootIndex = MappedTreePublisher.HEADER_LENGTH + randomAccessFile.readInt();
+            randomAccessFile.seek(rootIndex + 1);
+            randomAccessFile.writeInt(Integer.MAX_VALUE); // size of the root map
+        }
+
+        // when / then
+        verifyException(() -> reader.getObject(""), ConfigMeException.class, "is corrupt");
+
+        // given (2)
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            randomAccessFile.seek(rootIndex + 1);
+            randomAccessFile.writeInt(1);
+            randomAccessFile.writeInt(rootIndex - MappedTreePublisher.HEADER_LENGTH); // key refers to the map itself
+        }
+
+        // when / then (2)
+        verifyException(() -> reader.getObject(""), ConfigMeException.class, "is corrupt");
+    }
+
+    private static Map<String, Object> createTreeWithCount(int entries) {
+        Map<String, Object> tree = createTree(entries);
+        tree.put("count", entries);
+        return tree;
+    }
+
+    private static Map<String, Object> createTree(int entries) {
+        Map<String, Object> entryMap = new LinkedHashMap<>();
+        for (int i = 0; i < entries; ++i) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("value", i);
+            entry.put("name", "Entry " + i);
+            entryMap.put("key" + i, entry);
+        }
+        Map<String, Object> tree = new LinkedHashMap<>();
+        tree.put("entries", entryMap);
+        return tree;
+    }
+}
@@ -0,0 +1,105 @@
+package ch.jalu.configme.resource.binary;
+
+import ch.jalu.configme.TestUtils;
+import ch.jalu.configme.resource.ReaderOptions;
+import ch.jalu.configme.resource.YamlFileReader;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link TreeSnapshotFile}.
+ */
+public class TreeSnapshotFileTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void shouldSaveAndLoadSnapshot() throws IOException {
+        // given
+        TreeSnapshotFile snapshotFile = new TreeSnapshotFile(temporaryFolder.newFile());
+        byte[] hash = TreeSnapshotFile.hash("content".getBytes());
+        Map<String, Object> tree = new HashMap<>();
+        tree.put("list", Arrays.asList(1, 2, 3));
+
+        // when
+        snapshotFile.save(hash, tree);
+        Object result = snapshotFile.load(hash, null);
+
+        // then
+        assertThat(result, equalTo(tree));
+    }
+
+    @Test
+    public void shouldNotLoadSnapshotForOtherHash() throws IOException {
+        // given
+        TreeSnapshotFile snapshotFile = new TreeSnapshotFile(temporaryFolder.newFile());
+        snapshotFile.save(TreeSnapshotFile.hash("content".getBytes()), Collections.singletonMap("a", 1));
+
+        // when
+        Object result = snapshotFile.load(TreeSnapshotFile.hash("other content".getBytes()), null);
+
+        // then
+        assertThat(result, nullValue());
+    }
+
+    @Test
+    public void shouldNotLoadInvalidOrMissingSnapshot() throws IOException {
+        // given
+        File file = temporaryFolder.newFile();
+        Files.write(file.toPath(), "not a snapshot".getBytes());
+        byte[] hash = TreeSnapshotFile.hash(new byte[0]);
+
+        // when / then
+        assertThat(new TreeSnapshotFile(file).load(hash, null), nullValue());
+        assertThat(new TreeSnapshotFile(new File(file.getParentFile(), "bogus")).load(hash, null), nullValue());
+    }
+
+    @Test
+    public void shouldUseSnapshotInReader() throws IOException {
+        // given
+        File config = TestUtils.copyFileFromResources("/config-sample.yml", temporaryFolder);
+        ReaderOptions options = new ReaderOptions();
+        options.setSnapshotSidecar(true);
+        TreeSnapshotFile snapshotFile = TreeSnapshotFile.forSource(config);
+
+        // when
+        YamlFileReader reader = new YamlFileReader(config, options);
+
+        // then
+        assertThat(snapshotFile.getFile().isFile(), equalTo(true));
+        byte[] hash = TreeSnapshotFile.hash(Files.readAllBytes(config.toPath()));
+        assertThat(snapshotFile.load(hash, null), equalTo(reader.getObject("")));
+
+        // when (2) - snapshot with different content but same hash is used
+        Map<String, Object> modifiedTree = new HashMap<>();
+        modifiedTree.put("version", 1234);
+        snapshotFile.save(hash, modifiedTree);
+        reader.reload();
+
+        // then (2)
+        assertThat(reader.getObject("version"), equalTo(1234));
+
+        // when (3) - file changes, so snapshot must not be used anymore
+        Files.write(config.toPath(), "version: 77".getBytes());
+        reader.reload();
+
+        // then (3)
+        assertThat(reader.getObject("version"), equalTo(77));
+        assertThat(snapshotFile.load(TreeSnapshotFile.hash("version: 77".getBytes()), null),
+            equalTo(Collections.singletonMap("version", 77)));
+    }
+}
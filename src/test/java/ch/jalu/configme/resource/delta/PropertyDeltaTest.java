@@ -0,0 +1,108 @@
+package ch.jalu.configme.resource.delta;
+
+import ch.jalu.configme.exception.ConfigMeException;
+import ch.jalu.configme.resource.MemoryPropertyResource;
+import ch.jalu.configme.resource.PropertyResource;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static ch.jalu.configme.TestUtils.verifyException;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link PropertyDelta}, {@link DeltaPublisher} and {@link LoopbackDeltaTransport}.
+ */
+public class PropertyDeltaTest {
+
+    private static final String YAML = String.join("\n",
+        "test:",
+        "    duration: 22",
+        "    systemName: 'Custom sys name'",
+        "features:",
+        "    boring:",
+        "        colors: ['beige', 'gray']",
+        "        dustLevel: 2",
+        "    cool:",
+        "        enabled: true",
+        "");
+
+    @Test
+    public void shouldComputeEncodeAndApplyDelta() {
+        // given
+        PropertyResource oldResource = MemoryPropertyResource.fromYaml(YAML);
+        PropertyResource newResource = MemoryPropertyResource.fromYaml(YAML);
+        newResource.setValue("test.duration", 30);
+        newResource.setValue("features.boring.colors", Arrays.asList("red"));
+        newResource.setValue("features.cool", null);
+        newResource.setValue("new.entry", "value");
+
+        // when
+        PropertyDelta delta = PropertyDelta.compute(oldResource.getObject(""), newResource.getObject(""));
+        PropertyDelta decodedDelta = PropertyDelta.decode(ByteBuffer.wrap(delta.encode()));
+        decodedDelta.applyTo(oldResource);
+
+        // then
+        assertThat(decodedDelta.getOperations(), hasSize(4));
+        assertThat(oldResource.getObject(""), equalTo(newResource.getObject("")));
+    }
+
+    @Test
+    public void shouldRevertAppliedOperationsOnFailure() {
+        // given
+        PropertyResource resource = new MemoryPropertyResource() {
+            @Override
+            public void setValue(String path, Object value) {
+                if ("fail".equals(value)) {
+                    throw new ConfigMeException("Test failure");
+                }
+                super.setValue(path, value);
+            }
+        };
+        resource.setValue("a", 1);
+        PropertyResource target = MemoryPropertyResource.fromYaml("a: 2\nb: 'fail'\n");
+        PropertyDelta delta = PropertyDelta.compute(resource.getObject(""), target.getObject(""));
+
+        // when
+        verifyException(() -> delta.applyTo(resource), ConfigMeException.class, "Test failure");
+
+        // then
+        assertThat(resource.getInt("a"), equalTo(1));
+        assertThat(resource.contains("b"), equalTo(false));
+    }
+
+    @Test
+    public void shouldReplicateChangesOverTransport() {
+        // given
+        PropertyResource source = MemoryPropertyResource.fromYaml(YAML);
+        PropertyResource replica = MemoryPropertyResource.fromYaml(YAML);
+        LoopbackDeltaTransport transport = new LoopbackDeltaTransport();
+        transport.applyReceivedDeltas(replica);
+        DeltaPublisher publisher = new DeltaPublisher(source, transport);
+
+        // when
+        source.setValue("features.boring.dustLevel", 5);
+        PropertyDelta delta = publisher.publishChanges();
+        PropertyDelta emptyDelta = publisher.publishChanges();
+
+        // then
+        assertThat(delta.getOperations().get(0).getPath(), equalTo("features.boring.dustLevel"));
+        assertThat(emptyDelta.isEmpty(), equalTo(true));
+        assertThat(replica.getInt("features.boring.dustLevel"), equalTo(5));
+        assertThat(replica.getList("features.boring.colors"), contains("beige", "gray"));
+        assertThat(transport.getBytesSent(), lessThan((long) YAML.length()));
+    }
+
+    @Test
+    public void shouldRejectInvalidData() {
+        verifyException(() -> PropertyDelta.decode(ByteBuffer.wrap(new byte[]{1, 2, 3, 4, 5, 6, 7, 8})),
+            ConfigMeException.class, "not a property delta");
+        verifyException(() -> PropertyDelta.decode(ByteBuffer.wrap(new byte[]{1, 2})),
+            ConfigMeException.class, "incomplete");
+    }
+}
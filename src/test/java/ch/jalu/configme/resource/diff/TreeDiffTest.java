@@ -0,0 +1,118 @@
+package ch.jalu.configme.resource.diff;
+
+import ch.jalu.configme.configurationdata.ConfigurationData;
+import ch.jalu.configme.configurationdata.ConfigurationDataBuilder;
+import ch.jalu.configme.properties.Property;
+import ch.jalu.configme.resource.MemoryPropertyResource;
+import ch.jalu.configme.resource.PropertyResource;
+import ch.jalu.configme.samples.TestConfiguration;
+import org.junit.Test;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link TreeDiff}.
+ */
+public class TreeDiffTest {
+
+    private static final String YAML = String.join("\n",
+        "test:",
+        "    duration: 22",
+        "    systemName: 'Custom sys name'",
+        "features:",
+        "    boring:",
+        "        colors: ['beige', 'gray']",
+        "        dustLevel: 2",
+        "    cool:",
+        "        enabled: true",
+        "");
+
+    @Test
+    public void shouldReportAddedRemovedAndChangedPaths() {
+        // given
+        PropertyResource oldResource = MemoryPropertyResource.fromYaml(YAML);
+        PropertyResource newResource = MemoryPropertyResource.fromYaml(YAML);
+        newResource.setValue("test.duration", 30);
+        newResource.setValue("features.boring.colors", Arrays.asList("beige", "red"));
+        newResource.setValue("features.cool", null);
+        newResource.setValue("new.entry", "value");
+
+        // when
+        TreeDiff diff = TreeDiff.compute(oldResource, newResource);
+
+        // then
+        assertThat(diff.getChanges(), hasSize(4));
+        assertThat(findChange(diff, "test.duration").getType(), equalTo(TreeChange.Type.CHANGED));
+        assertThat(findChange(diff, "test.duration").getOldValue(), equalTo(22));
+        assertThat(findChange(diff, "features.boring.colors").getType(), equalTo(TreeChange.Type.CHANGED));
+        assertThat(findChange(diff, "features.cool").getType(), equalTo(TreeChange.Type.REMOVED));
+        assertThat(findChange(diff, "new").getType(), equalTo(TreeChange.Type.ADDED));
+        assertThat(TreeDiff.compute(oldResource, MemoryPropertyResource.fromYaml(YAML)).isEmpty(), equalTo(true));
+    }
+
+    @Test
+    public void shouldSkipSharedSubtrees() {
+        // given
+        Map<String, Object> sharedSection = new UnreadableMap();
+        Map<String, Object> oldTree = new HashMap<>();
+        oldTree.put("shared", sharedSection);
+        oldTree.put("value", 1);
+        Map<String, Object> newTree = new HashMap<>();
+        newTree.put("shared", sharedSection);
+        newTree.put("value", 2);
+
+        // when
+        TreeDiff diff = TreeDiff.compute(oldTree, newTree);
+
+        // then
+        assertThat(diff.getChanges(), hasSize(1));
+        assertThat(diff.getChanges().get(0).getPath(), equalTo("value"));
+    }
+
+    @Test
+    public void shouldMapChangesToProperties() {
+        // given
+        ConfigurationData configurationData = ConfigurationDataBuilder.collectData(TestConfiguration.class);
+        PropertyResource oldResource = MemoryPropertyResource.fromYaml(YAML);
+        PropertyResource newResource = MemoryPropertyResource.fromYaml(YAML);
+        newResource.setValue("test.duration", 30);
+        newResource.setValue("features.boring", null);
+
+        // when
+        Map<Property<?>, List<TreeChange>> changesByProperty =
+            TreeDiff.compute(oldResource, newResource).getChangesByProperty(configurationData);
+
+        // then
+        assertThat(changesByProperty.keySet(), containsInAnyOrder(TestConfiguration.DURATION_IN_SECONDS,
+            TestConfiguration.SKIP_BORING_FEATURES, TestConfiguration.BORING_COLORS, TestConfiguration.DUST_LEVEL));
+        List<TreeChange> dustLevelChanges = changesByProperty.get(TestConfiguration.DUST_LEVEL);
+        assertThat(dustLevelChanges, hasSize(1));
+        assertThat(dustLevelChanges.get(0).getPath(), equalTo("features.boring"));
+        assertThat(dustLevelChanges.get(0).getType(), equalTo(TreeChange.Type.REMOVED));
+    }
+
+    private static TreeChange findChange(TreeDiff diff, String path) {
+        return diff.getChanges().stream()
+            .filter(change -> change.getPath().equals(path))
+            .findFirst()
+            .orElseThrow(() -> new IllegalStateException("No change for path '" + path + "'"));
+    }
+
+    /** Map which fails if its content is accessed, to verify that a subtree is skipped. */
+    private static final class UnreadableMap extends AbstractMap<String, Object> {
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            throw new UnsupportedOperationException("Map should not be read");
+        }
+    }
+}
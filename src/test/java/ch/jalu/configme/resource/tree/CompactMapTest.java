@@ -0,0 +1,70 @@
+package ch.jalu.configme.resource.tree;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.anEmptyMap;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link CompactMap}.
+ */
+public class CompactMapTest {
+
+    @Test
+    public void shouldCopyMapWithSortedKeys() {
+        // given
+        Map<String, Object> map = new HashMap<>();
+        map.put("world", "nether");
+        map.put("enabled", true);
+        map.put("permission", null);
+
+        // when
+        CompactMap result = CompactMap.copyOf(map);
+
+        // then
+        assertThat(result, equalTo(map));
+        assertThat(result.keySet(), contains("enabled", "permission", "world"));
+        assertThat(result.get("world"), equalTo("nether"));
+        assertThat(result.containsKey("permission"), equalTo(true));
+        assertThat(result.get("bogus"), nullValue());
+        assertThat(result.get(3), nullValue());
+        assertThat(result.hashCode(), equalTo(map.hashCode()));
+    }
+
+    @Test
+    public void shouldReturnNewMapsForModifications() {
+        // given
+        CompactMap map = CompactMap.empty().with("b", 2).with("d", 4);
+
+        // when
+        CompactMap withA = map.with("a", 1);
+        CompactMap withC = map.with("c", 3);
+        CompactMap replacedD = map.with("d", 44);
+        CompactMap withoutB = map.without("b");
+
+        // then
+        assertThat(map.keySet(), contains("b", "d"));
+        assertThat(withA.keySet(), contains("a", "b", "d"));
+        assertThat(withC.keySet(), contains("b", "c", "d"));
+        assertThat(replacedD.get("d"), equalTo(44));
+        assertThat(withoutB.keySet(), contains("d"));
+        assertThat(withoutB.without("d"), anEmptyMap());
+        assertThat(map.without("bogus"), sameInstance(map));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void shouldNotAllowModifications() {
+        // given
+        CompactMap map = CompactMap.empty().with("a", 1);
+
+        // when
+        map.put("b", 2);
+    }
+}
@@ -0,0 +1,127 @@
+package ch.jalu.configme.resource.tree;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.anEmptyMap;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link CompactTree}.
+ */
+public class CompactTreeTest {
+
+    @Test
+    public void shouldConvertTree() {
+        // given
+        Map<String, Object> root = new LinkedHashMap<>();
+        Map<String, Object> section = new LinkedHashMap<>();
+        section.put("list", new ArrayList<>(Arrays.asList("a", "b")));
+        section.put("number", 3);
+        root.put("section", section);
+        Map<Object, Object> nonStringKeys = new HashMap<>();
+        nonStringKeys.put(1, "one");
+        root.put("numbers", nonStringKeys);
+
+        // when
+        Object result = CompactTree.compact(root);
+
+        // then
+        assertThat(result, equalTo(root));
+        assertThat(result, instanceOf(CompactMap.class));
+        CompactMap compactRoot = (CompactMap) result;
+        assertThat(compactRoot.get("section"), instanceOf(CompactMap.class));
+        assertThat(((Map<?, ?>) compactRoot.get("section")).get("list"), instanceOf(CompactList.class));
+        assertThat(compactRoot.get("numbers"), not(instanceOf(CompactMap.class)));
+        assertThat(compactRoot.get("numbers"), equalTo(nonStringKeys));
+    }
+
+    @Test
+    public void shouldSetValuesAndShareUnchangedNodes() {
+        // given
+        CompactMap root = (CompactMap) CompactTree.compact(createTree());
+        Object unchangedSection = root.get("other");
+
+        // when
+        CompactMap result = CompactTree.set(root, new String[]{"section", "number"}, 4);
+
+        // then
+        assertThat(result.get("other"), sameInstance(unchangedSection));
+        assertThat(((Map<?, ?>) result.get("section")).get("number"), equalTo(4));
+        assertThat(((Map<?, ?>) root.get("section")).get("number"), equalTo(3));
+    }
+
+    @Test
+    public void shouldCreateIntermediateMaps() {
+        // given
+        CompactMap root = (CompactMap) CompactTree.compact(createTree());
+
+        // when
+        CompactMap result = CompactTree.set(root, new String[]{"section", "number", "sub", "value"}, "test");
+
+        // then
+        Map<?, ?> number = (Map<?, ?>) ((Map<?, ?>) result.get("section")).get("number");
+        assertThat(number.keySet(), contains("sub"));
+        assertThat(((Map<?, ?>) number.get("sub")).get("value"), equalTo("test"));
+    }
+
+    @Test
+    public void shouldRemoveValueAndClearIntermediateValuesForNull() {
+        // given
+        CompactMap root = (CompactMap) CompactTree.compact(createTree());
+
+        // when
+        CompactMap removed = CompactTree.set(root, new String[]{"section", "list"}, null);
+        CompactMap cleared = CompactTree.set(root, new String[]{"section", "number", "sub", "value"}, null);
+
+        // then
+        assertThat(((Map<?, ?>) removed.get("section")).keySet(), contains("number"));
+        assertThat((Map<?, ?>) ((Map<?, ?>) cleared.get("section")).get("number"), anEmptyMap());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldShareUnchangedNodesWithPreviousTree() {
+        // given
+        Object previous = CompactTree.compact(createTree());
+        Map<String, Object> changedTree = createTree();
+        ((Map<String, Object>) changedTree.get("section")).put("number", 4);
+
+        // when
+        Object unchangedResult = CompactTree.compact(createTree(), previous);
+        Map<?, ?> changedResult = (Map<?, ?>) CompactTree.compact(changedTree, previous);
+
+        // then
+        assertThat(unchangedResult, sameInstance(previous));
+        Map<?, ?> previousMap = (Map<?, ?>) previous;
+        assertThat(changedResult, not(sameInstance(previous)));
+        assertThat(changedResult.get("other"), sameInstance(previousMap.get("other")));
+        Map<?, ?> changedSection = (Map<?, ?>) changedResult.get("section");
+        assertThat(changedSection.get("number"), equalTo(4));
+        assertThat(changedSection.get("list"), sameInstance(((Map<?, ?>) previousMap.get("section")).get("list")));
+    }
+
+    private static Map<String, Object> createTree() {
+        Map<String, Object> section = new HashMap<>();
+        List<String> list = Arrays.asList("a", "b");
+        section.put("list", list);
+        section.put("number", 3);
+        Map<String, Object> other = new HashMap<>();
+        other.put("enabled", true);
+        Map<String, Object> root = new HashMap<>();
+        root.put("section", section);
+        root.put("other", other);
+        return root;
+    }
+}
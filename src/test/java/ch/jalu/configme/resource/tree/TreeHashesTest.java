@@ -0,0 +1,83 @@
+package ch.jalu.configme.resource.tree;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Test for {@link TreeHashes}.
+ */
+public class TreeHashesTest {
+
+    @Test
+    public void shouldHaveSameHashForEqualContent() {
+        // given
+        Map<String, Object> tree1 = createTree();
+        Map<String, Object> tree2 = new LinkedHashMap<>();
+        tree2.put("version", 3);
+        tree2.put("section", createTree().get("section"));
+
+        // when
+        long hash1 = TreeHashes.hash(tree1);
+        long hash2 = TreeHashes.hash(tree2);
+        long compactHash = TreeHashes.hash(CompactTree.compact(tree1));
+
+        // then
+        assertThat(hash1, equalTo(hash2));
+        assertThat(compactHash, equalTo(hash1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void shouldHaveDifferentHashesForDifferentContent() {
+        // given
+        long hash = TreeHashes.hash(createTree());
+        Map<String, Object> changedValue = createTree();
+        changedValue.put("version", 4);
+        Map<String, Object> changedType = createTree();
+        changedType.put("version", 3L);
+        Map<String, Object> changedOrder = createTree();
+        ((Map<String, Object>) changedOrder.get("section")).put("list", Arrays.asList("b", "a"));
+
+        // when / then
+        assertThat(TreeHashes.hash(changedValue), not(equalTo(hash)));
+        assertThat(TreeHashes.hash(changedType), not(equalTo(hash)));
+        assertThat(TreeHashes.hash(changedOrder), not(equalTo(hash)));
+        assertThat(TreeHashes.hash("a"), not(equalTo(TreeHashes.hash(null))));
+    }
+
+    @Test
+    public void shouldCacheHashesOfCompactNodes() {
+        // given
+        CompactMap root = (CompactMap) CompactTree.compact(createTree());
+        long rootHash = TreeHashes.hash(root);
+        Object section = root.get("section");
+
+        // when
+        CompactMap newRoot = CompactTree.set(root, new String[]{"version"}, 5);
+
+        // then
+        assertThat(TreeHashes.getCachedHash(section), equalTo(TreeHashes.hash(createTree().get("section"))));
+        assertThat(TreeHashes.getCachedHash(newRoot), equalTo(0L));
+        assertThat(TreeHashes.hash(newRoot), not(equalTo(rootHash)));
+        assertThat(TreeHashes.hash(CompactTree.set(newRoot, new String[]{"version"}, 3)), equalTo(rootHash));
+    }
+
+    private static Map<String, Object> createTree() {
+        Map<String, Object> section = new HashMap<>();
+        section.put("list", Arrays.asList("a", "b"));
+        section.put("enabled", true);
+        section.put("ratio", 0.5);
+        Map<String, Object> root = new HashMap<>();
+        root.put("section", section);
+        root.put("version", 3);
+        return root;
+    }
+}